@@ -605,6 +605,26 @@ public class WoPeDGeneralConfiguration extends WoPeDConfiguration implements IGe
     getConfDocument().getConfiguration().getTools().getWoflan().setWoflanPath(woflanPath);
   }
 
+  /**
+   * Returns whether the soundness check reduces the state space by stubborn sets.
+   *
+   * @return boolean
+   */
+  public boolean isUseStubbornSets() {
+    if (getConfDocument().getConfiguration().getTools().isSetStubbornSets())
+      return getConfDocument().getConfiguration().getTools().getStubbornSets();
+    else return ConfigurationManager.getStandardConfiguration().isUseStubbornSets();
+  }
+
+  /**
+   * Sets whether the soundness check reduces the state space by stubborn sets.
+   *
+   * @param useStubbornSets true to reduce the state space
+   */
+  public void setUseStubbornSets(boolean useStubbornSets) {
+    getConfDocument().getConfiguration().getTools().setStubbornSets(useStubbornSets);
+  }
+
   /**
    * Returns the smartEditing.
    *
@@ -1626,6 +1646,50 @@ public class WoPeDGeneralConfiguration extends WoPeDConfiguration implements IGe
     getConfDocument().getConfiguration().getBusinessdashboard().setMaxvalues(maxvalues);
   }
 
+  @Override
+  public int getBusinessDashboardQueueCapacity() {
+    BusinessDashboard bd = getConfDocument().getConfiguration().getBusinessdashboard();
+
+    if (bd.isSetQueuecapacity()) {
+      return bd.getQueuecapacity();
+    } else
+      return ConfigurationManager.getStandardConfiguration().getBusinessDashboardQueueCapacity();
+  }
+
+  @Override
+  public void setBusinessDashboardQueueCapacity(int capacity) {
+    getConfDocument().getConfiguration().getBusinessdashboard().setQueuecapacity(capacity);
+  }
+
+  @Override
+  public boolean getBusinessDashboardDropWhenFull() {
+    BusinessDashboard bd = getConfDocument().getConfiguration().getBusinessdashboard();
+
+    if (bd.isSetDropwhenfull()) {
+      return bd.getDropwhenfull();
+    } else
+      return ConfigurationManager.getStandardConfiguration().getBusinessDashboardDropWhenFull();
+  }
+
+  @Override
+  public void setBusinessDashboardDropWhenFull(boolean drop) {
+    getConfDocument().getConfiguration().getBusinessdashboard().setDropwhenfull(drop);
+  }
+
+  @Override
+  public int getBusinessDashboardBatchSize() {
+    BusinessDashboard bd = getConfDocument().getConfiguration().getBusinessdashboard();
+
+    if (bd.isSetBatchsize()) {
+      return bd.getBatchsize();
+    } else return ConfigurationManager.getStandardConfiguration().getBusinessDashboardBatchSize();
+  }
+
+  @Override
+  public void setBusinessDashboardBatchSize(int size) {
+    getConfDocument().getConfiguration().getBusinessdashboard().setBatchsize(size);
+  }
+
   // YAWL
 
   /**
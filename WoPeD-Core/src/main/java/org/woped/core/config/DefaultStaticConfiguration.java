@@ -79,6 +79,9 @@ public class DefaultStaticConfiguration implements IGeneralConfiguration {
   public static int DEFAULT_BUSINESSDASHBOARD_PORT = 2711;
   public static int DEFAULT_BUSINESSDASHBOARD_MAXVALUES = 1000;
   public static boolean DEFAULT_BUSINESSDASHBOARD_USEBYDEFAULT = false;
+  public static int DEFAULT_BUSINESSDASHBOARD_QUEUECAPACITY = 1024;
+  public static boolean DEFAULT_BUSINESSDASHBOARD_DROPWHENFULL = false;
+  public static int DEFAULT_BUSINESSDASHBOARD_BATCHSIZE = 64;
   public static final Duration DEFAULT_AUTOSAVE_PERIOD = Duration.ofSeconds(30);
 
   // Booleans for alpha-functions (TEST) later integration in configuration &
@@ -141,6 +144,9 @@ public class DefaultStaticConfiguration implements IGeneralConfiguration {
   private int businessdashboard_serverport = DEFAULT_BUSINESSDASHBOARD_PORT;
   private int businessdashboard_maxvalues = DEFAULT_BUSINESSDASHBOARD_MAXVALUES;
   private boolean businessdashboard_usebydefault = DEFAULT_BUSINESSDASHBOARD_USEBYDEFAULT;
+  private int businessdashboard_queuecapacity = DEFAULT_BUSINESSDASHBOARD_QUEUECAPACITY;
+  private boolean businessdashboard_dropwhenfull = DEFAULT_BUSINESSDASHBOARD_DROPWHENFULL;
+  private int businessdashboard_batchsize = DEFAULT_BUSINESSDASHBOARD_BATCHSIZE;
   // Understandability Coloring
   private boolean colorOn = false;
   private int coloringAlgorithmMode = 0;
@@ -183,6 +189,9 @@ public class DefaultStaticConfiguration implements IGeneralConfiguration {
   private String registrationEmail;
   private int launchCounter;
 
+  // Soundness check
+  private boolean useStubbornSets = false;
+
   // YAWL
   private boolean yawlEnabled = false;
 
@@ -669,6 +678,14 @@ public class DefaultStaticConfiguration implements IGeneralConfiguration {
 
   public void setUseWoflanDLL(boolean useWoflanDLL) {}
 
+  public boolean isUseStubbornSets() {
+    return useStubbornSets;
+  }
+
+  public void setUseStubbornSets(boolean useStubbornSets) {
+    this.useStubbornSets = useStubbornSets;
+  }
+
   public void removeAllRecentFiles() {}
 
   public void removeRecentFile(String name, String path) {}
@@ -1102,6 +1119,36 @@ public class DefaultStaticConfiguration implements IGeneralConfiguration {
     this.businessdashboard_maxvalues = maxvalues;
   }
 
+  @Override
+  public int getBusinessDashboardQueueCapacity() {
+    return this.businessdashboard_queuecapacity;
+  }
+
+  @Override
+  public void setBusinessDashboardQueueCapacity(int capacity) {
+    this.businessdashboard_queuecapacity = capacity;
+  }
+
+  @Override
+  public boolean getBusinessDashboardDropWhenFull() {
+    return this.businessdashboard_dropwhenfull;
+  }
+
+  @Override
+  public void setBusinessDashboardDropWhenFull(boolean drop) {
+    this.businessdashboard_dropwhenfull = drop;
+  }
+
+  @Override
+  public int getBusinessDashboardBatchSize() {
+    return this.businessdashboard_batchsize;
+  }
+
+  @Override
+  public void setBusinessDashboardBatchSize(int size) {
+    this.businessdashboard_batchsize = size;
+  }
+
   // YAWL
 
   public boolean isYAWLEnabled() {
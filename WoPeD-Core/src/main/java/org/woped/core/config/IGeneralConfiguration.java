@@ -132,6 +132,12 @@ public interface IGeneralConfiguration extends IConfiguration {
   //
   public void setWoflanPath(String woflanPath);
 
+  //
+  public boolean isUseStubbornSets();
+
+  //
+  public void setUseStubbornSets(boolean useStubbornSets);
+
   //
   public boolean getColorOn();
 
@@ -548,6 +554,18 @@ public interface IGeneralConfiguration extends IConfiguration {
 
   public void setBusinessDashboardMaxValues(int maxvalues);
 
+  public int getBusinessDashboardQueueCapacity();
+
+  public void setBusinessDashboardQueueCapacity(int capacity);
+
+  public boolean getBusinessDashboardDropWhenFull();
+
+  public void setBusinessDashboardDropWhenFull(boolean drop);
+
+  public int getBusinessDashboardBatchSize();
+
+  public void setBusinessDashboardBatchSize(int size);
+
   // YAWL
   public boolean isYAWLEnabled();
 
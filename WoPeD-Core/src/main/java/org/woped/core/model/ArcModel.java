@@ -211,6 +211,11 @@ public class ArcModel extends DefaultEdge implements Serializable {
       throw new IllegalArgumentException("The inscription value has to be positive");
 
     setUserObject(inscriptionValue);
+    // the arc is stored in the containers of its source element
+    if (getSource() instanceof DefaultPort
+        && ((DefaultPort) getSource()).getParent() instanceof AbstractPetriNetElementModel) {
+      ((AbstractPetriNetElementModel) ((DefaultPort) getSource()).getParent()).markModified();
+    }
   }
 
   /**
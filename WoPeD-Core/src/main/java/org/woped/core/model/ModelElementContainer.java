@@ -80,6 +80,10 @@ public class ModelElementContainer implements Serializable {
   private ParaphrasingModel paraphrasingModel = new ParaphrasingModel();
   private Map<String, Map<String, Object>> idMap = null;
   private Map<String, ArcModel> arcs = null;
+  // ! Counts the structural changes (elements and arcs added or removed)
+  private long modificationCount = 0;
+  // ! Counts all changes of the net including tokens, names and arc weights
+  private long revision = 0;
 
   /** Creates an new instance of an {@code ModelElementContainer} */
   public ModelElementContainer() {
@@ -113,6 +117,41 @@ public class ModelElementContainer implements Serializable {
     return idMap;
   }
 
+  /**
+   * Returns the amount of structural changes of this container. The count increases whenever an
+   * element or an arc is added or removed, so analyses can detect whether results calculated for an
+   * earlier count are still valid.
+   *
+   * <p>Changes of element attributes (e.g. tokens or arc weights) and changes of nested containers
+   * are not counted.
+   *
+   * @return the modification count
+   */
+  public long getModificationCount() {
+    return modificationCount;
+  }
+
+  /**
+   * Returns the revision of the net in this container. The revision increases with every structural
+   * change and whenever the tokens or the name of an element or the weight of an arc change,
+   * including the changes in the containers of operators and subprocesses.
+   *
+   * @return the revision
+   * @see #getModificationCount()
+   */
+  public long getRevision() {
+    return revision;
+  }
+
+  /**
+   * Increases the revision of this container and of the containers owning its owning element.
+   * Elements call this method when their tokens, names or arc weights change.
+   */
+  public void markModified() {
+    revision++;
+    if (owningElement != null) owningElement.markModified();
+  }
+
   /**
    * Adds an <code>PetriNetModelElement</code> to the container.
    *
@@ -138,6 +177,8 @@ public class ModelElementContainer implements Serializable {
 
       // set the new owning container of the element
       element.addOwningContainer(this);
+      modificationCount++;
+      markModified();
 
       LoggerManager.debug(
           WoPeDConstants.CORE_LOGGER, String.format("Element: %s added", element.getId()));
@@ -184,6 +225,8 @@ public class ModelElementContainer implements Serializable {
     // Add reference
     getIdMap().get(arc.getSourceId()).put(arc.getId(), arc);
     arcs.put(arc.getId(), arc);
+    modificationCount++;
+    markModified();
     LoggerManager.debug(
         WoPeDConstants.CORE_LOGGER,
         "Reference: "
@@ -234,6 +277,8 @@ public class ModelElementContainer implements Serializable {
     // The element is no longer owned by anybody
     if (element != null) element.removeOwningContainer(this);
     getIdMap().remove(id);
+    modificationCount++;
+    markModified();
     LoggerManager.debug(WoPeDConstants.CORE_LOGGER, "Element (ID:" + id + ") removed.");
   }
 
@@ -303,6 +348,8 @@ public class ModelElementContainer implements Serializable {
       arcs.remove(arc.getId());
       // remove Target Entry, (in Source Element's reference Map)
       getIdMap().get(arc.getSourceId()).remove(arc.getId());
+      modificationCount++;
+      markModified();
     }
   }
 
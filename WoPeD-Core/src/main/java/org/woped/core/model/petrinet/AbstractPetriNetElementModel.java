@@ -301,6 +301,15 @@ public abstract class AbstractPetriNetElementModel extends DefaultGraphCell
   public void setNameValue(String name) {
 
     getNameModel().setUserObject(name);
+    markModified();
+  }
+
+  /** Increases the revision of the containers owning this element. */
+  public void markModified() {
+    if (owningContainers == null) return;
+    for (ModelElementContainer container : owningContainers) {
+      container.markModified();
+    }
   }
 
   /**
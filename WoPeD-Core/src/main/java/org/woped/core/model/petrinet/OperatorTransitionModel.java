@@ -444,6 +444,7 @@ public abstract class OperatorTransitionModel extends TransitionModel
   @Override
   public void setNameValue(String name) {
     getNameModel().setUserObject(name);
+    markModified();
     if (simpleTransCounter > 0) {
       for (AbstractPetriNetElementModel aem : simpleTransContainer.getRootElements()) {
         if (aem.getRootOwningContainer().getOwningElement() == this) aem.setNameValue(name);
@@ -68,6 +68,7 @@ public class PlaceModel extends AbstractPetriNetElementModel {
   public void setTokens(int token) {
     m_token = token;
     m_virtualToken = m_token;
+    markModified();
   }
 
   /**
@@ -77,6 +78,7 @@ public class PlaceModel extends AbstractPetriNetElementModel {
    */
   public void setVirtualTokens(int token) {
     m_virtualToken = token;
+    markModified();
   }
 
   public int getTokenCount() {
@@ -86,11 +88,13 @@ public class PlaceModel extends AbstractPetriNetElementModel {
   public void addToken() {
     m_token += 1;
     m_virtualToken = m_token;
+    markModified();
   }
 
   public void removeToken() {
     m_token = m_token > 0 ? m_token - 1 : 0;
     m_virtualToken = m_token;
+    markModified();
   }
 
   /**
@@ -132,14 +136,17 @@ public class PlaceModel extends AbstractPetriNetElementModel {
 
   public void sendToken() {
     m_virtualToken = m_virtualToken > 0 ? m_virtualToken - 1 : 0;
+    markModified();
   }
 
   public void receiveToken() {
     m_virtualToken += 1;
+    markModified();
   }
 
   public void resetVirtualTokens() {
     m_virtualToken = m_token;
+    markModified();
   }
 
   /*
@@ -49,6 +49,8 @@ import org.woped.gui.translations.Messages;
 public class ConfEditorPanel extends AbstractConfPanel {
   // General Panel
   private JPanel generalPanel = null;
+  private JPanel analysisPanel = null;
+  private JCheckBox stubbornSetsCheckBox = null;
   private JComboBox lnfChooser = null;
 
   // On Creation JPanel
@@ -128,9 +130,13 @@ public class ConfEditorPanel extends AbstractConfPanel {
     c.gridy = 2;
     contentPanel.add(getGeneralPanel(), c);
 
+    c.gridx = 0;
+    c.gridy = 3;
+    contentPanel.add(getAnalysisPanel(), c);
+
     c.fill = GridBagConstraints.VERTICAL;
     c.weighty = 1;
-    c.gridy = 3;
+    c.gridy = 4;
     contentPanel.add(new JPanel(), c);
 
     setMainPanel(contentPanel);
@@ -152,6 +158,8 @@ public class ConfEditorPanel extends AbstractConfPanel {
         .setArrowWidth(getArrowWidthJComboBox().getSelectedIndex());
     ConfigurationManager.getConfiguration()
         .setFillArrowHead(getArrowFillHeadCheckBox().isSelected());
+    ConfigurationManager.getConfiguration()
+        .setUseStubbornSets(getStubbornSetsCheckBox().isSelected());
 
     boolean changed =
         !lnfClasses
@@ -198,6 +206,8 @@ public class ConfEditorPanel extends AbstractConfPanel {
           .setSelectedItem(arrowWidth[ConfigurationManager.getConfiguration().getArrowWidth()]);
     getArrowFillHeadCheckBox()
         .setSelected(ConfigurationManager.getConfiguration().isFillArrowHead());
+    getStubbornSetsCheckBox()
+        .setSelected(ConfigurationManager.getConfiguration().isUseStubbornSets());
     try {
       setSelectedLNF(ConfigurationManager.getConfiguration().getLookAndFeel());
     } catch (Exception e) {
@@ -328,6 +338,41 @@ public class ConfEditorPanel extends AbstractConfPanel {
     return generalPanel;
   }
 
+  private JPanel getAnalysisPanel() {
+    if (analysisPanel == null) {
+      analysisPanel = new JPanel();
+      analysisPanel.setBorder(
+          BorderFactory.createCompoundBorder(
+              BorderFactory.createTitledBorder(
+                  Messages.getString("Configuration.Editor.Panel.Analysis.Title")),
+              BorderFactory.createEmptyBorder(5, 5, 10, 5)));
+      analysisPanel.setLayout(new GridBagLayout());
+      GridBagConstraints c = new GridBagConstraints();
+      c.anchor = GridBagConstraints.NORTH;
+      c.fill = GridBagConstraints.HORIZONTAL;
+
+      c.weightx = 1;
+
+      c.gridx = 0;
+      c.gridy = 0;
+      analysisPanel.add(getStubbornSetsCheckBox(), c);
+    }
+    return analysisPanel;
+  }
+
+  private JCheckBox getStubbornSetsCheckBox() {
+    if (stubbornSetsCheckBox == null) {
+      stubbornSetsCheckBox = new JCheckBox();
+      stubbornSetsCheckBox.setText(
+          Messages.getString("Configuration.Editor.Panel.Analysis.Text.StubbornSets"));
+      stubbornSetsCheckBox.setToolTipText(
+          "<html>"
+              + Messages.getString("Configuration.Editor.Panel.Analysis.Text.StubbornSets.ToolTip")
+              + "</html>");
+    }
+    return stubbornSetsCheckBox;
+  }
+
   private JComboBox getLnfChooser() {
     if (lnfChooser == null) {
       lnfChooser = new JComboBox();
@@ -569,7 +569,7 @@ public class PNMLImport {
 
       // Import the simulations if any exist
       if (simulations != null) {
-        savedFlag = importSimulations(simulations, currentPetrinet);
+        savedFlag = importSimulations(simulations, currentPetrinet, showUI);
       }
 
       // Now build the graph from the ModelElementContainer
@@ -1339,9 +1339,11 @@ public class PNMLImport {
   /**
    * @param simulations The simulationsarray which comes from the pnml-file
    * @param currentPetrinet The new PetriNetModelProcessor of the petrinet we restore at the moment
+   * @param showUI false to keep simulations of a changed net without asking the user
    */
   private boolean importSimulations(
-      SimulationType[] simulations, PetriNetModelProcessor currentPetrinet) throws Exception {
+      SimulationType[] simulations, PetriNetModelProcessor currentPetrinet, boolean showUI)
+      throws Exception {
     boolean savedFlag = true;
     SimulationModel currSimulation;
     TransitionModel currTransition;
@@ -1369,14 +1371,18 @@ public class PNMLImport {
           // Therefore a virtual helper-transition with the arcs' ID
           // and a special name is created.
 
-          arcSource =
-              currentPetrinet.getElementContainer().getArcById(currTransitionID).getSourceId();
-          arcTarget =
-              currentPetrinet.getElementContainer().getArcById(currTransitionID).getTargetId();
-          if (arcSource.charAt(0) == 't') {
-            currTransitionName = arcSource + " -> (" + arcTarget + ")";
+          ArcModel arc = currentPetrinet.getElementContainer().getArcById(currTransitionID);
+          if (arc == null) {
+            // the arc has been removed from the net since the simulation was recorded
+            currTransitionName = currTransitionID;
           } else {
-            currTransitionName = "(" + arcSource + ") -> " + arcTarget;
+            arcSource = arc.getSourceId();
+            arcTarget = arc.getTargetId();
+            if (arcSource.charAt(0) == 't') {
+              currTransitionName = arcSource + " -> (" + arcTarget + ")";
+            } else {
+              currTransitionName = "(" + arcSource + ") -> " + arcTarget;
+            }
           }
           CreationMap map = CreationMap.createMap();
           map.setId(currTransitionID);
@@ -1407,7 +1413,8 @@ public class PNMLImport {
       // - loading a simulation
       // when you change it here please do at those locations as well
       int answer = 0;
-      if (!currentPetrinet.isLogicalFingerprintEqual(simulations[k].getNetFingerprint())) {
+      if (showUI
+          && !currentPetrinet.isLogicalFingerprintEqual(simulations[k].getNetFingerprint())) {
         Object[] options = {
           Messages.getString("Tokengame.ChangedNetDialog.ButtonKeep"),
           Messages.getString("Tokengame.ChangedNetDialog.ButtonDelete")
@@ -1,9 +1,14 @@
 package org.woped.qualanalysis.coverabilitygraph.assistant.algorithms.mp;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.woped.core.controller.IEditor;
@@ -18,9 +23,11 @@ import org.woped.qualanalysis.coverabilitygraph.model.CoverabilityGraphEdge;
 import org.woped.qualanalysis.soundness.builder.BuilderFactory;
 import org.woped.qualanalysis.soundness.builder.lowlevelpetrinet.AbstractLowLevelPetriNetBuilder;
 import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
 import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
 import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
 import org.woped.qualanalysis.soundness.marking.Arc;
+import org.woped.qualanalysis.soundness.marking.CoveringIndex;
 import org.woped.qualanalysis.soundness.marking.IMarking;
 import org.woped.qualanalysis.soundness.marking.IMarkingNet;
 import org.woped.qualanalysis.soundness.marking.MarkingNet;
@@ -28,6 +35,12 @@ import org.woped.qualanalysis.soundness.marking.MarkingNet;
 /**
  * This class implements the algorithm from the paper Minimal Coverability Set for Petri Nets: Karp
  * and Miller Algorithm with Pruning
+ *
+ * <p>The active nodes are kept in a {@link CoveringIndex} over their token vectors, so the cover
+ * check, the deactivation check and the conversion into the graph do not compare a marking with
+ * every active node. Only active nodes can have active descendants, so the deactivation check
+ * starts at the active nodes covered by the current node and follows their children. The
+ * MinimalCoverabilitySetTest of the soundness algorithms runs the same algorithm in one go.
  */
 class MonotonePruningGraphBuilder {
 
@@ -35,6 +48,10 @@ class MonotonePruningGraphBuilder {
   private Set<MpNode> activeNodes;
   private Set<MpNode> inactiveNodes;
 
+  private CoveringIndex<MpNode> activeIndex;
+  private Map<MpNode, int[]> activeTokens;
+  private Map<MpNode, List<MpNode>> children;
+
   private IEditor editor;
   private MonotonePruningEventTrigger eventTrigger;
 
@@ -60,6 +77,9 @@ class MonotonePruningGraphBuilder {
     this.unprocessedNodes = new HashSet<>();
     this.activeNodes = new HashSet<>();
     this.inactiveNodes = new HashSet<>();
+    this.activeIndex = new CoveringIndex<>(markingNet.getPlaces().length);
+    this.activeTokens = new HashMap<>();
+    this.children = new HashMap<>();
     this.steps = 0;
 
     addRootNode();
@@ -110,12 +130,7 @@ class MonotonePruningGraphBuilder {
 
       if (parentNode == null || parentNode.getState() == MpNodeState.ACTIVE) {
 
-        for (MpNode m : activeNodes) {
-          if (n.getMarking().lessOrEqual(m.getMarking())) {
-            coveringNode = m;
-            break;
-          }
-        }
+        coveringNode = activeIndex.findCovering(getTokens(n));
 
         Collection<CoverabilityGraphEdge> incomingEdges = n.getIncomingEdges();
         for (CoverabilityGraphEdge e : incomingEdges) {
@@ -242,13 +257,9 @@ class MonotonePruningGraphBuilder {
 
   private void doCoverCheck() {
 
-    Set<MpNode> largerNodes = new HashSet<>();
-    for (MpNode activeNode : activeNodes) {
-      if (currentNode.getMarking().lessOrEqual(activeNode.getMarking())) {
-        largerNodes.add(activeNode);
-        eventTrigger.fireNodeRelatedEvent(
-            activeNode, NodeRelatedEvent.Relation.LARGER_THAN_CURRENT);
-      }
+    Set<MpNode> largerNodes = new HashSet<>(activeIndex.getCovering(getTokens(currentNode)));
+    for (MpNode activeNode : largerNodes) {
+      eventTrigger.fireNodeRelatedEvent(activeNode, NodeRelatedEvent.Relation.LARGER_THAN_CURRENT);
     }
 
     eventTrigger.fireCoverCheckCompletedEvent(largerNodes);
@@ -261,18 +272,25 @@ class MonotonePruningGraphBuilder {
 
   private void doDeactivationCheck() {
 
+    // an active node is deactivated if it or one of its ancestors is covered by the current node
     Map<MpNode, MpNode> nodes2Remove = new HashMap<>();
-    for (MpNode n : activeNodes) {
-      for (MpNode ancestor : n.getAncestors()) {
-        if (ancestor.getMarking().lessOrEqual(currentNode.getMarking())
-            && (activeNodes.contains(ancestor) || !currentNode.getAncestors().contains(ancestor))) {
-          nodes2Remove.put(n, ancestor);
+    Deque<MpNode> descendants = new ArrayDeque<>();
+    for (MpNode covered : activeIndex.getCovered(getTokens(currentNode))) {
+      descendants.push(covered);
+      while (!descendants.isEmpty()) {
+        MpNode n = descendants.pop();
+        if (!activeNodes.contains(n) || nodes2Remove.containsKey(n)) continue;
+
+        nodes2Remove.put(n, covered);
+        for (MpNode child : children.getOrDefault(n, Collections.emptyList())) {
+          descendants.push(child);
         }
       }
     }
 
     for (MpNode n : nodes2Remove.keySet()) {
       activeNodes.remove(n);
+      activeIndex.remove(activeTokens.remove(n), n);
       deactivateNode(n, nodes2Remove.get(n));
     }
 
@@ -283,24 +301,44 @@ class MonotonePruningGraphBuilder {
 
     IMarking marking = currentNode.getMarking();
     TransitionNode[] activatedTransitions = markingNet.getActivatedTransitions(marking);
+    List<MpNode> successors = new ArrayList<>(activatedTransitions.length);
     for (TransitionNode transition : activatedTransitions) {
       IMarking m = markingNet.calculateSucceedingMarking(marking, transition);
       marking.addSuccessor(new Arc(m, transition));
       MpNode n = new MpNode(m);
       this.unprocessedNodes.add(n);
+      successors.add(n);
       CoverabilityGraphEdge edge = new CoverabilityGraphEdge(currentNode, n, transition);
 
       this.eventTrigger.fireNodeAddedEvent(n);
       this.eventTrigger.fireEdgeAddedEvent(edge);
     }
 
+    children.put(currentNode, successors);
+    int[] tokens = getTokens(currentNode);
     activeNodes.add(currentNode);
+    activeTokens.put(currentNode, tokens);
+    activeIndex.add(tokens, currentNode);
     currentNode.setState(MpNodeState.ACTIVE);
 
     eventTrigger.fireDescendantsCheckCompletedEvent(Arrays.asList(activatedTransitions));
     finishAnalysis();
   }
 
+  /**
+   * @return the token vector of the marking of the node in the place order of the marking net
+   */
+  private int[] getTokens(MpNode node) {
+    IMarking marking = node.getMarking();
+    PlaceNode[] places = markingNet.getPlaces();
+    int[] tokens = new int[places.length];
+    for (int i = 0; i < places.length; i++) {
+      tokens[i] =
+          marking.isPlaceUnbound(places[i]) ? IndexedPetriNet.OMEGA : marking.getTokens(places[i]);
+    }
+    return tokens;
+  }
+
   private void finishAnalysis() {
     finishAnalysis(true);
   }
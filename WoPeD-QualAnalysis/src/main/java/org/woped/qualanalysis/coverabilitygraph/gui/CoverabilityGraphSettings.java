@@ -18,6 +18,12 @@ public class CoverabilityGraphSettings {
   /** Indicator if the graph supports the color scheme */
   public boolean colorSchemeSupported;
 
+  /** Indicator if only the strongly connected components of the graph are displayed */
+  public boolean condensed;
+
+  /** Indicator if the graph supports the condensed view */
+  public boolean condensedSupported;
+
   /** The routing algorithm for edges */
   public Edge.Routing edgeRouting;
 
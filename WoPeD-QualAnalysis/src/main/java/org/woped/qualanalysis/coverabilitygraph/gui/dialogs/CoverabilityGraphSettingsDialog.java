@@ -64,6 +64,7 @@ public class CoverabilityGraphSettingsDialog extends JDialog {
   private JRadioButton colorGraphRb = null;
   // Checkboxes
   private JCheckBox parallelRoutingCb = null;
+  private JCheckBox condensedCb = null;
   // RadioButtons
   private ButtonGroup colorButtonGroup;
   private ButtonGroup placeStyleGroup;
@@ -80,7 +81,7 @@ public class CoverabilityGraphSettingsDialog extends JDialog {
     initComponents();
     this.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
     this.setTitle(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Title"));
-    int height = 410;
+    int height = 440;
     int width = 240;
     this.setSize(new Dimension(width, height));
     Point location =
@@ -164,52 +165,58 @@ public class CoverabilityGraphSettingsDialog extends JDialog {
     parallelRoutingCb.setSelected(getParallelRoutingEnabled());
     parallelRoutingCb.setBounds(new Rectangle(30, 140, 180, 22));
 
+    condensedCb =
+        new JCheckBox(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Components"));
+    condensedCb.setSelected(settings.condensed);
+    condensedCb.setEnabled(settings.condensedSupported);
+    condensedCb.setBounds(new Rectangle(30, 170, 180, 22));
+
     placeHeightLabel =
         new JLabel(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Place.Height"));
-    placeHeightLabel.setBounds(new Rectangle(30, 175, 130, 22));
+    placeHeightLabel.setBounds(new Rectangle(30, 205, 130, 22));
     placeHeightTf = new JTextField();
     placeHeightTf.setHorizontalAlignment(JTextField.CENTER);
     placeHeightTf.setText(Integer.toString(getPlaceHeight()));
-    placeHeightTf.setBounds(new Rectangle(160, 175, 50, 22));
+    placeHeightTf.setBounds(new Rectangle(160, 205, 50, 22));
 
     placeWidthLabel =
         new JLabel(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Place.Width"));
-    placeWidthLabel.setBounds(new Rectangle(30, 205, 130, 22));
+    placeWidthLabel.setBounds(new Rectangle(30, 235, 130, 22));
     placeWidthTf = new JTextField();
     placeWidthTf.setHorizontalAlignment(JTextField.CENTER);
     placeWidthTf.setText(Integer.toString(getPlaceWidth()));
-    placeWidthTf.setBounds(new Rectangle(160, 205, 50, 22));
+    placeWidthTf.setBounds(new Rectangle(160, 235, 50, 22));
 
     hierarchicLabel =
         new JLabel(
             "<html><b>"
                 + Messages.getString("QuanlAna.ReachabilityGraph.Settings.HierarchicSection")
                 + "</b></html>");
-    hierarchicLabel.setBounds(new Rectangle(20, 240, 200, 22));
+    hierarchicLabel.setBounds(new Rectangle(20, 270, 200, 22));
 
     hierarchicSpaceHorizontalLabel =
         new JLabel(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Hierarchic.Horizontal"));
-    hierarchicSpaceHorizontalLabel.setBounds(new Rectangle(30, 270, 130, 22));
+    hierarchicSpaceHorizontalLabel.setBounds(new Rectangle(30, 300, 130, 22));
     hierarchicSpaceHorizontalTf = new JTextField();
     hierarchicSpaceHorizontalTf.setHorizontalAlignment(JTextField.CENTER);
     hierarchicSpaceHorizontalTf.setText(Integer.toString(getHierarchicSpacingHorizontal()));
-    hierarchicSpaceHorizontalTf.setBounds(new Rectangle(160, 270, 50, 22));
+    hierarchicSpaceHorizontalTf.setBounds(new Rectangle(160, 300, 50, 22));
 
     hierarchicSpaceVerticalLabel =
         new JLabel(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Hierarchic.Vertical"));
-    hierarchicSpaceVerticalLabel.setBounds(new Rectangle(30, 300, 150, 22));
+    hierarchicSpaceVerticalLabel.setBounds(new Rectangle(30, 330, 150, 22));
     hierarchicSpaceVerticalTf = new JTextField();
     hierarchicSpaceVerticalTf.setHorizontalAlignment(JTextField.CENTER);
     hierarchicSpaceVerticalTf.setText(Integer.toString(getHierarchicSpacingVertical()));
-    hierarchicSpaceVerticalTf.setBounds(new Rectangle(160, 300, 50, 22));
+    hierarchicSpaceVerticalTf.setBounds(new Rectangle(160, 330, 50, 22));
 
     // TODO: 16.01.2017 Create custom action instead of action listener
     saveButton = new JButton(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Button.Save"));
-    saveButton.setBounds(new Rectangle(20, 340, 90, 29));
+    saveButton.setBounds(new Rectangle(20, 370, 90, 29));
     saveButton.addActionListener(new SaveButtonListener());
     cancelButton =
         new JButton(Messages.getString("QuanlAna.ReachabilityGraph.Settings.Button.Cancel"));
-    cancelButton.setBounds(new Rectangle(130, 340, 90, 29));
+    cancelButton.setBounds(new Rectangle(130, 370, 90, 29));
     cancelButton.addActionListener(new CancelButtonListener());
 
     // Set "Escape" and "Enter" as action keys for Save/Cancel-Buttons
@@ -262,6 +269,7 @@ public class CoverabilityGraphSettingsDialog extends JDialog {
     }
 
     this.add(parallelRoutingCb);
+    this.add(condensedCb);
 
     this.add(placeHeightLabel);
     this.add(placeHeightTf);
@@ -423,6 +431,8 @@ public class CoverabilityGraphSettingsDialog extends JDialog {
             CoverabilityGraphSettingsDialog.this.parallelRoutingCb.isSelected());
       }
 
+      settings.condensed = CoverabilityGraphSettingsDialog.this.condensedCb.isSelected();
+
       if (getColored() != CoverabilityGraphSettingsDialog.this.colorGraphRb.isSelected()) {
         setColor(CoverabilityGraphSettingsDialog.this.colorGraphRb.isSelected());
       }
@@ -28,7 +28,7 @@ public class CoverabilityGraphResultView extends CoverabilityGraphView {
   public static final String VIEW_NAME = "ResultView";
 
   private IEditor editor;
-  private CoverabilityGraphModel graphModel;
+  private ReachabilityGraphModelUsingMarkingNet graphModel;
   private StatusBarView statusBar;
   private CoverabilityGraphWrapper graphView;
 
@@ -84,6 +84,8 @@ public class CoverabilityGraphResultView extends CoverabilityGraphView {
     settings.markingFormatter = nodeFormatter.getNodeTextFormatter().getMarkingFormatter();
     settings.colorScheme = nodeFormatter.getColorScheme();
     settings.colorSchemeSupported = true;
+    settings.condensed = graphModel.isCondensed();
+    settings.condensedSupported = true;
 
     CoverabilityGraphLayoutSettings layoutSettings = graphModel.getLayoutSettings();
     settings.layout = layoutSettings.layout;
@@ -112,6 +114,13 @@ public class CoverabilityGraphResultView extends CoverabilityGraphView {
     layoutSettings.horizontalGap = settings.horizontalGap;
     layoutSettings.verticalGap = settings.verticalGap;
 
+    if (settings.condensed != graphModel.isCondensed() && statusBar.isOutOfSync()) {
+      // the cached marking net is outdated, so the graph is recomputed instead of rebuilt
+      graphModel.reset(settings.condensed);
+      statusBar.setOutOfSync(false);
+    } else {
+      graphModel.setCondensed(settings.condensed);
+    }
     refresh();
   }
 
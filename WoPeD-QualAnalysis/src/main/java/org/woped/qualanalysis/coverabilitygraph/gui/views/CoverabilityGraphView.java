@@ -3,6 +3,7 @@ package org.woped.qualanalysis.coverabilitygraph.gui.views;
 import java.awt.Color;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import javax.swing.JPanel;
@@ -89,12 +90,28 @@ public abstract class CoverabilityGraphView extends JPanel {
 
   /** This class adds a highlight to all nodes based on their marking */
   private class MarkingHighlighter {
+    // the amount of markings whose covering nodes are remembered
+    private static final int MAX_CACHED_MARKINGS = 256;
     private Color DARK_GREEN = new Color(0, 150, 50);
     private Color LIGHT_GREEN = new Color(180, 255, 180);
     private Map<DefaultGraphCell, AttributeMap> undoMap;
+    // the covering nodes of the last highlighted markings, for the graph model and amount of nodes
+    private Map<IMarking, Collection<CoverabilityGraphNode>> coveringNodesCache;
+    private CoverabilityGraphModel cachedModel;
+    private int cachedNodeCount;
 
     MarkingHighlighter() {
       undoMap = new HashMap<>();
+      coveringNodesCache =
+          new LinkedHashMap<IMarking, Collection<CoverabilityGraphNode>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<IMarking, Collection<CoverabilityGraphNode>> eldest) {
+              return size() > MAX_CACHED_MARKINGS;
+            }
+          };
     }
 
     /**
@@ -105,12 +122,7 @@ public abstract class CoverabilityGraphView extends JPanel {
     void addHighlight(IMarking marking) {
       removeHighlighting();
 
-      Collection<CoverabilityGraphNode> nodes = getGraphModel().getNodes();
-      Collection<CoverabilityGraphNode> coveringNodes = new LinkedList<>();
-
-      for (CoverabilityGraphNode node : nodes) {
-        if (marking.lessOrEqual(node.getMarking())) coveringNodes.add(node);
-      }
+      Collection<CoverabilityGraphNode> coveringNodes = getCoveringNodes(marking);
 
       Map<DefaultGraphCell, AttributeMap> highlights = new HashMap<>();
       for (CoverabilityGraphNode node : coveringNodes) {
@@ -148,6 +160,34 @@ public abstract class CoverabilityGraphView extends JPanel {
       getGraphModel().getGraph().getGraphLayoutCache().edit(highlights);
     }
 
+    /**
+     * Gets the nodes whose marking is larger or equal the provided marking. The token game
+     * highlights the same markings again and again, so the nodes are remembered until the graph
+     * changes.
+     *
+     * @param marking the marking to cover
+     * @return the covering nodes
+     */
+    private Collection<CoverabilityGraphNode> getCoveringNodes(IMarking marking) {
+      CoverabilityGraphModel model = getGraphModel();
+      Collection<CoverabilityGraphNode> nodes = model.getNodes();
+      if (model != cachedModel || nodes.size() != cachedNodeCount) {
+        coveringNodesCache.clear();
+        cachedModel = model;
+        cachedNodeCount = nodes.size();
+      }
+
+      Collection<CoverabilityGraphNode> coveringNodes = coveringNodesCache.get(marking);
+      if (coveringNodes == null) {
+        coveringNodes = new LinkedList<>();
+        for (CoverabilityGraphNode node : nodes) {
+          if (marking.lessOrEqual(node.getMarking())) coveringNodes.add(node);
+        }
+        coveringNodesCache.put(marking, coveringNodes);
+      }
+      return coveringNodes;
+    }
+
     /** Removes all highlighting added highlights. */
     void removeHighlighting() {
       getGraphModel().getGraph().getGraphLayoutCache().edit(undoMap);
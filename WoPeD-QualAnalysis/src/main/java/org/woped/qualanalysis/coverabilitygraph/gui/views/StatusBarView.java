@@ -50,6 +50,15 @@ public class StatusBarView extends JPanel {
     this.outOfSync = outOfSync;
   }
 
+  /**
+   * Gets if the out of sync warning is visible.
+   *
+   * @return true if the graph is out of sync with the petri net, otherwise false
+   */
+  public boolean isOutOfSync() {
+    return outOfSync;
+  }
+
   private void initialize() {
     this.setLayout(new FlowLayout(FlowLayout.RIGHT, 10, 0));
 
@@ -0,0 +1,54 @@
+package org.woped.qualanalysis.coverabilitygraph.model;
+
+import java.util.Collections;
+import java.util.Set;
+import org.woped.gui.translations.Messages;
+import org.woped.qualanalysis.soundness.marking.IMarking;
+
+/**
+ * This class represents a strongly connected component of the reachability graph in its condensed
+ * view.
+ *
+ * <p>The node shows one of the markings of the component, the initial marking if it is part of the
+ * component, so layouts that start at the initial marking still work.
+ */
+public class CoverabilityGraphComponentNode extends CoverabilityGraphNode {
+
+  private static final long serialVersionUID = 2817004693264711457L;
+
+  private final Set<IMarking> markings;
+
+  /**
+   * Constructs a new node for the provided strongly connected component.
+   *
+   * @param markings the markings of the component, must not be empty
+   */
+  public CoverabilityGraphComponentNode(Set<IMarking> markings) {
+    super(getRepresentative(markings));
+    this.markings = Collections.unmodifiableSet(markings);
+  }
+
+  private static IMarking getRepresentative(Set<IMarking> markings) {
+    for (IMarking marking : markings) {
+      if (marking.isInitial()) return marking;
+    }
+    return markings.iterator().next();
+  }
+
+  /**
+   * Gets the markings of the component.
+   *
+   * @return the markings of the component
+   */
+  public Set<IMarking> getMarkings() {
+    return markings;
+  }
+
+  @Override
+  public String getToolTipText() {
+    String header =
+        String.format(
+            Messages.getString("QuanlAna.ReachabilityGraph.Component.Markings"), markings.size());
+    return super.getToolTipText().replaceFirst("<html>", "<html><h4>" + header + "</h4>");
+  }
+}
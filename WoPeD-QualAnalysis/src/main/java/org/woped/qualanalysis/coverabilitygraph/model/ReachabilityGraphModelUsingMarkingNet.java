@@ -1,14 +1,18 @@
 package org.woped.qualanalysis.coverabilitygraph.model;
 
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.jgraph.graph.DefaultGraphCell;
 import org.jgraph.graph.GraphConstants;
 import org.woped.core.controller.IEditor;
 import org.woped.qualanalysis.coverabilitygraph.gui.views.CoverabilityGraphViewFactory;
+import org.woped.qualanalysis.soundness.algorithms.AlgorithmFactory;
 import org.woped.qualanalysis.soundness.builder.BuilderFactory;
 import org.woped.qualanalysis.soundness.builder.lowlevelpetrinet.AbstractLowLevelPetriNetBuilder;
 import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
@@ -16,9 +20,25 @@ import org.woped.qualanalysis.soundness.marking.Arc;
 import org.woped.qualanalysis.soundness.marking.IMarking;
 import org.woped.qualanalysis.soundness.marking.IMarkingNet;
 
+/**
+ * The reachability graph of a petri net built from its marking net.
+ *
+ * <p>Every marking becomes a node and all arcs between the same two markings are combined into one
+ * edge. Parallel arcs can only start at the same marking, so the edges of a marking are looked up
+ * by their target in a hash map and the conversion is linear in the size of the marking net. The
+ * cells are inserted into the view in batches, nodes first.
+ *
+ * <p>For huge graphs the view can be condensed: every strongly connected component of the marking
+ * net is shown as one {@link CoverabilityGraphComponentNode} and only the edges between different
+ * components are kept.
+ */
 public class ReachabilityGraphModelUsingMarkingNet extends AbstractReachabilityGraphModel {
+
+  /** The amount of cells inserted into the view at once. */
+  private static final int INSERT_BATCH_SIZE = 1000;
+
   private IMarkingNet markingNet;
-  private HashSet<DefaultGraphCell> cellsList;
+  private boolean condensed = false;
 
   public ReachabilityGraphModelUsingMarkingNet(IEditor editor) {
     this(editor, new CoverabilityGraphViewFactory());
@@ -43,15 +63,52 @@ public class ReachabilityGraphModelUsingMarkingNet extends AbstractReachabilityG
   }
 
   public void reset() {
+    reset(condensed);
+    applyLayout();
+  }
+
+  /**
+   * Recomputes the marking net from the current petri net and rebuilds the graph without applying
+   * the layout.
+   *
+   * @param condensed true to show only the strongly connected components
+   */
+  public void reset(boolean condensed) {
+    this.condensed = condensed;
     clearGraph();
     computeReachabilityGraph();
-    applyLayout();
   }
 
   public IMarkingNet getMarkingNet() {
     return markingNet;
   }
 
+  /**
+   * Gets if only the strongly connected components of the graph are shown.
+   *
+   * @return true if the graph is condensed, otherwise false
+   */
+  public boolean isCondensed() {
+    return condensed;
+  }
+
+  /**
+   * Sets if only the strongly connected components of the graph should be shown.
+   *
+   * <p>The graph is rebuilt from the cached marking net if the value changes, so it still shows the
+   * petri net it was computed for. Use {@link #reset(boolean)} if the petri net has changed since.
+   * The layout is not applied.
+   *
+   * @param condensed true to show only the strongly connected components
+   */
+  public void setCondensed(boolean condensed) {
+    if (this.condensed == condensed) return;
+
+    this.condensed = condensed;
+    clearGraph();
+    transformMarkingNet2ReachabilityJGraph();
+  }
+
   private void computeReachabilityGraph() {
     AbstractLowLevelPetriNetBuilder builder =
         BuilderFactory.createLowLevelPetriNetWithoutTStarBuilder(getEditor());
@@ -61,99 +118,76 @@ public class ReachabilityGraphModelUsingMarkingNet extends AbstractReachabilityG
   }
 
   private void transformMarkingNet2ReachabilityJGraph() {
-    cellsList = new HashSet<>();
-
-    for (IMarking marking : markingNet.getMarkings()) {
-      cellsList.add(getPlace(marking));
-    }
-
-    for (IMarking marking : markingNet.getMarkings()) {
-      for (Arc arc : marking.getSuccessors()) {
-        getChildNode(arc, marking);
+    List<CoverabilityGraphNode> nodes = new ArrayList<>();
+    Map<IMarking, CoverabilityGraphNode> nodesByMarking = new HashMap<>();
+    Collection<Set<IMarking>> sources = new ArrayList<>();
+
+    if (condensed) {
+      sources = AlgorithmFactory.createSccTest(markingNet).getStronglyConnectedComponents();
+      for (Set<IMarking> component : sources) {
+        CoverabilityGraphNode node =
+            setDefaultBounds(new CoverabilityGraphComponentNode(component));
+        nodes.add(node);
+        for (IMarking marking : component) {
+          nodesByMarking.put(marking, node);
+        }
+      }
+    } else {
+      for (IMarking marking : markingNet.getMarkings()) {
+        CoverabilityGraphNode node = setDefaultBounds(new CoverabilityGraphNode(marking));
+        nodes.add(node);
+        nodesByMarking.put(marking, node);
+        sources.add(Collections.singleton(marking));
       }
     }
 
-    combineParallelEdges();
-    getView().insert(cellsList.toArray());
-  }
-
-  private void combineParallelEdges() {
-    Collection<CoverabilityGraphEdge> edges = new ArrayList<>();
-    for (DefaultGraphCell cell : cellsList) {
-      if (cell instanceof CoverabilityGraphEdge) edges.add((CoverabilityGraphEdge) cell);
-    }
-
-    CoverabilityGraphEdge[] graphEdges = edges.toArray(new CoverabilityGraphEdge[0]);
-    for (int i = 0; i < edges.size() - 1; i++) {
-      CoverabilityGraphEdge current = graphEdges[i];
-      boolean combined = false;
-      for (int j = i + 1; j < graphEdges.length && !combined; j++) {
-        CoverabilityGraphEdge other = graphEdges[j];
-
-        if (current.getSourceNode().equals(other.getSourceNode())
-            && current.getTargetNode().equals(other.getTargetNode())) {
-          other.addTriggers(current.getTriggers());
-          combined = true;
-          cellsList.remove(current);
+    List<CoverabilityGraphEdge> edges = new ArrayList<>();
+    Map<CoverabilityGraphNode, CoverabilityGraphEdge> edgesByTarget = new HashMap<>();
+    for (Set<IMarking> source : sources) {
+      // parallel edges start at the same node, so the edges of one source are keyed by target
+      edgesByTarget.clear();
+      CoverabilityGraphNode sourceNode = nodesByMarking.get(source.iterator().next());
+
+      for (IMarking marking : source) {
+        for (Arc arc : marking.getSuccessors()) {
+          CoverabilityGraphNode targetNode = nodesByMarking.get(arc.getTarget());
+          if (targetNode == null) {
+            targetNode = setDefaultBounds(new CoverabilityGraphNode(arc.getTarget()));
+            nodes.add(targetNode);
+            nodesByMarking.put(arc.getTarget(), targetNode);
+          }
+          if (condensed && targetNode == sourceNode) continue;
+
+          CoverabilityGraphEdge edge = edgesByTarget.get(targetNode);
+          if (edge == null) {
+            edge = new CoverabilityGraphEdge(sourceNode, targetNode, arc.getTrigger());
+            edgesByTarget.put(targetNode, edge);
+            edges.add(edge);
+          } else {
+            edge.addTrigger(arc.getTrigger());
+          }
         }
       }
     }
-  }
-
-  private void getChildNode(Arc arc, IMarking parentMarking) {
-    IMarking marking = arc.getTarget();
-    CoverabilityGraphEdge edge = getEdge(arc, parentMarking);
 
-    CoverabilityGraphNode src = getPlace(parentMarking);
-    cellsList.add(src);
-
-    DefaultGraphCell tar = getPlace(marking);
-    cellsList.add(tar);
-
-    edge.setSource(src.getChildAt(0));
-    edge.setTarget(tar.getChildAt(0));
-    cellsList.add(edge);
+    insertCells(nodes);
+    insertCells(edges);
   }
 
-  @SuppressWarnings("SpellCheckingInspection")
-  private CoverabilityGraphEdge getEdge(Arc arc, IMarking parentMarking) {
-    CoverabilityGraphEdge returnEdge = new CoverabilityGraphEdge(arc.getTrigger());
-    int differ = 1;
-    if (cellsList != null && !cellsList.isEmpty()) {
-      for (DefaultGraphCell cell : cellsList) {
-        if (cell instanceof CoverabilityGraphEdge) {
-          CoverabilityGraphEdge edge = (CoverabilityGraphEdge) cell;
-          // Source
-          CoverabilityGraphPort srcRpom = (CoverabilityGraphPort) edge.getSource();
-          CoverabilityGraphNode srcRplm = (CoverabilityGraphNode) srcRpom.getParent();
-          // Target
-          CoverabilityGraphPort tarRpom = (CoverabilityGraphPort) edge.getTarget();
-          CoverabilityGraphNode tarRplm = (CoverabilityGraphNode) tarRpom.getParent();
-          if (parentMarking == srcRplm.getUserObject()
-              && arc.getTarget() == tarRplm.getUserObject()) {
-            GraphConstants.setLabelPosition(
-                edge.getAttributes(),
-                new Point2D.Double(GraphConstants.PERMILLE * (6 - (0.6 * differ++)) / 8, -20));
-          }
-        }
-      }
-    }
-    return returnEdge;
+  private CoverabilityGraphNode setDefaultBounds(CoverabilityGraphNode node) {
+    GraphConstants.setBounds(node.getAttributes(), new Rectangle2D.Double(0, 0, 80, 20));
+    return node;
   }
 
-  private CoverabilityGraphNode getPlace(IMarking marking) {
-    for (DefaultGraphCell cell : cellsList) {
-      if (cell instanceof CoverabilityGraphNode
-          && ((CoverabilityGraphNode) cell).getMarking().equals(marking)) {
-        return (CoverabilityGraphNode) cell;
-      }
+  /**
+   * Inserts the cells into the view in batches of {@link #INSERT_BATCH_SIZE} cells.
+   *
+   * <p>Edges must be inserted after the nodes they are connected to.
+   */
+  private void insertCells(List<? extends DefaultGraphCell> cells) {
+    for (int from = 0; from < cells.size(); from += INSERT_BATCH_SIZE) {
+      int to = Math.min(from + INSERT_BATCH_SIZE, cells.size());
+      getView().insert(cells.subList(from, to).toArray());
     }
-
-    CoverabilityGraphNode place = new CoverabilityGraphNode(marking);
-    GraphConstants.setBounds(place.getAttributes(), new Rectangle2D.Double(0, 0, 80, 20));
-    CoverabilityGraphPort port = new CoverabilityGraphPort();
-    place.add(port);
-    port.setParent(place);
-    return place;
   }
 }
@@ -14,6 +14,7 @@ import org.woped.qualanalysis.service.interfaces.ISoundnessCheck;
 import org.woped.qualanalysis.service.interfaces.IWellStructuredness;
 import org.woped.qualanalysis.service.interfaces.IWorkflowCheck;
 import org.woped.qualanalysis.soundness.WorkflowCheckImplement;
+import org.woped.qualanalysis.structure.NetSnapshot;
 import org.woped.qualanalysis.structure.StructuralAnalysis;
 import org.woped.qualanalysis.structure.components.ClusterElement;
 
@@ -25,6 +26,7 @@ import org.woped.qualanalysis.structure.components.ClusterElement;
 public abstract class AbstractQualanalysisService implements IQualanalysisService {
 
   protected IEditor editor = null;
+  protected NetSnapshot snapshot = null;
   private StructuralAnalysis sA = null;
   protected ISComponent sComponent = null;
   protected ISoundnessCheck soundnessCheck = null;
@@ -60,9 +62,17 @@ public abstract class AbstractQualanalysisService implements IQualanalysisServic
   private Set<ArcModel> arcWeightViolations;
 
   public AbstractQualanalysisService(IEditor editor) {
-    this.editor = editor;
-    sA = new StructuralAnalysis(editor);
-    workflowCheck = new WorkflowCheckImplement(editor);
+    this(new NetSnapshot(editor));
+  }
+
+  /**
+   * @param snapshot the snapshot of the net, shared with the other analyses of the session
+   */
+  public AbstractQualanalysisService(NetSnapshot snapshot) {
+    this.editor = snapshot.getEditor();
+    this.snapshot = snapshot;
+    sA = new StructuralAnalysis(snapshot);
+    workflowCheck = new WorkflowCheckImplement(snapshot);
     netStatistics = sA;
     wellStructuredness = sA;
   }
@@ -216,6 +226,10 @@ public abstract class AbstractQualanalysisService implements IQualanalysisServic
     return notSCovered;
   }
 
+  public boolean isSComponentsComplete() {
+    return sComponent.isSComponentsComplete();
+  }
+
   public Set<AbstractPetriNetElementModel> getWronglyMarkedPlaces() {
     if (wronglyMarkedPlaces == null) {
       wronglyMarkedPlaces = calcWronglyMarkedPlaces();
@@ -237,6 +251,11 @@ public abstract class AbstractQualanalysisService implements IQualanalysisServic
     return deadTransitions;
   }
 
+  public boolean isDeadTransitionsReduced() {
+    getDeadTransitions();
+    return soundnessCheck.isDeadTransitionsReduced();
+  }
+
   public Set<AbstractPetriNetElementModel> getNonLiveTransitions() {
     if (nonLiveTransitions == null) {
       nonLiveTransitions = soundnessCheck.getNonLiveTransitions();
@@ -123,6 +123,12 @@ public interface IQualanalysisService {
    */
   public Set<AbstractPetriNetElementModel> getNotSCovered();
 
+  /**
+   * @return false if the search for SComponents has been stopped before it was complete, so the
+   *     not-SCovered places may be covered after all
+   */
+  public boolean isSComponentsComplete();
+
   /**
    * @return an set of places with wrong token count in initial marking
    */
@@ -138,6 +144,12 @@ public interface IQualanalysisService {
    */
   public Set<AbstractPetriNetElementModel> getDeadTransitions();
 
+  /**
+   * @return true if the dead transitions have been calculated on a state space reduced by stubborn
+   *     sets, false if the full state space has been explored
+   */
+  public boolean isDeadTransitionsReduced();
+
   /**
    * @return a set of all non-live transitions
    */
@@ -1,6 +1,9 @@
 package org.woped.qualanalysis.service;
 
+import org.woped.core.config.ConfigurationManager;
 import org.woped.core.controller.IEditor;
+import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetStrategy;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * factory class of QualanalysisService
@@ -10,10 +13,36 @@ import org.woped.core.controller.IEditor;
 public class QualAnalysisServiceFactory {
 
   /**
-   * @param editor creates service for the provided editor.
+   * @param editor creates service for the provided editor. The marking nets are reduced by stubborn
+   *     sets if this is enabled in the configuration.
    * @return QualanalysisServiceObject
    */
   public static IQualanalysisService createNewQualAnalysisService(IEditor editor) {
-    return new QualanalysisServiceImplement(editor);
+    return createNewQualAnalysisService(new NetSnapshot(editor));
+  }
+
+  /**
+   * @param snapshot creates service for the provided snapshot, so a session can reuse its snapshot
+   *     as long as the net is unchanged (see {@link NetSnapshot#refresh()}). The marking nets are
+   *     reduced by stubborn sets if this is enabled in the configuration.
+   * @return QualanalysisServiceObject
+   */
+  public static IQualanalysisService createNewQualAnalysisService(NetSnapshot snapshot) {
+    return new QualanalysisServiceImplement(
+        snapshot,
+        ConfigurationManager.getConfiguration().isUseStubbornSets()
+            ? MarkingNetStrategy.STUBBORN
+            : MarkingNetStrategy.COMPACT);
+  }
+
+  /**
+   * @param editor creates service for the provided editor.
+   * @param strategy the way the marking nets of the soundness check are built, {@link
+   *     MarkingNetStrategy#STUBBORN} reduces the state space for the dead and non-live transitions
+   * @return QualanalysisServiceObject
+   */
+  public static IQualanalysisService createNewQualAnalysisService(
+      IEditor editor, MarkingNetStrategy strategy) {
+    return new QualanalysisServiceImplement(editor, strategy);
   }
 }
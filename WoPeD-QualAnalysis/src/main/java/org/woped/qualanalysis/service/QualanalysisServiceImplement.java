@@ -3,6 +3,8 @@ package org.woped.qualanalysis.service;
 import org.woped.core.controller.IEditor;
 import org.woped.qualanalysis.soundness.SComponentImplement;
 import org.woped.qualanalysis.soundness.SoundnessCheckImplement;
+import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetStrategy;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * class for qualanalysis servies implemented completely in java.
@@ -15,9 +17,25 @@ public class QualanalysisServiceImplement extends AbstractQualanalysisService {
    * @param editor the editor the service is referring to
    */
   public QualanalysisServiceImplement(IEditor editor) {
-    super(editor);
-    sComponent = new SComponentImplement(editor);
-    soundnessCheck = new SoundnessCheckImplement(editor);
+    this(editor, MarkingNetStrategy.COMPACT);
+  }
+
+  /**
+   * @param editor the editor the service is referring to
+   * @param strategy the way the marking nets of the soundness check are built
+   */
+  public QualanalysisServiceImplement(IEditor editor, MarkingNetStrategy strategy) {
+    this(new NetSnapshot(editor), strategy);
+  }
+
+  /**
+   * @param snapshot the snapshot of the net the service is referring to
+   * @param strategy the way the marking nets of the soundness check are built
+   */
+  public QualanalysisServiceImplement(NetSnapshot snapshot, MarkingNetStrategy strategy) {
+    super(snapshot);
+    sComponent = new SComponentImplement(snapshot);
+    soundnessCheck = new SoundnessCheckImplement(snapshot, strategy);
   }
 
   public void cleanup() {}
@@ -21,4 +21,10 @@ public interface ISComponent {
    * @return a set with all not-SCovered
    */
   public Set<AbstractPetriNetElementModel> getNotSCovered();
+
+  /**
+   * @return false if the search has been stopped before all sComponents were found. Then places may
+   *     be reported as not-SCovered even though they are SCovered
+   */
+  public boolean isSComponentsComplete();
 }
@@ -25,4 +25,12 @@ public interface ISoundnessCheck {
    * @return a set with for all unbounded places
    */
   public Set<AbstractPetriNetElementModel> getUnboundedPlaces();
+
+  /**
+   * @return true if the dead transitions have been calculated on a state space reduced by stubborn
+   *     sets, false if the full state space has been explored. The non-live transitions are only
+   *     calculated on a reduced state space if the net is bounded, the unbounded places always on
+   *     the full state space.
+   */
+  public boolean isDeadTransitionsReduced();
 }
@@ -13,6 +13,7 @@ import org.woped.qualanalysis.sidebar.assistant.StartPage;
 import org.woped.qualanalysis.sidebar.components.PermanentTabbedPane;
 import org.woped.qualanalysis.sidebar.components.TStar;
 import org.woped.qualanalysis.sidebar.expert.ExpertPage;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * class of the Analysissidebar
@@ -25,6 +26,8 @@ public class SideBar extends PermanentTabbedPane {
 
   private IQualanalysisService qualanService = null;
 
+  private NetSnapshot snapshot = null;
+
   private IEditor editor = null;
 
   private JPanel beginnerContainer = null;
@@ -93,6 +96,7 @@ public class SideBar extends PermanentTabbedPane {
   @Override
   protected void clean() {
     cleanUp();
+    snapshot = null;
     // hide the sidebar
     editor.hideAnalysisBar();
   }
@@ -134,7 +138,9 @@ public class SideBar extends PermanentTabbedPane {
     if (qualanService != null) {
       return qualanService;
     } else {
-      return QualAnalysisServiceFactory.createNewQualAnalysisService(editor);
+      // reuse the snapshot of the last refresh if the net has not been changed since
+      snapshot = snapshot == null ? new NetSnapshot(editor) : snapshot.refresh();
+      return QualAnalysisServiceFactory.createNewQualAnalysisService(snapshot);
     }
   }
 
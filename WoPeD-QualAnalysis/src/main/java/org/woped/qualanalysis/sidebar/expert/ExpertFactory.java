@@ -176,12 +176,19 @@ public class ExpertFactory extends DefaultMutableTreeNode {
    */
   protected static DefaultMutableTreeNode getSCompUncoveredInfo(
       IQualanalysisService qualanService) {
-    return new NodeGroupNetInfo(
-        Messages.getString(prefix + "NotSCovered") + ": " + qualanService.getNotSCovered().size(),
-        qualanService.getNotSCovered().iterator()) {
+    final boolean complete = qualanService.isSComponentsComplete();
+    String label =
+        Messages.getString(prefix + "NotSCovered") + ": " + qualanService.getNotSCovered().size();
+    if (!complete) {
+      label += " (" + Messages.getString(prefix + "SComponentsIncomplete") + ")";
+    }
+    return new NodeGroupNetInfo(label, qualanService.getNotSCovered().iterator()) {
       @Override
       public int getInfoState() {
-        if (getChildCount() > 0) {
+        if (!complete) {
+          // the places may be covered by s-components the search has not found in time
+          return InfoStateInfo;
+        } else if (getChildCount() > 0) {
           return InfoStateERROR;
         } else {
           return InfoStateOK;
@@ -534,7 +541,10 @@ public class ExpertFactory extends DefaultMutableTreeNode {
     return new NodeGroupNetInfo(
         Messages.getString(prefix + "NumDeadTransitions")
             + ": "
-            + qualanService.getDeadTransitions().size(),
+            + qualanService.getDeadTransitions().size()
+            + (qualanService.isDeadTransitionsReduced()
+                ? " (" + Messages.getString(prefix + "ReducedStateSpace") + ")"
+                : ""),
         qualanService.getDeadTransitions().iterator()) {
       // dead transitions are not good and should trigger an error
       @Override
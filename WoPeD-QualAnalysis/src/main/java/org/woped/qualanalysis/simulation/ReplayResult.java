@@ -0,0 +1,63 @@
+package org.woped.qualanalysis.simulation;
+
+/** The result of replaying a recorded simulation, see {@link TokenGameReplay}. */
+public class ReplayResult {
+
+  private final String simulationId;
+  private final String simulationName;
+  private final int numSteps;
+  private final int failedStep;
+  private final String failedElementId;
+
+  /**
+   * @param simulationId the id of the simulation
+   * @param simulationName the name of the simulation
+   * @param numSteps the amount of steps of the simulation
+   * @param failedStep the index of the first step that could not be fired or -1
+   * @param failedElementId the id of the transition or arc of the failed step, null if it is valid
+   *     or the element no longer exists
+   */
+  public ReplayResult(
+      String simulationId,
+      String simulationName,
+      int numSteps,
+      int failedStep,
+      String failedElementId) {
+    this.simulationId = simulationId;
+    this.simulationName = simulationName;
+    this.numSteps = numSteps;
+    this.failedStep = failedStep;
+    this.failedElementId = failedElementId;
+  }
+
+  public String getSimulationId() {
+    return simulationId;
+  }
+
+  public String getSimulationName() {
+    return simulationName;
+  }
+
+  public int getNumSteps() {
+    return numSteps;
+  }
+
+  /**
+   * @return true if all steps of the simulation could be fired
+   */
+  public boolean isValid() {
+    return failedStep < 0;
+  }
+
+  /**
+   * @return the index of the first step that is not enabled or not part of the net, -1 if the
+   *     simulation is valid
+   */
+  public int getFailedStep() {
+    return failedStep;
+  }
+
+  public String getFailedElementId() {
+    return failedElementId;
+  }
+}
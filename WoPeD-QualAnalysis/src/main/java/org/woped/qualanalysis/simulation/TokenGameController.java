@@ -26,8 +26,13 @@ import java.awt.Color;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
@@ -51,7 +56,10 @@ import org.woped.qualanalysis.coverabilitygraph.gui.CoverabilityGraphFrameContro
 import org.woped.qualanalysis.service.IQualanalysisService;
 import org.woped.qualanalysis.service.QualAnalysisServiceFactory;
 import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
 import org.woped.qualanalysis.soundness.marking.IMarking;
+import org.woped.qualanalysis.soundness.marking.Marking;
 
 /**
  * @author <a href="mailto:slandes@kybeidos.de">Simon Landes </a> <br>
@@ -88,6 +96,25 @@ public class TokenGameController implements ITokenGameController {
   private PropertyChangeSupport m_propertyChangeSupport = null;
   private TokenGameStats oldState = null;
 
+  // The arcs of the net, see getNetIndex()
+  private TokenGameNetIndex netIndex = null;
+  // The transitions of allTransitions in a fixed order and their position in it
+  private TransitionModel[] transitions = null;
+  private Map<AbstractPetriNetElementModel, Integer> transitionPositions = null;
+  // The positions of the transitions that may be enabled, see isCandidate()
+  private BitSet candidates = new BitSet();
+  // The places and operators whose tokens changed since the net was last checked
+  private Set<PlaceModel> changedPlaces = new HashSet<PlaceModel>();
+  private Set<TransitionModel> changedTransitions = new HashSet<TransitionModel>();
+  // True if all transitions have to be checked again
+  private boolean checkAll = true;
+  // The arcs activated by the last check of the net
+  private List<ArcModel> activeArcs = new ArrayList<ArcModel>();
+  // The places of the low level net and their models, used for the marking in the RG
+  private TokenGameNetIndex markingIndex = null;
+  private PlaceNode[] markingPlaces = null;
+  private PlaceModel[] markingModels = null;
+
   /**
    * Constructor for the model and visual sided TokenGame.
    *
@@ -153,6 +180,7 @@ public class TokenGameController implements ITokenGameController {
           getPetriNet()
               .getElementContainer()
               .getElementsByType(AbstractPetriNetElementModel.SUBP_TYPE));
+      indexTransitions();
       // Find and show active Transitions/Arcs
       checkNet();
     } else {
@@ -182,6 +210,7 @@ public class TokenGameController implements ITokenGameController {
           getPetriNet()
               .getElementContainer()
               .getElementsByType(AbstractPetriNetElementModel.SUBP_TYPE));
+      indexTransitions();
 
       // Find and show active Transitions/Arcs
       checkNet();
@@ -265,20 +294,65 @@ public class TokenGameController implements ITokenGameController {
   }
 
   /*
-   *
+   * Puts the transitions in a fixed order, the candidates are stored by their position
+   */
+  private void indexTransitions() {
+    transitions = allTransitions.values().toArray(new TransitionModel[allTransitions.size()]);
+    transitionPositions = new IdentityHashMap<AbstractPetriNetElementModel, Integer>();
+    for (int i = 0; i < transitions.length; i++) {
+      transitionPositions.put(transitions[i], i);
+    }
+    checkAll = true;
+  }
+
+  /*
+   * Returns the index of the arcs, it is built again if the structure of the net has changed
+   */
+  private TokenGameNetIndex getNetIndex() {
+    if (netIndex == null || !netIndex.isValid()) {
+      netIndex = new TokenGameNetIndex(getPetriNet().getElementContainer());
+      checkAll = true;
+    }
+    return netIndex;
+  }
+
+  private Map<String, ArcModel> getIncomingArcs(Object elementId) {
+    return getNetIndex().getIncomingArcs(elementId);
+  }
+
+  private Map<String, ArcModel> getOutgoingArcs(Object elementId) {
+    return getNetIndex().getOutgoingArcs(elementId);
+  }
+
+  /**
+   * Checks all transitions of the net and shows the active ones. Used when the token game starts or
+   * when the tokens may have been changed outside of this controller.
    */
   public void checkNet() {
+    checkAll = true;
+    updateNet();
+  }
+
+  /*
+   * Shows the active transitions after a step. Only the transitions that consume from a place whose
+   * tokens changed are checked again, so a step costs its neighbourhood instead of the whole net.
+   */
+  private void updateNet() {
     TokenGameStats newState = new TokenGameStats();
 
     RemoteControl.cleanupTransition();
 
     long begin = System.currentTimeMillis();
     LoggerManager.debug(Constants.QUALANALYSIS_LOGGER, "TokenGame: CHECK NET");
-    Iterator<String> transIter = allTransitions.keySet().iterator();
-    resetArcStatus();
-    // Iterate over all Transitions
-    while (transIter.hasNext()) {
-      checkTransition((TransitionModel) allTransitions.get(transIter.next()), newState);
+    updateCandidates();
+    // Only the arcs activated by the last check can be active
+    for (ArcModel arc : activeArcs) {
+      arc.setActivated(false);
+    }
+    activeArcs.clear();
+    // Iterate over the transitions that may be active
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      checkTransition(transitions[i], newState);
     }
 
     newState.hasHistory = (RemoteControl.getNumHistoryItems() > 0);
@@ -295,11 +369,65 @@ public class TokenGameController implements ITokenGameController {
     LoggerManager.debug(
         Constants.QUALANALYSIS_LOGGER,
         "           ... DONE (" + (System.currentTimeMillis() - begin) + " ms)");
-    setMarkingInRG(
-        (BuilderFactory.createCurrentMarking(
-            BuilderFactory.createLowLevelPetriNetWithoutTStarBuilder(thisEditor)
-                .getLowLevelPetriNet(),
-            true)));
+    setMarkingInRG();
+  }
+
+  /*
+   * Updates the set of candidates for the changed places and operators
+   */
+  private void updateCandidates() {
+    TokenGameNetIndex index = getNetIndex();
+    if (checkAll) {
+      resetArcStatus();
+      candidates.clear();
+      for (int i = 0; i < transitions.length; i++) {
+        candidates.set(i, isCandidate(transitions[i]));
+      }
+      checkAll = false;
+    } else {
+      for (PlaceModel place : changedPlaces) {
+        for (AbstractPetriNetElementModel consumer : index.getConsumers(place.getId())) {
+          updateCandidate(consumer);
+        }
+      }
+      for (TransitionModel transition : changedTransitions) {
+        updateCandidate(transition);
+      }
+    }
+    changedPlaces.clear();
+    changedTransitions.clear();
+  }
+
+  private void updateCandidate(AbstractPetriNetElementModel element) {
+    Integer position = transitionPositions.get(element);
+    if (position != null) {
+      candidates.set(position, isCandidate(transitions[position]));
+    }
+  }
+
+  /*
+   * Returns true if checkTransition() may show the transition or one of its arcs as active, which
+   * is the case if it has no input places, an input place with enough tokens or a center place with
+   * tokens. The arcs are taken from the index, TransitionModel.isActivated() scans all arcs.
+   */
+  private boolean isCandidate(TransitionModel transition) {
+    Map<String, ArcModel> incomingArcs = getIncomingArcs(transition.getId());
+    if (incomingArcs.isEmpty()) {
+      return true;
+    }
+    for (ArcModel arc : incomingArcs.values()) {
+      AbstractPetriNetElementModel source =
+          getPetriNet().getElementContainer().getElementById(arc.getSourceId());
+      if (source instanceof PlaceModel
+          && ((PlaceModel) source).getVirtualTokenCount() >= arc.getInscriptionValue()) {
+        return true;
+      }
+    }
+    if (transition.getType() == AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE) {
+      PlaceModel centerPlace = ((OperatorTransitionModel) transition).getCenterPlace();
+      return centerPlace != null && centerPlace.getVirtualTokenCount() > 0;
+    }
+    return false;
   }
 
   private void deHighlightRG() {
@@ -308,10 +436,65 @@ public class TokenGameController implements ITokenGameController {
     cgfc.removeHighlightingFromGraph(thisEditor);
   }
 
-  private void setMarkingInRG(IMarking mark) {
+  private void setMarkingInRG() {
     CoverabilityGraphFrameController cgfc = getCoverabilityGraphController();
+    // The marking is only needed if the graph of this net is shown
     if (!cgfc.containsGraphForNet(thisEditor)) return;
-    cgfc.highlightMarking(thisEditor, mark);
+    cgfc.highlightMarking(thisEditor, getCurrentMarking());
+  }
+
+  /*
+   * Returns the current marking with the places of the low level net. The low level net is only
+   * built again if the structure of the net has changed, the tokens are read from the place models.
+   */
+  private IMarking getCurrentMarking() {
+    if (markingPlaces == null || markingIndex != getNetIndex()) {
+      ILowLevelPetriNet lolNet =
+          BuilderFactory.createLowLevelPetriNetWithoutTStarBuilder(thisEditor)
+              .getLowLevelPetriNet();
+      markingIndex = netIndex;
+      markingPlaces = lolNet.getPlaces().toArray(new PlaceNode[lolNet.getPlaces().size()]);
+      markingModels = findPlaceModels(markingPlaces);
+      if (markingModels == null) {
+        markingPlaces = null;
+        return BuilderFactory.createCurrentMarking(lolNet, true);
+      }
+    }
+    int[] tokens = new int[markingPlaces.length];
+    for (int i = 0; i < tokens.length; i++) {
+      tokens[i] = markingModels[i].getVirtualTokenCount();
+    }
+    return new Marking(tokens, markingPlaces, new boolean[tokens.length]);
+  }
+
+  /*
+   * Returns the models of the places or null if one of them is not found
+   */
+  private PlaceModel[] findPlaceModels(PlaceNode[] places) {
+    Map<String, PlaceModel> models = new HashMap<String, PlaceModel>();
+    for (AbstractPetriNetElementModel element :
+        getPetriNet()
+            .getElementContainer()
+            .getElementsByType(AbstractPetriNetElementModel.PLACE_TYPE)
+            .values()) {
+      models.put(element.getId(), (PlaceModel) element);
+    }
+    for (TransitionModel transition : transitions) {
+      if (transition.getType() == AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE) {
+        PlaceModel centerPlace = ((OperatorTransitionModel) transition).getCenterPlace();
+        if (centerPlace != null) {
+          models.put(centerPlace.getId(), centerPlace);
+        }
+      }
+    }
+    PlaceModel[] result = new PlaceModel[places.length];
+    for (int i = 0; i < places.length; i++) {
+      result[i] = models.get(places[i].getId());
+      if (result[i] == null) {
+        return null;
+      }
+    }
+    return result;
   }
 
   private CoverabilityGraphFrameController getCoverabilityGraphController() {
@@ -326,11 +509,9 @@ public class TokenGameController implements ITokenGameController {
    * Will check transitions if they have to be activated or not
    */
   private void checkTransition(TransitionModel transition, TokenGameStats tokenGameStats) {
-    Map<String, ArcModel> incomingArcs =
-        getPetriNet().getElementContainer().getIncomingArcs(transition.getId());
+    Map<String, ArcModel> incomingArcs = getIncomingArcs(transition.getId());
 
-    Map<String, Object> outgoingArcs =
-        getPetriNet().getElementContainer().getOutgoingArcs(transition.getId());
+    Map<String, ArcModel> outgoingArcs = getOutgoingArcs(transition.getId());
     // temporary variables
 
     if (transition.getType() == AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE
@@ -545,8 +726,8 @@ public class TokenGameController implements ITokenGameController {
         // LoggerManager.debug(Constants.EDITOR_LOGGER, "TokenGame: FIRE
         // simple Transition:
         // "+transition.getId());
-        produceTokens(getPetriNet().getElementContainer().getOutgoingArcs(transition.getId()));
-        consumeTokens(getPetriNet().getElementContainer().getIncomingArcs(transition.getId()));
+        produceTokens(getOutgoingArcs(transition.getId()));
+        consumeTokens(getIncomingArcs(transition.getId()));
         if (transition.getType() == AbstractPetriNetElementModel.SUBP_TYPE) {
           if (stepInto) {
             // Step into sub-process and process it in a new modal editor
@@ -564,8 +745,8 @@ public class TokenGameController implements ITokenGameController {
           // LoggerManager.debug(Constants.EDITOR_LOGGER, "TokenGame:
           // FIRE AND-Transition:
           // "+transition.getId());
-          produceTokens(getPetriNet().getElementContainer().getOutgoingArcs(transition.getId()));
-          consumeTokens(getPetriNet().getElementContainer().getIncomingArcs(transition.getId()));
+          produceTokens(getOutgoingArcs(transition.getId()));
+          consumeTokens(getIncomingArcs(transition.getId()));
           actionPerformed = true;
 
         } else if ((operator.getOperatorType() == OperatorTransitionModel.XOR_SPLIT_TYPE)
@@ -588,7 +769,7 @@ public class TokenGameController implements ITokenGameController {
 
         // Track the "walked way"
         RemoteControl.addHistoryItem(transition);
-        checkNet();
+        updateNet();
       }
     }
   }
@@ -612,7 +793,7 @@ public class TokenGameController implements ITokenGameController {
         RemoteControl.addHistoryItem(helpTransitionReference);
       }
     }
-    checkNet();
+    updateNet();
   }
 
   /**
@@ -651,8 +832,7 @@ public class TokenGameController implements ITokenGameController {
             || tempOperator.getOperatorType() == OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE
             || tempOperator.getOperatorType() == OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE) {
           if (tempOperator.getOperatorType() != OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE) {
-            consumeTokens(
-                getPetriNet().getElementContainer().getIncomingArcs(tempOperator.getId()));
+            consumeTokens(getIncomingArcs(tempOperator.getId()));
           } else {
             // Special code for splitjoin. We have to take the
             // token from the center place
@@ -671,6 +851,7 @@ public class TokenGameController implements ITokenGameController {
                     ArcModel innerArc =
                         innerContainer.findArc(centerPlace.getId(), transition.getId());
                     centerPlace.removeVirtualTokens(innerArc.getInscriptionValue());
+                    changedTransitions.add(tempOperator);
                   }
                 }
               }
@@ -688,8 +869,7 @@ public class TokenGameController implements ITokenGameController {
             || tempOperator.getOperatorType() == OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE) {
           consumeTokens(arc);
           if (tempOperator.getOperatorType() != OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE) {
-            produceTokens(
-                getPetriNet().getElementContainer().getOutgoingArcs(tempOperator.getId()));
+            produceTokens(getOutgoingArcs(tempOperator.getId()));
           } else {
             // Special code for splitjoin. We have to send the token
             // to the center place
@@ -708,6 +888,7 @@ public class TokenGameController implements ITokenGameController {
                   ArcModel innerArc =
                       innnerContainer.findArc(innerTransition.getId(), centerPlace.getId());
                   centerPlace.addVirtualTokens(innerArc.getInscriptionValue());
+                  changedTransitions.add(tempOperator);
                 }
               }
             }
@@ -744,7 +925,7 @@ public class TokenGameController implements ITokenGameController {
       // transitions and activating them
       // if their input conditions are fulfilled
       // This will also trigger a redraw
-      checkNet();
+      updateNet();
     }
   }
 
@@ -756,8 +937,8 @@ public class TokenGameController implements ITokenGameController {
    */
   private boolean reverseTransition(TransitionModel transition) {
     boolean actionPerformed;
-    produceTokensBackward(getPetriNet().getElementContainer().getIncomingArcs(transition.getId()));
-    consumeTokensBackward(getPetriNet().getElementContainer().getOutgoingArcs(transition.getId()));
+    produceTokensBackward(getIncomingArcs(transition.getId()));
+    consumeTokensBackward(getOutgoingArcs(transition.getId()));
     actionPerformed = true;
     return actionPerformed;
   }
@@ -785,8 +966,7 @@ public class TokenGameController implements ITokenGameController {
       produceTokensBackward(arc);
 
       if (tempOperator.getOperatorType() != OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE) {
-        consumeTokensBackward(
-            getPetriNet().getElementContainer().getOutgoingArcs(tempOperator.getId()));
+        consumeTokensBackward(getOutgoingArcs(tempOperator.getId()));
         actionPerformed = true;
       } else {
         // Special code for splitjoin. We have to take the token from the center place
@@ -806,6 +986,7 @@ public class TokenGameController implements ITokenGameController {
                       .findArc(transition.getId(), centerPlace.getId());
 
               centerPlace.removeVirtualTokens(innerArc.getInscriptionValue());
+              changedTransitions.add(tempOperator);
             }
 
           actionPerformed = true;
@@ -816,8 +997,7 @@ public class TokenGameController implements ITokenGameController {
       tempOperator = (OperatorTransitionModel) source;
       consumeTokensBackward(arc);
       if (tempOperator.getOperatorType() != OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE) {
-        produceTokensBackward(
-            getPetriNet().getElementContainer().getIncomingArcs(tempOperator.getId()));
+        produceTokensBackward(getIncomingArcs(tempOperator.getId()));
         actionPerformed = true;
       } else {
         // Special code for splitjoin. We have to send the token to the center place
@@ -835,6 +1015,7 @@ public class TokenGameController implements ITokenGameController {
                       .getSimpleTransContainer()
                       .findArc(centerPlace.getId(), transition.getId());
               centerPlace.addVirtualTokens(innerArc.getInscriptionValue());
+              changedTransitions.add(tempOperator);
             }
           }
         }
@@ -859,8 +1040,7 @@ public class TokenGameController implements ITokenGameController {
    * @param activate flag if the arcs should be activated or deactivated.
    */
   void setIncomingArcsActive(Object transitionId, boolean activate) {
-    Iterator<String> incomingArcsIter =
-        getPetriNet().getElementContainer().getIncomingArcs(transitionId).keySet().iterator();
+    Iterator<String> incomingArcsIter = getIncomingArcs(transitionId).keySet().iterator();
     while (incomingArcsIter.hasNext()) {
       ArcModel arc = getPetriNet().getElementContainer().getArcById(incomingArcsIter.next());
       setArcActiveState(arc, activate);
@@ -887,6 +1067,7 @@ public class TokenGameController implements ITokenGameController {
           (PlaceModel) getPetriNet().getElementContainer().getElementById(arc.getSourceId());
       if (place.getVirtualTokenCount() >= arc.getInscriptionValue()) {
         arc.setActivated(true);
+        activeArcs.add(arc);
       }
     } else {
       arc.setActivated(false);
@@ -897,10 +1078,11 @@ public class TokenGameController implements ITokenGameController {
    * Sets all outgoing arcs of an Transition active/inactive, without any condition.
    */
   private void setOutgoingArcsActive(Object transitionId, boolean active) {
-    Iterator<String> outgoingIter =
-        getPetriNet().getElementContainer().getOutgoingArcs(transitionId).keySet().iterator();
-    while (outgoingIter.hasNext()) {
-      getPetriNet().getElementContainer().getArcById(outgoingIter.next()).setActivated(active);
+    for (ArcModel arc : getOutgoingArcs(transitionId).values()) {
+      arc.setActivated(active);
+      if (active) {
+        activeArcs.add(arc);
+      }
     }
   }
 
@@ -929,6 +1111,7 @@ public class TokenGameController implements ITokenGameController {
           (PlaceModel) getPetriNet().getElementContainer().getElementById(arc.getSourceId());
       if (place != null) {
         place.removeVirtualTokens(arc.getInscriptionValue());
+        changedPlaces.add(place);
       }
     } catch (ClassCastException cce) {
       LoggerManager.warn(
@@ -940,7 +1123,7 @@ public class TokenGameController implements ITokenGameController {
   /*
    * Receive (add) Tokens to the places that are the target or the Map-filled arcs. ATTENTION: targets must be places.
    */
-  private void produceTokens(Map<String, Object> arcsToFire) {
+  private void produceTokens(Map<String, ArcModel> arcsToFire) {
     Iterator<String> arcIter = arcsToFire.keySet().iterator();
     while (arcIter.hasNext()) {
       produceTokens(getPetriNet().getElementContainer().getArcById(arcIter.next()));
@@ -962,6 +1145,7 @@ public class TokenGameController implements ITokenGameController {
           (PlaceModel) getPetriNet().getElementContainer().getElementById(arc.getTargetId());
       if (place != null) {
         place.addVirtualTokens(arc.getInscriptionValue());
+        changedPlaces.add(place);
       }
     } catch (ClassCastException cce) {
       LoggerManager.warn(
@@ -974,7 +1158,7 @@ public class TokenGameController implements ITokenGameController {
    * Send (subtract) Tokens from the places that are the target of the arcs. ATTENTION: target of the arcs must be always a place
    */
 
-  private void consumeTokensBackward(Map<String, Object> arcsToFire) {
+  private void consumeTokensBackward(Map<String, ArcModel> arcsToFire) {
     Iterator<String> arcIter = arcsToFire.keySet().iterator();
     while (arcIter.hasNext()) {
       consumeTokensBackward(getPetriNet().getElementContainer().getArcById(arcIter.next()));
@@ -996,6 +1180,7 @@ public class TokenGameController implements ITokenGameController {
           (PlaceModel) getPetriNet().getElementContainer().getElementById(arc.getTargetId());
       if (place != null) {
         place.removeVirtualTokens(arc.getInscriptionValue());
+        changedPlaces.add(place);
         // TODO: when ARC WEIGTH implemented send tokens weigth times
       }
     } catch (ClassCastException cce) {
@@ -1031,6 +1216,7 @@ public class TokenGameController implements ITokenGameController {
           (PlaceModel) getPetriNet().getElementContainer().getElementById(arc.getSourceId());
       if (place != null) {
         place.addVirtualTokens(arc.getInscriptionValue());
+        changedPlaces.add(place);
       }
     } catch (ClassCastException cce) {
       LoggerManager.warn(
@@ -1068,6 +1254,7 @@ public class TokenGameController implements ITokenGameController {
     while (arcIter.hasNext()) {
       getPetriNet().getElementContainer().getArcById(arcIter.next()).setActivated(false);
     }
+    activeArcs.clear();
   }
 
   /*
@@ -0,0 +1,94 @@
+package org.woped.qualanalysis.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.woped.core.model.ArcModel;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+
+/**
+ * The arcs of the elements of a net, indexed once for the token game.
+ *
+ * <p>{@link ModelElementContainer#getIncomingArcs(Object)} scans all arcs of the net, so the token
+ * game looks up the preset and postset of a transition here instead. The index also knows the
+ * elements that consume from a place, which are the only transitions whose state can change when
+ * the tokens of the place change. The index becomes invalid when the structure of the net changes,
+ * see {@link #isValid()}.
+ */
+class TokenGameNetIndex {
+
+  private final ModelElementContainer container;
+  private final long modificationCount;
+  private final Map<String, Map<String, ArcModel>> incomingArcs = new HashMap<>();
+  private final Map<String, Map<String, ArcModel>> outgoingArcs = new HashMap<>();
+  private final Map<String, List<AbstractPetriNetElementModel>> consumers = new HashMap<>();
+
+  /**
+   * @param container the elements and arcs of the net
+   */
+  TokenGameNetIndex(ModelElementContainer container) {
+    this.container = container;
+    this.modificationCount = container.getModificationCount();
+    for (ArcModel arc : container.getArcMap().values()) {
+      arcsOf(incomingArcs, arc.getTargetId()).put(arc.getId(), arc);
+      arcsOf(outgoingArcs, arc.getSourceId()).put(arc.getId(), arc);
+      AbstractPetriNetElementModel target = container.getElementById(arc.getTargetId());
+      if (target != null) {
+        List<AbstractPetriNetElementModel> elements = consumers.get(arc.getSourceId());
+        if (elements == null) {
+          elements = new ArrayList<>();
+          consumers.put(arc.getSourceId(), elements);
+        }
+        elements.add(target);
+      }
+    }
+  }
+
+  private static Map<String, ArcModel> arcsOf(
+      Map<String, Map<String, ArcModel>> index, String elementId) {
+    Map<String, ArcModel> arcs = index.get(elementId);
+    if (arcs == null) {
+      arcs = new HashMap<>();
+      index.put(elementId, arcs);
+    }
+    return arcs;
+  }
+
+  /**
+   * @return true if no element or arc has been added to or removed from the net since the index was
+   *     built
+   */
+  boolean isValid() {
+    return container.getModificationCount() == modificationCount;
+  }
+
+  /**
+   * @param elementId the id of an element
+   * @return the arcs pointing to the element by their id, must not be modified
+   */
+  Map<String, ArcModel> getIncomingArcs(Object elementId) {
+    Map<String, ArcModel> arcs = incomingArcs.get(elementId);
+    return arcs == null ? Collections.<String, ArcModel>emptyMap() : arcs;
+  }
+
+  /**
+   * @param elementId the id of an element
+   * @return the arcs starting at the element by their id, must not be modified
+   */
+  Map<String, ArcModel> getOutgoingArcs(Object elementId) {
+    Map<String, ArcModel> arcs = outgoingArcs.get(elementId);
+    return arcs == null ? Collections.<String, ArcModel>emptyMap() : arcs;
+  }
+
+  /**
+   * @param placeId the id of a place
+   * @return the elements the arcs of the place point to
+   */
+  List<AbstractPetriNetElementModel> getConsumers(String placeId) {
+    List<AbstractPetriNetElementModel> elements = consumers.get(placeId);
+    return elements == null ? Collections.<AbstractPetriNetElementModel>emptyList() : elements;
+  }
+}
@@ -0,0 +1,361 @@
+package org.woped.qualanalysis.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.woped.core.model.ArcModel;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.core.model.petrinet.OperatorTransitionModel;
+import org.woped.core.model.petrinet.PlaceModel;
+import org.woped.core.model.petrinet.SimulationModel;
+import org.woped.core.model.petrinet.TransitionModel;
+
+/**
+ * Replays recorded simulations of the token game against a net without a user interface.
+ *
+ * <p>The net is compiled once: each place gets an index in a marking array and each step the token
+ * game can record becomes a move with the tokens it consumes and produces. A step is either a
+ * transition or, for the XOR operators, the arc the user clicked. The moves follow the token game:
+ *
+ * <ul>
+ *   <li>a simple transition, a subprocess (stepped over) or an AND operator consumes from all of
+ *       its input places and produces in all of its output places
+ *   <li>an outgoing arc of an XOR split consumes from all input places of the operator and produces
+ *       in the target of the arc, for an XOR join/split the tokens are taken from the center place
+ *   <li>an incoming arc of an XOR join consumes from the source of the arc and produces in all
+ *       output places of the operator, for an XOR join/split in the center place
+ * </ul>
+ *
+ * <p>A simulation is replayed from the initial marking of the net on an int array, so a step costs
+ * a few array accesses. Simulations are replayed in parallel on the common {@link ForkJoinPool},
+ * each thread reuses its marking. The replay does not change the net.
+ */
+public class TokenGameReplay {
+
+  private final int[] initialMarking;
+  private final Map<String, Integer> moves = new HashMap<String, Integer>();
+  // move m consumes weights[i] tokens from places[i] for consumeStart[m] <= i < produceStart[m]
+  // and produces weights[i] tokens in places[i] for produceStart[m] <= i < consumeStart[m + 1]
+  private int[] consumeStart;
+  private int[] produceStart;
+  private int[] places;
+  private int[] weights;
+
+  /**
+   * @param container the elements and arcs of the net, it must not be changed during the replay
+   */
+  public TokenGameReplay(ModelElementContainer container) {
+    IdentityHashMap<PlaceModel, Integer> placeIndex = new IdentityHashMap<PlaceModel, Integer>();
+    List<Integer> tokens = new ArrayList<Integer>();
+    for (AbstractPetriNetElementModel element :
+        container.getElementsByType(AbstractPetriNetElementModel.PLACE_TYPE).values()) {
+      placeIndex.put((PlaceModel) element, tokens.size());
+      tokens.add(((PlaceModel) element).getTokenCount());
+    }
+    List<OperatorTransitionModel> operators = new ArrayList<OperatorTransitionModel>();
+    for (AbstractPetriNetElementModel element :
+        container.getElementsByType(AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE).values()) {
+      OperatorTransitionModel operator = (OperatorTransitionModel) element;
+      operators.add(operator);
+      // the center place starts empty, like in the token game
+      if (operator.getOperatorType() == OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE
+          && operator.getCenterPlace() != null) {
+        placeIndex.put(operator.getCenterPlace(), tokens.size());
+        tokens.add(0);
+      }
+    }
+    initialMarking = new int[tokens.size()];
+    for (int i = 0; i < initialMarking.length; i++) {
+      initialMarking[i] = tokens.get(i);
+    }
+
+    MoveBuilder builder = new MoveBuilder(container, placeIndex);
+    for (int type :
+        new int[] {
+          AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE, AbstractPetriNetElementModel.SUBP_TYPE
+        }) {
+      for (AbstractPetriNetElementModel transition : container.getElementsByType(type).values()) {
+        builder.addTransition(transition.getId());
+      }
+    }
+    for (OperatorTransitionModel operator : operators) {
+      builder.addOperator(operator);
+    }
+    builder.build();
+  }
+
+  /**
+   * @return the amount of places including the center places of the operators
+   */
+  public int getNumPlaces() {
+    return initialMarking.length;
+  }
+
+  /**
+   * Translates the steps of a simulation to moves.
+   *
+   * @param sequence the transitions and arc helper transitions of a simulation
+   * @return the index of the move of each step, -1 if the net has no such step
+   */
+  public int[] compile(List<TransitionModel> sequence) {
+    int[] result = new int[sequence.size()];
+    for (int i = 0; i < result.length; i++) {
+      TransitionModel step = sequence.get(i);
+      Integer move = step == null ? null : moves.get(step.getId());
+      result[i] = move == null ? -1 : move;
+    }
+    return result;
+  }
+
+  /**
+   * Replays moves from the initial marking.
+   *
+   * @param steps the moves, see {@link #compile(List)}
+   * @param marking receives the marking after the last step that could be fired, its length must be
+   *     {@link #getNumPlaces()}
+   * @return the index of the first step that is not enabled or unknown, -1 if all steps were fired
+   */
+  public int replay(int[] steps, int[] marking) {
+    System.arraycopy(initialMarking, 0, marking, 0, initialMarking.length);
+    for (int s = 0; s < steps.length; s++) {
+      int move = steps[s];
+      if (move < 0) {
+        return s;
+      }
+      int end = produceStart[move];
+      for (int i = consumeStart[move]; i < end; i++) {
+        if (marking[places[i]] < weights[i]) {
+          return s;
+        }
+      }
+      for (int i = consumeStart[move]; i < end; i++) {
+        marking[places[i]] -= weights[i];
+      }
+      for (int i = end; i < consumeStart[move + 1]; i++) {
+        marking[places[i]] += weights[i];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param simulation a recorded simulation of the net
+   * @return the result of the replay
+   */
+  public ReplayResult replay(SimulationModel simulation) {
+    return replay(simulation, new int[initialMarking.length]);
+  }
+
+  private ReplayResult replay(SimulationModel simulation, int[] marking) {
+    List<TransitionModel> sequence = simulation.getOccuredTransitions();
+    int failedStep = replay(compile(sequence), marking);
+    String failedElement = null;
+    if (failedStep >= 0 && sequence.get(failedStep) != null) {
+      failedElement = sequence.get(failedStep).getId();
+    }
+    return new ReplayResult(
+        simulation.getId(), simulation.getName(), sequence.size(), failedStep, failedElement);
+  }
+
+  /**
+   * Replays simulations in parallel.
+   *
+   * @param simulations recorded simulations of the net
+   * @return the results in the order of the simulations
+   */
+  public List<ReplayResult> replayAll(final List<SimulationModel> simulations) {
+    final ReplayResult[] result = new ReplayResult[simulations.size()];
+    final AtomicInteger next = new AtomicInteger();
+    Callable<Void> worker =
+        new Callable<Void>() {
+          public Void call() {
+            int[] marking = new int[initialMarking.length];
+            for (int i = next.getAndIncrement();
+                i < simulations.size();
+                i = next.getAndIncrement()) {
+              result[i] = replay(simulations.get(i), marking);
+            }
+            return null;
+          }
+        };
+
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    int threads = Math.min(simulations.size(), pool.getParallelism());
+    if (threads <= 1) {
+      try {
+        worker.call();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      return Arrays.asList(result);
+    }
+    List<Callable<Void>> workers = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < threads; i++) {
+      workers.add(worker);
+    }
+    try {
+      for (Future<Void> f : pool.invokeAll(workers)) {
+        f.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    return Arrays.asList(result);
+  }
+
+  // collects the moves and stores them in the arrays of the replay
+  private class MoveBuilder {
+    private final ModelElementContainer container;
+    private final TokenGameNetIndex arcs;
+    private final IdentityHashMap<PlaceModel, Integer> placeIndex;
+    private final List<int[]> consumed = new ArrayList<int[]>();
+    private final List<int[]> produced = new ArrayList<int[]>();
+
+    MoveBuilder(ModelElementContainer container, IdentityHashMap<PlaceModel, Integer> placeIndex) {
+      this.container = container;
+      this.arcs = new TokenGameNetIndex(container);
+      this.placeIndex = placeIndex;
+    }
+
+    void addTransition(String id) {
+      add(id, inputs(id), outputs(id));
+    }
+
+    void addOperator(OperatorTransitionModel operator) {
+      String id = operator.getId();
+      switch (operator.getOperatorType()) {
+        case OperatorTransitionModel.AND_JOIN_TYPE:
+        case OperatorTransitionModel.AND_SPLIT_TYPE:
+        case OperatorTransitionModel.AND_SPLITJOIN_TYPE:
+          addTransition(id);
+          break;
+        case OperatorTransitionModel.XOR_SPLIT_TYPE:
+        case OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE:
+          for (ArcModel arc : arcs.getOutgoingArcs(id).values()) {
+            add(arc.getId(), inputs(id), arcTokens(arc.getTargetId(), arc));
+          }
+          break;
+        case OperatorTransitionModel.XOR_JOIN_TYPE:
+        case OperatorTransitionModel.XORJOIN_ANDSPLIT_TYPE:
+          for (ArcModel arc : arcs.getIncomingArcs(id).values()) {
+            add(arc.getId(), arcTokens(arc.getSourceId(), arc), outputs(id));
+          }
+          break;
+        case OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE:
+          PlaceModel centerPlace = operator.getCenterPlace();
+          if (centerPlace == null) {
+            break;
+          }
+          ModelElementContainer inner = operator.getSimpleTransContainer();
+          int center = placeIndex.get(centerPlace);
+          for (ArcModel arc : arcs.getIncomingArcs(id).values()) {
+            int weight = 0;
+            for (AbstractPetriNetElementModel t :
+                inner.getTargetElements(arc.getSourceId()).values()) {
+              weight += innerWeight(inner, t.getId(), centerPlace.getId());
+            }
+            add(arc.getId(), arcTokens(arc.getSourceId(), arc), new int[] {center, weight});
+          }
+          for (ArcModel arc : arcs.getOutgoingArcs(id).values()) {
+            int weight = 0;
+            for (AbstractPetriNetElementModel t :
+                inner.getSourceElements(arc.getTargetId()).values()) {
+              weight += innerWeight(inner, centerPlace.getId(), t.getId());
+            }
+            add(arc.getId(), new int[] {center, weight}, arcTokens(arc.getTargetId(), arc));
+          }
+          break;
+        default:
+          break;
+      }
+    }
+
+    private int innerWeight(ModelElementContainer inner, String sourceId, String targetId) {
+      ArcModel arc = inner.findArc(sourceId, targetId);
+      return arc == null ? 0 : arc.getInscriptionValue();
+    }
+
+    // the places and weights of the incoming arcs of an element
+    private int[] inputs(String id) {
+      Map<String, ArcModel> incoming = arcs.getIncomingArcs(id);
+      int[] result = new int[2 * incoming.size()];
+      int i = 0;
+      for (ArcModel arc : incoming.values()) {
+        result[i++] = place(arc.getSourceId());
+        result[i++] = arc.getInscriptionValue();
+      }
+      return result;
+    }
+
+    // the places and weights of the outgoing arcs of an element
+    private int[] outputs(String id) {
+      Map<String, ArcModel> outgoing = arcs.getOutgoingArcs(id);
+      int[] result = new int[2 * outgoing.size()];
+      int i = 0;
+      for (ArcModel arc : outgoing.values()) {
+        result[i++] = place(arc.getTargetId());
+        result[i++] = arc.getInscriptionValue();
+      }
+      return result;
+    }
+
+    private int[] arcTokens(String placeId, ArcModel arc) {
+      return new int[] {place(placeId), arc.getInscriptionValue()};
+    }
+
+    private int place(String id) {
+      Integer index = placeIndex.get(container.getElementById(id));
+      if (index == null) {
+        throw new IllegalArgumentException("The arcs of the net must connect places: " + id);
+      }
+      return index;
+    }
+
+    private void add(String id, int[] consume, int[] produce) {
+      moves.put(id, consumed.size());
+      consumed.add(consume);
+      produced.add(produce);
+    }
+
+    void build() {
+      int count = consumed.size();
+      consumeStart = new int[count + 1];
+      produceStart = new int[count];
+      int size = 0;
+      for (int m = 0; m < count; m++) {
+        size += (consumed.get(m).length + produced.get(m).length) / 2;
+      }
+      places = new int[size];
+      weights = new int[size];
+      int i = 0;
+      for (int m = 0; m < count; m++) {
+        consumeStart[m] = i;
+        i = copy(consumed.get(m), i);
+        produceStart[m] = i;
+        i = copy(produced.get(m), i);
+      }
+      consumeStart[count] = i;
+    }
+
+    private int copy(int[] tokens, int i) {
+      for (int j = 0; j < tokens.length; j += 2) {
+        places[i] = tokens[j];
+        weights[i] = tokens[j + 1];
+        i++;
+      }
+      return i;
+    }
+  }
+}
@@ -6,12 +6,15 @@ import java.util.List;
 import java.util.Set;
 import org.woped.core.controller.IEditor;
 import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.core.utilities.LoggerManager;
+import org.woped.qualanalysis.Constants;
 import org.woped.qualanalysis.service.interfaces.ISComponent;
 import org.woped.qualanalysis.soundness.algorithms.AlgorithmFactory;
 import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.ISComponentTest;
-import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.SComponentInvariantTest;
 import org.woped.qualanalysis.soundness.datamodel.AbstractNode;
 import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * @author Patrick Spies, Patrick Kirchgaessner, Joern Liebau, Enrico Moeller, Sebastian Fuss
@@ -19,7 +22,9 @@ import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
 public class SComponentImplement implements ISComponent {
 
   private IEditor editor = null;
+  private NetSnapshot snapshot = null;
   private ISComponentTest sComponentTest = null;
+  private final long timeBudget;
 
   private Set<AbstractPetriNetElementModel> notSCovered = null;
   private Set<List<AbstractPetriNetElementModel>> sComponentsSet = null;
@@ -28,7 +33,24 @@ public class SComponentImplement implements ISComponent {
    * @param editor source object
    */
   public SComponentImplement(IEditor editor) {
-    this.editor = editor;
+    this(new NetSnapshot(editor));
+  }
+
+  /**
+   * @param snapshot snapshot of the source object, shared with the other analyses of the net
+   */
+  public SComponentImplement(NetSnapshot snapshot) {
+    this(snapshot, SComponentInvariantTest.DEFAULT_TIME_BUDGET);
+  }
+
+  /**
+   * @param snapshot snapshot of the source object, shared with the other analyses of the net
+   * @param timeBudget the time in milliseconds after which the invariant based search is stopped
+   */
+  public SComponentImplement(NetSnapshot snapshot, long timeBudget) {
+    this.snapshot = snapshot;
+    this.editor = snapshot.getEditor();
+    this.timeBudget = timeBudget;
   }
 
   /*
@@ -70,6 +92,16 @@ public class SComponentImplement implements ISComponent {
     return sComponentsSet;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see org.woped.qualanalysis.service.ISComponent#isSComponentsComplete()
+   */
+  @Override
+  public boolean isSComponentsComplete() {
+    return getSComponentTest().isComplete();
+  }
+
   /**
    * @param node the AbstractNode to get the referring AbstractElementModel from
    * @return the referred AbstractElementModel
@@ -79,13 +111,30 @@ public class SComponentImplement implements ISComponent {
   }
 
   /**
-   * @return the SComponentTest (if not existing it will be instantiated)
+   * @return the SComponentTest (if not existing it will be instantiated). If the invariant based
+   *     search exceeds its time budget, its partial result is kept and marked as incomplete.
    */
   private ISComponentTest getSComponentTest() {
     if (sComponentTest == null) {
       sComponentTest =
           AlgorithmFactory.createSComponentTest(
-              BuilderFactory.createLowLevelPetriNetWithTStarBuilder(editor).getLowLevelPetriNet());
+              snapshot.getLowLevelPetriNet(true),
+              timeBudget,
+              (processed, transitions, candidates) ->
+                  LoggerManager.debug(
+                      Constants.QUALANALYSIS_LOGGER,
+                      "S-components: "
+                          + processed
+                          + "/"
+                          + transitions
+                          + " transitions eliminated, "
+                          + candidates
+                          + " invariant candidates"));
+      if (!sComponentTest.isComplete()) {
+        LoggerManager.info(
+            Constants.QUALANALYSIS_LOGGER,
+            "S-component invariants incomplete after " + timeBudget + " ms");
+      }
     }
     return sComponentTest;
   }
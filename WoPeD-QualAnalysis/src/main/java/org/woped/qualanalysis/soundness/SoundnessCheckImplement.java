@@ -6,11 +6,14 @@ import org.woped.core.controller.IEditor;
 import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
 import org.woped.qualanalysis.service.interfaces.ISoundnessCheck;
 import org.woped.qualanalysis.soundness.algorithms.AlgorithmFactory;
-import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.ISComponentTest;
+import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetStrategy;
 import org.woped.qualanalysis.soundness.datamodel.AbstractNode;
 import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
 import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
 import org.woped.qualanalysis.soundness.marking.IMarkingNet;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * @author Patrick Spies, Patrick Kirchgaessner, Joern Liebau, Enrico Moeller, Sebastian Fuss
@@ -18,6 +21,8 @@ import org.woped.qualanalysis.soundness.marking.IMarkingNet;
 public class SoundnessCheckImplement implements ISoundnessCheck {
 
   private IEditor editor = null;
+  private final NetSnapshot snapshot;
+  private final MarkingNetStrategy strategy;
   private IMarkingNet markingNetWithoutTStar = null;
   private IMarkingNet markingNetWithTStar = null;
 
@@ -26,7 +31,32 @@ public class SoundnessCheckImplement implements ISoundnessCheck {
   private Set<AbstractPetriNetElementModel> unboundedPlaces = null;
 
   public SoundnessCheckImplement(IEditor editor) {
-    this.editor = editor;
+    this(editor, MarkingNetStrategy.COMPACT);
+  }
+
+  /**
+   * @param editor the editor of the net to check
+   * @param strategy the way the marking nets are built
+   */
+  public SoundnessCheckImplement(IEditor editor, MarkingNetStrategy strategy) {
+    this(new NetSnapshot(editor), strategy);
+  }
+
+  /**
+   * @param snapshot the snapshot of the net to check, shared with the other analyses of the net
+   */
+  public SoundnessCheckImplement(NetSnapshot snapshot) {
+    this(snapshot, MarkingNetStrategy.COMPACT);
+  }
+
+  /**
+   * @param snapshot the snapshot of the net to check, shared with the other analyses of the net
+   * @param strategy the way the marking nets are built
+   */
+  public SoundnessCheckImplement(NetSnapshot snapshot, MarkingNetStrategy strategy) {
+    this.snapshot = snapshot;
+    this.editor = snapshot.getEditor();
+    this.strategy = strategy;
   }
 
   /**
@@ -35,27 +65,41 @@ public class SoundnessCheckImplement implements ISoundnessCheck {
    */
   private IMarkingNet getMarkingNetWithoutTStar() {
     if (markingNetWithoutTStar == null) {
-      markingNetWithoutTStar =
-          BuilderFactory.createMarkingNet(
-              BuilderFactory.createLowLevelPetriNetWithoutTStarBuilder(editor)
-                  .getLowLevelPetriNet());
+      markingNetWithoutTStar = snapshot.getMarkingNet(false, strategy);
     }
     return this.markingNetWithoutTStar;
   }
 
   /**
    * @return the MarkingNet basing on the LowLevelPetriNet with t* (if not existing it will be
-   *     instantiated)
+   *     instantiated). A net reduced by {@link MarkingNetStrategy#STUBBORN} keeps the non-live
+   *     transitions but may miss unbounded places, so it is only used if the net is covered by
+   *     s-components and has no arc weights, which makes it bounded.
    */
   private IMarkingNet getMarkingNetWithTStar() {
     if (markingNetWithTStar == null) {
-      markingNetWithTStar =
-          BuilderFactory.createMarkingNet(
-              BuilderFactory.createLowLevelPetriNetWithTStarBuilder(editor).getLowLevelPetriNet());
+      MarkingNetStrategy tStarStrategy = strategy;
+      if (strategy == MarkingNetStrategy.STUBBORN && !isStructurallyBounded()) {
+        tStarStrategy = MarkingNetStrategy.COMPACT;
+      }
+      markingNetWithTStar = snapshot.getMarkingNet(true, tStarStrategy);
     }
     return this.markingNetWithTStar;
   }
 
+  /**
+   * @return true if the short-circuited net is covered by s-components and all arcs have the weight
+   *     1, then every s-component keeps its token count and no place is unbounded
+   */
+  private boolean isStructurallyBounded() {
+    if (!snapshot.getArcWeightViolations().isEmpty()) {
+      return false;
+    }
+    ISComponentTest sComponentTest =
+        AlgorithmFactory.createSComponentTest(snapshot.getLowLevelPetriNet(true));
+    return sComponentTest.isComplete() && sComponentTest.getNotSCovered().isEmpty();
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -119,6 +163,17 @@ public class SoundnessCheckImplement implements ISoundnessCheck {
     return unboundedPlaces;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see org.woped.qualanalysis.ISoundnessCheck#isDeadTransitionsReduced()
+   */
+  @Override
+  public boolean isDeadTransitionsReduced() {
+    IMarkingNet markingNet = getMarkingNetWithoutTStar();
+    return markingNet instanceof CompactMarkingNet && ((CompactMarkingNet) markingNet).isReduced();
+  }
+
   /**
    * @param node the AbstractNode to get the referring AbstractElementModel from
    * @return the referred AbstractElementModel
@@ -8,9 +8,9 @@ import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
 import org.woped.qualanalysis.service.interfaces.IWorkflowCheck;
 import org.woped.qualanalysis.soundness.algorithms.AlgorithmFactory;
 import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.sourcesink.ISourceSinkTest;
-import org.woped.qualanalysis.soundness.builder.BuilderFactory;
 import org.woped.qualanalysis.soundness.datamodel.AbstractNode;
 import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
+import org.woped.qualanalysis.structure.NetSnapshot;
 import org.woped.qualanalysis.structure.StructuralAnalysis;
 
 /**
@@ -19,6 +19,8 @@ import org.woped.qualanalysis.structure.StructuralAnalysis;
 public class WorkflowCheckImplement implements IWorkflowCheck {
 
   private IEditor editor = null;
+  private NetSnapshot snapshot = null;
+  private StructuralAnalysis structuralAnalysis = null;
   private ISourceSinkTest sourceSinkTest = null;
   private LowLevelPetriNet lolNetWithTStar = null;
   private LowLevelPetriNet lolNetWithoutTStar = null;
@@ -31,7 +33,15 @@ public class WorkflowCheckImplement implements IWorkflowCheck {
   private Set<Set<AbstractPetriNetElementModel>> connectedComponents = null;
 
   public WorkflowCheckImplement(IEditor editor) {
-    this.editor = editor;
+    this(new NetSnapshot(editor));
+  }
+
+  /**
+   * @param snapshot the snapshot of the net, shared with the other analyses of the net
+   */
+  public WorkflowCheckImplement(NetSnapshot snapshot) {
+    this.snapshot = snapshot;
+    this.editor = snapshot.getEditor();
   }
 
   /**
@@ -39,8 +49,7 @@ public class WorkflowCheckImplement implements IWorkflowCheck {
    */
   public LowLevelPetriNet getLolNetWithoutTStar() {
     if (lolNetWithoutTStar == null) {
-      lolNetWithoutTStar =
-          BuilderFactory.createLowLevelPetriNetWithoutTStarBuilder(editor).getLowLevelPetriNet();
+      lolNetWithoutTStar = snapshot.getLowLevelPetriNet(false);
     }
     return lolNetWithoutTStar;
   }
@@ -50,12 +59,21 @@ public class WorkflowCheckImplement implements IWorkflowCheck {
    */
   public LowLevelPetriNet getLolNetWithTStar() {
     if (lolNetWithTStar == null) {
-      lolNetWithTStar =
-          BuilderFactory.createLowLevelPetriNetWithTStarBuilder(editor).getLowLevelPetriNet();
+      lolNetWithTStar = snapshot.getLowLevelPetriNet(true);
     }
     return lolNetWithTStar;
   }
 
+  /**
+   * @return the StructuralAnalysis of the snapshot (if not existing it will be instantiated)
+   */
+  private StructuralAnalysis getStructuralAnalysis() {
+    if (structuralAnalysis == null) {
+      structuralAnalysis = new StructuralAnalysis(snapshot);
+    }
+    return structuralAnalysis;
+  }
+
   /**
    * @return the SourceSinkTest (if not existing it will be instantiated)
    */
@@ -108,8 +126,7 @@ public class WorkflowCheckImplement implements IWorkflowCheck {
 
     if (getConnectedComponents().size() > 1) {
 
-      return new HashSet<AbstractPetriNetElementModel>(
-          editor.getModelProcessor().getElementContainer().getRootElements());
+      return new HashSet<AbstractPetriNetElementModel>(snapshot.getRootElements());
     }
 
     return new HashSet<AbstractPetriNetElementModel>();
@@ -118,7 +135,7 @@ public class WorkflowCheckImplement implements IWorkflowCheck {
   @Override
   public Set<AbstractPetriNetElementModel> getNotStronglyConnectedNodes() {
     // delegate
-    return new StructuralAnalysis(editor).getNotStronglyConnectedNodes();
+    return getStructuralAnalysis().getNotStronglyConnectedNodes();
   }
 
   /**
@@ -128,7 +145,7 @@ public class WorkflowCheckImplement implements IWorkflowCheck {
    */
   @Override
   public Set<ArcModel> getArcWeightViolations() {
-    return new StructuralAnalysis(editor).getArcWeightViolations();
+    return getStructuralAnalysis().getArcWeightViolations();
   }
 
   @Override
@@ -158,7 +175,7 @@ public class WorkflowCheckImplement implements IWorkflowCheck {
 
   @Override
   public boolean isWorkflowNet() {
-    return new StructuralAnalysis(editor).isWorkflowNet();
+    return getStructuralAnalysis().isWorkflowNet();
   }
 
   /**
@@ -1,9 +1,16 @@
 package org.woped.qualanalysis.soundness.algorithms;
 
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.coverability.IMinimalCoverabilitySetTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.coverability.MinimalCoverabilitySetTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly.IOnTheFlySoundnessTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly.OnTheFlySoundnessTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.ISComponentProgressListener;
 import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.ISComponentTest;
-import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.SComponentTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.SComponentInvariantTest;
 import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.sourcesink.ISourceSinkTest;
 import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.sourcesink.SourceSinkTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.symbolic.ISymbolicReachabilityTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.symbolic.SymbolicReachabilityTest;
 import org.woped.qualanalysis.soundness.algorithms.basedonmarkingnet.deadtransition.DeadTransitionTest;
 import org.woped.qualanalysis.soundness.algorithms.basedonmarkingnet.deadtransition.IDeadTransitionTest;
 import org.woped.qualanalysis.soundness.algorithms.basedonmarkingnet.nonliveTransitions.INonLiveTranstionTest;
@@ -15,7 +22,8 @@ import org.woped.qualanalysis.soundness.algorithms.generic.INodeNet;
 import org.woped.qualanalysis.soundness.algorithms.generic.cc.ConnectedComponentTestGen;
 import org.woped.qualanalysis.soundness.algorithms.generic.cc.IConnectedComponentTestGen;
 import org.woped.qualanalysis.soundness.algorithms.generic.scc.IStronglyConnectedComponentTestGen;
-import org.woped.qualanalysis.soundness.algorithms.generic.scc.StronglyConnectedComponentTestGenTarjan;
+import org.woped.qualanalysis.soundness.algorithms.generic.scc.StronglyConnectedComponentTestGenIterative;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
 import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
 import org.woped.qualanalysis.soundness.marking.IMarkingNet;
 
@@ -57,7 +65,18 @@ public class AlgorithmFactory {
    * @return
    */
   public static ISComponentTest createSComponentTest(LowLevelPetriNet lolNet) {
-    return new SComponentTest(lolNet);
+    return new SComponentInvariantTest(lolNet);
+  }
+
+  /**
+   * @param lolNet with tStar.
+   * @param timeBudget the maximum calculation time in milliseconds
+   * @param listener receives the progress of the calculation, may be null
+   * @return
+   */
+  public static ISComponentTest createSComponentTest(
+      LowLevelPetriNet lolNet, long timeBudget, ISComponentProgressListener listener) {
+    return new SComponentInvariantTest(lolNet, timeBudget, listener);
   }
 
   /**
@@ -75,7 +94,7 @@ public class AlgorithmFactory {
    */
   public static <K extends INode<K>> IStronglyConnectedComponentTestGen<K> createSccTest(
       INodeNet<K> net) {
-    return new StronglyConnectedComponentTestGenTarjan<K>(net);
+    return new StronglyConnectedComponentTestGenIterative<K>(net);
   }
 
   /**
@@ -86,4 +105,40 @@ public class AlgorithmFactory {
   public static <K extends INode<K>> IConnectedComponentTestGen<K> createCcTest(INodeNet<K> net) {
     return new ConnectedComponentTestGen<K>(net);
   }
+
+  /**
+   * @param lolNet without tStar.
+   * @return
+   */
+  public static IOnTheFlySoundnessTest createOnTheFlySoundnessTest(ILowLevelPetriNet lolNet) {
+    return new OnTheFlySoundnessTest(lolNet);
+  }
+
+  /**
+   * @param lolNet without tStar.
+   * @param maxStates the maximum amount of markings to explore
+   * @param maxMemory the maximum estimated memory of the explored state space in bytes
+   * @return
+   */
+  public static IOnTheFlySoundnessTest createOnTheFlySoundnessTest(
+      ILowLevelPetriNet lolNet, int maxStates, long maxMemory) {
+    return new OnTheFlySoundnessTest(lolNet, maxStates, maxMemory);
+  }
+
+  /**
+   * @param lolNet a safe net, with or without tStar.
+   * @return
+   */
+  public static ISymbolicReachabilityTest createSymbolicReachabilityTest(ILowLevelPetriNet lolNet) {
+    return new SymbolicReachabilityTest(lolNet);
+  }
+
+  /**
+   * @param lolNet with or without tStar.
+   * @return
+   */
+  public static IMinimalCoverabilitySetTest createMinimalCoverabilitySetTest(
+      ILowLevelPetriNet lolNet) {
+    return new MinimalCoverabilitySetTest(lolNet);
+  }
 }
@@ -0,0 +1,33 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.coverability;
+
+import java.util.List;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.algorithms.basedonmarkingnet.unboundplaces.IUnboundedPlacesTest;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+
+/**
+ * interface for the computation of the minimal coverability set of a net.
+ *
+ * <p>The minimal coverability set is the smallest set of markings, possibly with unbounded places,
+ * such that every reachable marking is covered by one of them. It is finite for every net, so it
+ * can be used to find the unbounded places of nets whose reachability graph is infinite.
+ */
+public interface IMinimalCoverabilitySetTest extends IUnboundedPlacesTest {
+
+  /**
+   * @return the places in the order of the token vectors
+   */
+  public PlaceNode[] getPlaces();
+
+  /**
+   * @return the token vectors of the minimal coverability set, unbounded places have the token
+   *     count {@link org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet#OMEGA}
+   */
+  public List<int[]> getMinimalCoverabilitySet();
+
+  /**
+   * @return set of the places that are unbounded in a marking of the minimal coverability set
+   */
+  @Override
+  public Set<PlaceNode> getUnboundedPlaces();
+}
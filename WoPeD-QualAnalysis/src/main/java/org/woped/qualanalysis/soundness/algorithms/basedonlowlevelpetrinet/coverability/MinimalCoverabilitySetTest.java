@@ -0,0 +1,177 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.coverability;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.AbstractLowLevelPetriNetTest;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.marking.CoveringIndex;
+
+/**
+ * Computes the minimal coverability set in one run with the Karp and Miller algorithm with monotone
+ * pruning (Reynier and Servais, Minimal Coverability Set for Petri Nets: Karp and Miller Algorithm
+ * with Pruning).
+ *
+ * <p>This is the batch version of the algorithm the coverability graph assistant executes step by
+ * step. The coverability tree is built breadth first. A node is skipped if its parent has been
+ * deactivated, accelerated against its smaller active ancestors and skipped if an active node
+ * covers it. Otherwise every active node it covers is deactivated together with its active
+ * descendants, and the node becomes active and is expanded. The active nodes are the minimal
+ * coverability set once no node is left.
+ *
+ * <p>The active nodes are kept in a {@link CoveringIndex}, so the cover and deactivation checks do
+ * not compare the node with every active node. Only active nodes can have active descendants, so
+ * the deactivation starts at the active nodes covered by the new node.
+ *
+ * @see IMinimalCoverabilitySetTest
+ */
+public class MinimalCoverabilitySetTest extends AbstractLowLevelPetriNetTest
+    implements IMinimalCoverabilitySetTest {
+
+  private IndexedPetriNet net;
+  private List<int[]> minimalCoverabilitySet;
+  private int treeSize;
+
+  /**
+   * @param lolNet the net to analyze, with or without tStar
+   */
+  public MinimalCoverabilitySetTest(ILowLevelPetriNet lolNet) {
+    super(lolNet);
+  }
+
+  @Override
+  public PlaceNode[] getPlaces() {
+    calculate();
+    return net.getPlaces();
+  }
+
+  @Override
+  public List<int[]> getMinimalCoverabilitySet() {
+    calculate();
+    return minimalCoverabilitySet;
+  }
+
+  @Override
+  public Set<PlaceNode> getUnboundedPlaces() {
+    calculate();
+    Set<PlaceNode> unbounded = new HashSet<>();
+    for (int[] tokens : minimalCoverabilitySet) {
+      for (int place = 0; place < tokens.length; place++) {
+        if (tokens[place] == IndexedPetriNet.OMEGA) {
+          unbounded.add(net.getPlaces()[place]);
+        }
+      }
+    }
+    return unbounded;
+  }
+
+  /**
+   * @return the amount of nodes of the coverability tree built for the analysis
+   */
+  public int getTreeSize() {
+    calculate();
+    return treeSize;
+  }
+
+  private void calculate() {
+    if (minimalCoverabilitySet != null) {
+      return;
+    }
+    net = new IndexedPetriNet(lolNet);
+    CoveringIndex<TreeNode> activeNodes = new CoveringIndex<>(net.getPlaceCount());
+    List<TreeNode> expandedNodes = new ArrayList<>();
+    Deque<TreeNode> unprocessedNodes = new ArrayDeque<>();
+    unprocessedNodes.add(new TreeNode(net.getInitialTokens(false), null));
+    treeSize = 1;
+
+    while (!unprocessedNodes.isEmpty()) {
+      TreeNode node = unprocessedNodes.poll();
+      if (node.parent != null && !node.parent.active) {
+        continue;
+      }
+
+      accelerate(node);
+      if (activeNodes.findCovering(node.tokens) != null) {
+        continue;
+      }
+      for (TreeNode covered : activeNodes.getCovered(node.tokens)) {
+        deactivate(covered, activeNodes);
+      }
+
+      node.active = true;
+      activeNodes.add(node.tokens, node);
+      expandedNodes.add(node);
+      for (int t = 0; t < net.getTransitionCount(); t++) {
+        if (net.isActivated(t, node.tokens)) {
+          int[] tokens = node.tokens.clone();
+          net.fire(t, tokens);
+          TreeNode child = new TreeNode(tokens, node);
+          node.children.add(child);
+          unprocessedNodes.add(child);
+          treeSize++;
+        }
+      }
+    }
+
+    List<int[]> result = new ArrayList<>(activeNodes.size());
+    for (TreeNode node : expandedNodes) {
+      if (node.active) {
+        result.add(node.tokens.clone());
+      }
+    }
+    minimalCoverabilitySet = Collections.unmodifiableList(result);
+  }
+
+  /** Sets the places to omega that have grown since a smaller active ancestor. */
+  private void accelerate(TreeNode node) {
+    int[] original = node.tokens.clone();
+    for (TreeNode ancestor = node.parent; ancestor != null; ancestor = ancestor.parent) {
+      if (!ancestor.active
+          || !IndexedPetriNet.lessOrEqual(ancestor.tokens, original)
+          || Arrays.equals(ancestor.tokens, original)) {
+        continue;
+      }
+      for (int place = 0; place < original.length; place++) {
+        if (original[place] != IndexedPetriNet.OMEGA && original[place] > ancestor.tokens[place]) {
+          node.tokens[place] = IndexedPetriNet.OMEGA;
+        }
+      }
+    }
+  }
+
+  /** Deactivates the node and all its active descendants. */
+  private void deactivate(TreeNode node, CoveringIndex<TreeNode> activeNodes) {
+    Deque<TreeNode> stack = new ArrayDeque<>();
+    stack.push(node);
+    while (!stack.isEmpty()) {
+      TreeNode current = stack.pop();
+      if (!current.active) {
+        continue;
+      }
+      current.active = false;
+      activeNodes.remove(current.tokens, current);
+      for (TreeNode child : current.children) {
+        stack.push(child);
+      }
+    }
+  }
+
+  private static class TreeNode {
+    private final int[] tokens;
+    private final TreeNode parent;
+    private final List<TreeNode> children = new ArrayList<>(0);
+    private boolean active = false;
+
+    private TreeNode(int[] tokens, TreeNode parent) {
+      this.tokens = tokens;
+      this.parent = parent;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly;
+
+/**
+ * interface for soundness checks that decide soundness while the state space is explored.
+ *
+ * @see OnTheFlySoundnessResult
+ */
+public interface IOnTheFlySoundnessTest {
+
+  /**
+   * Explores the state space until a violation is found, the state space is complete or the budget
+   * is exhausted. The result is calculated on the first call only.
+   *
+   * @return the verdict, the violation and its witness
+   */
+  public OnTheFlySoundnessResult getResult();
+}
@@ -0,0 +1,105 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+
+/**
+ * The result of an on-the-fly soundness check.
+ *
+ * @see IOnTheFlySoundnessTest
+ */
+public class OnTheFlySoundnessResult {
+
+  /** The answer to the question whether the workflow net is sound. */
+  public enum Verdict {
+    SOUND,
+    UNSOUND,
+    /** the state or memory budget has been exhausted before the question could be decided. */
+    INCONCLUSIVE
+  }
+
+  /** The soundness property found to be violated. */
+  public enum Violation {
+    /** a reachable marking contains the final marking and further tokens. */
+    IMPROPER_COMPLETION,
+    /** the final marking can not be reached from a reachable marking. */
+    NO_OPTION_TO_COMPLETE,
+    /** a reachable marking strictly covers one of its predecessors, so the net is unbounded. */
+    UNBOUNDED,
+    /** a transition can never fire. */
+    DEAD_TRANSITIONS
+  }
+
+  private final Verdict verdict;
+  private final Violation violation;
+  private final List<TransitionNode> witness;
+  private final Set<TransitionNode> deadTransitions;
+  private final int exploredStates;
+
+  /**
+   * @param verdict the verdict
+   * @param violation the violated property, null unless the net is unsound
+   * @param witness the firing sequence leading to the violating marking
+   * @param deadTransitions the transitions that can never fire, only known if the whole state space
+   *     has been explored
+   * @param exploredStates the amount of markings discovered
+   */
+  OnTheFlySoundnessResult(
+      Verdict verdict,
+      Violation violation,
+      List<TransitionNode> witness,
+      Set<TransitionNode> deadTransitions,
+      int exploredStates) {
+    this.verdict = verdict;
+    this.violation = violation;
+    this.witness = Collections.unmodifiableList(witness);
+    this.deadTransitions = Collections.unmodifiableSet(deadTransitions);
+    this.exploredStates = exploredStates;
+  }
+
+  /**
+   * @return the verdict
+   */
+  public Verdict getVerdict() {
+    return verdict;
+  }
+
+  /**
+   * @return the violated property, null if the net is sound or the check is inconclusive
+   */
+  public Violation getViolation() {
+    return violation;
+  }
+
+  /**
+   * Returns the firing sequence from the initial marking to the marking violating the property. It
+   * is empty if the net is sound, the check is inconclusive or the violation is {@link
+   * Violation#DEAD_TRANSITIONS}.
+   *
+   * @return the witness firing sequence
+   */
+  public List<TransitionNode> getWitness() {
+    return witness;
+  }
+
+  /**
+   * @return the dead transitions, empty unless the violation is {@link Violation#DEAD_TRANSITIONS}
+   */
+  public Set<TransitionNode> getDeadTransitions() {
+    return deadTransitions;
+  }
+
+  /**
+   * @return the amount of markings discovered before the check stopped
+   */
+  public int getExploredStates() {
+    return exploredStates;
+  }
+
+  @Override
+  public String toString() {
+    return verdict + (violation == null ? "" : " " + violation + " " + witness);
+  }
+}
@@ -0,0 +1,319 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.AbstractLowLevelPetriNetTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly.OnTheFlySoundnessResult.Verdict;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly.OnTheFlySoundnessResult.Violation;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.qualanalysis.soundness.marking.PackedMarkingStore;
+
+/**
+ * Decides the soundness of a workflow net while its state space is explored.
+ *
+ * <p>The markings are explored breadth first into a {@link CompactMarkingNet}. Each new marking is
+ * checked at once:
+ *
+ * <ul>
+ *   <li>if it contains the final marking and further tokens, proper completion is violated
+ *   <li>if it strictly covers a marking on its discovery path, the net is unbounded, which a sound
+ *       net never is
+ *   <li>if no transition is enabled in it and it is not the final marking, it is a deadlock and the
+ *       option to complete is violated
+ * </ul>
+ *
+ * The exploration stops at the first violation, and the firing sequence leading to the violating
+ * marking is returned as witness. Livelocks and dead transitions can only be found once all
+ * markings are known: a backward search from the final marking finds the markings without the
+ * option to complete, and transitions never fired during the exploration are dead.
+ *
+ * <p>If the amount of markings or the estimated memory of the explored state space exceeds the
+ * budget, the check stops with an inconclusive verdict.
+ *
+ * @see IOnTheFlySoundnessTest
+ */
+public class OnTheFlySoundnessTest extends AbstractLowLevelPetriNetTest
+    implements IOnTheFlySoundnessTest {
+
+  /** default maximum amount of markings. */
+  public static final int DEFAULT_MAX_STATES = 1000000;
+
+  private final int maxStates;
+  private final long maxMemory;
+
+  private IndexedPetriNet net;
+  private CompactMarkingNet markingNet;
+  private int sink;
+  private OnTheFlySoundnessResult result;
+
+  /**
+   * Creates a check with {@link #DEFAULT_MAX_STATES} and a quarter of the maximum heap as budget.
+   *
+   * @param lolNet the workflow net without t*
+   */
+  public OnTheFlySoundnessTest(ILowLevelPetriNet lolNet) {
+    this(lolNet, DEFAULT_MAX_STATES, Runtime.getRuntime().maxMemory() / 4);
+  }
+
+  /**
+   * @param lolNet the workflow net without t*
+   * @param maxStates the maximum amount of markings to explore
+   * @param maxMemory the maximum estimated memory of the explored state space in bytes
+   */
+  public OnTheFlySoundnessTest(ILowLevelPetriNet lolNet, int maxStates, long maxMemory) {
+    super(lolNet);
+    this.maxStates = maxStates;
+    this.maxMemory = maxMemory;
+  }
+
+  /**
+   * @see IOnTheFlySoundnessTest#getResult()
+   * @throws IllegalArgumentException if the net has no unique sink place
+   */
+  @Override
+  public OnTheFlySoundnessResult getResult() {
+    if (result == null) {
+      net = new IndexedPetriNet(lolNet);
+      sink = findSink();
+      markingNet = new CompactMarkingNet(net);
+      result = explore();
+      // the state space is not needed any more
+      markingNet = null;
+    }
+    return result;
+  }
+
+  private OnTheFlySoundnessResult explore() {
+    PackedMarkingStore store = markingNet.getStore();
+    int[] current = new int[net.getPlaceCount()];
+    int[] next = new int[net.getPlaceCount()];
+    int[] ancestor = new int[net.getPlaceCount()];
+    int[] firedTransitions = new int[net.getTransitionCount()];
+    int[] targets = new int[net.getTransitionCount()];
+    BitSet fired = new BitSet(net.getTransitionCount());
+
+    store.read(0, current);
+    if (isImproperCompletion(current)) {
+      return unsound(Violation.IMPROPER_COMPLETION, getWitness(0, -1));
+    }
+
+    for (int marking = 0; marking < markingNet.getMarkingCount(); marking++) {
+      store.read(marking, current);
+      int arcs = 0;
+
+      for (int t = 0; t < net.getTransitionCount(); t++) {
+        if (!net.isActivated(t, current)) continue;
+
+        System.arraycopy(current, 0, next, 0, current.length);
+        net.fire(t, next);
+        int target = markingNet.addMarking(next, marking);
+        if (target >= 0) {
+          if (isImproperCompletion(next)) {
+            return unsound(Violation.IMPROPER_COMPLETION, getWitness(marking, t));
+          }
+          if (coversAncestor(marking, next, ancestor)) {
+            return unsound(Violation.UNBOUNDED, getWitness(marking, t));
+          }
+          if (isBudgetExhausted()) {
+            return result(Verdict.INCONCLUSIVE, null, Collections.emptyList());
+          }
+        } else {
+          target = -(target + 1);
+        }
+        fired.set(t);
+        firedTransitions[arcs] = t;
+        targets[arcs++] = target;
+      }
+
+      if (arcs == 0 && !isFinal(current)) {
+        return unsound(Violation.NO_OPTION_TO_COMPLETE, getWitness(marking, -1));
+      }
+      markingNet.setSuccessors(marking, firedTransitions, targets, arcs);
+    }
+
+    int stuck = findMarkingWithoutOptionToComplete();
+    if (stuck >= 0) {
+      return unsound(Violation.NO_OPTION_TO_COMPLETE, getWitness(stuck, -1));
+    }
+
+    Set<TransitionNode> deadTransitions = new HashSet<>();
+    for (int t = fired.nextClearBit(0);
+        t < net.getTransitionCount();
+        t = fired.nextClearBit(t + 1)) {
+      deadTransitions.add(net.getTransitions()[t]);
+    }
+    if (!deadTransitions.isEmpty()) {
+      return new OnTheFlySoundnessResult(
+          Verdict.UNSOUND,
+          Violation.DEAD_TRANSITIONS,
+          Collections.emptyList(),
+          deadTransitions,
+          markingNet.getMarkingCount());
+    }
+    return result(Verdict.SOUND, null, Collections.emptyList());
+  }
+
+  /**
+   * @return the index of the only place without output transitions
+   */
+  private int findSink() {
+    boolean[] consumed = new boolean[net.getPlaceCount()];
+    for (int t = 0; t < net.getTransitionCount(); t++) {
+      for (int place : net.getInputPlaces(t)) {
+        consumed[place] = true;
+      }
+    }
+    int result = -1;
+    for (int place = 0; place < consumed.length; place++) {
+      if (consumed[place]) continue;
+      if (result >= 0) {
+        throw new IllegalArgumentException("The net has more than one sink place");
+      }
+      result = place;
+    }
+    if (result < 0) {
+      throw new IllegalArgumentException("The net has no sink place");
+    }
+    return result;
+  }
+
+  private boolean isFinal(int[] tokens) {
+    for (int place = 0; place < tokens.length; place++) {
+      if (tokens[place] != (place == sink ? 1 : 0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the tokens contain the final marking but are not equal to it
+   */
+  private boolean isImproperCompletion(int[] tokens) {
+    return tokens[sink] >= 1 && !isFinal(tokens);
+  }
+
+  /**
+   * @param parent the index of the marking the new marking has been calculated from
+   * @param tokens the token vector of the new marking
+   * @param buffer a buffer for the ancestor token vectors
+   * @return true if the new marking strictly covers an ancestor
+   */
+  private boolean coversAncestor(int parent, int[] tokens, int[] buffer) {
+    for (int marking = parent; marking >= 0; marking = markingNet.getPredecessorIndex(marking)) {
+      markingNet.getStore().read(marking, buffer);
+      if (IndexedPetriNet.lessOrEqual(buffer, tokens)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Estimates the memory of the packed token vectors, the hash index, the predecessors and the
+   * arcs. Checking the estimate instead of the free heap keeps the verdict independent of the
+   * garbage collector.
+   *
+   * @return true if the amount of markings or their estimated memory exceeds the budget
+   */
+  private boolean isBudgetExhausted() {
+    PackedMarkingStore store = markingNet.getStore();
+    if (store.size() > maxStates) {
+      return true;
+    }
+    int placesPerWord = 32 / store.getBitsPerPlace();
+    long bytesPerMarking = 4L * ((net.getPlaceCount() + placesPerWord - 1) / placesPerWord) + 24;
+    long memory = bytesPerMarking * store.size() + 8L * markingNet.getArcCount();
+    return memory > maxMemory;
+  }
+
+  /**
+   * Searches backwards from the final marking over the explored arcs.
+   *
+   * @return the first marking from which the final marking is not reachable, or -1
+   */
+  private int findMarkingWithoutOptionToComplete() {
+    int count = markingNet.getMarkingCount();
+    int[] finalTokens = new int[net.getPlaceCount()];
+    finalTokens[sink] = 1;
+    int finalMarking = markingNet.getStore().indexOf(finalTokens);
+    if (finalMarking < 0) {
+      return 0;
+    }
+
+    // invert the arcs by a counting sort over the targets
+    int[] firstPredecessor = new int[count + 1];
+    for (int arc = 0; arc < markingNet.getArcCount(); arc++) {
+      firstPredecessor[markingNet.getArcTarget(arc) + 1]++;
+    }
+    for (int i = 0; i < count; i++) {
+      firstPredecessor[i + 1] += firstPredecessor[i];
+    }
+    int[] fill = firstPredecessor.clone();
+    int[] predecessors = new int[markingNet.getArcCount()];
+    for (int marking = 0; marking < count; marking++) {
+      for (int arc = markingNet.getFirstArc(marking); arc < markingNet.getEndArc(marking); arc++) {
+        predecessors[fill[markingNet.getArcTarget(arc)]++] = marking;
+      }
+    }
+
+    BitSet canComplete = new BitSet(count);
+    int[] queue = new int[count];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = finalMarking;
+    canComplete.set(finalMarking);
+    while (head < tail) {
+      int marking = queue[head++];
+      for (int i = firstPredecessor[marking]; i < firstPredecessor[marking + 1]; i++) {
+        if (!canComplete.get(predecessors[i])) {
+          canComplete.set(predecessors[i]);
+          queue[tail++] = predecessors[i];
+        }
+      }
+    }
+    int stuck = canComplete.nextClearBit(0);
+    return stuck < count ? stuck : -1;
+  }
+
+  /**
+   * @param marking the index of an explored marking
+   * @param transition the transition fired in the marking, or -1
+   * @return the firing sequence leading from the initial marking to the marking, followed by the
+   *     transition
+   */
+  private List<TransitionNode> getWitness(int marking, int transition) {
+    List<TransitionNode> witness = new ArrayList<>();
+    if (transition >= 0) {
+      witness.add(net.getTransitions()[transition]);
+    }
+    for (int child = marking; child > 0; child = markingNet.getPredecessorIndex(child)) {
+      int parent = markingNet.getPredecessorIndex(child);
+      for (int arc = markingNet.getFirstArc(parent); arc < markingNet.getEndArc(parent); arc++) {
+        if (markingNet.getArcTarget(arc) == child) {
+          witness.add(net.getTransitions()[markingNet.getArcTransition(arc)]);
+          break;
+        }
+      }
+    }
+    Collections.reverse(witness);
+    return witness;
+  }
+
+  private OnTheFlySoundnessResult unsound(Violation violation, List<TransitionNode> witness) {
+    return result(Verdict.UNSOUND, violation, witness);
+  }
+
+  private OnTheFlySoundnessResult result(
+      Verdict verdict, Violation violation, List<TransitionNode> witness) {
+    return new OnTheFlySoundnessResult(
+        verdict, violation, witness, Collections.emptySet(), markingNet.getMarkingCount());
+  }
+}
@@ -0,0 +1,18 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent;
+
+/**
+ * receives the progress of a long running s-component calculation.
+ *
+ * @see SComponentInvariantTest
+ */
+public interface ISComponentProgressListener {
+
+  /**
+   * called after each processed transition.
+   *
+   * @param processedTransitions the amount of transitions processed so far
+   * @param transitionCount the amount of transitions of the net
+   * @param candidates the amount of invariant candidates currently kept
+   */
+  public void progress(int processedTransitions, int transitionCount, int candidates);
+}
@@ -20,4 +20,10 @@ public interface ISComponentTest {
    * @return an iterator of all not-SCovered places.
    */
   public Set<PlaceNode> getNotSCovered();
+
+  /**
+   * @return false if the calculation has been aborted. Then s-components may be missing and places
+   *     may be reported as not s-covered even though they are.
+   */
+  public boolean isComplete();
 }
@@ -0,0 +1,416 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.AbstractLowLevelPetriNetTest;
+import org.woped.qualanalysis.soundness.datamodel.AbstractNode;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+
+/**
+ * finds the s-components of a net by its place invariants.
+ *
+ * <p>An s-component is a strongly connected subnet that consists of a set of places together with
+ * all their input and output transitions, where each transition has exactly one input and one
+ * output place in the subnet. The characteristic vector of its places is a semi-positive place
+ * invariant of the unweighted incidence matrix, and no smaller invariant support is contained in
+ * it. So the s-components are exactly those minimal support invariants whose transitions all have
+ * exactly one input and one output place in the support and which are strongly connected. The
+ * minimal support invariants are calculated by the farkas algorithm: the transitions are eliminated
+ * one after the other by combining the rows with a positive and a negative entry, rows whose
+ * support is not minimal are dropped as soon as they arise.
+ *
+ * <p>The number of s-components can be exponential in the size of the net, so the calculation stops
+ * after a time budget. The invariants completed until then are still reported, but the result may
+ * miss s-components and report covered places as not covered, see {@link #isComplete()}.
+ *
+ * @see ISComponentTest
+ */
+public class SComponentInvariantTest extends AbstractLowLevelPetriNetTest
+    implements ISComponentTest {
+
+  /** the default time budget in milliseconds. */
+  public static final long DEFAULT_TIME_BUDGET = 10000;
+
+  private final long timeBudget;
+  private final ISComponentProgressListener listener;
+
+  private IndexedPetriNet net;
+  private int[][] placeInputs;
+  private int[][] placeOutputs;
+  private Set<Set<AbstractNode>> sComponents;
+  private Set<PlaceNode> uncoveredPlaces;
+  private boolean complete;
+
+  /**
+   * @param lolNetWithTStar LowLevelPetriNet (with t*) the algorithm is based on
+   */
+  public SComponentInvariantTest(ILowLevelPetriNet lolNetWithTStar) {
+    this(lolNetWithTStar, DEFAULT_TIME_BUDGET, null);
+  }
+
+  /**
+   * @param lolNetWithTStar LowLevelPetriNet (with t*) the algorithm is based on
+   * @param timeBudget the time in milliseconds after which the calculation stops
+   * @param listener receives the progress of the calculation, may be null
+   */
+  public SComponentInvariantTest(
+      ILowLevelPetriNet lolNetWithTStar, long timeBudget, ISComponentProgressListener listener) {
+    super(lolNetWithTStar);
+    this.timeBudget = timeBudget;
+    this.listener = listener;
+    reCalculate();
+  }
+
+  @Override
+  public Set<Set<AbstractNode>> getSComponents() {
+    return sComponents;
+  }
+
+  @Override
+  public Set<PlaceNode> getNotSCovered() {
+    return uncoveredPlaces;
+  }
+
+  /**
+   * @return false if the time budget has been exceeded. Then s-components may be missing and places
+   *     may be reported as not s-covered even though they are.
+   */
+  @Override
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public void reCalculate() {
+    net = new IndexedPetriNet(lolNet);
+    indexPlaceTransitions();
+    sComponents = new HashSet<Set<AbstractNode>>();
+    uncoveredPlaces = new HashSet<PlaceNode>(Arrays.asList(net.getPlaces()));
+
+    List<Row> invariants = calculateInvariants();
+    for (Row invariant : invariants) {
+      if (!isSComponent(invariant) || !isStronglyConnected(invariant)) continue;
+
+      Set<AbstractNode> component = new HashSet<AbstractNode>();
+      for (int place : invariant.places) {
+        PlaceNode placeNode = net.getPlaces()[place];
+        component.add(placeNode);
+        component.addAll(placeNode.getPredecessorNodes());
+        component.addAll(placeNode.getSuccessorNodes());
+        uncoveredPlaces.remove(placeNode);
+      }
+      sComponents.add(component);
+    }
+  }
+
+  /**
+   * farkas algorithm with minimal support check.
+   *
+   * @return the minimal support invariants, or the invariants found until the time budget has been
+   *     exceeded
+   */
+  private List<Row> calculateInvariants() {
+    int placeCount = net.getPlaceCount();
+    int transitionCount = net.getTransitionCount();
+    long deadline = System.currentTimeMillis() + timeBudget;
+
+    List<Row> rows = new ArrayList<Row>(placeCount);
+    for (int place = 0; place < placeCount; place++) {
+      rows.add(new Row(new int[] {place}, new long[] {1}));
+    }
+
+    boolean[] eliminated = new boolean[transitionCount];
+    complete = true;
+    for (int step = 0; step < transitionCount; step++) {
+      int transition = chooseTransition(rows, eliminated);
+      eliminated[transition] = true;
+
+      List<Row> positive = new ArrayList<Row>();
+      List<Row> negative = new ArrayList<Row>();
+      List<Row> next = new ArrayList<Row>();
+      for (Row row : rows) {
+        long value = getValue(row, transition);
+        if (value > 0) {
+          positive.add(row);
+        } else if (value < 0) {
+          negative.add(row);
+        } else {
+          next.add(row);
+        }
+      }
+
+      Set<BitSet> supports = new HashSet<BitSet>();
+      for (Row row : next) {
+        supports.add(row.support);
+      }
+      BitSet union = new BitSet(placeCount);
+      for (Row pos : positive) {
+        long posValue = getValue(pos, transition);
+        for (Row neg : negative) {
+          union.clear();
+          union.or(pos.support);
+          union.or(neg.support);
+          if (supports.contains(union) || !isMinimal(union, rows, pos, neg)) continue;
+
+          try {
+            Row combined = pos.combine(-getValue(neg, transition), neg, posValue);
+            supports.add(combined.support);
+            next.add(combined);
+          } catch (ArithmeticException e) {
+            // the entries exceed the long range, the invariant is lost
+            complete = false;
+          }
+        }
+        if (System.currentTimeMillis() > deadline) {
+          complete = false;
+          break;
+        }
+      }
+      // the rows with a non zero entry for the transition are dropped
+      rows = next;
+
+      if (listener != null) {
+        listener.progress(step + 1, transitionCount, rows.size());
+      }
+      if (System.currentTimeMillis() > deadline) {
+        complete = false;
+        break;
+      }
+    }
+
+    if (complete) {
+      return rows;
+    }
+    // only the rows without entries for the remaining transitions are invariants
+    List<Row> invariants = new ArrayList<Row>();
+    for (Row row : rows) {
+      boolean invariant = true;
+      for (int transition = 0; transition < transitionCount && invariant; transition++) {
+        invariant = eliminated[transition] || getValue(row, transition) == 0;
+      }
+      if (invariant) {
+        invariants.add(row);
+      }
+    }
+    return invariants;
+  }
+
+  /**
+   * @return the not yet eliminated transition which creates the least new rows
+   */
+  private int chooseTransition(List<Row> rows, boolean[] eliminated) {
+    int best = -1;
+    long bestCost = Long.MAX_VALUE;
+    for (int transition = 0; transition < eliminated.length; transition++) {
+      if (eliminated[transition]) continue;
+      long positive = 0;
+      long negative = 0;
+      for (Row row : rows) {
+        long value = getValue(row, transition);
+        if (value > 0) {
+          positive++;
+        } else if (value < 0) {
+          negative++;
+        }
+      }
+      long cost = positive * negative - positive - negative;
+      if (cost < bestCost) {
+        best = transition;
+        bestCost = cost;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * adjacency test: the combination of two rows has a minimal support if no other row has a support
+   * contained in the union of their supports.
+   */
+  private boolean isMinimal(BitSet union, List<Row> rows, Row first, Row second) {
+    int cardinality = union.cardinality();
+    for (Row row : rows) {
+      if (row == first || row == second || row.places.length > cardinality) continue;
+      if (isSubset(row.support, union)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSubset(BitSet subset, BitSet set) {
+    for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+      if (!set.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the entry of the product of the row and the unweighted incidence matrix
+   */
+  private long getValue(Row row, int transition) {
+    long value = 0;
+    for (int place : net.getOutputPlaces(transition)) {
+      value += row.get(place);
+    }
+    for (int place : net.getInputPlaces(transition)) {
+      value -= row.get(place);
+    }
+    return value;
+  }
+
+  /**
+   * @return true if each transition connected to the support has exactly one input and one output
+   *     place in the support
+   */
+  private boolean isSComponent(Row invariant) {
+    for (int transition = 0; transition < net.getTransitionCount(); transition++) {
+      int inputs = countInSupport(invariant, net.getInputPlaces(transition));
+      int outputs = countInSupport(invariant, net.getOutputPlaces(transition));
+      if ((inputs != 0 || outputs != 0) && (inputs != 1 || outputs != 1)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if all places of the support are reachable from the first one and vice versa. Each
+   *     transition of an s-component connects one place to one place, so it is enough to traverse
+   *     the places.
+   */
+  private boolean isStronglyConnected(Row invariant) {
+    return reachesAll(invariant, placeOutputs, true) && reachesAll(invariant, placeInputs, false);
+  }
+
+  private boolean reachesAll(Row invariant, int[][] placeTransitions, boolean forward) {
+    BitSet visited = new BitSet(net.getPlaceCount());
+    int[] queue = new int[invariant.places.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = invariant.places[0];
+    visited.set(invariant.places[0]);
+    while (head < tail) {
+      int place = queue[head++];
+      for (int transition : placeTransitions[place]) {
+        int[] next = forward ? net.getOutputPlaces(transition) : net.getInputPlaces(transition);
+        for (int neighbour : next) {
+          if (invariant.support.get(neighbour) && !visited.get(neighbour)) {
+            visited.set(neighbour);
+            queue[tail++] = neighbour;
+          }
+        }
+      }
+    }
+    return tail == invariant.places.length;
+  }
+
+  /** builds the input and output transitions of each place. */
+  private void indexPlaceTransitions() {
+    int[] inputCount = new int[net.getPlaceCount()];
+    int[] outputCount = new int[net.getPlaceCount()];
+    for (int transition = 0; transition < net.getTransitionCount(); transition++) {
+      for (int place : net.getOutputPlaces(transition)) {
+        inputCount[place]++;
+      }
+      for (int place : net.getInputPlaces(transition)) {
+        outputCount[place]++;
+      }
+    }
+    placeInputs = new int[net.getPlaceCount()][];
+    placeOutputs = new int[net.getPlaceCount()][];
+    for (int place = 0; place < net.getPlaceCount(); place++) {
+      placeInputs[place] = new int[inputCount[place]];
+      placeOutputs[place] = new int[outputCount[place]];
+    }
+    for (int transition = 0; transition < net.getTransitionCount(); transition++) {
+      for (int place : net.getOutputPlaces(transition)) {
+        placeInputs[place][--inputCount[place]] = transition;
+      }
+      for (int place : net.getInputPlaces(transition)) {
+        placeOutputs[place][--outputCount[place]] = transition;
+      }
+    }
+  }
+
+  private static int countInSupport(Row row, int[] places) {
+    int count = 0;
+    for (int place : places) {
+      if (row.support.get(place)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** a semi-positive place vector, stored sparse with ascending place indices. */
+  private static final class Row {
+    private final int[] places;
+    private final long[] values;
+    private final BitSet support;
+
+    Row(int[] places, long[] values) {
+      this.places = places;
+      this.values = values;
+      this.support = new BitSet();
+      for (int place : places) {
+        support.set(place);
+      }
+    }
+
+    long get(int place) {
+      int index = Arrays.binarySearch(places, place);
+      return index >= 0 ? values[index] : 0;
+    }
+
+    /**
+     * @return {@code factor * this + otherFactor * other}, divided by the gcd of its entries
+     */
+    Row combine(long factor, Row other, long otherFactor) {
+      int[] resultPlaces = new int[places.length + other.places.length];
+      long[] resultValues = new long[resultPlaces.length];
+      int size = 0;
+      int i = 0;
+      int j = 0;
+      while (i < places.length || j < other.places.length) {
+        if (j == other.places.length || (i < places.length && places[i] < other.places[j])) {
+          resultPlaces[size] = places[i];
+          resultValues[size++] = Math.multiplyExact(factor, values[i++]);
+        } else if (i == places.length || other.places[j] < places[i]) {
+          resultPlaces[size] = other.places[j];
+          resultValues[size++] = Math.multiplyExact(otherFactor, other.values[j++]);
+        } else {
+          resultPlaces[size] = places[i];
+          resultValues[size++] =
+              Math.addExact(
+                  Math.multiplyExact(factor, values[i++]),
+                  Math.multiplyExact(otherFactor, other.values[j++]));
+        }
+      }
+
+      long gcd = 0;
+      for (int k = 0; k < size; k++) {
+        gcd = gcd(gcd, resultValues[k]);
+      }
+      for (int k = 0; k < size; k++) {
+        resultValues[k] /= gcd;
+      }
+      return new Row(Arrays.copyOf(resultPlaces, size), Arrays.copyOf(resultValues, size));
+    }
+
+    private static long gcd(long a, long b) {
+      while (b != 0) {
+        long r = a % b;
+        a = b;
+        b = r;
+      }
+      return a;
+    }
+  }
+}
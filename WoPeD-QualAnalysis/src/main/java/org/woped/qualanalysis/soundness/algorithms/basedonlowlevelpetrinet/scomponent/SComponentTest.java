@@ -35,6 +35,11 @@ public class SComponentTest extends AbstractLowLevelPetriNetTest implements ISCo
     return sComponents;
   }
 
+  @Override
+  public boolean isComplete() {
+    return true;
+  }
+
   public void reCalculate() {
     sComponents = new HashSet<Set<AbstractNode>>();
     uncoveredPlaces = new HashSet<PlaceNode>();
@@ -0,0 +1,272 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.symbolic;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A minimal reduced ordered binary decision diagram package.
+ *
+ * <p>Nodes are identified by int handles and stored in parallel arrays, {@link #FALSE} and {@link
+ * #TRUE} are the terminals. Variable {@code 0} is the topmost variable. Equal functions always have
+ * the same handle, so two functions are equal if and only if their handles are.
+ *
+ * <p>There is no garbage collection: all nodes are kept until the manager is discarded. The results
+ * of the recursive operations are memoized in a direct mapped cache that may overwrite older
+ * entries.
+ */
+final class BddManager {
+
+  static final int FALSE = 0;
+  static final int TRUE = 1;
+
+  private static final int OP_AND = 0;
+  private static final int OP_OR = 1;
+  private static final int OP_NOT = 2;
+  private static final int OP_RESTRICT = 3;
+
+  private final int varCount;
+
+  private int[] var;
+  private int[] low;
+  private int[] high;
+  private int nodeCount;
+
+  // open addressing hash of the node handles, 0 marks a free slot
+  private int[] unique;
+
+  private final int[] cacheOp;
+  private final int[] cacheLeft;
+  private final int[] cacheRight;
+  private final int[] cacheResult;
+
+  /**
+   * @param varCount the amount of variables
+   */
+  BddManager(int varCount) {
+    this.varCount = varCount;
+    var = new int[1024];
+    low = new int[var.length];
+    high = new int[var.length];
+    unique = new int[2 * var.length];
+    // terminals are ordered below all variables
+    var[FALSE] = varCount;
+    var[TRUE] = varCount;
+    nodeCount = 2;
+
+    int cacheSize = 1 << 18;
+    cacheOp = new int[cacheSize];
+    cacheLeft = new int[cacheSize];
+    cacheRight = new int[cacheSize];
+    cacheResult = new int[cacheSize];
+    Arrays.fill(cacheOp, -1);
+  }
+
+  /**
+   * @return the amount of nodes created so far, including the terminals
+   */
+  int getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * @param variable the index of the variable
+   * @return the function that is true if the variable is true
+   */
+  int variable(int variable) {
+    return node(variable, FALSE, TRUE);
+  }
+
+  /**
+   * @param variables the indices of the variables
+   * @param values the value of each variable
+   * @return the conjunction of the literals
+   */
+  int cube(int[] variables, boolean[] values) {
+    Integer[] order = new Integer[variables.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    // build bottom up
+    Arrays.sort(order, (a, b) -> variables[b] - variables[a]);
+    int result = TRUE;
+    for (int i : order) {
+      result = values[i] ? node(variables[i], FALSE, result) : node(variables[i], result, FALSE);
+    }
+    return result;
+  }
+
+  int and(int f, int g) {
+    if (f == FALSE || g == FALSE) return FALSE;
+    if (f == TRUE || f == g) return g;
+    if (g == TRUE) return f;
+    if (f > g) {
+      int swap = f;
+      f = g;
+      g = swap;
+    }
+    int slot = slot(OP_AND, f, g);
+    if (isCached(slot, OP_AND, f, g)) return cacheResult[slot];
+
+    int v = Math.min(var[f], var[g]);
+    int l = and(var[f] == v ? low[f] : f, var[g] == v ? low[g] : g);
+    int h = and(var[f] == v ? high[f] : f, var[g] == v ? high[g] : g);
+    return cache(slot, OP_AND, f, g, node(v, l, h));
+  }
+
+  int or(int f, int g) {
+    if (f == TRUE || g == TRUE) return TRUE;
+    if (f == FALSE || f == g) return g;
+    if (g == FALSE) return f;
+    if (f > g) {
+      int swap = f;
+      f = g;
+      g = swap;
+    }
+    int slot = slot(OP_OR, f, g);
+    if (isCached(slot, OP_OR, f, g)) return cacheResult[slot];
+
+    int v = Math.min(var[f], var[g]);
+    int l = or(var[f] == v ? low[f] : f, var[g] == v ? low[g] : g);
+    int h = or(var[f] == v ? high[f] : f, var[g] == v ? high[g] : g);
+    return cache(slot, OP_OR, f, g, node(v, l, h));
+  }
+
+  int not(int f) {
+    if (f == FALSE) return TRUE;
+    if (f == TRUE) return FALSE;
+    int slot = slot(OP_NOT, f, 0);
+    if (isCached(slot, OP_NOT, f, 0)) return cacheResult[slot];
+
+    return cache(slot, OP_NOT, f, 0, node(var[f], not(low[f]), not(high[f])));
+  }
+
+  /**
+   * Replaces the variables of the cube by their values in the cube.
+   *
+   * @param f the function to restrict
+   * @param cube a conjunction of literals, see {@link #cube(int[], boolean[])}
+   * @return the cofactor of the function, it does not depend on the variables of the cube
+   */
+  int restrict(int f, int cube) {
+    if (f <= TRUE || cube == TRUE) return f;
+    // skip the cube variables above the top variable of f
+    while (cube != TRUE && var[cube] < var[f]) {
+      cube = low[cube] == FALSE ? high[cube] : low[cube];
+    }
+    if (cube == TRUE) return f;
+    int slot = slot(OP_RESTRICT, f, cube);
+    if (isCached(slot, OP_RESTRICT, f, cube)) return cacheResult[slot];
+
+    int result;
+    if (var[cube] == var[f]) {
+      result = low[cube] == FALSE ? restrict(high[f], high[cube]) : restrict(low[f], low[cube]);
+    } else {
+      result = node(var[f], restrict(low[f], cube), restrict(high[f], cube));
+    }
+    return cache(slot, OP_RESTRICT, f, cube, result);
+  }
+
+  /**
+   * @param f a function
+   * @return the amount of assignments of all variables that satisfy the function
+   */
+  BigInteger satCount(int f) {
+    Map<Integer, BigInteger> memo = new HashMap<>();
+    return satCount(f, memo).shiftLeft(var[f]);
+  }
+
+  // counts the assignments of the variables from var[f] on
+  private BigInteger satCount(int f, Map<Integer, BigInteger> memo) {
+    if (f == FALSE) return BigInteger.ZERO;
+    if (f == TRUE) return BigInteger.ONE;
+    BigInteger result = memo.get(f);
+    if (result == null) {
+      result =
+          satCount(low[f], memo)
+              .shiftLeft(var[low[f]] - var[f] - 1)
+              .add(satCount(high[f], memo).shiftLeft(var[high[f]] - var[f] - 1));
+      memo.put(f, result);
+    }
+    return result;
+  }
+
+  /**
+   * @param f a satisfiable function
+   * @return one satisfying assignment, variables the function does not depend on are false
+   */
+  boolean[] anySat(int f) {
+    if (f == FALSE) {
+      throw new IllegalArgumentException("The function is not satisfiable");
+    }
+    boolean[] result = new boolean[varCount];
+    while (f != TRUE) {
+      if (low[f] == FALSE) {
+        result[var[f]] = true;
+        f = high[f];
+      } else {
+        f = low[f];
+      }
+    }
+    return result;
+  }
+
+  private int node(int v, int l, int h) {
+    if (l == h) return l;
+    int mask = unique.length - 1;
+    int slot = hash(v, l, h) & mask;
+    for (int n = unique[slot]; n != 0; n = unique[slot]) {
+      if (var[n] == v && low[n] == l && high[n] == h) return n;
+      slot = (slot + 1) & mask;
+    }
+    if (nodeCount == var.length) {
+      grow();
+      return node(v, l, h);
+    }
+    int n = nodeCount++;
+    var[n] = v;
+    low[n] = l;
+    high[n] = h;
+    unique[slot] = n;
+    return n;
+  }
+
+  private void grow() {
+    int capacity = var.length * 2;
+    var = Arrays.copyOf(var, capacity);
+    low = Arrays.copyOf(low, capacity);
+    high = Arrays.copyOf(high, capacity);
+    unique = new int[2 * capacity];
+    int mask = unique.length - 1;
+    for (int n = 2; n < nodeCount; n++) {
+      int slot = hash(var[n], low[n], high[n]) & mask;
+      while (unique[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      unique[slot] = n;
+    }
+  }
+
+  private static int hash(int a, int b, int c) {
+    int h = a * 0x9E3779B1 + b;
+    h = h * 0x9E3779B1 + c;
+    return h ^ (h >>> 15);
+  }
+
+  private int slot(int op, int f, int g) {
+    return hash(op, f, g) & (cacheOp.length - 1);
+  }
+
+  private boolean isCached(int slot, int op, int f, int g) {
+    return cacheOp[slot] == op && cacheLeft[slot] == f && cacheRight[slot] == g;
+  }
+
+  private int cache(int slot, int op, int f, int g, int result) {
+    cacheOp[slot] = op;
+    cacheLeft[slot] = f;
+    cacheRight[slot] = g;
+    cacheResult[slot] = result;
+    return result;
+  }
+}
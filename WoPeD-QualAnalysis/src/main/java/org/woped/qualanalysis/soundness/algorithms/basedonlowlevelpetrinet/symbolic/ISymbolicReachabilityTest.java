@@ -0,0 +1,45 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.symbolic;
+
+import java.math.BigInteger;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.algorithms.basedonmarkingnet.deadtransition.IDeadTransitionTest;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+
+/**
+ * interface for reachability analyses of safe nets that represent the reachable markings
+ * symbolically instead of enumerating them.
+ *
+ * <p>The analysis is only defined for 1-safe nets with arc weights of one. All other results throw
+ * an {@link IllegalStateException} if {@link #isSafe()} is false.
+ */
+public interface ISymbolicReachabilityTest extends IDeadTransitionTest {
+
+  /**
+   * @return false if a reachable marking puts more than one token on a place or the net has arc
+   *     weights other than one
+   */
+  public boolean isSafe();
+
+  /**
+   * @return the amount of reachable markings
+   */
+  public BigInteger getReachableMarkingCount();
+
+  /**
+   * @return the amount of reachable markings in which no transition is enabled
+   */
+  public BigInteger getDeadlockCount();
+
+  /**
+   * @return the marked places of one reachable marking in which no transition is enabled, null if
+   *     there is none
+   */
+  public Set<PlaceNode> getDeadlock();
+
+  /**
+   * @return a set of all transitions that are not enabled in any reachable marking
+   */
+  @Override
+  public Set<TransitionNode> getDeadTransitions();
+}
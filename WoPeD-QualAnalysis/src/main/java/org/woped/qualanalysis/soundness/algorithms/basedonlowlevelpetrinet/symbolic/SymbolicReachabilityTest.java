@@ -0,0 +1,276 @@
+package org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.symbolic;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.AbstractLowLevelPetriNetTest;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+
+/**
+ * Computes the reachable markings of a safe net as a binary decision diagram.
+ *
+ * <p>Each place is a boolean variable that is true if the place is marked. The variables are
+ * ordered depth first along the flow relation starting at the initially marked places, so places of
+ * the same branch are next to each other. For a net with {@code n} parallel branches the diagram
+ * has a size linear in {@code n} while the marking net has {@code 2^n} markings.
+ *
+ * <p>The image of a set of markings under a transition is computed without next state variables:
+ * the set is restricted to the markings enabling the transition, the variables of its input and
+ * output places are replaced by their values after firing. The transitions are applied one after
+ * the other until the set does not grow any more. If a transition is enabled in a reachable marking
+ * in which one of its output places is already marked, the net is not safe and the computation
+ * stops.
+ *
+ * @see ISymbolicReachabilityTest
+ */
+public class SymbolicReachabilityTest extends AbstractLowLevelPetriNetTest
+    implements ISymbolicReachabilityTest {
+
+  private IndexedPetriNet net;
+  private BddManager bdd;
+  // the variable of each place
+  private int[] variables;
+  private boolean safe;
+  private int reachable;
+  private int deadlocks;
+  private Set<TransitionNode> deadTransitions;
+
+  /**
+   * @param lolNet the net to analyze
+   */
+  public SymbolicReachabilityTest(ILowLevelPetriNet lolNet) {
+    super(lolNet);
+  }
+
+  @Override
+  public boolean isSafe() {
+    calculate();
+    return safe;
+  }
+
+  @Override
+  public BigInteger getReachableMarkingCount() {
+    checkSafe();
+    return bdd.satCount(reachable);
+  }
+
+  @Override
+  public BigInteger getDeadlockCount() {
+    checkSafe();
+    return bdd.satCount(deadlocks);
+  }
+
+  @Override
+  public Set<PlaceNode> getDeadlock() {
+    checkSafe();
+    if (deadlocks == BddManager.FALSE) {
+      return null;
+    }
+    boolean[] assignment = bdd.anySat(deadlocks);
+    Set<PlaceNode> result = new HashSet<>();
+    for (int place = 0; place < net.getPlaceCount(); place++) {
+      if (assignment[variables[place]]) {
+        result.add(net.getPlaces()[place]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Set<TransitionNode> getDeadTransitions() {
+    checkSafe();
+    return deadTransitions;
+  }
+
+  /**
+   * @return the amount of diagram nodes created for the analysis
+   */
+  public int getNodeCount() {
+    calculate();
+    return bdd.getNodeCount();
+  }
+
+  private void checkSafe() {
+    if (!isSafe()) {
+      throw new IllegalStateException("The net is not safe");
+    }
+  }
+
+  private void calculate() {
+    if (bdd != null) {
+      return;
+    }
+    net = new IndexedPetriNet(lolNet);
+    variables = orderVariables();
+    bdd = new BddManager(net.getPlaceCount());
+    safe = hasUnitWeights() && explore();
+    if (safe) {
+      findDeadTransitionsAndDeadlocks();
+    }
+  }
+
+  /**
+   * @return false if a token count of the initial marking or an arc weight is greater than one
+   */
+  private boolean hasUnitWeights() {
+    for (int tokens : net.getInitialTokens(false)) {
+      if (tokens > 1) return false;
+    }
+    for (int t = 0; t < net.getTransitionCount(); t++) {
+      for (int weight : net.getInputWeights(t)) {
+        if (weight != 1) return false;
+      }
+      for (int weight : net.getOutputWeights(t)) {
+        if (weight != 1) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Applies the transitions until the reachable set is complete.
+   *
+   * @return false if the net is not safe
+   */
+  private boolean explore() {
+    int transitionCount = net.getTransitionCount();
+    int[] enabling = new int[transitionCount];
+    int[] firing = new int[transitionCount];
+    int[] overflow = new int[transitionCount];
+    for (int t = 0; t < transitionCount; t++) {
+      int[] inputs = net.getInputPlaces(t);
+      int[] outputs = net.getOutputPlaces(t);
+      enabling[t] = literals(inputs, true, without(outputs, inputs), false);
+      firing[t] = literals(outputs, true, without(inputs, outputs), false);
+      overflow[t] = BddManager.FALSE;
+      for (int place : without(outputs, inputs)) {
+        overflow[t] = bdd.or(overflow[t], bdd.variable(variables[place]));
+      }
+    }
+    int[] marked = net.getInitialTokens(false);
+    int[] all = new int[marked.length];
+    boolean[] values = new boolean[marked.length];
+    for (int place = 0; place < marked.length; place++) {
+      all[place] = variables[place];
+      values[place] = marked[place] == 1;
+    }
+    reachable = bdd.cube(all, values);
+
+    int previous;
+    do {
+      previous = reachable;
+      for (int t = 0; t < transitionCount; t++) {
+        int enabled = bdd.restrict(reachable, inputCube(t));
+        if (bdd.and(enabled, overflow[t]) != BddManager.FALSE) {
+          return false;
+        }
+        int image = bdd.and(bdd.restrict(enabled, enabling[t]), firing[t]);
+        reachable = bdd.or(reachable, image);
+      }
+    } while (reachable != previous);
+    return true;
+  }
+
+  private void findDeadTransitionsAndDeadlocks() {
+    deadTransitions = new HashSet<>();
+    deadlocks = reachable;
+    for (int t = 0; t < net.getTransitionCount(); t++) {
+      int enabled = inputCube(t);
+      if (bdd.and(reachable, enabled) == BddManager.FALSE) {
+        deadTransitions.add(net.getTransitions()[t]);
+      }
+      deadlocks = bdd.and(deadlocks, bdd.not(enabled));
+    }
+  }
+
+  private int inputCube(int transition) {
+    return literals(net.getInputPlaces(transition), true, new int[0], false);
+  }
+
+  /**
+   * @return the conjunction of the first places with the first value and the second places with the
+   *     second value
+   */
+  private int literals(int[] first, boolean firstValue, int[] second, boolean secondValue) {
+    int[] cubeVariables = new int[first.length + second.length];
+    boolean[] values = new boolean[cubeVariables.length];
+    for (int i = 0; i < first.length; i++) {
+      cubeVariables[i] = variables[first[i]];
+      values[i] = firstValue;
+    }
+    for (int i = 0; i < second.length; i++) {
+      cubeVariables[first.length + i] = variables[second[i]];
+      values[first.length + i] = secondValue;
+    }
+    return bdd.cube(cubeVariables, values);
+  }
+
+  private static int[] without(int[] places, int[] removed) {
+    return Arrays.stream(places)
+        .filter(place -> Arrays.stream(removed).noneMatch(r -> r == place))
+        .toArray();
+  }
+
+  /**
+   * Numbers the places depth first along the flow relation, starting with the initially marked
+   * places. Places that cannot be reached that way are numbered last.
+   *
+   * @return the variable of each place
+   */
+  private int[] orderVariables() {
+    int placeCount = net.getPlaceCount();
+    int[][] consumers = new int[placeCount][];
+    int[] count = new int[placeCount];
+    for (int t = 0; t < net.getTransitionCount(); t++) {
+      for (int place : net.getInputPlaces(t)) {
+        count[place]++;
+      }
+    }
+    for (int place = 0; place < placeCount; place++) {
+      consumers[place] = new int[count[place]];
+    }
+    for (int t = net.getTransitionCount() - 1; t >= 0; t--) {
+      for (int place : net.getInputPlaces(t)) {
+        consumers[place][--count[place]] = t;
+      }
+    }
+
+    int[] result = new int[placeCount];
+    Arrays.fill(result, -1);
+    int numbered = 0;
+    Deque<Integer> stack = new ArrayDeque<>();
+    int[] marked = net.getInitialTokens(false);
+    for (int place = placeCount - 1; place >= 0; place--) {
+      if (marked[place] > 0) {
+        stack.push(place);
+      }
+    }
+    for (int start = 0; numbered < placeCount; start++) {
+      if (stack.isEmpty()) {
+        // continue with an unreached place
+        while (result[start] >= 0) start++;
+        stack.push(start);
+      }
+      while (!stack.isEmpty()) {
+        int place = stack.pop();
+        if (result[place] >= 0) continue;
+        result[place] = numbered++;
+        for (int i = consumers[place].length - 1; i >= 0; i--) {
+          int[] outputs = net.getOutputPlaces(consumers[place][i]);
+          for (int j = outputs.length - 1; j >= 0; j--) {
+            if (result[outputs[j]] < 0) {
+              stack.push(outputs[j]);
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+}
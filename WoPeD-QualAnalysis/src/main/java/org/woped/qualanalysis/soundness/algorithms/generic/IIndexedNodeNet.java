@@ -0,0 +1,42 @@
+package org.woped.qualanalysis.soundness.algorithms.generic;
+
+/**
+ * A generic node net whose nodes are numbered from {@code 0} to {@code getNodeCount() - 1} and
+ * whose arcs are accessible by index.
+ *
+ * <p>Graph algorithms can use this to work on int arrays instead of the successor sets of the
+ * nodes. The arcs of node {@code n} are the arcs {@code [getFirstArc(n), getEndArc(n))}.
+ *
+ * @param <K> generic node type.
+ */
+public interface IIndexedNodeNet<K extends INode<K>> extends INodeNet<K> {
+
+  /**
+   * @return the amount of nodes
+   */
+  int getNodeCount();
+
+  /**
+   * @param index the index of a node
+   * @return the node with the given index
+   */
+  K getNode(int index);
+
+  /**
+   * @param node the index of a node
+   * @return the index of the first outgoing arc of the node
+   */
+  int getFirstArc(int node);
+
+  /**
+   * @param node the index of a node
+   * @return the index behind the last outgoing arc of the node
+   */
+  int getEndArc(int node);
+
+  /**
+   * @param arc the index of an arc
+   * @return the index of the target node of the arc
+   */
+  int getArcTarget(int arc);
+}
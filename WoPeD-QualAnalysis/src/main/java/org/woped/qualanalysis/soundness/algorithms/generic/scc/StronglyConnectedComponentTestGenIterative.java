@@ -0,0 +1,216 @@
+package org.woped.qualanalysis.soundness.algorithms.generic.scc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.woped.qualanalysis.soundness.algorithms.generic.IIndexedNodeNet;
+import org.woped.qualanalysis.soundness.algorithms.generic.INode;
+import org.woped.qualanalysis.soundness.algorithms.generic.INodeNet;
+
+/**
+ * indicates strongly connected components in a generic net. uses the tarjan algorithm without
+ * recursion.
+ *
+ * <p>The nodes are numbered once and the algorithm runs on int arrays: an explicit call stack
+ * replaces the recursion, dfs number and lowlink are int arrays and the membership in the tarjan
+ * stack is kept in a bit set. Runtime and memory are linear in the amount of nodes and arcs. If the
+ * net implements {@link IIndexedNodeNet}, its arcs are used directly.
+ *
+ * <p>{@link #isStronglyConnected()} stops as soon as the first component is closed: tarjan closes a
+ * component only after all nodes reachable from it are assigned, so if the first component does not
+ * contain all nodes there is a second one.
+ *
+ * @see IStronglyConnectedComponentTestGen
+ */
+public class StronglyConnectedComponentTestGenIterative<K extends INode<K>>
+    implements IStronglyConnectedComponentTestGen<K> {
+
+  private final INodeNet<K> nodeNet;
+
+  private List<K> nodes;
+  private int nodeCount;
+  private int[] firstArc;
+  private int[] arcTargets;
+
+  /**
+   * @param nodeNet net the algorithm is based on
+   */
+  public StronglyConnectedComponentTestGenIterative(INodeNet<K> nodeNet) {
+    this.nodeNet = nodeNet;
+  }
+
+  /**
+   * @see IStronglyConnectedComponentTestGen#getStronglyConnectedComponents()
+   * @return a set of strongly connected components.
+   */
+  @Override
+  public Set<Set<K>> getStronglyConnectedComponents() {
+    index();
+    int[] component = new int[nodeCount];
+    int count = tarjan(component, false);
+
+    List<Set<K>> components = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      components.add(new HashSet<K>());
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      components.get(component[node]).add(getNode(node));
+    }
+    return new HashSet<>(components);
+  }
+
+  @Override
+  public boolean isStronglyConnected() {
+    index();
+    return tarjan(new int[nodeCount], true) <= 1;
+  }
+
+  /** numbers the nodes and builds the arc arrays. */
+  private void index() {
+    if (nodeNet instanceof IIndexedNodeNet) {
+      IIndexedNodeNet<K> indexedNet = (IIndexedNodeNet<K>) nodeNet;
+      nodes = null;
+      nodeCount = indexedNet.getNodeCount();
+      firstArc = new int[nodeCount + 1];
+      arcTargets = new int[16];
+      int arcs = 0;
+      for (int node = 0; node < nodeCount; node++) {
+        firstArc[node] = arcs;
+        int end = indexedNet.getEndArc(node);
+        for (int arc = indexedNet.getFirstArc(node); arc < end; arc++) {
+          if (arcs == arcTargets.length) {
+            arcTargets = Arrays.copyOf(arcTargets, arcs * 2);
+          }
+          arcTargets[arcs++] = indexedNet.getArcTarget(arc);
+        }
+      }
+      firstArc[nodeCount] = arcs;
+      return;
+    }
+
+    nodes = new ArrayList<>(nodeNet.getAllContainedNodes());
+    Map<K, Integer> indices = new HashMap<>();
+    for (int i = 0; i < nodes.size(); i++) {
+      indices.put(nodes.get(i), i);
+    }
+
+    // successors which are not contained in the net are appended while the arcs are built
+    firstArc = new int[nodes.size() + 1];
+    arcTargets = new int[16];
+    int arcs = 0;
+    for (int node = 0; node < nodes.size(); node++) {
+      if (node + 1 >= firstArc.length) {
+        firstArc = Arrays.copyOf(firstArc, firstArc.length * 2);
+      }
+      firstArc[node] = arcs;
+      for (K successor : nodes.get(node).getSuccessorNodes()) {
+        if (successor == null) continue;
+        Integer target = indices.get(successor);
+        if (target == null) {
+          target = nodes.size();
+          nodes.add(successor);
+          indices.put(successor, target);
+        }
+        if (arcs == arcTargets.length) {
+          arcTargets = Arrays.copyOf(arcTargets, arcs * 2);
+        }
+        arcTargets[arcs++] = target;
+      }
+    }
+    nodeCount = nodes.size();
+    if (nodeCount + 1 > firstArc.length) {
+      firstArc = Arrays.copyOf(firstArc, nodeCount + 1);
+    }
+    firstArc[nodeCount] = arcs;
+  }
+
+  private K getNode(int index) {
+    return nodes == null ? ((IIndexedNodeNet<K>) nodeNet).getNode(index) : nodes.get(index);
+  }
+
+  /**
+   * tarjan algorithm with an explicit call stack.
+   *
+   * @param component receives the component number for each node index
+   * @param stopAfterFirst true if the search should stop once it is known that there are at least
+   *     two components
+   * @return the amount of components, or 2 if stopped early with more than one component
+   */
+  private int tarjan(int[] component, boolean stopAfterFirst) {
+    int[] dfs = new int[nodeCount];
+    int[] lowLink = new int[nodeCount];
+    Arrays.fill(dfs, -1);
+
+    BitSet onStack = new BitSet(nodeCount);
+    int[] stack = new int[nodeCount];
+    int stackSize = 0;
+
+    // call stack: the node and the next arc to visit
+    int[] callNode = new int[nodeCount];
+    int[] callArc = new int[nodeCount];
+    int callSize;
+
+    int maxdfs = 0;
+    int components = 0;
+
+    for (int root = 0; root < nodeCount; root++) {
+      if (dfs[root] != -1) continue;
+
+      callSize = 0;
+      callNode[callSize] = root;
+      callArc[callSize++] = firstArc[root];
+      dfs[root] = lowLink[root] = maxdfs++;
+      stack[stackSize++] = root;
+      onStack.set(root);
+
+      while (callSize > 0) {
+        int node = callNode[callSize - 1];
+        int arc = callArc[callSize - 1];
+
+        if (arc < firstArc[node + 1]) {
+          callArc[callSize - 1]++;
+          int next = arcTargets[arc];
+          if (dfs[next] == -1) {
+            dfs[next] = lowLink[next] = maxdfs++;
+            stack[stackSize++] = next;
+            onStack.set(next);
+            callNode[callSize] = next;
+            callArc[callSize++] = firstArc[next];
+          } else if (onStack.get(next)) {
+            lowLink[node] = Math.min(lowLink[node], dfs[next]);
+          }
+          continue;
+        }
+
+        // all arcs of node visited
+        callSize--;
+        if (callSize > 0) {
+          int parent = callNode[callSize - 1];
+          lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+        }
+
+        if (lowLink[node] == dfs[node]) {
+          int member;
+          int size = 0;
+          do {
+            member = stack[--stackSize];
+            onStack.clear(member);
+            component[member] = components;
+            size++;
+          } while (member != node);
+          components++;
+
+          if (stopAfterFirst) {
+            return size == nodeCount ? 1 : 2;
+          }
+        }
+      }
+    }
+    return components;
+  }
+}
@@ -5,10 +5,15 @@ import org.woped.qualanalysis.soundness.builder.currentmarking.CurrentMarking;
 import org.woped.qualanalysis.soundness.builder.lowlevelpetrinet.AbstractLowLevelPetriNetBuilder;
 import org.woped.qualanalysis.soundness.builder.lowlevelpetrinet.LowLevelPetriNetWithTStarBuilder;
 import org.woped.qualanalysis.soundness.builder.lowlevelpetrinet.LowLevelPetriNetWithoutTStarBuilder;
+import org.woped.qualanalysis.soundness.builder.markingnet.CompactMarkingNetBuilder;
 import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetBuilderBook;
+import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetStrategy;
+import org.woped.qualanalysis.soundness.builder.markingnet.ParallelMarkingNetBuilder;
+import org.woped.qualanalysis.soundness.builder.markingnet.StubbornMarkingNetBuilder;
 import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
 import org.woped.qualanalysis.soundness.marking.IMarking;
 import org.woped.qualanalysis.soundness.marking.IMarkingNet;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * factory class. creates builders.
@@ -35,6 +40,24 @@ public class BuilderFactory {
     return new LowLevelPetriNetWithTStarBuilder(editor);
   }
 
+  /**
+   * @param snapshot snapshot of the source object
+   * @return
+   */
+  public static AbstractLowLevelPetriNetBuilder createLowLevelPetriNetWithoutTStarBuilder(
+      NetSnapshot snapshot) {
+    return new LowLevelPetriNetWithoutTStarBuilder(snapshot);
+  }
+
+  /**
+   * @param snapshot snapshot of the source object
+   * @return
+   */
+  public static AbstractLowLevelPetriNetBuilder createLowLevelPetriNetWithTStarBuilder(
+      NetSnapshot snapshot) {
+    return new LowLevelPetriNetWithTStarBuilder(snapshot);
+  }
+
   /**
    * @param lolNet LowLevelPetriNet to calculate MarkingNet from
    * @return
@@ -43,6 +66,40 @@ public class BuilderFactory {
     return new MarkingNetBuilderBook(lolNet).getMarkingNet();
   }
 
+  /**
+   * Creates the marking net in a packed primitive store. Needs far less memory per marking than
+   * {@link #createMarkingNet(ILowLevelPetriNet)}, but the contained markings are immutable.
+   *
+   * @param lolNet LowLevelPetriNet to calculate MarkingNet from
+   * @return
+   */
+  public static IMarkingNet createCompactMarkingNet(ILowLevelPetriNet lolNet) {
+    return new CompactMarkingNetBuilder(lolNet).getMarkingNet();
+  }
+
+  /**
+   * Creates the marking net with the selected strategy. {@link MarkingNetStrategy#COMPACT} and
+   * {@link MarkingNetStrategy#PARALLEL} produce identical nets. {@link MarkingNetStrategy#STUBBORN}
+   * produces a reduced net that only tells which transitions can fire and which are live.
+   *
+   * @param lolNet LowLevelPetriNet to calculate MarkingNet from
+   * @param strategy the way the marking net is built
+   * @return
+   */
+  public static IMarkingNet createMarkingNet(
+      ILowLevelPetriNet lolNet, MarkingNetStrategy strategy) {
+    switch (strategy) {
+      case COMPACT:
+        return createCompactMarkingNet(lolNet);
+      case PARALLEL:
+        return new ParallelMarkingNetBuilder(lolNet).getMarkingNet();
+      case STUBBORN:
+        return new StubbornMarkingNetBuilder(lolNet).getMarkingNet();
+      default:
+        return createMarkingNet(lolNet);
+    }
+  }
+
   /**
    * @param lolNet LowLevelPetriNet to calculate current marking from
    * @param useVirtualTokens true if the virtual tokenCount must be used for calculation (necessary
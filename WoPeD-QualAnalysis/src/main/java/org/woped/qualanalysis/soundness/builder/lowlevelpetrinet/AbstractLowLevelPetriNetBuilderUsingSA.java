@@ -1,5 +1,6 @@
 package org.woped.qualanalysis.soundness.builder.lowlevelpetrinet;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import org.woped.core.controller.IEditor;
@@ -12,38 +13,48 @@ import org.woped.qualanalysis.soundness.datamodel.AbstractNode;
 import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
 import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
 import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
-import org.woped.qualanalysis.structure.NetAlgorithms;
+import org.woped.qualanalysis.structure.NetSnapshot;
 import org.woped.qualanalysis.structure.StructuralAnalysis;
 
 /**
- * creates an LowLevelPetriNet. uses logic from the {@link StructuralAnalysis}
+ * creates an LowLevelPetriNet. uses the {@link NetSnapshot} that is shared with the {@link
+ * StructuralAnalysis}
  *
  * @author Patrick Spies, Patrick Kirchgaessner, Joern Liebau, Enrico Moeller, Sebastian Fuss
  */
 public abstract class AbstractLowLevelPetriNetBuilderUsingSA
     extends AbstractLowLevelPetriNetBuilder {
 
-  protected StructuralAnalysis sa;
+  protected NetSnapshot snapshot;
   protected Boolean isSubprocess;
 
   /**
    * @param editor source object
    */
   public AbstractLowLevelPetriNetBuilderUsingSA(IEditor editor) {
-    super(editor);
-    isSubprocess = editor.isSubprocessEditor();
-    sa = new StructuralAnalysis(editor);
+    this(new NetSnapshot(editor));
   }
 
   /**
-   * Creates an lowlevelPetriNet from the provided editor using the Structural Analysis
-   * implementation. have to call from each specification!
+   * @param snapshot snapshot of the source object
    */
-  protected void createLowLevelPetriNet() {
+  public AbstractLowLevelPetriNetBuilderUsingSA(NetSnapshot snapshot) {
+    super(snapshot.getEditor());
+    this.snapshot = snapshot;
+    isSubprocess = snapshot.isSubprocess();
+  }
+
+  /**
+   * Creates an lowlevelPetriNet from the snapshot of the provided editor. have to call from each
+   * specification!
+   *
+   * @param withTStar true if t* should be added to connect the sink place with the source place
+   */
+  protected void createLowLevelPetriNet(boolean withTStar) {
 
     lowLevelPetriNet = new LowLevelPetriNet();
     addPlaces();
-    addTransitions();
+    addTransitions(withTStar);
 
     // if editor is subprocess-editor, ensure that source place contains a token
     if (isSubprocess) {
@@ -53,22 +64,20 @@ public abstract class AbstractLowLevelPetriNetBuilderUsingSA
 
   private void addPlaces() {
     // loop over all places
-    Iterator<AbstractPetriNetElementModel> iterPlace = sa.getPlaces().iterator();
+    Iterator<AbstractPetriNetElementModel> iterPlace = snapshot.getPlaces().iterator();
     while (iterPlace.hasNext()) {
-      PlaceModel placeModel = (PlaceModel) iterPlace.next();
-      lowLevelPetriNet.getPlaceNode(
-          new PlaceNode(
-              placeModel.getTokenCount(),
-              placeModel.getVirtualTokenCount(),
-              placeModel.getId(),
-              placeModel.getNameValue(),
-              extractOriginId(placeModel.getId())));
+      lowLevelPetriNet.getPlaceNode(createPlaceNode((PlaceModel) iterPlace.next()));
     }
   }
 
-  private void addTransitions() {
+  private void addTransitions(boolean withTStar) {
+    Set<AbstractPetriNetElementModel> transitions = snapshot.getTransitions();
+    if (withTStar && snapshot.isShortCircuited()) {
+      transitions = new HashSet<AbstractPetriNetElementModel>(transitions);
+      transitions.add(snapshot.getTStar());
+    }
     // loops over all transitions and set predecessors and successors
-    Iterator<AbstractPetriNetElementModel> iterTransition = sa.getTransitions().iterator();
+    Iterator<AbstractPetriNetElementModel> iterTransition = transitions.iterator();
     while (iterTransition.hasNext()) {
       OperatorTransitionModel opTrans = null;
       ModelElementContainer mec = null;
@@ -107,40 +116,34 @@ public abstract class AbstractLowLevelPetriNetBuilderUsingSA
 
       // add predecessor of current transition node
       Set<AbstractPetriNetElementModel> predecessors =
-          NetAlgorithms.getDirectlyConnectedNodes(
-              transitionModel, NetAlgorithms.connectionTypeINBOUND);
+          snapshot.getPredecessors(transitionModel, withTStar);
       for (AbstractPetriNetElementModel predecessor : predecessors) {
-        PlaceNode place =
-            lowLevelPetriNet.getPlaceNode(
-                new PlaceNode(
-                    ((PlaceModel) predecessor).getTokenCount(),
-                    ((PlaceModel) predecessor).getVirtualTokenCount(),
-                    predecessor.getId(),
-                    predecessor.getNameValue(),
-                    extractOriginId(predecessor.getId())));
+        PlaceNode place = lowLevelPetriNet.getPlaceNode(createPlaceNode((PlaceModel) predecessor));
         place.addSuccessorNode(transition, getWeight(mec, place, transition));
       }
 
       // add successor of current transition node
       Set<AbstractPetriNetElementModel> successors =
-          NetAlgorithms.getDirectlyConnectedNodes(
-              transitionModel, NetAlgorithms.connectionTypeOUTBOUND);
+          snapshot.getSuccessors(transitionModel, withTStar);
       for (AbstractPetriNetElementModel successor : successors) {
-        PlaceNode place =
-            lowLevelPetriNet.getPlaceNode(
-                new PlaceNode(
-                    ((PlaceModel) successor).getTokenCount(),
-                    ((PlaceModel) successor).getVirtualTokenCount(),
-                    successor.getId(),
-                    successor.getNameValue(),
-                    extractOriginId(successor.getId())));
+        PlaceNode place = lowLevelPetriNet.getPlaceNode(createPlaceNode((PlaceModel) successor));
         transition.addSuccessorNode(place, getWeight(mec, transition, place));
       }
     }
   }
 
+  private PlaceNode createPlaceNode(PlaceModel placeModel) {
+    return new PlaceNode(
+        snapshot.getTokenCount(placeModel),
+        snapshot.getVirtualTokenCount(placeModel),
+        placeModel.getId(),
+        placeModel.getNameValue(),
+        extractOriginId(placeModel.getId()));
+  }
+
   private void verifyInitialMarking() {
-    Iterator<AbstractPetriNetElementModel> sourcePlacesIterator = sa.getSourcePlaces().iterator();
+    Iterator<AbstractPetriNetElementModel> sourcePlacesIterator =
+        snapshot.getSourcePlaces().iterator();
     String sourcePlaceId;
     while (sourcePlacesIterator.hasNext()) {
       sourcePlaceId = sourcePlacesIterator.next().getId();
@@ -154,7 +157,10 @@ public abstract class AbstractLowLevelPetriNetBuilderUsingSA
   }
 
   private Integer getWeight(ModelElementContainer mec, AbstractNode source, AbstractNode target) {
-
+    // t* is not contained in any container, its arcs have weight 1
+    if (mec == null) {
+      return 1;
+    }
     return mec.findArc(source.getId(), target.getId()).getInscriptionValue();
   }
 
@@ -1,7 +1,7 @@
 package org.woped.qualanalysis.soundness.builder.lowlevelpetrinet;
 
 import org.woped.core.controller.IEditor;
-import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * creates an lowLevel petri net with tStar.
@@ -12,16 +12,21 @@ import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
 public class LowLevelPetriNetWithTStarBuilder extends AbstractLowLevelPetriNetBuilderUsingSA {
 
   /**
-   * adds tStar element to the provided source object, creates low level petri net, removes the
-   * created tStar element.
+   * creates low level petri net with the tStar element of the snapshot of the provided source
+   * object. the source object is not changed.
    *
    * @param editor source object.
    */
   public LowLevelPetriNetWithTStarBuilder(IEditor editor) {
     super(editor);
-    AbstractPetriNetElementModel tStar;
-    tStar = sa.addTStar();
-    createLowLevelPetriNet();
-    sa.removeTStar(tStar);
+    createLowLevelPetriNet(true);
+  }
+
+  /**
+   * @param snapshot snapshot of the source object.
+   */
+  public LowLevelPetriNetWithTStarBuilder(NetSnapshot snapshot) {
+    super(snapshot);
+    createLowLevelPetriNet(true);
   }
 }
@@ -1,6 +1,7 @@
 package org.woped.qualanalysis.soundness.builder.lowlevelpetrinet;
 
 import org.woped.core.controller.IEditor;
+import org.woped.qualanalysis.structure.NetSnapshot;
 
 /**
  * creates an lowlevel petri net from the provided source.
@@ -15,6 +16,14 @@ public class LowLevelPetriNetWithoutTStarBuilder extends AbstractLowLevelPetriNe
    */
   public LowLevelPetriNetWithoutTStarBuilder(IEditor editor) {
     super(editor);
-    createLowLevelPetriNet();
+    createLowLevelPetriNet(false);
+  }
+
+  /**
+   * @param snapshot snapshot of the source object.
+   */
+  public LowLevelPetriNetWithoutTStarBuilder(NetSnapshot snapshot) {
+    super(snapshot);
+    createLowLevelPetriNet(false);
   }
 }
@@ -0,0 +1,88 @@
+package org.woped.qualanalysis.soundness.builder.markingnet;
+
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.qualanalysis.soundness.marking.PackedMarkingStore;
+
+/**
+ * Creates a {@link CompactMarkingNet} with the same algorithm as {@link MarkingNetBuilderBook}.
+ *
+ * <p>The markings are explored breadth first in the order of their index. No object is created per
+ * marking, the token vectors are kept in the packed store of the net and the successor arcs are
+ * appended to its arc arrays.
+ *
+ * @see AbstractMarkingNetBuilder
+ */
+public class CompactMarkingNetBuilder extends AbstractMarkingNetBuilder {
+
+  /**
+   * @param lolNet source low level petri net.
+   */
+  public CompactMarkingNetBuilder(ILowLevelPetriNet lolNet) {
+    super(lolNet);
+  }
+
+  @Override
+  protected void initMarkingNet() {
+    mNet = new CompactMarkingNet(lolNet);
+  }
+
+  /** creates marking net. */
+  @Override
+  public void createMarkingNet() {
+    CompactMarkingNet markingNet = (CompactMarkingNet) mNet;
+    IndexedPetriNet net = markingNet.getIndexedNet();
+    PackedMarkingStore store = markingNet.getStore();
+
+    int[] current = new int[net.getPlaceCount()];
+    int[] next = new int[net.getPlaceCount()];
+    int[] ancestor = new int[net.getPlaceCount()];
+    int[] firedTransitions = new int[net.getTransitionCount()];
+    int[] targets = new int[net.getTransitionCount()];
+
+    for (int marking = 0; marking < markingNet.getMarkingCount(); marking++) {
+      store.read(marking, current);
+      int arcs = 0;
+
+      for (int t = 0; t < net.getTransitionCount(); t++) {
+        if (!net.isActivated(t, current)) continue;
+
+        System.arraycopy(current, 0, next, 0, current.length);
+        net.fire(t, next);
+        markUnboundedPlaces(markingNet, marking, next, ancestor);
+
+        int target = markingNet.addMarking(next, marking);
+        firedTransitions[arcs] = t;
+        targets[arcs++] = target >= 0 ? target : -(target + 1);
+      }
+      markingNet.setSuccessors(marking, firedTransitions, targets, arcs);
+    }
+  }
+
+  /**
+   * Searches the first marking on the path from the initial marking to {@code parent} which is
+   * covered by the new marking and sets all places with more tokens to omega.
+   *
+   * @param markingNet the net under construction
+   * @param parent the index of the marking the new marking has been calculated from
+   * @param tokens the token vector of the new marking, updated in place
+   * @param buffer a buffer for the ancestor token vectors
+   */
+  static void markUnboundedPlaces(
+      CompactMarkingNet markingNet, int parent, int[] tokens, int[] buffer) {
+    for (int ancestor = parent;
+        ancestor >= 0;
+        ancestor = markingNet.getPredecessorIndex(ancestor)) {
+      markingNet.getStore().read(ancestor, buffer);
+      if (IndexedPetriNet.lessOrEqual(buffer, tokens)) {
+        for (int place = 0; place < tokens.length; place++) {
+          if (tokens[place] != IndexedPetriNet.OMEGA && tokens[place] > buffer[place]) {
+            tokens[place] = IndexedPetriNet.OMEGA;
+          }
+        }
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package org.woped.qualanalysis.soundness.builder.markingnet;
+
+/**
+ * The available ways to build a marking net.
+ *
+ * @see org.woped.qualanalysis.soundness.builder.BuilderFactory#createMarkingNet(
+ *     org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet, MarkingNetStrategy)
+ */
+public enum MarkingNetStrategy {
+  /** one mutable {@link org.woped.qualanalysis.soundness.marking.Marking} object per state. */
+  OBJECT,
+  /** sequential exploration into a packed primitive store. */
+  COMPACT,
+  /**
+   * parallel exploration with all available processors, numbered like {@link #COMPACT} afterwards.
+   */
+  PARALLEL,
+  /**
+   * exploration reduced by stubborn sets. The net only tells which transitions can fire and which
+   * are live, see {@link StubbornMarkingNetBuilder}.
+   */
+  STUBBORN
+}
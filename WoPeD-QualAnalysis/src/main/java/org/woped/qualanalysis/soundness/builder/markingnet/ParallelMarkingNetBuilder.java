@@ -0,0 +1,319 @@
+package org.woped.qualanalysis.soundness.builder.markingnet;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.qualanalysis.soundness.marking.ConcurrentMarkingTable;
+
+/**
+ * Creates a {@link CompactMarkingNet} by exploring the state space with several threads.
+ *
+ * <p>The frontier is distributed over the work stealing deques of a {@link ForkJoinPool}: every
+ * task expands a batch of markings and forks the newly discovered ones as new tasks, idle workers
+ * steal them. Visited markings are kept in a {@link ConcurrentMarkingTable}, the arcs are logged
+ * per worker thread.
+ *
+ * <p>After the exploration the markings are renumbered by a breadth first traversal that visits the
+ * successors in transition order. This is the order of {@link CompactMarkingNetBuilder}, so the
+ * resulting net is identical to the sequentially built one, independent of the thread schedule.
+ *
+ * <p>The parallel exploration does not set places to omega, since the covering ancestor depends on
+ * the order the markings are discovered in. If a new marking covers a marking on its discovery
+ * path, the net is unbounded; the exploration is cancelled and the net is built sequentially by
+ * {@link CompactMarkingNetBuilder}. For bounded nets this check never fires, and for unbounded nets
+ * it fires after finitely many steps, so the exploration always terminates.
+ */
+public class ParallelMarkingNetBuilder {
+
+  private static final int BATCH_SIZE = 64;
+
+  private final ILowLevelPetriNet lolNet;
+  private final int parallelism;
+
+  private IndexedPetriNet net;
+  private ConcurrentMarkingTable table;
+  private final Queue<ArcLog> arcLogs = new ConcurrentLinkedQueue<>();
+  private ThreadLocal<ArcLog> arcLog;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private volatile boolean unbounded;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final CountDownLatch done = new CountDownLatch(1);
+
+  private CompactMarkingNet markingNet;
+
+  /**
+   * @param lolNet source low level petri net.
+   */
+  public ParallelMarkingNetBuilder(ILowLevelPetriNet lolNet) {
+    this(lolNet, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param lolNet source low level petri net.
+   * @param parallelism the amount of worker threads
+   */
+  public ParallelMarkingNetBuilder(ILowLevelPetriNet lolNet, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+    }
+    this.lolNet = lolNet;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Builds the marking net on the first call.
+   *
+   * @return created marking net.
+   */
+  public CompactMarkingNet getMarkingNet() {
+    if (markingNet == null) {
+      createMarkingNet();
+    }
+    return markingNet;
+  }
+
+  /**
+   * @return true if the net turned out to be unbounded and has been built sequentially
+   */
+  public boolean isSequentialFallback() {
+    getMarkingNet();
+    return unbounded;
+  }
+
+  /** creates marking net. */
+  private void createMarkingNet() {
+    net = new IndexedPetriNet(lolNet);
+    table = new ConcurrentMarkingTable(net.getPlaceCount());
+    arcLog =
+        ThreadLocal.withInitial(
+            () -> {
+              ArcLog log = new ArcLog();
+              arcLogs.add(log);
+              return log;
+            });
+
+    int initial = table.add(net.getInitialTokens(false), -1);
+    explore(initial);
+
+    if (unbounded) {
+      markingNet = (CompactMarkingNet) new CompactMarkingNetBuilder(lolNet).getMarkingNet();
+    } else {
+      markingNet = renumber(initial);
+    }
+    table = null;
+    arcLogs.clear();
+  }
+
+  private void explore(int initial) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      new ExpandTask(new int[] {initial}, 1).submit(pool);
+      // forked tasks are not joined, the exploration is done when no task is pending
+      done.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while building the marking net", e);
+    } finally {
+      pool.shutdownNow();
+    }
+    Throwable error = failure.get();
+    if (error instanceof RuntimeException) {
+      throw (RuntimeException) error;
+    } else if (error instanceof Error) {
+      throw (Error) error;
+    }
+  }
+
+  /**
+   * Numbers the explored markings breadth first and copies them into a marking net.
+   *
+   * @param initial the id of the initial marking
+   * @return the marking net
+   */
+  private CompactMarkingNet renumber(int initial) {
+    int markingCount = table.size();
+
+    // group the logged arcs by their source. the arcs of a marking are logged en bloc in
+    // transition order by the worker that expanded it, a stable counting sort keeps that order
+    int[] firstArc = new int[markingCount + 1];
+    int arcCount = 0;
+    for (ArcLog log : arcLogs) {
+      arcCount += log.size;
+      for (int i = 0; i < log.size; i++) {
+        firstArc[table.toDenseIndex(log.sources[i]) + 1]++;
+      }
+    }
+    for (int i = 0; i < markingCount; i++) {
+      firstArc[i + 1] += firstArc[i];
+    }
+    int[] fill = Arrays.copyOf(firstArc, markingCount);
+    int[] arcTransitions = new int[arcCount];
+    int[] arcTargets = new int[arcCount];
+    for (ArcLog log : arcLogs) {
+      for (int i = 0; i < log.size; i++) {
+        int arc = fill[table.toDenseIndex(log.sources[i])]++;
+        arcTransitions[arc] = log.transitions[i];
+        arcTargets[arc] = log.targets[i];
+      }
+    }
+
+    CompactMarkingNet result = new CompactMarkingNet(net);
+    int[] newIndex = new int[markingCount];
+    Arrays.fill(newIndex, -1);
+    int[] order = new int[markingCount];
+    order[0] = initial;
+    newIndex[table.toDenseIndex(initial)] = 0;
+    int discovered = 1;
+
+    int[] tokens = new int[net.getPlaceCount()];
+    int[] transitions = new int[net.getTransitionCount()];
+    int[] targets = new int[net.getTransitionCount()];
+    for (int marking = 0; marking < discovered; marking++) {
+      int source = table.toDenseIndex(order[marking]);
+      int arcs = firstArc[source + 1] - firstArc[source];
+      for (int arc = firstArc[source], i = 0; i < arcs; arc++, i++) {
+        int target = table.toDenseIndex(arcTargets[arc]);
+        if (newIndex[target] == -1) {
+          newIndex[target] = discovered;
+          order[discovered++] = arcTargets[arc];
+          table.read(arcTargets[arc], tokens);
+          result.addMarking(tokens, marking);
+        }
+        targets[i] = newIndex[target];
+      }
+      System.arraycopy(arcTransitions, firstArc[source], transitions, 0, arcs);
+      result.setSuccessors(marking, transitions, targets, arcs);
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether a marking on the discovery path of a new marking is covered by it.
+   *
+   * @param parent the id of the marking the new marking has been calculated from
+   * @param tokens the token vector of the new marking
+   * @param buffer a buffer for the ancestor token vectors
+   * @return true if the new marking strictly covers an ancestor
+   */
+  private boolean coversAncestor(int parent, int[] tokens, int[] buffer) {
+    for (int ancestor = parent; ancestor >= 0; ancestor = table.getPredecessor(ancestor)) {
+      table.read(ancestor, buffer);
+      if (IndexedPetriNet.lessOrEqual(buffer, tokens)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Expands a batch of markings and forks the new markings in further batches. */
+  private class ExpandTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private int[] markings;
+    private int count;
+
+    ExpandTask(int[] markings, int count) {
+      this.markings = markings;
+      this.count = count;
+    }
+
+    void submit(ForkJoinPool pool) {
+      pending.incrementAndGet();
+      pool.execute(this);
+    }
+
+    void forkPending() {
+      pending.incrementAndGet();
+      fork();
+    }
+
+    @Override
+    protected void compute() {
+      try {
+        expand();
+      } catch (Throwable e) {
+        // forked tasks are never joined, so the failure is passed on explicitly
+        failure.compareAndSet(null, e);
+        unbounded = true;
+      } finally {
+        // the atomic counter also publishes the logged arcs to the waiting thread
+        if (pending.decrementAndGet() == 0) {
+          done.countDown();
+        }
+      }
+    }
+
+    private void expand() {
+      ArcLog log = arcLog.get();
+      int[] current = new int[net.getPlaceCount()];
+      int[] next = new int[net.getPlaceCount()];
+      int[] ancestor = new int[net.getPlaceCount()];
+      int[] discovered = new int[BATCH_SIZE];
+      int discoveredCount = 0;
+
+      while (count > 0) {
+        for (int i = 0; i < count; i++) {
+          if (unbounded) return;
+          int marking = markings[i];
+          table.read(marking, current);
+
+          for (int t = 0; t < net.getTransitionCount(); t++) {
+            if (!net.isActivated(t, current)) continue;
+
+            System.arraycopy(current, 0, next, 0, current.length);
+            net.fire(t, next);
+            int target = table.add(next, marking);
+            if (target >= 0) {
+              if (coversAncestor(marking, next, ancestor)) {
+                unbounded = true;
+                return;
+              }
+              discovered[discoveredCount++] = target;
+              if (discoveredCount == BATCH_SIZE) {
+                new ExpandTask(discovered, discoveredCount).forkPending();
+                discovered = new int[BATCH_SIZE];
+                discoveredCount = 0;
+              }
+            } else {
+              target = -(target + 1);
+            }
+            log.add(marking, t, target);
+          }
+        }
+        // continue with the markings of an incomplete batch
+        int[] swap = markings.length == BATCH_SIZE ? markings : new int[BATCH_SIZE];
+        markings = discovered;
+        count = discoveredCount;
+        discovered = swap;
+        discoveredCount = 0;
+      }
+    }
+  }
+
+  /** The arcs found by one worker thread. */
+  private static final class ArcLog {
+    private int[] sources = new int[256];
+    private int[] transitions = new int[256];
+    private int[] targets = new int[256];
+    private int size;
+
+    void add(int source, int transition, int target) {
+      if (size == sources.length) {
+        sources = Arrays.copyOf(sources, size * 2);
+        transitions = Arrays.copyOf(transitions, size * 2);
+        targets = Arrays.copyOf(targets, size * 2);
+      }
+      sources[size] = source;
+      transitions[size] = transition;
+      targets[size++] = target;
+    }
+  }
+}
@@ -0,0 +1,458 @@
+package org.woped.qualanalysis.soundness.builder.markingnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+
+/**
+ * Creates a reduced {@link CompactMarkingNet} by firing only the enabled transitions of one
+ * stubborn set in each marking.
+ *
+ * <p>A stubborn set is grown from one enabled transition: an enabled transition of the set adds all
+ * transitions sharing an input place with it, a disabled one adds all producers of one
+ * insufficiently marked input place. A transition outside of the set can neither enable a disabled
+ * transition of the set nor be disabled by one of its enabled transitions. Of all sets grown from
+ * the enabled transitions of a marking the one with the fewest enabled transitions is fired.
+ *
+ * <p>Stubborn sets alone may ignore a transition forever on a cycle. As long as a terminal strong
+ * component of the reduced net contains a transition that is in none of the stubborn sets of its
+ * markings, one of its markings is expanded completely. With this proviso every firing sequence of
+ * the full net from a marking of a terminal component can be reordered into a path of the reduced
+ * net that ends in the same component, so
+ *
+ * <ul>
+ *   <li>a transition fires in the reduced net if and only if it fires in the full net and
+ *   <li>a transition is live in the reduced net if and only if it is live in the full net: a
+ *       marking from which it cannot fire any more is followed by a terminal component of the
+ *       reduced net without the transition.
+ * </ul>
+ *
+ * <p>The reduced net contains neither all markings nor all arcs, so it must not be used for other
+ * properties. Unbounded places are not represented either. If a new marking covers a marking on its
+ * discovery path, the net is unbounded and the full net is built by {@link
+ * CompactMarkingNetBuilder} instead, see {@link #isReduced()}. A finite reduced net does not prove
+ * that the full net is bounded.
+ *
+ * @see AbstractMarkingNetBuilder
+ */
+public class StubbornMarkingNetBuilder extends AbstractMarkingNetBuilder {
+
+  // no initializer, it is set by the super constructor
+  private boolean reduced;
+
+  /**
+   * @param lolNet source low level petri net.
+   */
+  public StubbornMarkingNetBuilder(ILowLevelPetriNet lolNet) {
+    super(lolNet);
+  }
+
+  @Override
+  protected void initMarkingNet() {
+    mNet = new CompactMarkingNet(lolNet);
+  }
+
+  /**
+   * @return true if the created net is reduced, false if the net is unbounded and the full marking
+   *     net has been built
+   */
+  public boolean isReduced() {
+    return reduced;
+  }
+
+  /** creates marking net. */
+  @Override
+  public void createMarkingNet() {
+    Exploration exploration = new Exploration(((CompactMarkingNet) mNet).getIndexedNet());
+    reduced = exploration.run();
+    if (reduced) {
+      mNet = exploration.toMarkingNet();
+    } else {
+      mNet = new CompactMarkingNetBuilder(lolNet).getMarkingNet();
+    }
+  }
+
+  /** The state of the exploration. */
+  private static final class Exploration {
+    private final IndexedPetriNet net;
+    private final int[][] producers;
+    private final int[][] consumers;
+    // discovered markings, the successors are kept in the arc log
+    private final CompactMarkingNet explored;
+    // the transitions whose successors have been added, per marking
+    private final List<BitSet> expanded = new ArrayList<BitSet>();
+    private final BitSet allTransitions = new BitSet();
+
+    private final int[] current;
+    private final int[] next;
+    private final int[] ancestor;
+    private final BitSet stubborn = new BitSet();
+    private final BitSet smallest = new BitSet();
+    private final int[] closure;
+
+    private int[] pending = new int[64];
+    private int pendingHead = 0;
+    private int pendingTail = 0;
+
+    private int[] arcSources = new int[256];
+    private int[] arcTransitions = new int[256];
+    private int[] arcTargets = new int[256];
+    private int arcCount = 0;
+
+    Exploration(IndexedPetriNet net) {
+      this.net = net;
+      this.explored = new CompactMarkingNet(net);
+      int places = net.getPlaceCount();
+      int transitions = net.getTransitionCount();
+      producers = indexArcs(net, true);
+      consumers = indexArcs(net, false);
+      current = new int[places];
+      next = new int[places];
+      ancestor = new int[places];
+      closure = new int[transitions];
+      allTransitions.set(0, transitions);
+    }
+
+    /**
+     * Explores the net breadth first and expands markings of ignoring terminal components until
+     * there are none left.
+     *
+     * @return false if the net is unbounded
+     */
+    boolean run() {
+      pending[pendingTail++] = 0;
+      while (true) {
+        while (pendingHead < pendingTail) {
+          int marking = pending[pendingHead++];
+          explored.getStore().read(marking, current);
+          collectSmallestStubbornSet();
+          if (!expand(marking, stubborn)) {
+            return false;
+          }
+        }
+        int ignoring = findIgnoringMarking();
+        if (ignoring < 0) {
+          return true;
+        }
+        explored.getStore().read(ignoring, current);
+        if (!expand(ignoring, allTransitions)) {
+          return false;
+        }
+      }
+    }
+
+    /**
+     * Fires the enabled transitions of the set in {@link #current} that have not been fired yet.
+     *
+     * @param marking the index of the current marking
+     * @param transitions the transitions to fire
+     * @return false if a new marking covers an ancestor
+     */
+    private boolean expand(int marking, BitSet transitions) {
+      while (expanded.size() <= marking) {
+        expanded.add(new BitSet());
+      }
+      BitSet done = expanded.get(marking);
+      for (int t = transitions.nextSetBit(0); t >= 0; t = transitions.nextSetBit(t + 1)) {
+        if (done.get(t) || !net.isActivated(t, current)) continue;
+
+        System.arraycopy(current, 0, next, 0, current.length);
+        net.fire(t, next);
+        int successor = explored.addMarking(next, marking);
+        if (successor >= 0) {
+          if (coversAncestor(marking)) {
+            return false;
+          }
+          if (pendingTail == pending.length) {
+            pending = Arrays.copyOf(pending, pendingTail * 2);
+          }
+          pending[pendingTail++] = successor;
+        } else {
+          successor = -(successor + 1);
+        }
+        logArc(marking, t, successor);
+      }
+      done.or(transitions);
+      return true;
+    }
+
+    /**
+     * Collects the stubborn set with the fewest enabled transitions into {@link #stubborn}. In a
+     * dead marking all transitions are collected, there is nothing to fire anyway.
+     */
+    private void collectSmallestStubbornSet() {
+      int fewest = Integer.MAX_VALUE;
+      for (int t = 0; t < net.getTransitionCount() && fewest > 1; t++) {
+        if (!net.isActivated(t, current)) continue;
+
+        collectStubbornSet(t);
+        int enabled = 0;
+        for (int u = stubborn.nextSetBit(0); u >= 0; u = stubborn.nextSetBit(u + 1)) {
+          if (net.isActivated(u, current)) enabled++;
+        }
+        if (enabled < fewest) {
+          fewest = enabled;
+          smallest.clear();
+          smallest.or(stubborn);
+        }
+      }
+      stubborn.clear();
+      stubborn.or(fewest == Integer.MAX_VALUE ? allTransitions : smallest);
+    }
+
+    /**
+     * Collects the stubborn set of the current marking that is grown from the seed transition.
+     *
+     * @param target the index of the seed transition
+     */
+    private void collectStubbornSet(int target) {
+      stubborn.clear();
+      stubborn.set(target);
+      int size = 0;
+      closure[size++] = target;
+      while (size > 0) {
+        int t = closure[--size];
+        if (net.isActivated(t, current)) {
+          // all transitions in conflict with t
+          for (int place : net.getInputPlaces(t)) {
+            for (int u : consumers[place]) {
+              if (!stubborn.get(u)) {
+                stubborn.set(u);
+                closure[size++] = u;
+              }
+            }
+          }
+        } else {
+          // all transitions that can add tokens to one of the missing ones
+          for (int u : producers[getScapegoat(t)]) {
+            if (!stubborn.get(u)) {
+              stubborn.set(u);
+              closure[size++] = u;
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * @param transition a disabled transition
+     * @return the insufficiently marked input place of the transition with the fewest producers
+     */
+    private int getScapegoat(int transition) {
+      int[] inputs = net.getInputPlaces(transition);
+      int[] weights = net.getInputWeights(transition);
+      int scapegoat = -1;
+      for (int i = 0; i < inputs.length; i++) {
+        int tokens = current[inputs[i]];
+        if (tokens != IndexedPetriNet.OMEGA
+            && tokens < weights[i]
+            && (scapegoat == -1 || producers[inputs[i]].length < producers[scapegoat].length)) {
+          scapegoat = inputs[i];
+        }
+      }
+      return scapegoat;
+    }
+
+    /**
+     * @param parent the index of the marking the new marking has been calculated from
+     * @return true if the new marking in {@link #next} covers an ancestor
+     */
+    private boolean coversAncestor(int parent) {
+      for (int marking = parent; marking >= 0; marking = explored.getPredecessorIndex(marking)) {
+        explored.getStore().read(marking, ancestor);
+        if (IndexedPetriNet.lessOrEqual(ancestor, next)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Searches the strong components of the reduced net with Tarjan's algorithm.
+     *
+     * @return a marking of a terminal component that ignores a transition, or -1 if there is none
+     */
+    private int findIgnoringMarking() {
+      int markingCount = explored.getMarkingCount();
+      int[] firstArc = new int[markingCount + 1];
+      for (int arc = 0; arc < arcCount; arc++) {
+        firstArc[arcSources[arc] + 1]++;
+      }
+      for (int i = 0; i < markingCount; i++) {
+        firstArc[i + 1] += firstArc[i];
+      }
+      int[] fill = Arrays.copyOf(firstArc, markingCount);
+      int[] targets = new int[arcCount];
+      for (int arc = 0; arc < arcCount; arc++) {
+        targets[fill[arcSources[arc]]++] = arcTargets[arc];
+      }
+
+      int[] index = new int[markingCount];
+      Arrays.fill(index, -1);
+      int[] lowLink = new int[markingCount];
+      int[] component = new int[markingCount];
+      Arrays.fill(component, -1);
+      int[] nextArc = new int[markingCount];
+      int[] stack = new int[markingCount];
+      int[] callStack = new int[markingCount];
+      int stackSize = 0;
+      int counter = 0;
+      BitSet covered = new BitSet();
+
+      for (int root = 0; root < markingCount; root++) {
+        if (index[root] != -1) continue;
+
+        int depth = 0;
+        index[root] = lowLink[root] = counter++;
+        nextArc[root] = firstArc[root];
+        stack[stackSize++] = root;
+        callStack[depth++] = root;
+        while (depth > 0) {
+          int marking = callStack[depth - 1];
+          if (nextArc[marking] < firstArc[marking + 1]) {
+            int target = targets[nextArc[marking]++];
+            if (index[target] == -1) {
+              index[target] = lowLink[target] = counter++;
+              nextArc[target] = firstArc[target];
+              stack[stackSize++] = target;
+              callStack[depth++] = target;
+            } else if (component[target] == -1) {
+              lowLink[marking] = Math.min(lowLink[marking], index[target]);
+            }
+            continue;
+          }
+          depth--;
+          if (depth > 0) {
+            int parent = callStack[depth - 1];
+            lowLink[parent] = Math.min(lowLink[parent], lowLink[marking]);
+          }
+          if (lowLink[marking] != index[marking]) continue;
+
+          // the members are on top of the stack, their successors outside are finished already
+          int bottom = stackSize;
+          do {
+            component[stack[--bottom]] = marking;
+          } while (stack[bottom] != marking);
+          boolean terminal = true;
+          covered.clear();
+          for (int i = bottom; i < stackSize && terminal; i++) {
+            int member = stack[i];
+            for (int arc = firstArc[member]; arc < firstArc[member + 1]; arc++) {
+              if (component[targets[arc]] != marking) {
+                terminal = false;
+                break;
+              }
+            }
+            covered.or(expanded.get(member));
+          }
+          if (terminal && covered.cardinality() < allTransitions.cardinality()) {
+            for (int i = bottom; i < stackSize; i++) {
+              if (expanded.get(stack[i]).cardinality() < allTransitions.cardinality()) {
+                return stack[i];
+              }
+            }
+          }
+          stackSize = bottom;
+        }
+      }
+      return -1;
+    }
+
+    private void logArc(int source, int transition, int target) {
+      if (arcCount == arcSources.length) {
+        arcSources = Arrays.copyOf(arcSources, arcCount * 2);
+        arcTransitions = Arrays.copyOf(arcTransitions, arcCount * 2);
+        arcTargets = Arrays.copyOf(arcTargets, arcCount * 2);
+      }
+      arcSources[arcCount] = source;
+      arcTransitions[arcCount] = transition;
+      arcTargets[arcCount++] = target;
+    }
+
+    /**
+     * Numbers the explored markings breadth first, visiting the arcs of a marking in transition
+     * order.
+     *
+     * @return the reduced marking net
+     */
+    CompactMarkingNet toMarkingNet() {
+      int markingCount = explored.getMarkingCount();
+      // group the arcs by their source and sort them by transition and target
+      int[] firstArc = new int[markingCount + 1];
+      for (int arc = 0; arc < arcCount; arc++) {
+        firstArc[arcSources[arc] + 1]++;
+      }
+      for (int i = 0; i < markingCount; i++) {
+        firstArc[i + 1] += firstArc[i];
+      }
+      int[] fill = Arrays.copyOf(firstArc, markingCount);
+      long[] arcs = new long[arcCount];
+      for (int arc = 0; arc < arcCount; arc++) {
+        arcs[fill[arcSources[arc]]++] = (long) arcTransitions[arc] << 32 | arcTargets[arc];
+      }
+      for (int i = 0; i < markingCount; i++) {
+        Arrays.sort(arcs, firstArc[i], firstArc[i + 1]);
+      }
+
+      CompactMarkingNet result = new CompactMarkingNet(net);
+      result.setReduced(true);
+      int[] newIndex = new int[markingCount];
+      Arrays.fill(newIndex, -1);
+      int[] order = new int[markingCount];
+      newIndex[0] = 0;
+      int discovered = 1;
+      int[] transitions = new int[net.getTransitionCount() * 2];
+      int[] targets = new int[transitions.length];
+      for (int marking = 0; marking < discovered; marking++) {
+        int source = order[marking];
+        int count = 0;
+        for (int arc = firstArc[source]; arc < firstArc[source + 1]; arc++) {
+          int target = (int) arcs[arc];
+          if (newIndex[target] == -1) {
+            newIndex[target] = discovered;
+            order[discovered++] = target;
+            explored.getStore().read(target, current);
+            result.addMarking(current, marking);
+          }
+          if (count == transitions.length) {
+            transitions = Arrays.copyOf(transitions, count * 2);
+            targets = Arrays.copyOf(targets, count * 2);
+          }
+          transitions[count] = (int) (arcs[arc] >>> 32);
+          targets[count++] = newIndex[target];
+        }
+        result.setSuccessors(marking, transitions, targets, count);
+      }
+      return result;
+    }
+
+    /**
+     * @param net the compiled net
+     * @param producing true for the input transitions of each place, false for the output
+     *     transitions
+     * @return the transitions connected to each place
+     */
+    private static int[][] indexArcs(IndexedPetriNet net, boolean producing) {
+      int[] count = new int[net.getPlaceCount()];
+      for (int t = 0; t < net.getTransitionCount(); t++) {
+        for (int place : producing ? net.getOutputPlaces(t) : net.getInputPlaces(t)) {
+          count[place]++;
+        }
+      }
+      int[][] result = new int[net.getPlaceCount()][];
+      for (int place = 0; place < result.length; place++) {
+        result[place] = new int[count[place]];
+      }
+      for (int t = net.getTransitionCount() - 1; t >= 0; t--) {
+        for (int place : producing ? net.getOutputPlaces(t) : net.getInputPlaces(t)) {
+          result[place][--count[place]] = t;
+        }
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package org.woped.qualanalysis.soundness.datamodel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, int indexed view of a {@link ILowLevelPetriNet}.
+ *
+ * <p>Places and transitions are numbered once, and the flow relation is compiled into plain arrays
+ * of place indices and arc weights. Markings are represented as {@code int[]} token vectors in the
+ * order of {@link #getPlaces()}, where {@link #OMEGA} marks an unbounded place.
+ *
+ * <p>The place order is the short lex order of the place ids and the transition order is the
+ * iteration order of {@link ILowLevelPetriNet#getTransitions()}. Both are the same orders the
+ * {@link org.woped.qualanalysis.soundness.marking.MarkingNet} uses.
+ */
+public class IndexedPetriNet {
+
+  /** Token count used for places that are unbounded (omega). */
+  public static final int OMEGA = -1;
+
+  private final PlaceNode[] places;
+  private final TransitionNode[] transitions;
+  private final Map<PlaceNode, Integer> placeIndex = new HashMap<>();
+  private final Map<TransitionNode, Integer> transitionIndex = new HashMap<>();
+
+  private final int[][] inputPlaces;
+  private final int[][] inputWeights;
+  private final int[][] outputPlaces;
+  private final int[][] outputWeights;
+
+  /**
+   * Compiles the provided low level petri net.
+   *
+   * @param lolNet the net to compile
+   */
+  public IndexedPetriNet(ILowLevelPetriNet lolNet) {
+    this.places = lolNet.getPlaces().toArray(new PlaceNode[0]);
+    this.transitions = lolNet.getTransitions().toArray(new TransitionNode[0]);
+
+    for (int i = 0; i < places.length; i++) {
+      placeIndex.put(places[i], i);
+    }
+    for (int i = 0; i < transitions.length; i++) {
+      transitionIndex.put(transitions[i], i);
+    }
+
+    inputPlaces = new int[transitions.length][];
+    inputWeights = new int[transitions.length][];
+    outputPlaces = new int[transitions.length][];
+    outputWeights = new int[transitions.length][];
+
+    for (int t = 0; t < transitions.length; t++) {
+      TransitionNode transition = transitions[t];
+
+      List<Integer> indices = new ArrayList<>();
+      List<Integer> weights = new ArrayList<>();
+      for (AbstractNode node : transition.getPredecessorNodes()) {
+        if (!(node instanceof PlaceNode)) continue;
+        indices.add(placeIndex.get(node));
+        weights.add(transition.getWeightFrom(node));
+      }
+      inputPlaces[t] = toArray(indices);
+      inputWeights[t] = toArray(weights);
+
+      indices.clear();
+      weights.clear();
+      for (AbstractNode node : transition.getSuccessorNodes()) {
+        if (!(node instanceof PlaceNode)) continue;
+        indices.add(placeIndex.get(node));
+        weights.add(transition.getWeightTo(node));
+      }
+      outputPlaces[t] = toArray(indices);
+      outputWeights[t] = toArray(weights);
+    }
+  }
+
+  private static int[] toArray(List<Integer> values) {
+    int[] result = new int[values.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = values.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * @return the places of the net, the array index is the place index
+   */
+  public PlaceNode[] getPlaces() {
+    return places;
+  }
+
+  /**
+   * @return the transitions of the net, the array index is the transition index
+   */
+  public TransitionNode[] getTransitions() {
+    return transitions;
+  }
+
+  /**
+   * @return the amount of places
+   */
+  public int getPlaceCount() {
+    return places.length;
+  }
+
+  /**
+   * @return the amount of transitions
+   */
+  public int getTransitionCount() {
+    return transitions.length;
+  }
+
+  /**
+   * @param place the place to look up
+   * @return the index of the place or -1 if the place is not part of the net
+   */
+  public int indexOf(PlaceNode place) {
+    Integer index = placeIndex.get(place);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * @param transition the transition to look up
+   * @return the index of the transition or -1 if the transition is not part of the net
+   */
+  public int indexOf(TransitionNode transition) {
+    Integer index = transitionIndex.get(transition);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * @param transition the transition index
+   * @return the indices of the input places of the transition. Do not manipulate the returned
+   *     array!
+   */
+  public int[] getInputPlaces(int transition) {
+    return inputPlaces[transition];
+  }
+
+  /**
+   * @param transition the transition index
+   * @return the arc weights in the same order as {@link #getInputPlaces(int)}. Do not manipulate
+   *     the returned array!
+   */
+  public int[] getInputWeights(int transition) {
+    return inputWeights[transition];
+  }
+
+  /**
+   * @param transition the transition index
+   * @return the indices of the output places of the transition. Do not manipulate the returned
+   *     array!
+   */
+  public int[] getOutputPlaces(int transition) {
+    return outputPlaces[transition];
+  }
+
+  /**
+   * @param transition the transition index
+   * @return the arc weights in the same order as {@link #getOutputPlaces(int)}. Do not manipulate
+   *     the returned array!
+   */
+  public int[] getOutputWeights(int transition) {
+    return outputWeights[transition];
+  }
+
+  /**
+   * Gets the token vector of the current marking of the net.
+   *
+   * @param useVirtualTokens true if the virtual token count must be used (token game)
+   * @return a new token vector
+   */
+  public int[] getInitialTokens(boolean useVirtualTokens) {
+    int[] tokens = new int[places.length];
+    for (int i = 0; i < places.length; i++) {
+      Integer count =
+          useVirtualTokens ? places[i].getVirtualTokenCount() : places[i].getTokenCount();
+      tokens[i] = count == null ? 0 : count;
+    }
+    return tokens;
+  }
+
+  /**
+   * Checks if the transition is activated in the provided marking.
+   *
+   * @param transition the transition index
+   * @param tokens the token vector of the marking
+   * @return true if every input place carries enough tokens or is unbounded
+   */
+  public boolean isActivated(int transition, int[] tokens) {
+    int[] in = inputPlaces[transition];
+    int[] weights = inputWeights[transition];
+    for (int i = 0; i < in.length; i++) {
+      int count = tokens[in[i]];
+      if (count != OMEGA && count < weights[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Fires the transition on the provided token vector. Unbounded places stay unbounded.
+   *
+   * <p>The transition is not checked for activation.
+   *
+   * @param transition the transition index
+   * @param tokens the token vector to update in place
+   */
+  public void fire(int transition, int[] tokens) {
+    int[] in = inputPlaces[transition];
+    int[] weights = inputWeights[transition];
+    for (int i = 0; i < in.length; i++) {
+      if (tokens[in[i]] != OMEGA) {
+        tokens[in[i]] -= weights[i];
+      }
+    }
+    int[] out = outputPlaces[transition];
+    weights = outputWeights[transition];
+    for (int i = 0; i < out.length; i++) {
+      if (tokens[out[i]] != OMEGA) {
+        tokens[out[i]] += weights[i];
+      }
+    }
+  }
+
+  /**
+   * Checks if the first marking is less or equal than the second one (omega is greater than every
+   * number).
+   *
+   * @param tokens the first token vector
+   * @param other the second token vector
+   * @return true if the first marking is covered by the second one
+   */
+  public static boolean lessOrEqual(int[] tokens, int[] other) {
+    for (int i = 0; i < tokens.length; i++) {
+      if (other[i] == OMEGA) continue;
+      if (tokens[i] == OMEGA || tokens[i] > other[i]) return false;
+    }
+    return true;
+  }
+}
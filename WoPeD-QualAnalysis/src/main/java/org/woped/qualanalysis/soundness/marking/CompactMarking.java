@@ -0,0 +1,287 @@
+package org.woped.qualanalysis.soundness.marking;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import org.woped.core.utilities.ShortLexStringComparator;
+import org.woped.qualanalysis.soundness.algorithms.generic.INode;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+
+/**
+ * Flyweight view on a marking stored in a {@link CompactMarkingNet}.
+ *
+ * <p>The object only holds the net and the index of the marking, all data is read from the shared
+ * arrays of the net. Two views are equal if they point to the same marking of the same net. Stored
+ * markings are immutable, so the modifying operations of {@link IMarking} throw an {@link
+ * UnsupportedOperationException}. Use {@link #copy()} to get a mutable {@link Marking}.
+ */
+public final class CompactMarking implements IMarking {
+
+  private final CompactMarkingNet net;
+  private final int index;
+
+  CompactMarking(CompactMarkingNet net, int index) {
+    this.net = net;
+    this.index = index;
+  }
+
+  /**
+   * @return the index of the marking in the net
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  CompactMarkingNet getNet() {
+    return net;
+  }
+
+  private int tokenAt(int place) {
+    return net.getStore().get(index, place);
+  }
+
+  @Override
+  public boolean isInitial() {
+    return index == 0;
+  }
+
+  @Override
+  public void setInitial(boolean isInitial) {
+    if (isInitial != isInitial()) {
+      throw new UnsupportedOperationException("Markings of a compact marking net are immutable");
+    }
+  }
+
+  @Override
+  public boolean addSuccessor(Arc successor) {
+    throw new UnsupportedOperationException("Markings of a compact marking net are immutable");
+  }
+
+  @Override
+  public TreeMap<String, Integer> getMarking() {
+    TreeMap<String, Integer> marking = new TreeMap<>(new ShortLexStringComparator());
+    PlaceNode[] places = net.getPlaces();
+    for (int i = 0; i < places.length; i++) {
+      int tokens = tokenAt(i);
+      marking.put(places[i].getId(), tokens == IndexedPetriNet.OMEGA ? 0 : tokens);
+    }
+    return marking;
+  }
+
+  @Override
+  public boolean isPlaceUnbound(String placeId) {
+    int place = net.indexOfPlace(placeId);
+    return place != -1 && tokenAt(place) == IndexedPetriNet.OMEGA;
+  }
+
+  @Override
+  public IMarking getPredecessor() {
+    int predecessor = net.getPredecessorIndex(index);
+    return predecessor < 0 ? null : new CompactMarking(net, predecessor);
+  }
+
+  @Override
+  public void setPredecessor(IMarking predecessor) {
+    throw new UnsupportedOperationException("Markings of a compact marking net are immutable");
+  }
+
+  @Override
+  public Set<Arc> getSuccessors() {
+    Set<Arc> successors = new HashSet<>();
+    TransitionNode[] transitions = net.getTransitions();
+    for (int arc = net.getFirstArc(index); arc < net.getEndArc(index); arc++) {
+      successors.add(
+          new Arc(
+              new CompactMarking(net, net.getArcTarget(arc)),
+              transitions[net.getArcTransition(arc)]));
+    }
+    return successors;
+  }
+
+  @Override
+  public Set<String> getActivatedTransitions() {
+    Set<String> activated = new HashSet<>();
+    TransitionNode[] transitions = net.getTransitions();
+    for (int arc = net.getFirstArc(index); arc < net.getEndArc(index); arc++) {
+      activated.add(transitions[net.getArcTransition(arc)].getOriginId());
+    }
+    return activated;
+  }
+
+  @Override
+  public SortedSet<PlaceNode> getPlaces() {
+    return net.getSortedPlaces();
+  }
+
+  /**
+   * @return the token count of the place, unbounded places report zero tokens
+   */
+  @Override
+  public int getTokens(PlaceNode place) {
+    int tokens = tokenAt(net.getIndexedNet().indexOf(place));
+    return tokens == IndexedPetriNet.OMEGA ? 0 : tokens;
+  }
+
+  @Override
+  public void setTokens(PlaceNode place, int amount) {
+    throw new UnsupportedOperationException("Markings of a compact marking net are immutable");
+  }
+
+  @Override
+  public boolean isPlaceUnbound(PlaceNode place) {
+    return tokenAt(net.getIndexedNet().indexOf(place)) == IndexedPetriNet.OMEGA;
+  }
+
+  @Override
+  public void setPlaceUnbound(PlaceNode place, boolean unbound) {
+    throw new UnsupportedOperationException("Markings of a compact marking net are immutable");
+  }
+
+  /**
+   * @return a mutable, detached {@link Marking} with the same tokens
+   */
+  @Override
+  public IMarking copy() {
+    return net.toMarking(net.getStore().get(index));
+  }
+
+  @Override
+  public boolean lessOrEqual(IMarking other) {
+    if (other instanceof CompactMarking && ((CompactMarking) other).net == net) {
+      return IndexedPetriNet.lessOrEqual(
+          net.getStore().get(index), net.getStore().get(((CompactMarking) other).index));
+    }
+
+    SortedSet<PlaceNode> otherPlaces = other.getPlaces();
+    if (getPlaces().size() != otherPlaces.size()) return false;
+
+    for (PlaceNode place : getPlaces()) {
+      if (!otherPlaces.contains(place)) return false;
+      if (this.isPlaceUnbound(place) && !other.isPlaceUnbound(place)) return false;
+      if (other.isPlaceUnbound(place)) continue;
+      if (this.getTokens(place) > other.getTokens(place)) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean less(IMarking other) {
+    return this.lessOrEqual(other) && !this.equals(other);
+  }
+
+  /**
+   * Iterative depth first search along the successor arcs.
+   *
+   * @see IMarking#isTransitionReachable(TransitionNode, Set)
+   */
+  @Override
+  public boolean isTransitionReachable(TransitionNode tn, Set<IMarking> markings) {
+    int transition = net.getIndexedNet().indexOf(tn);
+    Deque<Integer> stack = new ArrayDeque<>();
+    stack.push(index);
+    while (!stack.isEmpty()) {
+      int current = stack.pop();
+      for (int arc = net.getFirstArc(current); arc < net.getEndArc(current); arc++) {
+        if (net.getArcTransition(arc) == transition) {
+          return true;
+        }
+        int target = net.getArcTarget(arc);
+        if (markings.add(new CompactMarking(net, target))) {
+          stack.push(target);
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String asMultiSetString() {
+    // places of the net are already sorted in short lex order of their ids
+    StringBuilder result = new StringBuilder();
+    result.append("(");
+    PlaceNode[] places = net.getPlaces();
+    for (int i = 0; i < places.length; i++) {
+      int tokens = tokenAt(i);
+      if (tokens == 0) continue;
+
+      if (result.length() == 1) result.append(" ");
+
+      if (tokens == IndexedPetriNet.OMEGA) {
+        result.append(Marking.UNBOUND_SIGN);
+      } else if (tokens > 1) {
+        result.append(tokens);
+      }
+      result.append(places[i].getId()).append(" ");
+    }
+    result.append(")");
+    return result.toString();
+  }
+
+  @Override
+  public String asTokenVectorString() {
+    StringBuilder result = new StringBuilder();
+    result.append("(");
+    for (int i = 0; i < net.getPlaces().length; i++) {
+      if (result.length() == 1) result.append(" ");
+
+      int tokens = tokenAt(i);
+      if (tokens == IndexedPetriNet.OMEGA) {
+        result.append(Marking.UNBOUND_SIGN);
+      } else {
+        result.append(tokens);
+      }
+      result.append(" ");
+    }
+    result.append(")");
+    return result.toString();
+  }
+
+  /**
+   * @see INode#getSuccessorNodes()
+   */
+  @Override
+  public Set<IMarking> getSuccessorNodes() {
+    Set<IMarking> set = new HashSet<>();
+    for (int arc = net.getFirstArc(index); arc < net.getEndArc(index); arc++) {
+      set.add(new CompactMarking(net, net.getArcTarget(arc)));
+    }
+    return set;
+  }
+
+  /**
+   * @see INode#getPredecessorNodes()
+   */
+  @Override
+  public Set<IMarking> getPredecessorNodes() {
+    Set<IMarking> set = new HashSet<>();
+    set.add(getPredecessor());
+    return set;
+  }
+
+  @Override
+  public int hashCode() {
+    return net.getStore().hashOf(index);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    CompactMarking other = (CompactMarking) obj;
+    return net == other.net && index == other.index;
+  }
+
+  @Override
+  public String toString() {
+    return asTokenVectorString();
+  }
+}
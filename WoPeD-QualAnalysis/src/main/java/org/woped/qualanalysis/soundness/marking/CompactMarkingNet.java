@@ -0,0 +1,412 @@
+package org.woped.qualanalysis.soundness.marking;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.woped.qualanalysis.soundness.algorithms.generic.IIndexedNodeNet;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNodeComparator;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+
+/**
+ * A marking net that keeps its markings in a {@link PackedMarkingStore} instead of one {@link
+ * Marking} object per state.
+ *
+ * <p>Markings are identified by their index in the store, the initial marking has index 0. The
+ * successor arcs are stored in compressed sparse row layout: the arcs of marking {@code m} are the
+ * entries {@code [getFirstArc(m), getFirstArc(m + 1))} of two int arrays holding the fired
+ * transition and the target marking. This requires that the successors are set in the order of the
+ * marking indices, which is the natural order of a breadth first exploration.
+ *
+ * <p>{@link IMarking} instances handed out by this net are lightweight flyweights ({@link
+ * CompactMarking}) that read the shared arrays, so algorithms written against {@link IMarkingNet}
+ * keep working unchanged. The stored markings are immutable.
+ *
+ * @see org.woped.qualanalysis.soundness.builder.markingnet.CompactMarkingNetBuilder
+ */
+public class CompactMarkingNet implements IMarkingNet, IIndexedNodeNet<IMarking> {
+
+  private final IndexedPetriNet net;
+  private final PackedMarkingStore store;
+  private final Map<String, Integer> placeIdIndex = new HashMap<>();
+  private final SortedSet<PlaceNode> sortedPlaces;
+
+  private int[] predecessors = new int[64];
+
+  // compressed sparse row layout of the successor arcs
+  private int[] firstArc = new int[65];
+  private int[] arcTransitions = new int[64];
+  private int[] arcTargets = new int[64];
+  private int expandedCount = 0;
+  private boolean reduced = false;
+
+  private final Set<IMarking> markings = new MarkingSetView();
+
+  /**
+   * Creates a marking net that only contains the initial marking of the provided net.
+   *
+   * @param lolNet the LowLevelPetriNet on that this marking net is built
+   */
+  public CompactMarkingNet(ILowLevelPetriNet lolNet) {
+    this(new IndexedPetriNet(lolNet));
+  }
+
+  /**
+   * Creates a marking net that only contains the initial marking of the provided net.
+   *
+   * @param net the compiled net on that this marking net is built
+   */
+  public CompactMarkingNet(IndexedPetriNet net) {
+    this.net = net;
+    this.store = new PackedMarkingStore(net.getPlaceCount());
+
+    TreeSet<PlaceNode> places = new TreeSet<>(new PlaceNodeComparator());
+    for (int i = 0; i < net.getPlaceCount(); i++) {
+      placeIdIndex.put(net.getPlaces()[i].getId(), i);
+      places.add(net.getPlaces()[i]);
+    }
+    this.sortedPlaces = Collections.unmodifiableSortedSet(places);
+
+    addMarking(net.getInitialTokens(false), -1);
+  }
+
+  /**
+   * @return the compiled net this marking net is based on
+   */
+  public IndexedPetriNet getIndexedNet() {
+    return net;
+  }
+
+  /**
+   * @return the store holding the token vectors of all markings
+   */
+  public PackedMarkingStore getStore() {
+    return store;
+  }
+
+  /**
+   * @return true if the net only contains the markings needed to decide which transitions can fire
+   * @see org.woped.qualanalysis.soundness.builder.markingnet.StubbornMarkingNetBuilder
+   */
+  public boolean isReduced() {
+    return reduced;
+  }
+
+  /**
+   * @param reduced true if the net only contains the markings needed to decide which transitions
+   *     can fire
+   */
+  public void setReduced(boolean reduced) {
+    this.reduced = reduced;
+  }
+
+  /**
+   * @return the amount of markings
+   */
+  public int getMarkingCount() {
+    return store.size();
+  }
+
+  /**
+   * Adds a marking if no equal marking exists yet.
+   *
+   * @param tokens the token vector of the marking
+   * @param predecessor the index of the marking the new one has been discovered from, or -1
+   * @return the index of the new marking or {@code -(index + 1)} of the existing equal marking
+   */
+  public int addMarking(int[] tokens, int predecessor) {
+    int index = store.add(tokens);
+    if (index >= 0) {
+      if (index >= predecessors.length) {
+        predecessors = Arrays.copyOf(predecessors, predecessors.length * 2);
+      }
+      predecessors[index] = predecessor;
+    }
+    return index;
+  }
+
+  /**
+   * Sets the successor arcs of the next marking to expand.
+   *
+   * @param marking the index of the marking, has to be equal to the amount of already expanded
+   *     markings
+   * @param transitions the transition indices of the arcs
+   * @param targets the target marking indices of the arcs
+   * @param count the amount of arcs to take from the arrays
+   */
+  public void setSuccessors(int marking, int[] transitions, int[] targets, int count) {
+    if (marking != expandedCount) {
+      throw new IllegalStateException(
+          "Markings have to be expanded in index order, expected " + expandedCount);
+    }
+    int start = firstArc[marking];
+    int end = start + count;
+    if (end > arcTargets.length) {
+      int capacity = Math.max(end, arcTargets.length * 2);
+      arcTargets = Arrays.copyOf(arcTargets, capacity);
+      arcTransitions = Arrays.copyOf(arcTransitions, capacity);
+    }
+    System.arraycopy(transitions, 0, arcTransitions, start, count);
+    System.arraycopy(targets, 0, arcTargets, start, count);
+
+    if (marking + 2 > firstArc.length) {
+      firstArc = Arrays.copyOf(firstArc, firstArc.length * 2);
+    }
+    firstArc[marking + 1] = end;
+    expandedCount++;
+  }
+
+  /**
+   * @return the amount of markings whose successors have been set
+   */
+  public int getExpandedCount() {
+    return expandedCount;
+  }
+
+  @Override
+  public int getNodeCount() {
+    return getMarkingCount();
+  }
+
+  @Override
+  public IMarking getNode(int index) {
+    return getMarking(index);
+  }
+
+  /**
+   * @param marking the index of a marking
+   * @return the index of the first successor arc of the marking
+   */
+  @Override
+  public int getFirstArc(int marking) {
+    return marking < expandedCount ? firstArc[marking] : firstArc[expandedCount];
+  }
+
+  /**
+   * @param marking the index of a marking
+   * @return the index behind the last successor arc of the marking
+   */
+  @Override
+  public int getEndArc(int marking) {
+    return marking < expandedCount ? firstArc[marking + 1] : firstArc[expandedCount];
+  }
+
+  /**
+   * @param arc the index of an arc
+   * @return the index of the transition fired by the arc
+   */
+  public int getArcTransition(int arc) {
+    return arcTransitions[arc];
+  }
+
+  /**
+   * @param arc the index of an arc
+   * @return the index of the target marking of the arc
+   */
+  @Override
+  public int getArcTarget(int arc) {
+    return arcTargets[arc];
+  }
+
+  /**
+   * @return the total amount of arcs
+   */
+  public int getArcCount() {
+    return firstArc[expandedCount];
+  }
+
+  /**
+   * @param marking the index of a marking
+   * @return the index of the marking it has been discovered from or -1 for the initial marking
+   */
+  public int getPredecessorIndex(int marking) {
+    return predecessors[marking];
+  }
+
+  /**
+   * @param index the index of a marking
+   * @return a flyweight view on the marking
+   */
+  public IMarking getMarking(int index) {
+    if (index < 0 || index >= store.size()) {
+      throw new IndexOutOfBoundsException("No marking with index " + index);
+    }
+    return new CompactMarking(this, index);
+  }
+
+  /**
+   * @param placeId the id of a place
+   * @return the index of the place or -1 if no such place exists
+   */
+  int indexOfPlace(String placeId) {
+    Integer index = placeIdIndex.get(placeId);
+    return index == null ? -1 : index;
+  }
+
+  SortedSet<PlaceNode> getSortedPlaces() {
+    return sortedPlaces;
+  }
+
+  /**
+   * Gets the token vector of an arbitrary marking of this net.
+   *
+   * @param marking the marking
+   * @return a new token vector in place index order
+   */
+  int[] toTokens(IMarking marking) {
+    if (marking instanceof CompactMarking && ((CompactMarking) marking).getNet() == this) {
+      return store.get(((CompactMarking) marking).getIndex());
+    }
+    int[] tokens = new int[net.getPlaceCount()];
+    for (int i = 0; i < tokens.length; i++) {
+      PlaceNode place = net.getPlaces()[i];
+      tokens[i] = marking.isPlaceUnbound(place) ? IndexedPetriNet.OMEGA : marking.getTokens(place);
+    }
+    return tokens;
+  }
+
+  /**
+   * Creates a detached, mutable {@link Marking} with the provided tokens.
+   *
+   * @param tokens the token vector
+   * @return a new marking
+   */
+  Marking toMarking(int[] tokens) {
+    int[] counts = new int[tokens.length];
+    boolean[] unbound = new boolean[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      unbound[i] = tokens[i] == IndexedPetriNet.OMEGA;
+      counts[i] = unbound[i] ? 0 : tokens[i];
+    }
+    return new Marking(counts, net.getPlaces(), unbound);
+  }
+
+  @Override
+  public TransitionNode[] getActivatedTransitions(IMarking marking) {
+    int[] tokens = toTokens(marking);
+    int count = 0;
+    TransitionNode[] activated = new TransitionNode[net.getTransitionCount()];
+    for (int t = 0; t < net.getTransitionCount(); t++) {
+      if (net.isActivated(t, tokens)) {
+        activated[count++] = net.getTransitions()[t];
+      }
+    }
+    return Arrays.copyOf(activated, count);
+  }
+
+  @Override
+  public IMarking getInitialMarking() {
+    return getMarking(0);
+  }
+
+  /**
+   * @return an unmodifiable view on all markings
+   */
+  @Override
+  public Set<IMarking> getMarkings() {
+    return markings;
+  }
+
+  @Override
+  public PlaceNode[] getPlaces() {
+    return net.getPlaces();
+  }
+
+  @Override
+  public TransitionNode[] getTransitions() {
+    return net.getTransitions();
+  }
+
+  @Override
+  public String placesToString() {
+    StringBuilder line = new StringBuilder();
+    for (PlaceNode place : net.getPlaces()) {
+      if (line.length() > 0) line.append(",");
+      line.append(place);
+    }
+    return line.toString();
+  }
+
+  @Override
+  public String placesToStringId() {
+    StringBuilder line = new StringBuilder();
+    for (PlaceNode place : net.getPlaces()) {
+      if (line.length() > 0) line.append(",");
+      line.append(place.getId());
+    }
+    return line.toString();
+  }
+
+  @Override
+  public String placesToStringName() {
+    StringBuilder line = new StringBuilder();
+    for (PlaceNode place : net.getPlaces()) {
+      if (line.length() > 0) line.append(",");
+      line.append(place.getName());
+    }
+    return line.toString();
+  }
+
+  /**
+   * Calculates the succeeding marking. The result is a detached {@link Marking} which is not added
+   * to this net.
+   *
+   * @see IMarkingNet#calculateSucceedingMarking(IMarking, TransitionNode)
+   */
+  @Override
+  public IMarking calculateSucceedingMarking(IMarking parentMarking, TransitionNode transition) {
+    int[] tokens = toTokens(parentMarking);
+    int index = net.indexOf(transition);
+    if (index >= 0) {
+      net.fire(index, tokens);
+    }
+    return toMarking(tokens);
+  }
+
+  @Override
+  public Set<IMarking> getAllContainedNodes() {
+    return new HashSet<>(markings);
+  }
+
+  /** Read only set view on the markings of the store. */
+  private class MarkingSetView extends AbstractSet<IMarking> {
+
+    @Override
+    public Iterator<IMarking> iterator() {
+      return new Iterator<IMarking>() {
+        private int next = 0;
+
+        @Override
+        public boolean hasNext() {
+          return next < store.size();
+        }
+
+        @Override
+        public IMarking next() {
+          if (!hasNext()) throw new NoSuchElementException();
+          return new CompactMarking(CompactMarkingNet.this, next++);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return store.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof CompactMarking && ((CompactMarking) o).getNet() == CompactMarkingNet.this;
+    }
+  }
+}
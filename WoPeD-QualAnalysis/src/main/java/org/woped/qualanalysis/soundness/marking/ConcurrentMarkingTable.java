@@ -0,0 +1,129 @@
+package org.woped.qualanalysis.soundness.marking;
+
+import java.util.Arrays;
+
+/**
+ * A thread safe set of token vectors for the parallel state space exploration.
+ *
+ * <p>The table is split into segments by the high bits of the token vector hash. Each segment is a
+ * {@link PackedMarkingStore} guarded by its own lock, so threads only contend if they touch the
+ * same segment. Markings are identified by an id that encodes the segment and the index in the
+ * segment. Ids are stable, but they depend on the thread schedule and are not dense; use {@link
+ * #toDenseIndex(int)} to number the markings from {@code 0} to {@code size() - 1}.
+ *
+ * <p>For each marking the id of the marking it has been discovered from is kept as well.
+ */
+public class ConcurrentMarkingTable {
+
+  private static final int SEGMENT_BITS = 6;
+  private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+
+  private final Segment[] segments = new Segment[SEGMENT_COUNT];
+  private int[] denseOffsets;
+
+  /**
+   * @param placeCount the amount of places of the token vectors
+   */
+  public ConcurrentMarkingTable(int placeCount) {
+    for (int i = 0; i < SEGMENT_COUNT; i++) {
+      segments[i] = new Segment(placeCount);
+    }
+  }
+
+  /**
+   * Adds a marking if no equal marking exists yet.
+   *
+   * @param tokens the token vector of the marking
+   * @param predecessor the id of the marking the new one has been discovered from, or -1
+   * @return the id of the new marking or {@code -(id + 1)} of the existing equal marking
+   */
+  public int add(int[] tokens, int predecessor) {
+    int segment = PackedMarkingStore.hash(tokens) >>> (32 - SEGMENT_BITS);
+    int index = segments[segment].add(tokens, predecessor);
+    return index >= 0 ? toId(segment, index) : -(toId(segment, -(index + 1)) + 1);
+  }
+
+  /**
+   * Reads the token vector of a marking.
+   *
+   * @param id the id of the marking
+   * @param tokens receives the token vector
+   */
+  public void read(int id, int[] tokens) {
+    segments[id & (SEGMENT_COUNT - 1)].read(id >>> SEGMENT_BITS, tokens);
+  }
+
+  /**
+   * @param id the id of a marking
+   * @return the id of the marking it has been discovered from or -1 for the initial marking
+   */
+  public int getPredecessor(int id) {
+    return segments[id & (SEGMENT_COUNT - 1)].getPredecessor(id >>> SEGMENT_BITS);
+  }
+
+  /**
+   * @return the amount of markings
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * Maps the id of a marking to an index from {@code 0} to {@code size() - 1}. May only be called
+   * after all markings have been added.
+   *
+   * @param id the id of a marking
+   * @return the dense index of the marking
+   */
+  public int toDenseIndex(int id) {
+    if (denseOffsets == null) {
+      int[] offsets = new int[SEGMENT_COUNT];
+      for (int i = 1; i < SEGMENT_COUNT; i++) {
+        offsets[i] = offsets[i - 1] + segments[i - 1].size();
+      }
+      denseOffsets = offsets;
+    }
+    return denseOffsets[id & (SEGMENT_COUNT - 1)] + (id >>> SEGMENT_BITS);
+  }
+
+  private static int toId(int segment, int index) {
+    return (index << SEGMENT_BITS) | segment;
+  }
+
+  /** A packed store with predecessor ids, guarded by its own monitor. */
+  private static final class Segment {
+    private final PackedMarkingStore store;
+    private int[] predecessors = new int[16];
+
+    Segment(int placeCount) {
+      store = new PackedMarkingStore(placeCount);
+    }
+
+    synchronized int add(int[] tokens, int predecessor) {
+      int index = store.add(tokens);
+      if (index >= 0) {
+        if (index == predecessors.length) {
+          predecessors = Arrays.copyOf(predecessors, index * 2);
+        }
+        predecessors[index] = predecessor;
+      }
+      return index;
+    }
+
+    synchronized void read(int index, int[] tokens) {
+      store.read(index, tokens);
+    }
+
+    synchronized int getPredecessor(int index) {
+      return predecessors[index];
+    }
+
+    synchronized int size() {
+      return store.size();
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package org.woped.qualanalysis.soundness.marking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+
+/**
+ * A trie over token vectors that answers covering queries without comparing the query with every
+ * stored vector.
+ *
+ * <p>Level {@code i} of the trie branches on the token count of place {@code i}, and the children
+ * of a node are sorted by their token count with {@link IndexedPetriNet#OMEGA} as the largest one.
+ * A query for the vectors covering {@code m} only descends into the children with at least {@code
+ * m[i]} tokens, a query for the vectors covered by {@code m} only into those with at most {@code
+ * m[i]} tokens. Vectors sharing a prefix share its nodes, so subtrees that cannot contain a result
+ * are skipped as a whole.
+ *
+ * <p>The index is not synchronized.
+ *
+ * @param <T> the type of the values stored with the token vectors
+ */
+public class CoveringIndex<T> {
+
+  private final int placeCount;
+  private final Node<T> root = new Node<>();
+  private int size = 0;
+
+  /**
+   * @param placeCount the length of the indexed token vectors
+   */
+  public CoveringIndex(int placeCount) {
+    this.placeCount = placeCount;
+  }
+
+  /**
+   * @return the amount of stored values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if no value is stored
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Removes all values. */
+  public void clear() {
+    root.children = null;
+    root.values = null;
+    size = 0;
+  }
+
+  /**
+   * Adds a value for the provided token vector. A vector can carry several values.
+   *
+   * @param tokens the token vector, it is not copied and must not be changed while it is indexed
+   * @param value the value to store
+   */
+  public void add(int[] tokens, T value) {
+    checkLength(tokens);
+    Node<T> node = root;
+    for (int i = 0; i < placeCount; i++) {
+      if (node.children == null) {
+        node.children = new TreeMap<>();
+      }
+      node = node.children.computeIfAbsent(key(tokens[i]), k -> new Node<>());
+    }
+    if (node.values == null) {
+      node.values = new ArrayList<>(1);
+    }
+    node.values.add(value);
+    size++;
+  }
+
+  /**
+   * Removes a value that has been added for the provided token vector.
+   *
+   * @param tokens the token vector the value has been added for
+   * @param value the value to remove
+   * @return true if the value has been found
+   */
+  public boolean remove(int[] tokens, T value) {
+    checkLength(tokens);
+    return remove(root, tokens, 0, value);
+  }
+
+  private boolean remove(Node<T> node, int[] tokens, int place, T value) {
+    if (place == placeCount) {
+      if (node.values == null || !node.values.remove(value)) {
+        return false;
+      }
+      size--;
+      return true;
+    }
+    if (node.children == null) {
+      return false;
+    }
+    int key = key(tokens[place]);
+    Node<T> child = node.children.get(key);
+    if (child == null || !remove(child, tokens, place + 1, value)) {
+      return false;
+    }
+    if (child.isEmpty()) {
+      node.children.remove(key);
+    }
+    return true;
+  }
+
+  /**
+   * Finds a value whose token vector is greater or equal than the provided one.
+   *
+   * @param tokens the token vector to cover
+   * @return one of the covering values or null if there is none
+   */
+  public T findCovering(int[] tokens) {
+    checkLength(tokens);
+    List<T> result = new ArrayList<>(1);
+    collect(root, tokens, 0, true, result, true);
+    return result.isEmpty() ? null : result.get(0);
+  }
+
+  /**
+   * Gets all values whose token vector is greater or equal than the provided one.
+   *
+   * @param tokens the token vector to cover
+   * @return the covering values
+   */
+  public List<T> getCovering(int[] tokens) {
+    checkLength(tokens);
+    List<T> result = new ArrayList<>();
+    collect(root, tokens, 0, true, result, false);
+    return result;
+  }
+
+  /**
+   * Gets all values whose token vector is less or equal than the provided one.
+   *
+   * @param tokens the covering token vector
+   * @return the covered values
+   */
+  public List<T> getCovered(int[] tokens) {
+    checkLength(tokens);
+    List<T> result = new ArrayList<>();
+    collect(root, tokens, 0, false, result, false);
+    return result;
+  }
+
+  /**
+   * @return true if the search is finished
+   */
+  private boolean collect(
+      Node<T> node, int[] tokens, int place, boolean covering, List<T> result, boolean first) {
+    if (place == placeCount) {
+      if (node.values == null || node.values.isEmpty()) {
+        return false;
+      }
+      if (first) {
+        result.add(node.values.get(0));
+        return true;
+      }
+      result.addAll(node.values);
+      return false;
+    }
+    if (node.children == null) {
+      return false;
+    }
+    int key = key(tokens[place]);
+    NavigableMap<Integer, Node<T>> candidates =
+        covering ? node.children.tailMap(key, true) : node.children.headMap(key, true);
+    for (Map.Entry<Integer, Node<T>> entry : candidates.entrySet()) {
+      if (collect(entry.getValue(), tokens, place + 1, covering, result, first)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void checkLength(int[] tokens) {
+    if (tokens.length != placeCount) {
+      throw new IllegalArgumentException(
+          "Expected " + placeCount + " places but got " + tokens.length);
+    }
+  }
+
+  private static int key(int tokens) {
+    return tokens == IndexedPetriNet.OMEGA ? Integer.MAX_VALUE : tokens;
+  }
+
+  private static class Node<T> {
+    // the inner nodes, keyed by the token count of the next place
+    private TreeMap<Integer, Node<T>> children;
+    // the values of the leaves
+    private List<T> values;
+
+    private boolean isEmpty() {
+      return (children == null || children.isEmpty()) && (values == null || values.isEmpty());
+    }
+  }
+}
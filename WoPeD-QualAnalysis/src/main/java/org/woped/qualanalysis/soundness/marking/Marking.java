@@ -1,6 +1,7 @@
 package org.woped.qualanalysis.soundness.marking;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -24,7 +25,7 @@ public class Marking implements IMarking {
   private static int markingCounter = 0;
 
   // declaration
-  private final Map<PlaceNode, Integer> placeToIndexMap = new HashMap<>();
+  private final Map<PlaceNode, Integer> placeToIndexMap;
   private final PlaceNode[] places;
   private final int[] tokens;
   private final boolean[] placeUnlimited;
@@ -32,6 +33,8 @@ public class Marking implements IMarking {
   private IMarking predecessor;
   private boolean isInitial = false;
   private int markingID;
+  // the transitions enabled in this marking, set by the marking net, null if unknown
+  private BitSet enabledTransitions;
   // Cache the hash code unless something changes in our marking. -1 means the hash code
   // needs to be updated.
   private int cachedHashCode = -1;
@@ -46,6 +49,7 @@ public class Marking implements IMarking {
     this.places = places;
     this.tokens = tokens.clone();
     this.placeUnlimited = placeUnlimited.clone();
+    this.placeToIndexMap = new HashMap<>();
     for (int i = 0; i < tokens.length; i++) {
       placeToIndexMap.put(places[i], i);
     }
@@ -53,6 +57,20 @@ public class Marking implements IMarking {
     markingCounter++;
   }
 
+  /**
+   * Creates a copy of the provided marking, which shares the places and their index map.
+   *
+   * @param source the marking to copy
+   */
+  private Marking(Marking source) {
+    this.places = source.places;
+    this.tokens = source.tokens.clone();
+    this.placeUnlimited = source.placeUnlimited.clone();
+    this.placeToIndexMap = source.placeToIndexMap;
+    markingID = markingCounter;
+    markingCounter++;
+  }
+
   public String getID() {
     return "" + markingID;
   }
@@ -133,6 +151,7 @@ public class Marking implements IMarking {
     this.tokens[position] = 0;
     // We need to recalculate the hash if we do this.
     cachedHashCode = -1;
+    enabledTransitions = null;
   }
 
   @Override
@@ -231,6 +250,7 @@ public class Marking implements IMarking {
   public void setTokens(PlaceNode place, int amount) {
     int idx = getIndexByPlace(place);
     tokens[idx] = amount;
+    enabledTransitions = null;
   }
 
   /**
@@ -256,6 +276,7 @@ public class Marking implements IMarking {
   public void setPlaceUnbound(PlaceNode place, boolean unbound) {
     int idx = getIndexByPlace(place);
     placeUnlimited[idx] = unbound;
+    enabledTransitions = null;
   }
 
   /**
@@ -267,18 +288,38 @@ public class Marking implements IMarking {
    */
   @Override
   public IMarking copy() {
-    int size = tokens.length;
-    int[] ctokens = new int[size];
-    boolean[] cplaceUnlimited = new boolean[size];
-    PlaceNode[] cplaces = new PlaceNode[size];
-
-    for (int i = 0; i < size; i++) {
-      cplaces[i] = this.places[i];
-      ctokens[i] = this.tokens[i];
-      cplaceUnlimited[i] = placeUnlimited[i];
-    }
+    return new Marking(this);
+  }
 
-    return new Marking(ctokens, cplaces, cplaceUnlimited);
+  /**
+   * @return the places in token vector order, shared by all copies of this marking
+   */
+  PlaceNode[] getPlaceArray() {
+    return places;
+  }
+
+  /**
+   * @param index the index of a place
+   * @return true if the place is unbound
+   */
+  boolean isPlaceUnbound(int index) {
+    return placeUnlimited[index];
+  }
+
+  /**
+   * @return the transitions enabled in this marking, indexed like the compiled net of the marking
+   *     net, or null if unknown. Do not manipulate the returned set!
+   */
+  BitSet getEnabledTransitions() {
+    return enabledTransitions;
+  }
+
+  /**
+   * @param enabledTransitions the transitions enabled in this marking, reset on each change of the
+   *     tokens
+   */
+  void setEnabledTransitions(BitSet enabledTransitions) {
+    this.enabledTransitions = enabledTransitions;
   }
 
   /**
@@ -1,18 +1,25 @@
 package org.woped.qualanalysis.soundness.marking;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.woped.qualanalysis.soundness.builder.BuilderFactory;
 import org.woped.qualanalysis.soundness.datamodel.AbstractNode;
 import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
 import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
 import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
 
 /**
  * this class represents a marking net
  *
+ * <p>The transitions are compiled into an {@link IndexedPetriNet} on first use, so the low level
+ * net must not be changed afterwards. Markings derived from the initial marking are fired on their
+ * token arrays, and their enabled transitions are derived from those of their parent: after firing
+ * a transition only the transitions consuming from its input or output places are checked again.
+ *
  * @author Patrick Spies, Patrick Kirchgaessner, Joern Liebau, Enrico Moeller, Sebastian Fuss
  */
 public class MarkingNet implements IMarkingNet {
@@ -29,11 +36,23 @@ public class MarkingNet implements IMarkingNet {
   /** initial marking. */
   private Marking initialMarking;
 
+  private final ILowLevelPetriNet lolNet;
+
+  /** compiled transitions, created on first use. */
+  private IndexedPetriNet net;
+
+  /** per transition, the transitions consuming from its input or output places. */
+  private int[][] dependentTransitions;
+
+  /** the place array shared by the markings in the place order of the compiled net. */
+  private PlaceNode[] indexedPlaces;
+
   /**
    * @param lolNet the LowLevelPetriNet on that this marking net is built
    */
   public MarkingNet(ILowLevelPetriNet lolNet) {
 
+    this.lolNet = lolNet;
     this.places = lolNet.getPlaces().toArray(new PlaceNode[lolNet.getPlaces().size()]);
     this.transitions =
         lolNet.getTransitions().toArray(new TransitionNode[lolNet.getTransitions().size()]);
@@ -47,6 +66,51 @@ public class MarkingNet implements IMarkingNet {
    * @return an array of transitions which are activated
    */
   public TransitionNode[] getActivatedTransitions(IMarking marking) {
+    Marking indexed = asIndexedMarking(marking);
+    if (indexed == null) {
+      return getActivatedTransitionsByPlaces(marking);
+    }
+
+    BitSet enabled = getEnabledTransitions(indexed);
+    TransitionNode[] activatedTransitions = new TransitionNode[enabled.cardinality()];
+    int count = 0;
+    for (int t = enabled.nextSetBit(0); t >= 0; t = enabled.nextSetBit(t + 1)) {
+      activatedTransitions[count++] = net.getTransitions()[t];
+    }
+    return activatedTransitions;
+  }
+
+  /**
+   * @param marking a marking in the place order of the compiled net
+   * @return the enabled transitions, cached in the marking
+   */
+  private BitSet getEnabledTransitions(Marking marking) {
+    BitSet enabled = marking.getEnabledTransitions();
+    if (enabled == null) {
+      enabled = new BitSet(net.getTransitionCount());
+      for (int t = 0; t < net.getTransitionCount(); t++) {
+        if (isActivated(t, marking)) {
+          enabled.set(t);
+        }
+      }
+      marking.setEnabledTransitions(enabled);
+    }
+    return enabled;
+  }
+
+  private boolean isActivated(int transition, Marking marking) {
+    int[] tokens = marking.getTokens();
+    int[] inputs = net.getInputPlaces(transition);
+    int[] weights = net.getInputWeights(transition);
+    for (int i = 0; i < inputs.length; i++) {
+      if (tokens[inputs[i]] < weights[i] && !marking.isPlaceUnbound(inputs[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private TransitionNode[] getActivatedTransitionsByPlaces(IMarking marking) {
 
     List<TransitionNode> activatedTransitions = new ArrayList<>();
 
@@ -152,6 +216,100 @@ public class MarkingNet implements IMarkingNet {
    * @return the marking after the transition has fired
    */
   public IMarking calculateSucceedingMarking(IMarking parentMarking, TransitionNode transition) {
+    Marking parent = asIndexedMarking(parentMarking);
+    int t = net.indexOf(transition);
+    if (parent == null || t < 0) {
+      return calculateSucceedingMarkingByPlaces(parentMarking, transition);
+    }
+
+    Marking resultingMarking = (Marking) parent.copy();
+    int[] tokens = resultingMarking.getTokens();
+    int[] inputs = net.getInputPlaces(t);
+    int[] inputWeights = net.getInputWeights(t);
+    for (int i = 0; i < inputs.length; i++) {
+      tokens[inputs[i]] -= inputWeights[i];
+    }
+    int[] outputs = net.getOutputPlaces(t);
+    int[] outputWeights = net.getOutputWeights(t);
+    for (int i = 0; i < outputs.length; i++) {
+      tokens[outputs[i]] += outputWeights[i];
+    }
+
+    BitSet parentEnabled = parent.getEnabledTransitions();
+    if (parentEnabled != null) {
+      BitSet enabled = (BitSet) parentEnabled.clone();
+      for (int dependent : dependentTransitions[t]) {
+        enabled.set(dependent, isActivated(dependent, resultingMarking));
+      }
+      resultingMarking.setEnabledTransitions(enabled);
+    }
+    return resultingMarking;
+  }
+
+  /**
+   * Compiles the transitions on first use.
+   *
+   * @param marking a marking of this net
+   * @return the marking if its tokens are in the place order of the compiled net, otherwise null
+   */
+  private Marking asIndexedMarking(IMarking marking) {
+    if (net == null) {
+      compile();
+    }
+    if (indexedPlaces != null
+        && marking instanceof Marking
+        && ((Marking) marking).getPlaceArray() == indexedPlaces) {
+      return (Marking) marking;
+    }
+    return null;
+  }
+
+  private void compile() {
+    net = new IndexedPetriNet(lolNet);
+
+    // the initial marking and all its copies share one place array
+    PlaceNode[] markingPlaces = initialMarking.getPlaceArray();
+    indexedPlaces = markingPlaces;
+    if (markingPlaces.length != net.getPlaceCount()) {
+      indexedPlaces = null;
+    } else {
+      for (int i = 0; i < markingPlaces.length; i++) {
+        if (markingPlaces[i] != net.getPlaces()[i]) {
+          indexedPlaces = null;
+          break;
+        }
+      }
+    }
+
+    List<List<Integer>> consumers = new ArrayList<>();
+    for (int p = 0; p < net.getPlaceCount(); p++) {
+      consumers.add(new ArrayList<>());
+    }
+    for (int t = 0; t < net.getTransitionCount(); t++) {
+      for (int place : net.getInputPlaces(t)) {
+        consumers.get(place).add(t);
+      }
+    }
+    dependentTransitions = new int[net.getTransitionCount()][];
+    BitSet dependent = new BitSet(net.getTransitionCount());
+    for (int t = 0; t < net.getTransitionCount(); t++) {
+      dependent.clear();
+      for (int place : net.getInputPlaces(t)) {
+        for (int consumer : consumers.get(place)) {
+          dependent.set(consumer);
+        }
+      }
+      for (int place : net.getOutputPlaces(t)) {
+        for (int consumer : consumers.get(place)) {
+          dependent.set(consumer);
+        }
+      }
+      dependentTransitions[t] = dependent.stream().toArray();
+    }
+  }
+
+  private IMarking calculateSucceedingMarkingByPlaces(
+      IMarking parentMarking, TransitionNode transition) {
     IMarking resultingMarking = parentMarking.copy();
 
     for (AbstractNode node : transition.getPredecessorNodes()) {
@@ -0,0 +1,252 @@
+package org.woped.qualanalysis.soundness.marking;
+
+import java.util.Arrays;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+
+/**
+ * Stores distinct token vectors in one shared primitive arena.
+ *
+ * <p>Every token vector is packed into a fixed amount of bits per place. The store starts with 8
+ * bits per place, which is enough for safe and most bounded nets, and widens the whole arena to 16
+ * and 32 bits as soon as a larger token count shows up. The highest value of a slot encodes {@link
+ * IndexedPetriNet#OMEGA}.
+ *
+ * <p>Duplicates are detected with an open addressing hash index (linear probing) over the stored
+ * vectors, so no object is allocated per stored marking.
+ */
+public class PackedMarkingStore {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final int placeCount;
+
+  private int bitsPerPlace;
+  private int placesPerWord;
+  private int wordsPerMarking;
+  private int slotMask;
+  private int[] words;
+
+  private int size = 0;
+  private int[] hashes;
+
+  // open addressing table, contains marking index + 1 and 0 for empty slots
+  private int[] table;
+
+  /**
+   * @param placeCount the length of the stored token vectors
+   */
+  public PackedMarkingStore(int placeCount) {
+    this.placeCount = placeCount;
+    this.hashes = new int[INITIAL_CAPACITY];
+    this.table = new int[INITIAL_CAPACITY * 2];
+    setLayout(8);
+    this.words = new int[INITIAL_CAPACITY * wordsPerMarking];
+  }
+
+  private void setLayout(int bits) {
+    bitsPerPlace = bits;
+    placesPerWord = 32 / bits;
+    wordsPerMarking = Math.max(1, (placeCount + placesPerWord - 1) / placesPerWord);
+    slotMask = bits == 32 ? -1 : (1 << bits) - 1;
+  }
+
+  /**
+   * @return the amount of stored markings
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the length of the stored token vectors
+   */
+  public int getPlaceCount() {
+    return placeCount;
+  }
+
+  /**
+   * @return the amount of bits currently used per place
+   */
+  public int getBitsPerPlace() {
+    return bitsPerPlace;
+  }
+
+  /**
+   * Looks up the index of the provided token vector.
+   *
+   * @param tokens the token vector to find
+   * @return the index of the stored vector or -1 if the vector is not contained
+   */
+  public int indexOf(int[] tokens) {
+    return indexOf(tokens, hash(tokens));
+  }
+
+  private int indexOf(int[] tokens, int hash) {
+    if (!fits(tokens)) return -1;
+    int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int index = table[slot] - 1;
+      if (hashes[index] == hash && contentEquals(index, tokens)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Adds the provided token vector if it is not contained yet.
+   *
+   * @param tokens the token vector to add
+   * @return the index of the new vector, or {@code -(index + 1)} of the already stored equal vector
+   */
+  public int add(int[] tokens) {
+    int hash = hash(tokens);
+    int existing = indexOf(tokens, hash);
+    if (existing >= 0) {
+      return -(existing + 1);
+    }
+
+    while (!fits(tokens)) {
+      widen();
+    }
+    ensureCapacity(size + 1);
+
+    int index = size++;
+    hashes[index] = hash;
+    write(index, tokens);
+
+    int mask = table.length - 1;
+    int slot = hash & mask;
+    while (table[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = index + 1;
+    return index;
+  }
+
+  /**
+   * Copies the stored token vector into the provided array.
+   *
+   * @param index the index of the marking
+   * @param tokens the destination, has to be at least {@link #getPlaceCount()} long
+   */
+  public void read(int index, int[] tokens) {
+    for (int place = 0; place < placeCount; place++) {
+      tokens[place] = get(index, place);
+    }
+  }
+
+  /**
+   * @param index the index of the marking
+   * @return a new array with the stored token vector
+   */
+  public int[] get(int index) {
+    int[] tokens = new int[placeCount];
+    read(index, tokens);
+    return tokens;
+  }
+
+  /**
+   * @param index the index of the marking
+   * @param place the index of the place
+   * @return the token count of the place or {@link IndexedPetriNet#OMEGA}
+   */
+  public int get(int index, int place) {
+    int word = words[index * wordsPerMarking + place / placesPerWord];
+    int value = (word >>> ((place % placesPerWord) * bitsPerPlace)) & slotMask;
+    return value == slotMask ? IndexedPetriNet.OMEGA : value;
+  }
+
+  /**
+   * @param index the index of the marking
+   * @return the hash of the stored vector, equal to {@link #hash(int[])}
+   */
+  public int hashOf(int index) {
+    return hashes[index];
+  }
+
+  /**
+   * @param tokens a token vector
+   * @return the hash of the vector used by the index
+   */
+  public static int hash(int[] tokens) {
+    int result = 1;
+    for (int token : tokens) {
+      result = 31 * result + token;
+    }
+    // spread the bits, linear probing is sensitive to clustering
+    result ^= result >>> 16;
+    result *= 0x85ebca6b;
+    result ^= result >>> 13;
+    return result;
+  }
+
+  private boolean contentEquals(int index, int[] tokens) {
+    for (int place = 0; place < placeCount; place++) {
+      if (get(index, place) != tokens[place]) return false;
+    }
+    return true;
+  }
+
+  private boolean fits(int[] tokens) {
+    if (bitsPerPlace == 32) return true;
+    for (int token : tokens) {
+      if (token != IndexedPetriNet.OMEGA && token >= slotMask) return false;
+    }
+    return true;
+  }
+
+  private void write(int index, int[] tokens) {
+    int base = index * wordsPerMarking;
+    Arrays.fill(words, base, base + wordsPerMarking, 0);
+    for (int place = 0; place < placeCount; place++) {
+      int value = tokens[place] == IndexedPetriNet.OMEGA ? slotMask : tokens[place];
+      words[base + place / placesPerWord] |= value << ((place % placesPerWord) * bitsPerPlace);
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > hashes.length) {
+      int newCapacity = Math.max(capacity, hashes.length * 2);
+      hashes = Arrays.copyOf(hashes, newCapacity);
+      words = Arrays.copyOf(words, newCapacity * wordsPerMarking);
+    }
+    if (capacity * 2 > table.length) {
+      rehash(table.length * 2);
+    }
+  }
+
+  private void rehash(int tableSize) {
+    table = new int[tableSize];
+    int mask = tableSize - 1;
+    for (int index = 0; index < size; index++) {
+      int slot = hashes[index] & mask;
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = index + 1;
+    }
+  }
+
+  /** Repacks the arena with twice as many bits per place. */
+  private void widen() {
+    int[] oldWords = words;
+    int oldBits = bitsPerPlace;
+    int oldPlacesPerWord = placesPerWord;
+    int oldWordsPerMarking = wordsPerMarking;
+    int oldMask = slotMask;
+
+    setLayout(bitsPerPlace * 2);
+    words = new int[hashes.length * wordsPerMarking];
+
+    int[] tokens = new int[placeCount];
+    for (int index = 0; index < size; index++) {
+      for (int place = 0; place < placeCount; place++) {
+        int word = oldWords[index * oldWordsPerMarking + place / oldPlacesPerWord];
+        int value = (word >>> ((place % oldPlacesPerWord) * oldBits)) & oldMask;
+        tokens[place] = value == oldMask ? IndexedPetriNet.OMEGA : value;
+      }
+      write(index, tokens);
+    }
+  }
+}
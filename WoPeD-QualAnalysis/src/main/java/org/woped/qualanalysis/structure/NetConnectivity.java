@@ -0,0 +1,378 @@
+package org.woped.qualanalysis.structure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+
+/**
+ * Connectivity of the places and transitions of a net.
+ *
+ * <p>The elements are numbered once and the arcs between them are stored as int arrays in both
+ * directions. Weakly and strongly connected components and reachability are computed by linear time
+ * graph traversals on these arrays. Shortest paths are only computed on request, by a breadth first
+ * search between the two requested elements.
+ *
+ * @see StructuralAnalysis#getNotConnectedNodes()
+ * @see StructuralAnalysis#getNotStronglyConnectedNodes()
+ */
+public class NetConnectivity {
+
+  private final AbstractPetriNetElementModel[] elements;
+  private final Map<AbstractPetriNetElementModel, Integer> indices;
+  private final int[] firstSuccessor;
+  private final int[] successors;
+  private final int[] firstPredecessor;
+  private final int[] predecessors;
+
+  private int[] weakComponents;
+  private int[] strongComponents;
+
+  /**
+   * @param netElements the places and transitions to take into account, arcs to other elements are
+   *     ignored
+   * @param snapshot the snapshot providing the arcs
+   * @param shortCircuited true if the arcs of {@code t*} should be included
+   */
+  public NetConnectivity(
+      Collection<AbstractPetriNetElementModel> netElements,
+      NetSnapshot snapshot,
+      boolean shortCircuited) {
+    int count = netElements.size();
+    elements = netElements.toArray(new AbstractPetriNetElementModel[count]);
+    indices = new HashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      indices.put(elements[i], i);
+    }
+
+    firstSuccessor = new int[count + 1];
+    int[] targets = new int[Math.max(16, count)];
+    int arcs = 0;
+    for (int i = 0; i < count; i++) {
+      firstSuccessor[i] = arcs;
+      for (AbstractPetriNetElementModel successor :
+          snapshot.getSuccessors(elements[i], shortCircuited)) {
+        Integer target = indices.get(successor);
+        if (target == null) continue;
+        if (arcs == targets.length) {
+          targets = Arrays.copyOf(targets, arcs * 2);
+        }
+        targets[arcs++] = target;
+      }
+    }
+    firstSuccessor[count] = arcs;
+    successors = Arrays.copyOf(targets, arcs);
+
+    // invert the arcs by a counting sort over the targets
+    firstPredecessor = new int[count + 1];
+    for (int arc = 0; arc < arcs; arc++) {
+      firstPredecessor[successors[arc] + 1]++;
+    }
+    for (int i = 0; i < count; i++) {
+      firstPredecessor[i + 1] += firstPredecessor[i];
+    }
+    predecessors = new int[arcs];
+    int[] fill = Arrays.copyOf(firstPredecessor, count);
+    for (int source = 0; source < count; source++) {
+      for (int arc = firstSuccessor[source]; arc < firstSuccessor[source + 1]; arc++) {
+        predecessors[fill[successors[arc]]++] = source;
+      }
+    }
+  }
+
+  /**
+   * @return the amount of elements
+   */
+  public int size() {
+    return elements.length;
+  }
+
+  /**
+   * @return the amount of arcs between the elements
+   */
+  public int getArcCount() {
+    return successors.length;
+  }
+
+  /**
+   * Returns all elements that are not in the same weakly connected component as the given element,
+   * i.e. that are not connected to it if the direction of the arcs is ignored.
+   *
+   * @param centralNode the element all elements need to be connected to
+   * @return the unconnected elements, empty if the central node is not contained
+   */
+  public Set<AbstractPetriNetElementModel> getUnconnectedNodes(
+      AbstractPetriNetElementModel centralNode) {
+    return getOtherComponents(getWeakComponents(), centralNode);
+  }
+
+  /**
+   * Returns all elements that are not in the same strongly connected component as the given
+   * element, i.e. that are not reachable from it or from which it is not reachable.
+   *
+   * @param centralNode the element all elements need to be strongly connected to
+   * @return the elements that are not strongly connected, empty if the central node is not
+   *     contained
+   */
+  public Set<AbstractPetriNetElementModel> getNotStronglyConnectedNodes(
+      AbstractPetriNetElementModel centralNode) {
+    return getOtherComponents(getStrongComponents(), centralNode);
+  }
+
+  /**
+   * @return the weakly connected components of the elements
+   */
+  public Set<Set<AbstractPetriNetElementModel>> getConnectedComponents() {
+    return toSets(getWeakComponents());
+  }
+
+  /**
+   * @return the strongly connected components of the elements
+   */
+  public Set<Set<AbstractPetriNetElementModel>> getStronglyConnectedComponents() {
+    return toSets(getStrongComponents());
+  }
+
+  /**
+   * @param node an element
+   * @return all elements reachable from the element, including itself, empty if it is not contained
+   */
+  public Set<AbstractPetriNetElementModel> getReachableNodes(AbstractPetriNetElementModel node) {
+    return toSet(traverse(node, firstSuccessor, successors));
+  }
+
+  /**
+   * @param node an element
+   * @return all elements from which the element is reachable, including itself, empty if it is not
+   *     contained
+   */
+  public Set<AbstractPetriNetElementModel> getReachingNodes(AbstractPetriNetElementModel node) {
+    return toSet(traverse(node, firstPredecessor, predecessors));
+  }
+
+  /**
+   * Searches a shortest path between two elements. The arc weights are ignored.
+   *
+   * @param from the first element of the path
+   * @param to the last element of the path
+   * @return the elements of the path, or null if the last element is not reachable from the first
+   */
+  public List<AbstractPetriNetElementModel> getShortestPath(
+      AbstractPetriNetElementModel from, AbstractPetriNetElementModel to) {
+    Integer start = indices.get(from);
+    Integer target = indices.get(to);
+    if (start == null || target == null) {
+      return null;
+    }
+
+    int[] parent = new int[elements.length];
+    Arrays.fill(parent, -1);
+    parent[start] = start;
+    int[] queue = new int[elements.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    while (head < tail && parent[target] == -1) {
+      int node = queue[head++];
+      for (int arc = firstSuccessor[node]; arc < firstSuccessor[node + 1]; arc++) {
+        int next = successors[arc];
+        if (parent[next] == -1) {
+          parent[next] = node;
+          queue[tail++] = next;
+        }
+      }
+    }
+    if (parent[target] == -1) {
+      return null;
+    }
+
+    List<AbstractPetriNetElementModel> path = new ArrayList<>();
+    for (int node = target; node != start; node = parent[node]) {
+      path.add(elements[node]);
+    }
+    path.add(elements[start]);
+    Collections.reverse(path);
+    return path;
+  }
+
+  private Set<AbstractPetriNetElementModel> getOtherComponents(
+      int[] component, AbstractPetriNetElementModel centralNode) {
+    Set<AbstractPetriNetElementModel> result = new HashSet<>();
+    Integer central = indices.get(centralNode);
+    if (central == null) {
+      return result;
+    }
+    for (int i = 0; i < elements.length; i++) {
+      if (component[i] != component[central]) {
+        result.add(elements[i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the weakly connected component number for each element index
+   */
+  private int[] getWeakComponents() {
+    if (weakComponents != null) {
+      return weakComponents;
+    }
+    int[] component = new int[elements.length];
+    Arrays.fill(component, -1);
+    int[] queue = new int[elements.length];
+    int components = 0;
+    for (int root = 0; root < elements.length; root++) {
+      if (component[root] != -1) continue;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = root;
+      component[root] = components;
+      while (head < tail) {
+        int node = queue[head++];
+        for (int arc = firstSuccessor[node]; arc < firstSuccessor[node + 1]; arc++) {
+          if (component[successors[arc]] == -1) {
+            component[successors[arc]] = components;
+            queue[tail++] = successors[arc];
+          }
+        }
+        for (int arc = firstPredecessor[node]; arc < firstPredecessor[node + 1]; arc++) {
+          if (component[predecessors[arc]] == -1) {
+            component[predecessors[arc]] = components;
+            queue[tail++] = predecessors[arc];
+          }
+        }
+      }
+      components++;
+    }
+    weakComponents = component;
+    return component;
+  }
+
+  /**
+   * tarjan algorithm with an explicit call stack.
+   *
+   * @return the strongly connected component number for each element index
+   */
+  private int[] getStrongComponents() {
+    if (strongComponents != null) {
+      return strongComponents;
+    }
+    int count = elements.length;
+    int[] component = new int[count];
+    int[] dfs = new int[count];
+    int[] lowLink = new int[count];
+    Arrays.fill(dfs, -1);
+    BitSet onStack = new BitSet(count);
+    int[] stack = new int[count];
+    int stackSize = 0;
+    int[] callNode = new int[count];
+    int[] callArc = new int[count];
+    int maxdfs = 0;
+    int components = 0;
+
+    for (int root = 0; root < count; root++) {
+      if (dfs[root] != -1) continue;
+
+      int callSize = 0;
+      callNode[callSize] = root;
+      callArc[callSize++] = firstSuccessor[root];
+      dfs[root] = lowLink[root] = maxdfs++;
+      stack[stackSize++] = root;
+      onStack.set(root);
+
+      while (callSize > 0) {
+        int node = callNode[callSize - 1];
+        int arc = callArc[callSize - 1];
+
+        if (arc < firstSuccessor[node + 1]) {
+          callArc[callSize - 1]++;
+          int next = successors[arc];
+          if (dfs[next] == -1) {
+            dfs[next] = lowLink[next] = maxdfs++;
+            stack[stackSize++] = next;
+            onStack.set(next);
+            callNode[callSize] = next;
+            callArc[callSize++] = firstSuccessor[next];
+          } else if (onStack.get(next)) {
+            lowLink[node] = Math.min(lowLink[node], dfs[next]);
+          }
+          continue;
+        }
+
+        // all arcs of node visited
+        callSize--;
+        if (callSize > 0) {
+          int parent = callNode[callSize - 1];
+          lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+        }
+        if (lowLink[node] == dfs[node]) {
+          int member;
+          do {
+            member = stack[--stackSize];
+            onStack.clear(member);
+            component[member] = components;
+          } while (member != node);
+          components++;
+        }
+      }
+    }
+    strongComponents = component;
+    return component;
+  }
+
+  /**
+   * breadth first traversal in one direction.
+   *
+   * @return the visited element indices, empty if the start is not contained
+   */
+  private BitSet traverse(AbstractPetriNetElementModel start, int[] firstArc, int[] arcTargets) {
+    BitSet visited = new BitSet(elements.length);
+    Integer root = indices.get(start);
+    if (root == null) {
+      return visited;
+    }
+    int[] queue = new int[elements.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = root;
+    visited.set(root);
+    while (head < tail) {
+      int node = queue[head++];
+      for (int arc = firstArc[node]; arc < firstArc[node + 1]; arc++) {
+        if (!visited.get(arcTargets[arc])) {
+          visited.set(arcTargets[arc]);
+          queue[tail++] = arcTargets[arc];
+        }
+      }
+    }
+    return visited;
+  }
+
+  private Set<AbstractPetriNetElementModel> toSet(BitSet nodes) {
+    Set<AbstractPetriNetElementModel> result = new HashSet<>();
+    for (int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1)) {
+      result.add(elements[i]);
+    }
+    return result;
+  }
+
+  private Set<Set<AbstractPetriNetElementModel>> toSets(int[] component) {
+    Map<Integer, Set<AbstractPetriNetElementModel>> sets = new HashMap<>();
+    for (int i = 0; i < elements.length; i++) {
+      Set<AbstractPetriNetElementModel> set = sets.get(component[i]);
+      if (set == null) {
+        set = new HashSet<>();
+        sets.put(component[i], set);
+      }
+      set.add(elements[i]);
+    }
+    return new HashSet<>(sets.values());
+  }
+}
@@ -0,0 +1,555 @@
+package org.woped.qualanalysis.structure;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.woped.core.controller.IEditor;
+import org.woped.core.model.ArcModel;
+import org.woped.core.model.CreationMap;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.core.model.petrinet.OperatorTransitionModel;
+import org.woped.core.model.petrinet.PlaceModel;
+import org.woped.core.model.petrinet.TransitionModel;
+import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetStrategy;
+import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
+import org.woped.qualanalysis.soundness.marking.IMarkingNet;
+import org.woped.qualanalysis.structure.components.ArcConfiguration;
+
+/**
+ * An immutable view on the net of an editor, taken at one revision of its {@link
+ * ModelElementContainer}.
+ *
+ * <p>The snapshot walks the model once and keeps the places, transitions and operators, their
+ * direct connections, the token counts and the basic statistics. {@link StructuralAnalysis}, the
+ * {@link org.woped.qualanalysis.soundness.WorkflowCheckImplement workflow check}, the low level net
+ * builders and the marking net builders all read from the same snapshot instead of walking the
+ * editor model again. The low level nets and the compact marking nets are built on first request
+ * and cached as well.
+ *
+ * <p>The short-circuited net contains the additional transition {@code t*} connecting the unique
+ * sink place with the unique source place. {@code t*} is a detached element, the editor model is
+ * never changed.
+ *
+ * <p>A snapshot is held by the analysis session that uses it, e.g. the {@link
+ * org.woped.qualanalysis.service.IQualanalysisService service} or the analysis sidebar of an
+ * editor. {@link #refresh()} takes a new snapshot only if the revision of the container (see {@link
+ * ModelElementContainer#getRevision()}) has changed since this one was taken.
+ */
+public final class NetSnapshot {
+
+  public static final String TSTAR_ID = "t*";
+
+  private final IEditor editor;
+  private final ModelElementContainer container;
+  private final boolean subprocess;
+  private final long revision;
+
+  private final Set<AbstractPetriNetElementModel> places = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> transitions = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> subprocesses = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> operators = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> xorSplits = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> xorJoins = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> andSplits = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> andJoins = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> sourcePlaces = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> sinkPlaces = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> sourceTransitions = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> sinkTransitions = new HashSet<>();
+  private final Set<AbstractPetriNetElementModel> misusedOperators = new HashSet<>();
+  private final Set<ArcModel> arcWeightViolations = new HashSet<>();
+  private int numArcs = 0;
+
+  private final Map<AbstractPetriNetElementModel, Set<AbstractPetriNetElementModel>> predecessors =
+      new HashMap<>();
+  private final Map<AbstractPetriNetElementModel, Set<AbstractPetriNetElementModel>> successors =
+      new HashMap<>();
+  private final Map<PlaceModel, int[]> tokens = new HashMap<>();
+
+  private final List<AbstractPetriNetElementModel> rootElements;
+  private Map<AbstractPetriNetElementModel, Set<AbstractPetriNetElementModel>> rootPredecessors;
+  private Map<AbstractPetriNetElementModel, Set<AbstractPetriNetElementModel>> rootSuccessors;
+
+  private final AbstractPetriNetElementModel tStar;
+  private final AbstractPetriNetElementModel tStarSource;
+  private final AbstractPetriNetElementModel tStarTarget;
+
+  private LowLevelPetriNet lolNetWithoutTStar;
+  private LowLevelPetriNet lolNetWithTStar;
+  private final Map<MarkingNetStrategy, IMarkingNet> markingNetsWithoutTStar =
+      new EnumMap<>(MarkingNetStrategy.class);
+  private final Map<MarkingNetStrategy, IMarkingNet> markingNetsWithTStar =
+      new EnumMap<>(MarkingNetStrategy.class);
+
+  /**
+   * Takes a new snapshot of the net in the editor.
+   *
+   * @param editor the editor containing the net
+   */
+  public NetSnapshot(IEditor editor) {
+    this.editor = editor;
+    this.container = editor.getModelProcessor().getElementContainer();
+    this.subprocess = editor.isSubprocessEditor();
+    this.revision = container.getRevision();
+    this.rootElements = Collections.unmodifiableList(container.getRootElements());
+
+    addElements(rootElements);
+    numArcs += container.getArcMap().size();
+    for (ArcModel arc : container.getArcMap().values()) {
+      if (arc.getInscriptionValue() > 1) arcWeightViolations.add(arc);
+    }
+
+    tStar = createTStar();
+    if (tStar != null && sourcePlaces.size() == 1 && sinkPlaces.size() == 1) {
+      tStarSource = sinkPlaces.iterator().next();
+      tStarTarget = sourcePlaces.iterator().next();
+    } else {
+      tStarSource = null;
+      tStarTarget = null;
+    }
+  }
+
+  /**
+   * @return true if the net of the editor has not been changed since this snapshot was taken
+   */
+  public boolean isCurrent() {
+    return editor.getModelProcessor().getElementContainer() == container
+        && container.getRevision() == revision;
+  }
+
+  /**
+   * @return this snapshot if it is current, otherwise a new snapshot of the editor
+   */
+  public NetSnapshot refresh() {
+    return isCurrent() ? this : new NetSnapshot(editor);
+  }
+
+  /**
+   * @return the editor this snapshot has been taken from
+   */
+  public IEditor getEditor() {
+    return editor;
+  }
+
+  /**
+   * @return true if the net is the net of a subprocess editor
+   */
+  public boolean isSubprocess() {
+    return subprocess;
+  }
+
+  /**
+   * @return the revision of the container when the snapshot was taken
+   */
+  public long getRevision() {
+    return revision;
+  }
+
+  /**
+   * @return all places including the inner places of operators
+   */
+  public Set<AbstractPetriNetElementModel> getPlaces() {
+    return Collections.unmodifiableSet(places);
+  }
+
+  /**
+   * @return all transitions including the inner transitions of operators, without {@code t*}
+   */
+  public Set<AbstractPetriNetElementModel> getTransitions() {
+    return Collections.unmodifiableSet(transitions);
+  }
+
+  public Set<AbstractPetriNetElementModel> getSubprocesses() {
+    return Collections.unmodifiableSet(subprocesses);
+  }
+
+  public Set<AbstractPetriNetElementModel> getOperators() {
+    return Collections.unmodifiableSet(operators);
+  }
+
+  public Set<AbstractPetriNetElementModel> getXorSplits() {
+    return Collections.unmodifiableSet(xorSplits);
+  }
+
+  public Set<AbstractPetriNetElementModel> getXorJoins() {
+    return Collections.unmodifiableSet(xorJoins);
+  }
+
+  public Set<AbstractPetriNetElementModel> getAndSplits() {
+    return Collections.unmodifiableSet(andSplits);
+  }
+
+  public Set<AbstractPetriNetElementModel> getAndJoins() {
+    return Collections.unmodifiableSet(andJoins);
+  }
+
+  public Set<AbstractPetriNetElementModel> getSourcePlaces() {
+    return Collections.unmodifiableSet(sourcePlaces);
+  }
+
+  public Set<AbstractPetriNetElementModel> getSinkPlaces() {
+    return Collections.unmodifiableSet(sinkPlaces);
+  }
+
+  public Set<AbstractPetriNetElementModel> getSourceTransitions() {
+    return Collections.unmodifiableSet(sourceTransitions);
+  }
+
+  public Set<AbstractPetriNetElementModel> getSinkTransitions() {
+    return Collections.unmodifiableSet(sinkTransitions);
+  }
+
+  public Set<AbstractPetriNetElementModel> getMisusedOperators() {
+    return Collections.unmodifiableSet(misusedOperators);
+  }
+
+  /**
+   * @return the arcs of the net whose weight is larger than 1
+   */
+  public Set<ArcModel> getArcWeightViolations() {
+    return Collections.unmodifiableSet(arcWeightViolations);
+  }
+
+  /**
+   * @return the number of arcs, inner arcs of operators are counted instead of their outer arcs
+   */
+  public int getNumArcs() {
+    return numArcs;
+  }
+
+  /**
+   * @return the elements of the root container
+   */
+  public List<AbstractPetriNetElementModel> getRootElements() {
+    return rootElements;
+  }
+
+  /**
+   * @return the detached transition {@code t*} or null if the net has no transitions
+   */
+  public AbstractPetriNetElementModel getTStar() {
+    return tStar;
+  }
+
+  /**
+   * @return true if {@code t*} connects a unique sink place with a unique source place
+   */
+  public boolean isShortCircuited() {
+    return tStarSource != null;
+  }
+
+  /**
+   * Returns the direct predecessors of an element, ignoring operators. Inner elements of operators
+   * are connected to the surrounding elements.
+   *
+   * @param element a place or transition of the net or {@code t*}
+   * @param shortCircuited true if the arcs of {@code t*} should be included
+   * @return the predecessors of the element
+   * @see NetAlgorithms#getDirectlyConnectedNodes(AbstractPetriNetElementModel, int)
+   */
+  public Set<AbstractPetriNetElementModel> getPredecessors(
+      AbstractPetriNetElementModel element, boolean shortCircuited) {
+    return connected(predecessors, element, shortCircuited, tStarTarget, tStarSource);
+  }
+
+  /**
+   * Returns the direct successors of an element, ignoring operators.
+   *
+   * @param element a place or transition of the net or {@code t*}
+   * @param shortCircuited true if the arcs of {@code t*} should be included
+   * @return the successors of the element
+   * @see NetAlgorithms#getDirectlyConnectedNodes(AbstractPetriNetElementModel, int)
+   */
+  public Set<AbstractPetriNetElementModel> getSuccessors(
+      AbstractPetriNetElementModel element, boolean shortCircuited) {
+    return connected(successors, element, shortCircuited, tStarSource, tStarTarget);
+  }
+
+  /**
+   * Returns the predecessors of a root element in the root container, operators included.
+   *
+   * @param element an element of the root container or {@code t*}
+   * @param shortCircuited true if the arcs of {@code t*} should be included
+   * @return the predecessors of the element
+   */
+  public Set<AbstractPetriNetElementModel> getRootPredecessors(
+      AbstractPetriNetElementModel element, boolean shortCircuited) {
+    calculateRootConnections();
+    return connected(rootPredecessors, element, shortCircuited, tStarTarget, tStarSource);
+  }
+
+  /**
+   * Returns the successors of a root element in the root container, operators included.
+   *
+   * @param element an element of the root container or {@code t*}
+   * @param shortCircuited true if the arcs of {@code t*} should be included
+   * @return the successors of the element
+   */
+  public Set<AbstractPetriNetElementModel> getRootSuccessors(
+      AbstractPetriNetElementModel element, boolean shortCircuited) {
+    calculateRootConnections();
+    return connected(rootSuccessors, element, shortCircuited, tStarSource, tStarTarget);
+  }
+
+  /**
+   * @param place a place of the net
+   * @return the token count of the place when the snapshot was taken
+   */
+  public int getTokenCount(PlaceModel place) {
+    int[] count = tokens.get(place);
+    return count == null ? place.getTokenCount() : count[0];
+  }
+
+  /**
+   * @param place a place of the net
+   * @return the virtual token count of the place when the snapshot was taken
+   */
+  public int getVirtualTokenCount(PlaceModel place) {
+    int[] count = tokens.get(place);
+    return count == null ? place.getVirtualTokenCount() : count[1];
+  }
+
+  /**
+   * Returns the low level petri net of this snapshot. The net is built on the first call and shared
+   * by all callers, so it must not be modified.
+   *
+   * @param withTStar true for the short-circuited net
+   * @return the low level petri net
+   */
+  public synchronized LowLevelPetriNet getLowLevelPetriNet(boolean withTStar) {
+    if (withTStar) {
+      if (lolNetWithTStar == null) {
+        lolNetWithTStar =
+            BuilderFactory.createLowLevelPetriNetWithTStarBuilder(this).getLowLevelPetriNet();
+      }
+      return lolNetWithTStar;
+    }
+    if (lolNetWithoutTStar == null) {
+      lolNetWithoutTStar =
+          BuilderFactory.createLowLevelPetriNetWithoutTStarBuilder(this).getLowLevelPetriNet();
+    }
+    return lolNetWithoutTStar;
+  }
+
+  /**
+   * Returns the marking net of a low level net of this snapshot. Compact marking nets are immutable
+   * and cached, {@link MarkingNetStrategy#OBJECT} creates a new, modifiable net on each call. The
+   * reduced nets of {@link MarkingNetStrategy#STUBBORN} are cached separately.
+   *
+   * @param withTStar true for the marking net of the short-circuited net
+   * @param strategy the way the marking net is built
+   * @return the marking net
+   */
+  public IMarkingNet getMarkingNet(boolean withTStar, MarkingNetStrategy strategy) {
+    LowLevelPetriNet lolNet = getLowLevelPetriNet(withTStar);
+    if (strategy == MarkingNetStrategy.OBJECT) {
+      return BuilderFactory.createMarkingNet(lolNet, strategy);
+    }
+    synchronized (this) {
+      Map<MarkingNetStrategy, IMarkingNet> cache =
+          withTStar ? markingNetsWithTStar : markingNetsWithoutTStar;
+      // compact and parallel exploration create identical nets
+      MarkingNetStrategy key =
+          strategy == MarkingNetStrategy.STUBBORN ? strategy : MarkingNetStrategy.COMPACT;
+      IMarkingNet markingNet = cache.get(key);
+      if (markingNet == null) {
+        markingNet = BuilderFactory.createMarkingNet(lolNet, strategy);
+        cache.put(key, markingNet);
+      }
+      return markingNet;
+    }
+  }
+
+  /**
+   * @param connections the connections in one direction
+   * @param element the element to get the connected elements of
+   * @param shortCircuited true if the arcs of {@code t*} should be included
+   * @param tStarNeighbour the place connected to {@code t*} in the opposite direction
+   * @param tStarConnected the place {@code t*} is connected to in this direction
+   * @return the connected elements
+   */
+  private Set<AbstractPetriNetElementModel> connected(
+      Map<AbstractPetriNetElementModel, Set<AbstractPetriNetElementModel>> connections,
+      AbstractPetriNetElementModel element,
+      boolean shortCircuited,
+      AbstractPetriNetElementModel tStarNeighbour,
+      AbstractPetriNetElementModel tStarConnected) {
+    Set<AbstractPetriNetElementModel> result = connections.get(element);
+    if (result == null) {
+      result = Collections.emptySet();
+    }
+    if (!shortCircuited || tStarNeighbour == null) {
+      return result;
+    }
+    // the arcs of t*: sink place -> t* -> source place
+    if (element == tStar) {
+      return Collections.singleton(tStarConnected);
+    }
+    if (element == tStarNeighbour) {
+      Set<AbstractPetriNetElementModel> withTStar = new HashSet<>(result);
+      withTStar.add(tStar);
+      return Collections.unmodifiableSet(withTStar);
+    }
+    return result;
+  }
+
+  private void addElements(List<AbstractPetriNetElementModel> elements) {
+    ArcConfiguration arcConfig = new ArcConfiguration();
+    for (AbstractPetriNetElementModel element : elements) {
+      try {
+        Set<AbstractPetriNetElementModel> inbound =
+            NetAlgorithms.getDirectlyConnectedNodes(element, NetAlgorithms.connectionTypeINBOUND);
+        Set<AbstractPetriNetElementModel> outbound =
+            NetAlgorithms.getDirectlyConnectedNodes(element, NetAlgorithms.connectionTypeOUTBOUND);
+        predecessors.put(element, Collections.unmodifiableSet(inbound));
+        successors.put(element, Collections.unmodifiableSet(outbound));
+        arcConfig.m_numIncoming = inbound.size();
+        arcConfig.m_numOutgoing = outbound.size();
+
+        switch (element.getType()) {
+          case AbstractPetriNetElementModel.PLACE_TYPE:
+            places.add(element);
+            PlaceModel place = (PlaceModel) element;
+            tokens.put(place, new int[] {place.getTokenCount(), place.getVirtualTokenCount()});
+            if (arcConfig.m_numIncoming == 0) {
+              sourcePlaces.add(element);
+            }
+            if (arcConfig.m_numOutgoing == 0) {
+              sinkPlaces.add(element);
+            }
+            break;
+          case AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE:
+            {
+              OperatorTransitionModel operator = (OperatorTransitionModel) element;
+              operators.add(operator);
+              int operatorType = operator.getOperatorType();
+              if ((operatorType == OperatorTransitionModel.AND_SPLIT_TYPE)
+                  || (operatorType == OperatorTransitionModel.AND_SPLITJOIN_TYPE)
+                  || (operatorType == OperatorTransitionModel.XORJOIN_ANDSPLIT_TYPE)) {
+                andSplits.add(operator);
+              }
+              if ((operatorType == OperatorTransitionModel.AND_JOIN_TYPE)
+                  || (operatorType == OperatorTransitionModel.AND_SPLITJOIN_TYPE)
+                  || (operatorType == OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE)) {
+                andJoins.add(operator);
+              }
+              if ((operatorType == OperatorTransitionModel.XOR_SPLIT_TYPE)
+                  || (operatorType == OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE)
+                  || (operatorType == OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE)) {
+                xorSplits.add(operator);
+              }
+              if ((operatorType == OperatorTransitionModel.XOR_JOIN_TYPE)
+                  || (operatorType == OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE)
+                  || (operatorType == OperatorTransitionModel.XORJOIN_ANDSPLIT_TYPE)) {
+                xorJoins.add(operator);
+              }
+
+              verifyOperatorArcConfiguration(operator, arcConfig);
+              ModelElementContainer simpleTransContainer = operator.getSimpleTransContainer();
+              // Recursively add the inner nodes
+              addElements(simpleTransContainer.getRootElements());
+              // To have the total number of arcs we must subtract
+              // the number of incoming and outgoing arcs from the
+              // number of inner arcs of the operator
+              numArcs +=
+                  simpleTransContainer.getArcMap().size()
+                      - (arcConfig.m_numIncoming + arcConfig.m_numOutgoing);
+            }
+            break;
+          case AbstractPetriNetElementModel.SUBP_TYPE:
+            // Default behaviour for sub processes is to treat them as a
+            // single transition
+            subprocesses.add(element);
+          case AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE:
+            transitions.add(element);
+            if (arcConfig.m_numIncoming == 0) {
+              sourceTransitions.add(element);
+            }
+            if (arcConfig.m_numOutgoing == 0) {
+              sinkTransitions.add(element);
+            }
+            break;
+          default:
+            // Ignore all the rest
+        }
+      } catch (Exception e) {
+      }
+    }
+  }
+
+  // ! Check whether the specified operator has the correct arc configuration
+  // ! and add it to the misused operators list if it doesn't
+  private void verifyOperatorArcConfiguration(
+      OperatorTransitionModel operator, ArcConfiguration arcConfig) {
+    boolean isCorrectConfiguration = true;
+    switch (operator.getOperatorType()) {
+        // All pure split operators must have exactly one input
+        // and at least two outputs
+      case OperatorTransitionModel.AND_SPLIT_TYPE:
+      case OperatorTransitionModel.XOR_SPLIT_TYPE:
+        isCorrectConfiguration = ((arcConfig.m_numIncoming == 1) && (arcConfig.m_numOutgoing > 1));
+        break;
+        // All pure join operators must have exactly one output
+        // and at least two inputs
+      case OperatorTransitionModel.AND_JOIN_TYPE:
+      case OperatorTransitionModel.XOR_JOIN_TYPE:
+        isCorrectConfiguration = ((arcConfig.m_numIncoming > 1) && (arcConfig.m_numOutgoing == 1));
+        break;
+        // All split-join types must have at least two inputs
+        // as well as at least two outputs
+      case OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE:
+      case OperatorTransitionModel.AND_SPLITJOIN_TYPE:
+      case OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE:
+      case OperatorTransitionModel.XORJOIN_ANDSPLIT_TYPE:
+        isCorrectConfiguration = ((arcConfig.m_numIncoming > 1) && (arcConfig.m_numOutgoing > 1));
+        break;
+    }
+    if (!isCorrectConfiguration) {
+      misusedOperators.add(operator);
+    }
+  }
+
+  /** creates the temporary transition t* without adding it to the model. */
+  private AbstractPetriNetElementModel createTStar() {
+    if (transitions.isEmpty()) {
+      return null;
+    }
+    CreationMap map = CreationMap.createMap();
+    map.setType(AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE);
+    map.setName(TSTAR_ID);
+    map.setId(TSTAR_ID);
+    map.setEditOnCreation(false);
+    return new TransitionModel(map);
+  }
+
+  private synchronized void calculateRootConnections() {
+    if (rootSuccessors != null) {
+      return;
+    }
+    Map<AbstractPetriNetElementModel, Set<AbstractPetriNetElementModel>> inbound = new HashMap<>();
+    Map<AbstractPetriNetElementModel, Set<AbstractPetriNetElementModel>> outbound = new HashMap<>();
+    for (AbstractPetriNetElementModel element : rootElements) {
+      inbound.put(element, new LinkedHashSet<AbstractPetriNetElementModel>());
+      outbound.put(element, new LinkedHashSet<AbstractPetriNetElementModel>());
+    }
+    for (AbstractPetriNetElementModel element : rootElements) {
+      Map<String, AbstractPetriNetElementModel> targets =
+          container.getTargetElements(element.getId());
+      if (targets == null) continue;
+      for (AbstractPetriNetElementModel target : targets.values()) {
+        outbound.get(element).add(target);
+        Set<AbstractPetriNetElementModel> sources = inbound.get(target);
+        if (sources != null) sources.add(element);
+      }
+    }
+    rootPredecessors = inbound;
+    rootSuccessors = outbound;
+  }
+}
@@ -1,19 +1,16 @@
 package org.woped.qualanalysis.structure;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import org.woped.core.config.ConfigurationManager;
 import org.woped.core.controller.IEditor;
 import org.woped.core.model.ArcModel;
-import org.woped.core.model.CreationMap;
-import org.woped.core.model.ModelElementContainer;
 import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
-import org.woped.core.model.petrinet.OperatorTransitionModel;
 import org.woped.core.utilities.LoggerManager;
 import org.woped.qualanalysis.Constants;
 import org.woped.qualanalysis.service.interfaces.INetStatistics;
@@ -22,8 +19,8 @@ import org.woped.qualanalysis.service.interfaces.IWorkflowCheck;
 import org.woped.qualanalysis.structure.components.ArcConfiguration;
 import org.woped.qualanalysis.structure.components.ClusterElement;
 import org.woped.qualanalysis.structure.components.FlowNode;
+import org.woped.qualanalysis.structure.components.HandleDetector;
 import org.woped.qualanalysis.structure.components.LowLevelNet;
-import org.woped.qualanalysis.structure.components.RouteInfo;
 
 public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWellStructuredness {
 
@@ -106,11 +103,14 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
   // ! Becomes true once handle clusters have been detected
   boolean m_bHandleClustersAvailable = false;
   HashSet<Set<ClusterElement>> m_handleClusters = new HashSet<Set<ClusterElement>>();
-  // ! Remember a reference to the current editor
+  // ! Remember a reference to the snapshot of the current editor
   // ! as we need it to access the net
-  private IEditor m_currentEditor;
+  private NetSnapshot m_snapshot;
   // ! Reference to the low level net
   private LowLevelNet m_lolNet = null;
+  // ! Connectivity of the net without t*,
+  // ! created when the first path is requested
+  private NetConnectivity m_plainConnectivity = null;
 
   // ! Construct static analysis object from
   // ! a petri-net editor
@@ -119,7 +119,14 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
   // ! Rather, each getter method knows which calculations
   // ! need to be done and will trigger them
   public StructuralAnalysis(IEditor currentEditor) {
-    m_currentEditor = currentEditor;
+    this(new NetSnapshot(currentEditor));
+  }
+
+  // ! Construct static analysis object from
+  // ! a snapshot of a petri-net editor that may be
+  // ! shared with other analyses of the same net
+  public StructuralAnalysis(NetSnapshot snapshot) {
+    m_snapshot = snapshot;
   }
 
   public Set<AbstractPetriNetElementModel> getPlaces() {
@@ -163,6 +170,7 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
   }
 
   public int getNumArcs() {
+    calculateBasicNetInfo();
     return m_nNumArcs;
   }
 
@@ -212,14 +220,7 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
    */
   @Override
   public Set<ArcModel> getArcWeightViolations() {
-    HashSet<ArcModel> weightViolations = new HashSet<>();
-
-    ModelElementContainer container = m_currentEditor.getModelProcessor().getElementContainer();
-    for (ArcModel arc : container.getArcMap().values()) {
-      if (arc.getInscriptionValue() > 1) weightViolations.add(arc);
-    }
-
-    return weightViolations;
+    return new HashSet<>(m_snapshot.getArcWeightViolations());
   }
 
   // ! Return a list of free-choice violations
@@ -264,134 +265,22 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
     }
     m_bBasicNetInfoAvailable = true;
 
-    // Get the element container containing all our elements
-    ModelElementContainer elements = m_currentEditor.getModelProcessor().getElementContainer();
-    // Iterate through all elements and
-    // take notes
-    m_nNumArcs = 0;
-    Iterator<AbstractPetriNetElementModel> i = elements.getRootElements().iterator();
-    updateStatistics(i);
-    // Just ask the arc map for its size...
-    m_nNumArcs += elements.getArcMap().size();
-  }
-
-  private void updateStatistics(Iterator<AbstractPetriNetElementModel> i) {
-    ArcConfiguration arcConfig = new ArcConfiguration();
-    while (i.hasNext()) {
-      try {
-        AbstractPetriNetElementModel currentNode = i.next();
-        NetAlgorithms.getArcConfiguration(currentNode, arcConfig);
-        switch (currentNode.getType()) {
-          case AbstractPetriNetElementModel.PLACE_TYPE:
-            m_places.add(currentNode);
-            if (arcConfig.m_numIncoming == 0) {
-              m_sourcePlaces.add(currentNode);
-            }
-            if (arcConfig.m_numOutgoing == 0) {
-              m_sinkPlaces.add(currentNode);
-            }
-            break;
-          case AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE:
-            {
-              OperatorTransitionModel operator = (OperatorTransitionModel) currentNode;
-              // Remember the operator
-              // A list of operators is provided for
-              // statistical reasons
-              m_operators.add(operator);
-              int operatorType = operator.getOperatorType();
-              if ((operatorType == OperatorTransitionModel.AND_SPLIT_TYPE)
-                  || (operatorType == OperatorTransitionModel.AND_SPLITJOIN_TYPE)
-                  || (operatorType == OperatorTransitionModel.XORJOIN_ANDSPLIT_TYPE)) {
-                m_andsplits.add(operator);
-              }
-              if ((operatorType == OperatorTransitionModel.AND_JOIN_TYPE)
-                  || (operatorType == OperatorTransitionModel.AND_SPLITJOIN_TYPE)
-                  || (operatorType == OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE)) {
-                m_andjoins.add(operator);
-              }
-              if ((operatorType == OperatorTransitionModel.XOR_SPLIT_TYPE)
-                  || (operatorType == OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE)
-                  || (operatorType == OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE)) {
-                m_xorsplits.add(operator);
-              }
-              if ((operatorType == OperatorTransitionModel.XOR_JOIN_TYPE)
-                  || (operatorType == OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE)
-                  || (operatorType == OperatorTransitionModel.XORJOIN_ANDSPLIT_TYPE)) {
-                m_xorjoins.add(operator);
-              }
-
-              // Verify that the operator has the correct arc
-              // configuration
-              // If this is not the case it will be added to the
-              // misused operators list
-              verifyOperatorArcConfiguration(operator, arcConfig);
-              ModelElementContainer simpleTransContainer = operator.getSimpleTransContainer();
-              // Recursively call ourselves to add inner nodes
-              Iterator<AbstractPetriNetElementModel> innerIterator =
-                  simpleTransContainer.getRootElements().iterator();
-              updateStatistics(innerIterator);
-              // To have the total number of arcs we must subtract
-              // the number of incoming and outgoing arcs from the
-              // number of inner arcs of the operator
-              m_nNumArcs +=
-                  simpleTransContainer.getArcMap().size()
-                      - (arcConfig.m_numIncoming + arcConfig.m_numOutgoing);
-            }
-            break;
-          case AbstractPetriNetElementModel.SUBP_TYPE:
-            // Default behaviour for sub processes is to treat them as a
-            // single transition
-            m_subprocesses.add(currentNode);
-          case AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE:
-            m_transitions.add(currentNode);
-            if (arcConfig.m_numIncoming == 0) {
-              m_sourceTransitions.add(currentNode);
-            }
-            if (arcConfig.m_numOutgoing == 0) {
-              m_sinkTransitions.add(currentNode);
-            }
-            break;
-          default:
-            // Ignore all the rest
-        }
-
-      } catch (Exception e) {
-      }
-    }
-  }
-
-  // ! Check whether the specified operator has the correct arc configuration
-  // ! and add it to the misused operators list if it doesn't
-  // ! @param operator the operator to be verified
-  // ! @param arcConfig specifies the previously determined arc configuration
-  void verifyOperatorArcConfiguration(
-      OperatorTransitionModel operator, ArcConfiguration arcConfig) {
-    boolean isCorrectConfiguration = true;
-    switch (operator.getOperatorType()) {
-        // All pure split operators must have exactly one input
-        // and at least two outputs
-      case OperatorTransitionModel.AND_SPLIT_TYPE:
-      case OperatorTransitionModel.XOR_SPLIT_TYPE:
-        isCorrectConfiguration = ((arcConfig.m_numIncoming == 1) && (arcConfig.m_numOutgoing > 1));
-        break;
-        // All pure join operators must have exactly one output
-        // and at least two inputs
-      case OperatorTransitionModel.AND_JOIN_TYPE:
-      case OperatorTransitionModel.XOR_JOIN_TYPE:
-        isCorrectConfiguration = ((arcConfig.m_numIncoming > 1) && (arcConfig.m_numOutgoing == 1));
-        break;
-        // All split-join types must have at least two inputs
-        // as well as at least two outputs
-      case OperatorTransitionModel.XORJOIN_XORSPLIT_TYPE:
-      case OperatorTransitionModel.AND_SPLITJOIN_TYPE:
-      case OperatorTransitionModel.ANDJOIN_XORSPLIT_TYPE:
-      case OperatorTransitionModel.XORJOIN_ANDSPLIT_TYPE:
-        isCorrectConfiguration = ((arcConfig.m_numIncoming > 1) && (arcConfig.m_numOutgoing > 1));
-        break;
-    }
-    if (!isCorrectConfiguration) {
-      m_misusedOperators.add(operator);
-    }
+    // The snapshot has already iterated through all elements
+    // and taken notes
+    m_places.addAll(m_snapshot.getPlaces());
+    m_transitions.addAll(m_snapshot.getTransitions());
+    m_subprocesses.addAll(m_snapshot.getSubprocesses());
+    m_operators.addAll(m_snapshot.getOperators());
+    m_xorsplits.addAll(m_snapshot.getXorSplits());
+    m_xorjoins.addAll(m_snapshot.getXorJoins());
+    m_andsplits.addAll(m_snapshot.getAndSplits());
+    m_andjoins.addAll(m_snapshot.getAndJoins());
+    m_sourcePlaces.addAll(m_snapshot.getSourcePlaces());
+    m_sinkPlaces.addAll(m_snapshot.getSinkPlaces());
+    m_sourceTransitions.addAll(m_snapshot.getSourceTransitions());
+    m_sinkTransitions.addAll(m_snapshot.getSinkTransitions());
+    m_misusedOperators.addAll(m_snapshot.getMisusedOperators());
+    m_nNumArcs = m_snapshot.getNumArcs();
   }
 
   private void calculateConnections() {
@@ -415,78 +304,65 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
     }
 
     // Add temporary transition t*, connecting sink to source
-    AbstractPetriNetElementModel ttemp = addTStar();
+    AbstractPetriNetElementModel ttemp = m_snapshot.getTStar();
     if (ttemp != null) {
       netElements.add(ttemp);
     }
 
-    // First check for connectedness:
-    // Return connection map presuming that all arcs may be
-    // used in both directions
-    RouteInfo[][] connectionGraph = NetAlgorithms.getAllConnections(netElements, true);
-    if (connectionGraph != null) {
-      NetAlgorithms.getUnconnectedNodes(ttemp, connectionGraph, m_notConnectedNodes);
-    }
+    // Number the nodes once, both checks traverse the same
+    // int adjacency in linear time
+    NetConnectivity connectivity = new NetConnectivity(netElements, m_snapshot, true);
 
-    // Now get the graph for strong connectedness
-    // This will also give us all shortest distances
-    // according to Moore's algorithm (no arc weights)
-    RouteInfo[][] strongConnectionGraph = NetAlgorithms.getAllConnections(netElements, false);
-    if (strongConnectionGraph != null) {
-      NetAlgorithms.getUnconnectedNodes(ttemp, strongConnectionGraph, m_notStronglyConnectedNodes);
+    // First check for connectedness:
+    // All nodes must be in the weakly connected
+    // component of t*
+    m_notConnectedNodes.addAll(connectivity.getUnconnectedNodes(ttemp));
+
+    // Now check for strong connectedness:
+    // All nodes must be in the strongly connected
+    // component of t*
+    m_notStronglyConnectedNodes.addAll(connectivity.getNotStronglyConnectedNodes(ttemp));
+  }
+
+  // ! Return a shortest path from the unique source place
+  // ! to the specified node in the net without t*
+  // ! The path is only calculated on request
+  // ! @param node specifies the last node of the path
+  // ! @return list of nodes from the source place to the node or null
+  // ! if there is no unique source place or the node is not reachable
+  public List<AbstractPetriNetElementModel> getPathFromSource(AbstractPetriNetElementModel node) {
+    calculateBasicNetInfo();
+    if (m_sourcePlaces.size() != 1) {
+      return null;
     }
+    return getPlainConnectivity().getShortestPath(m_sourcePlaces.iterator().next(), node);
+  }
 
-    if (ttemp != null) {
-      removeTStar(ttemp);
-    }
-  }
-
-  public AbstractPetriNetElementModel addTStar() {
-    if (!m_bBasicNetInfoAvailable) {
-      calculateBasicNetInfo();
-    }
-    AbstractPetriNetElementModel ttemp = null;
-    // Create transition 't*'
-    Iterator<AbstractPetriNetElementModel> i = m_transitions.iterator();
-    AbstractPetriNetElementModel transitionTemplate = ((i.hasNext()) ? i.next() : null);
-    if (transitionTemplate != null) {
-      CreationMap tempMap = transitionTemplate.getCreationMap();
-      tempMap.setType(AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE);
-      String tempID = "t*";
-      tempMap.setName(tempID);
-      tempMap.setId(tempID);
-      tempMap.setEditOnCreation(false);
-      ttemp = m_currentEditor.getModelProcessor().createElement(tempMap);
-
-      // Now connect the new transition 't*' to
-      // the source and the target
-      // For this to be possible, we will need
-      // a unique source and a unique sink
-      if ((m_sourcePlaces.size() == 1) && (m_sinkPlaces.size() == 1)) {
-        AbstractPetriNetElementModel source = m_sourcePlaces.iterator().next();
-        String sourceID = source.getId();
-        AbstractPetriNetElementModel target = m_sinkPlaces.iterator().next();
-        String targetID = target.getId();
-        Object newEdge = m_currentEditor.getModelProcessor().createArc(tempID, sourceID);
-        ttemp.getPort().addEdge(newEdge);
-        source.getPort().addEdge(newEdge);
-        newEdge = m_currentEditor.getModelProcessor().createArc(targetID, tempID);
-        if (newEdge != null) {
-          ttemp.getPort().addEdge(newEdge);
-          target.getPort().addEdge(newEdge);
-        }
-        m_bBasicNetInfoAvailable = false;
-      }
+  // ! Return a shortest path from the specified node
+  // ! to the unique sink place in the net without t*
+  // ! The path is only calculated on request
+  // ! @param node specifies the first node of the path
+  // ! @return list of nodes from the node to the sink place or null
+  // ! if there is no unique sink place or the sink is not reachable
+  public List<AbstractPetriNetElementModel> getPathToSink(AbstractPetriNetElementModel node) {
+    calculateBasicNetInfo();
+    if (m_sinkPlaces.size() != 1) {
+      return null;
     }
-    return ttemp;
+    return getPlainConnectivity().getShortestPath(node, m_sinkPlaces.iterator().next());
   }
 
-  public void removeTStar(AbstractPetriNetElementModel tstar) {
-    // Remove the element from the graph
-    if (tstar != null) {
-      m_currentEditor.getModelProcessor().removeElement(tstar.getId());
-      m_bBasicNetInfoAvailable = false;
+  // ! Return the connectivity of the places and transitions
+  // ! of the net without t*
+  private NetConnectivity getPlainConnectivity() {
+    if (m_plainConnectivity == null) {
+      LinkedList<AbstractPetriNetElementModel> netElements =
+          new LinkedList<AbstractPetriNetElementModel>();
+      netElements.addAll(m_places);
+      netElements.addAll(m_transitions);
+      m_plainConnectivity = new NetConnectivity(netElements, m_snapshot, false);
     }
+    return m_plainConnectivity;
   }
 
   void calculateFreeChoice() {
@@ -531,19 +407,15 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
       boolean violation = false;
       Set<AbstractPetriNetElementModel> compareSet = null;
       Set<AbstractPetriNetElementModel> successors =
-          NetAlgorithms.getDirectlyConnectedNodes(
-              currentPlace,
-              swapArcDirection
-                  ? NetAlgorithms.connectionTypeINBOUND
-                  : NetAlgorithms.connectionTypeOUTBOUND);
+          swapArcDirection
+              ? m_snapshot.getPredecessors(currentPlace, false)
+              : m_snapshot.getSuccessors(currentPlace, false);
       for (Iterator<AbstractPetriNetElementModel> s = successors.iterator(); s.hasNext(); ) {
         AbstractPetriNetElementModel successor = s.next();
         Set<AbstractPetriNetElementModel> predecessors =
-            NetAlgorithms.getDirectlyConnectedNodes(
-                successor,
-                swapArcDirection
-                    ? NetAlgorithms.connectionTypeOUTBOUND
-                    : NetAlgorithms.connectionTypeINBOUND);
+            swapArcDirection
+                ? m_snapshot.getSuccessors(successor, false)
+                : m_snapshot.getPredecessors(successor, false);
         if (compareSet == null) {
           compareSet = predecessors;
         } else {
@@ -577,10 +449,7 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
     // and consider it as another transition
     // This is necessary to detect
     // handles in the short-circuited net
-    AbstractPetriNetElementModel tStar = addTStar();
-    HashSet<AbstractPetriNetElementModel> transitionsWithTStar =
-        new HashSet<AbstractPetriNetElementModel>(m_transitions);
-    transitionsWithTStar.add(tStar);
+    HashSet<AbstractPetriNetElementModel> transitionsWithTStar = getTransitionsWithTStar();
 
     // Detect all PT handles in the short-circuited net
     LowLevelNet myNet = CreateFlowNet(m_places, transitionsWithTStar);
@@ -596,11 +465,6 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
       }
       m_PTHandles.add(current);
     }
-
-    // Remove temporary transition from the net
-    if (tStar != null) {
-      removeTStar(tStar);
-    }
   }
 
   // ! Detect TP handles using modified max flow / min cut
@@ -617,10 +481,7 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
     // and consider it as another transition
     // This is necessary to detect
     // handles in the short-circuited net
-    AbstractPetriNetElementModel tStar = addTStar();
-    HashSet<AbstractPetriNetElementModel> transitionsWithTStar =
-        new HashSet<AbstractPetriNetElementModel>(m_transitions);
-    transitionsWithTStar.add(tStar);
+    HashSet<AbstractPetriNetElementModel> transitionsWithTStar = getTransitionsWithTStar();
 
     // Detect all PT handles in the short-circuited net
     LowLevelNet myNet = CreateFlowNet(m_places, transitionsWithTStar);
@@ -636,11 +497,17 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
       }
       m_TPHandles.add(current);
     }
+  }
 
-    // Remove temporary transition from the net
-    if (tStar != null) {
-      removeTStar(tStar);
+  // ! Return the transitions of the net together with the
+  // ! temporary transition 't*' of the snapshot
+  private HashSet<AbstractPetriNetElementModel> getTransitionsWithTStar() {
+    HashSet<AbstractPetriNetElementModel> transitionsWithTStar =
+        new HashSet<AbstractPetriNetElementModel>(m_transitions);
+    if (m_snapshot.getTStar() != null) {
+      transitionsWithTStar.add(m_snapshot.getTStar());
     }
+    return transitionsWithTStar;
   }
 
   // ! Adds a node to the low level net and duplicates it
@@ -657,8 +524,7 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
   // ! outgoing arcs to the second flow node and links
   // ! it with its successors, respectively.
   private void AddOutgoingArcs(LowLevelNet lolnet, AbstractPetriNetElementModel i) {
-    Set<AbstractPetriNetElementModel> successors =
-        NetAlgorithms.getDirectlyConnectedNodes(i, NetAlgorithms.connectionTypeOUTBOUND);
+    Set<AbstractPetriNetElementModel> successors = m_snapshot.getSuccessors(i, true);
     FlowNode source = lolnet.getNodeForElement(i, false);
     for (Iterator<AbstractPetriNetElementModel> s = successors.iterator(); s.hasNext(); ) {
       AbstractPetriNetElementModel t = s.next();
@@ -693,13 +559,10 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
   }
 
   private void AddAalstNetOutgoingArcs(LowLevelNet lolnet, AbstractPetriNetElementModel i) {
-    Map<String, AbstractPetriNetElementModel> successors =
-        this.m_currentEditor.getModelProcessor().getElementContainer().getTargetElements(i.getId());
+    Set<AbstractPetriNetElementModel> successors = m_snapshot.getRootSuccessors(i, true);
     FlowNode source = lolnet.getNodeForElement(i, false);
-    for (Iterator<Map.Entry<String, AbstractPetriNetElementModel>> s =
-            successors.entrySet().iterator();
-        s.hasNext(); ) {
-      AbstractPetriNetElementModel t = s.next().getValue();
+    for (Iterator<AbstractPetriNetElementModel> s = successors.iterator(); s.hasNext(); ) {
+      AbstractPetriNetElementModel t = s.next();
       FlowNode target = lolnet.getNodeForElement(t, true);
 
       lolnet.addArc(source, target);
@@ -716,7 +579,10 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
     m_lolNet = new LowLevelNet();
 
     List<AbstractPetriNetElementModel> rootElements =
-        m_currentEditor.getModelProcessor().getElementContainer().getRootElements();
+        new ArrayList<AbstractPetriNetElementModel>(m_snapshot.getRootElements());
+    if (m_snapshot.getTStar() != null) {
+      rootElements.add(m_snapshot.getTStar());
+    }
     for (Iterator<AbstractPetriNetElementModel> i = rootElements.iterator(); i.hasNext(); ) {
       ExpandAndAddNode(m_lolNet, i.next());
     }
@@ -749,77 +615,76 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
 
     Set<Set<ClusterElement>> result = new HashSet<Set<ClusterElement>>();
 
-    Iterator<AbstractPetriNetElementModel> i = firstNodeType.iterator();
     long time1 = System.nanoTime();
-    while (i.hasNext()) {
-      AbstractPetriNetElementModel firstNode = i.next();
-      if (useVanDerAalstModel) {
-        Map<String, AbstractPetriNetElementModel> elementMapRef =
-            m_currentEditor
-                .getModelProcessor()
-                .getElementContainer()
-                .getSourceElements(firstNode.getId());
-        arcConfig.m_numIncoming = (elementMapRef != null) ? elementMapRef.size() : 0;
-        elementMapRef =
-            m_currentEditor
-                .getModelProcessor()
-                .getElementContainer()
-                .getTargetElements(firstNode.getId());
-        arcConfig.m_numOutgoing = (elementMapRef != null) ? elementMapRef.size() : 0;
-      } else {
-        NetAlgorithms.getArcConfiguration(firstNode, arcConfig);
+    // Second nodes with more than one predecessor
+    List<AbstractPetriNetElementModel> joins = new ArrayList<AbstractPetriNetElementModel>();
+    for (AbstractPetriNetElementModel secondNode : secondNodeType) {
+      getArcConfiguration(secondNode, arcConfig, useVanDerAalstModel);
+      if (arcConfig.m_numIncoming > 1) {
+        joins.add(secondNode);
       }
-      if (arcConfig.m_numOutgoing > 1) {
-        Iterator<AbstractPetriNetElementModel> j = secondNodeType.iterator();
-        while (j.hasNext()) {
-          AbstractPetriNetElementModel secondNode = j.next();
-          if (useVanDerAalstModel) {
-            Map<String, AbstractPetriNetElementModel> elementMapRef =
-                m_currentEditor
-                    .getModelProcessor()
-                    .getElementContainer()
-                    .getSourceElements(secondNode.getId());
-            arcConfig.m_numIncoming = (elementMapRef != null) ? elementMapRef.size() : 0;
-            elementMapRef =
-                m_currentEditor
-                    .getModelProcessor()
-                    .getElementContainer()
-                    .getTargetElements(secondNode.getId());
-            arcConfig.m_numOutgoing = (elementMapRef != null) ? elementMapRef.size() : 0;
-          } else {
-            NetAlgorithms.getArcConfiguration(secondNode, arcConfig);
-          }
+    }
 
-          if (arcConfig.m_numIncoming > 1) {
-            FlowNode source = n.getNodeForElement(firstNode, false);
-            FlowNode sink = n.getNodeForElement(secondNode, true);
-            // Depending on the mode of operation,
-            // a corresponding flow node might not exist
-            // (e.g. inner places and transition when analyzing van der Aalst nets)
-            // Just ignore those cases
-            if ((source != null) && (sink != null)) {
-              int flow = n.getMaxFlow(source, sink);
-              // flow = 2; //dummy Zeile zum Testen
-              if (flow > 1) {
-                // Handle gefunden
-                Set<ClusterElement> handlePair = new HashSet<ClusterElement>();
-
-                handlePair.add(new ClusterElement(firstNode, true));
-                handlePair.add(new ClusterElement(secondNode, false));
-                result.add(handlePair);
-              }
-            }
+    List<AbstractPetriNetElementModel[]> pairs = new ArrayList<AbstractPetriNetElementModel[]>();
+    List<FlowNode> sources = new ArrayList<FlowNode>();
+    List<FlowNode> sinks = new ArrayList<FlowNode>();
+    for (AbstractPetriNetElementModel firstNode : firstNodeType) {
+      getArcConfiguration(firstNode, arcConfig, useVanDerAalstModel);
+      FlowNode source = n.getNodeForElement(firstNode, false);
+      if (arcConfig.m_numOutgoing > 1 && source != null) {
+        for (AbstractPetriNetElementModel secondNode : joins) {
+          FlowNode sink = n.getNodeForElement(secondNode, true);
+          // Depending on the mode of operation,
+          // a corresponding flow node might not exist
+          // (e.g. inner places and transition when analyzing van der Aalst nets)
+          // Just ignore those cases
+          if (sink != null) {
+            pairs.add(new AbstractPetriNetElementModel[] {firstNode, secondNode});
+            sources.add(source);
+            sinks.add(sink);
           }
         }
       }
     }
+
+    boolean[] handles =
+        new HandleDetector(n)
+            .areHandles(
+                sources.toArray(new FlowNode[sources.size()]),
+                sinks.toArray(new FlowNode[sinks.size()]));
+    for (int k = 0; k < handles.length; k++) {
+      if (handles[k]) {
+        // Handle gefunden
+        Set<ClusterElement> handlePair = new HashSet<ClusterElement>();
+
+        handlePair.add(new ClusterElement(pairs.get(k)[0], true));
+        handlePair.add(new ClusterElement(pairs.get(k)[1], false));
+        result.add(handlePair);
+      }
+    }
     long time2 = System.nanoTime();
     time2 = (time2 - time1) / 1000;
     LoggerManager.debug(
-        Constants.QUALANALYSIS_LOGGER, handleType + " Handle Pairs calculated. (" + time2 + " ms)");
+        Constants.QUALANALYSIS_LOGGER, handleType + " Handle Pairs calculated. (" + time2 + " us)");
     return result;
   }
 
+  // ! Get the arc configuration of a node in the short-circuited net
+  // ! @param element specifies the element to be analysed
+  // ! @param config receives the number of incoming and outgoing arcs
+  // ! @param useVanDerAalstModel True if the arcs of the root container should be
+  // ! counted rather than the arcs of the low-level net
+  private void getArcConfiguration(
+      AbstractPetriNetElementModel element, ArcConfiguration config, boolean useVanDerAalstModel) {
+    if (useVanDerAalstModel) {
+      config.m_numIncoming = m_snapshot.getRootPredecessors(element, true).size();
+      config.m_numOutgoing = m_snapshot.getRootSuccessors(element, true).size();
+    } else {
+      config.m_numIncoming = m_snapshot.getPredecessors(element, true).size();
+      config.m_numOutgoing = m_snapshot.getSuccessors(element, true).size();
+    }
+  }
+
   private void detectHandles(LowLevelNet n, boolean useVanDerAalstNet) {
 
     m_handles.clear();
@@ -939,19 +804,11 @@ public class StructuralAnalysis implements IWorkflowCheck, INetStatistics, IWell
     // and consider it as another transition
     // This is necessary to detect
     // handles in the short-circuited net
-    AbstractPetriNetElementModel tStar = addTStar();
-    HashSet<AbstractPetriNetElementModel> transitionsWithTStar =
-        new HashSet<AbstractPetriNetElementModel>(m_transitions);
-    transitionsWithTStar.add(tStar);
+    HashSet<AbstractPetriNetElementModel> transitionsWithTStar = getTransitionsWithTStar();
 
     LowLevelNet myNet =
         useVanDerAalstNet ? CreateAalstFlowNet() : CreateFlowNet(m_places, transitionsWithTStar);
     detectHandles(myNet, useVanDerAalstNet);
-
-    // Remove temporary transition from the net
-    if (tStar != null) {
-      removeTStar(tStar);
-    }
   }
 
   /**
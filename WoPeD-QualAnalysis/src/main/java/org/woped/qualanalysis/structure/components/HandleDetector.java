@@ -0,0 +1,315 @@
+package org.woped.qualanalysis.structure.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Detects handles in a {@link LowLevelNet}. A pair of flow nodes is a handle if the maximum flow
+ * between them is larger than 1, i.e. if there are two paths from the source to the sink that do
+ * not share a node of the petri net.
+ *
+ * <p>The net is copied into arrays once, so a query does not touch the flow nodes and arcs. The
+ * queries are grouped by their source. For each source the dominators of all nodes are computed
+ * first: if a node other than the source lies on all paths to the sink, the flow is at most 1 and
+ * the pair is skipped. For the remaining pairs the flow is only increased until it reaches 2,
+ * instead of computing the maximum flow. The sources are distributed over the threads of the common
+ * {@link ForkJoinPool}, each thread reuses its buffers for all of its queries.
+ */
+public class HandleDetector {
+
+  // the arcs by their source: the arcs of node u are arcs[arcStart[u]] to arcs[arcStart[u + 1] - 1]
+  private final int[] arcStart;
+  // the residual arcs, 2 * a is an arc of the net with capacity 1, 2 * a + 1 its reverse arc
+  private final int[] arcs;
+  private final int[] arcTarget;
+  // the predecessors of each node
+  private final int[] predStart;
+  private final int[] preds;
+  private final IdentityHashMap<FlowNode, Integer> index;
+
+  /**
+   * @param net the net, it must not be changed while the detector is used
+   */
+  public HandleDetector(LowLevelNet net) {
+    List<FlowNode> nodes = net.getNodes();
+    int n = nodes.size();
+    index = new IdentityHashMap<FlowNode, Integer>();
+    for (FlowNode node : nodes) {
+      index.put(node, index.size());
+    }
+
+    int m = 0;
+    int[] degree = new int[n];
+    int[] inDegree = new int[n];
+    for (FlowNode node : nodes) {
+      for (FlowArc arc : node.getM_outgoingArcs()) {
+        degree[index.get(arc.getSource())]++;
+        degree[index.get(arc.getTarget())]++;
+        inDegree[index.get(arc.getTarget())]++;
+        m++;
+      }
+    }
+    arcStart = new int[n + 1];
+    predStart = new int[n + 1];
+    for (int u = 0; u < n; u++) {
+      arcStart[u + 1] = arcStart[u] + degree[u];
+      predStart[u + 1] = predStart[u] + inDegree[u];
+    }
+    arcs = new int[2 * m];
+    arcTarget = new int[2 * m];
+    preds = new int[m];
+    int[] nextArc = Arrays.copyOf(arcStart, n);
+    int[] nextPred = Arrays.copyOf(predStart, n);
+    int a = 0;
+    for (FlowNode node : nodes) {
+      for (FlowArc arc : node.getM_outgoingArcs()) {
+        int u = index.get(arc.getSource());
+        int v = index.get(arc.getTarget());
+        arcTarget[2 * a] = v;
+        arcTarget[2 * a + 1] = u;
+        arcs[nextArc[u]++] = 2 * a;
+        arcs[nextArc[v]++] = 2 * a + 1;
+        preds[nextPred[v]++] = u;
+        a++;
+      }
+    }
+  }
+
+  /**
+   * @param source the source of the flow
+   * @param sink the sink of the flow
+   * @return true if the maximum flow from the source to the sink is larger than 1
+   */
+  public boolean isHandle(FlowNode source, FlowNode sink) {
+    return areHandles(new FlowNode[] {source}, new FlowNode[] {sink})[0];
+  }
+
+  /**
+   * Checks pairs of nodes in parallel.
+   *
+   * @param sources the sources of the pairs
+   * @param sinks the sinks of the pairs, in the order of the sources
+   * @return for each pair, true if the maximum flow from its source to its sink is larger than 1
+   */
+  public boolean[] areHandles(FlowNode[] sources, FlowNode[] sinks) {
+    final boolean[] result = new boolean[sources.length];
+    // the pairs grouped by their source
+    final List<int[]> groups = groupBySource(sources);
+    final int[] sinkIndex = new int[sinks.length];
+    for (int i = 0; i < sinks.length; i++) {
+      sinkIndex[i] = index.get(sinks[i]);
+    }
+
+    final AtomicInteger nextGroup = new AtomicInteger();
+    Callable<Void> worker =
+        new Callable<Void>() {
+          public Void call() {
+            Query query = new Query();
+            for (int g = nextGroup.getAndIncrement();
+                g < groups.size();
+                g = nextGroup.getAndIncrement()) {
+              int[] pairs = groups.get(g);
+              query.setSource(index.get(sources[pairs[0]]));
+              for (int pair : pairs) {
+                result[pair] = query.isHandle(sinkIndex[pair]);
+              }
+            }
+            return null;
+          }
+        };
+
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    int threads = Math.min(groups.size(), pool.getParallelism());
+    if (threads <= 1) {
+      try {
+        worker.call();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      return result;
+    }
+    List<Callable<Void>> workers = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < threads; i++) {
+      workers.add(worker);
+    }
+    try {
+      for (Future<Void> f : pool.invokeAll(workers)) {
+        f.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    return result;
+  }
+
+  private List<int[]> groupBySource(FlowNode[] sources) {
+    IdentityHashMap<FlowNode, int[]> counts = new IdentityHashMap<FlowNode, int[]>();
+    List<FlowNode> order = new ArrayList<FlowNode>();
+    for (FlowNode source : sources) {
+      int[] count = counts.get(source);
+      if (count == null) {
+        count = new int[1];
+        counts.put(source, count);
+        order.add(source);
+      }
+      count[0]++;
+    }
+    IdentityHashMap<FlowNode, int[]> pairs = new IdentityHashMap<FlowNode, int[]>();
+    List<int[]> result = new ArrayList<int[]>();
+    for (FlowNode source : order) {
+      int[] group = new int[counts.get(source)[0]];
+      pairs.put(source, group);
+      result.add(group);
+      counts.get(source)[0] = 0;
+    }
+    for (int i = 0; i < sources.length; i++) {
+      int[] count = counts.get(sources[i]);
+      pairs.get(sources[i])[count[0]++] = i;
+    }
+    return result;
+  }
+
+  // the buffers of one thread
+  private class Query {
+    private final int n = arcStart.length - 1;
+    private int source;
+    // the dominator tree of the source, by the postorder of a depth first search
+    private final int[] postorder = new int[n];
+    private final int[] idom = new int[n];
+    private final int[] reversePostorder = new int[n];
+    private int reachable;
+    // the flow of each residual arc and the arcs that carry flow
+    private final int[] flow = new int[arcs.length];
+    private final int[] changed = new int[arcs.length];
+    private int changedCount;
+    // the search of an augmenting path
+    private final int[] visited = new int[n];
+    private int stamp;
+    private final int[] parentArc = new int[n];
+    private final int[] queue = new int[n];
+    private final int[] stackArc = new int[n];
+
+    void setSource(int source) {
+      this.source = source;
+      computeDominators();
+    }
+
+    boolean isHandle(int sink) {
+      if (sink == source || postorder[sink] < 0 || idom[sink] != source) {
+        // not reachable or another node lies on all paths
+        return false;
+      }
+      boolean result = augment(sink) && augment(sink);
+      for (int i = 0; i < changedCount; i++) {
+        flow[changed[i]] = 0;
+      }
+      changedCount = 0;
+      return result;
+    }
+
+    // increases the flow to the sink by 1, if possible
+    private boolean augment(int sink) {
+      stamp++;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = source;
+      visited[source] = stamp;
+      while (head < tail && visited[sink] != stamp) {
+        int u = queue[head++];
+        for (int i = arcStart[u]; i < arcStart[u + 1]; i++) {
+          int a = arcs[i];
+          int v = arcTarget[a];
+          // an arc of the net has capacity 1, its reverse arc the flow of the arc
+          int residual = (a & 1) == 0 ? 1 - flow[a] : flow[a ^ 1];
+          if (residual > 0 && visited[v] != stamp) {
+            visited[v] = stamp;
+            parentArc[v] = a;
+            queue[tail++] = v;
+          }
+        }
+      }
+      if (visited[sink] != stamp) {
+        return false;
+      }
+      for (int v = sink; v != source; v = arcTarget[parentArc[v] ^ 1]) {
+        int a = parentArc[v];
+        if ((a & 1) == 0) {
+          flow[a]++;
+          changed[changedCount++] = a;
+        } else {
+          flow[a ^ 1]--;
+        }
+      }
+      return true;
+    }
+
+    // the iterative algorithm of Cooper, Harvey and Kennedy
+    private void computeDominators() {
+      Arrays.fill(postorder, -1);
+      Arrays.fill(idom, -1);
+      // depth first search without recursion, visited marks the nodes on the way
+      stamp++;
+      int depth = 0;
+      int count = 0;
+      queue[0] = source;
+      stackArc[0] = arcStart[source];
+      visited[source] = stamp;
+      while (depth >= 0) {
+        int u = queue[depth];
+        if (stackArc[depth] < arcStart[u + 1]) {
+          int a = arcs[stackArc[depth]++];
+          int v = arcTarget[a];
+          if ((a & 1) == 0 && visited[v] != stamp) {
+            visited[v] = stamp;
+            depth++;
+            queue[depth] = v;
+            stackArc[depth] = arcStart[v];
+          }
+        } else {
+          postorder[u] = count;
+          reversePostorder[n - 1 - count] = u;
+          count++;
+          depth--;
+        }
+      }
+      reachable = count;
+
+      idom[source] = source;
+      boolean changedIdom = true;
+      while (changedIdom) {
+        changedIdom = false;
+        for (int i = n - reachable + 1; i < n; i++) {
+          int v = reversePostorder[i];
+          int newIdom = -1;
+          for (int j = predStart[v]; j < predStart[v + 1]; j++) {
+            int p = preds[j];
+            if (idom[p] < 0) continue;
+            newIdom = newIdom < 0 ? p : intersect(p, newIdom);
+          }
+          if (newIdom != idom[v]) {
+            idom[v] = newIdom;
+            changedIdom = true;
+          }
+        }
+      }
+    }
+
+    private int intersect(int a, int b) {
+      while (a != b) {
+        while (postorder[a] < postorder[b]) a = idom[a];
+        while (postorder[b] < postorder[a]) b = idom[b];
+      }
+      return a;
+    }
+  }
+}
@@ -1,13 +1,17 @@
 package org.woped.qualanalysis.structure.components;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
 import org.woped.core.utilities.LoggerManager;
 import org.woped.qualanalysis.Constants;
 
 public class LowLevelNet {
   private LinkedList<FlowNode> m_netNodes;
+  // ! The first and second flow node of each petri net node
+  private HashMap<AbstractPetriNetElementModel, FlowNode[]> m_elementNodes;
 
   private Iterator<FlowNode> getM_netNodesIter() {
     return m_netNodes.iterator();
@@ -15,10 +19,24 @@ public class LowLevelNet {
 
   public LowLevelNet() {
     m_netNodes = new LinkedList<FlowNode>();
+    m_elementNodes = new HashMap<AbstractPetriNetElementModel, FlowNode[]>();
   }
 
   public void addNode(FlowNode n) {
     m_netNodes.add(n);
+    if (n.getPetriNetNode() != null) {
+      FlowNode[] nodes = m_elementNodes.get(n.getPetriNetNode());
+      if (nodes == null) {
+        nodes = new FlowNode[2];
+        m_elementNodes.put(n.getPetriNetNode(), nodes);
+      }
+      nodes[n.isFirst() ? 0 : 1] = n;
+    }
+  }
+
+  // ! Returns all nodes in the order they were added
+  public List<FlowNode> getNodes() {
+    return m_netNodes;
   }
 
   public void addArc(FlowNode n1, FlowNode n2) {
@@ -30,21 +48,8 @@ public class LowLevelNet {
 
   public FlowNode getNodeForElement(AbstractPetriNetElementModel petrinetElement, boolean first) {
     // get matching FlowNode element
-
-    FlowNode returnValue = null;
-    Iterator<FlowNode> i = m_netNodes.iterator();
-
-    while (i.hasNext()) {
-      FlowNode currentFlowNode = i.next();
-
-      if (currentFlowNode.getPetriNetNode() != null) {
-        if (currentFlowNode.getPetriNetNode().equals(petrinetElement)
-            && (currentFlowNode.isFirst() == first)) {
-          returnValue = currentFlowNode;
-        }
-      }
-    }
-    return returnValue;
+    FlowNode[] nodes = m_elementNodes.get(petrinetElement);
+    return nodes == null ? null : nodes[first ? 0 : 1];
   }
 
   public void dumpList(LinkedList<FlowNode> list, String pref) {
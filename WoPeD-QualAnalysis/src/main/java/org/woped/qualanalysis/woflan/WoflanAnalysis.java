@@ -109,6 +109,10 @@ public class WoflanAnalysis implements ISoundnessCheck, ISComponent {
     return uncoveredPlaces;
   }
 
+  public boolean isSComponentsComplete() {
+    return true;
+  }
+
   public int getNumSComponents() {
     calculateSComponents();
     return getIntInfo(m_myWofLan.InfoNofSCom, 0, 0);
@@ -171,6 +175,10 @@ public class WoflanAnalysis implements ISoundnessCheck, ISComponent {
     return getSet(getNumDeadTransitions(), m_myWofLan.InfoDeadTName);
   }
 
+  public boolean isDeadTransitionsReduced() {
+    return false;
+  }
+
   public int getNumNonLiveTransitions() {
     calculateLivenessInfo();
     return getIntInfo(m_myWofLan.InfoNofNLiveT, 0, 0);
@@ -0,0 +1,147 @@
+package org.woped.quantana.batch;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import org.woped.quantana.model.TimeModel;
+import org.woped.quantana.sim.SimDistribution;
+import org.woped.quantana.sim.SimLogWriter;
+import org.woped.quantana.sim.SimParameters;
+import org.woped.quantana.sim.SimRunner;
+
+/**
+ * Reads the parameters of a batch simulation from a properties file.
+ *
+ * <p>The keys are:
+ *
+ * <ul>
+ *   <li>{@code lambda}: the amount of cases that arrive within the period, required
+ *   <li>{@code period}: the length of the period, required
+ *   <li>{@code periodUnit}: the unit of the period, {@code second}, {@code minute}, {@code hour},
+ *       {@code day}, {@code week}, {@code month} or {@code year}, default {@code minute}
+ *   <li>{@code runs}: the amount of replications, default 1
+ *   <li>{@code arrivalDistribution}, {@code serviceDistribution}: {@code poisson}, {@code constant}
+ *       or {@code exponential}, default {@code poisson}
+ *   <li>{@code arrivalParameter}, {@code serviceParameter}: the parameter of the distribution, see
+ *       {@link SimDistribution}, default 0
+ *   <li>{@code queue}: {@code fifo} or {@code lifo}, default {@code fifo}
+ *   <li>{@code stop}: {@code cases}, {@code time}, {@code both} or {@code none}, default {@code
+ *       both}
+ *   <li>{@code seed}, {@code commonRandomNumbers}, {@code threads}: see {@link SimParameters}
+ *   <li>{@code precision}, {@code confidence}, {@code maxRuns}, {@code warmUp}: see {@link
+ *       SimParameters#setPrecision(double)} and {@link SimParameters#setWarmUp(boolean)}, by
+ *       default {@code runs} replications are run and the warm-up period is kept
+ *   <li>{@code log}: the extension of the event log written for each net, e.g. {@code xes.gz}, see
+ *       {@link SimLogWriter#open(java.io.File)}, default none
+ * </ul>
+ *
+ * The times of the tasks and the period are converted to minutes.
+ */
+public class BatchParameters {
+
+  private static final List<String> UNITS =
+      Arrays.asList("second", "minute", "hour", "day", "week", "month", "year");
+  private static final List<String> DISTRIBUTIONS =
+      Arrays.asList("poisson", "constant", "exponential");
+  private static final int[] DISTRIBUTION_TYPES = {
+    SimDistribution.POISSON, SimDistribution.CONSTANT, SimDistribution.EXPOTENTIONAL
+  };
+  private static final List<String> QUEUES = Arrays.asList("fifo", "lifo");
+  private static final int[] QUEUE_TYPES = {SimRunner.Q_FIFO, SimRunner.Q_LIFO};
+  private static final List<String> STOPS = Arrays.asList("cases", "time", "both", "none");
+  private static final int[] STOP_TYPES = {
+    SimRunner.STOP_CASE, SimRunner.STOP_TIME, SimRunner.STOP_BOTH, SimRunner.STOP_NONE
+  };
+
+  private final Properties properties;
+
+  /**
+   * @param reader the properties file
+   * @throws IOException if the file cannot be read
+   */
+  public BatchParameters(Reader reader) throws IOException {
+    properties = new Properties();
+    properties.load(reader);
+    // fail early
+    createParameters();
+    if (getLogExtension() != null) {
+      SimLogWriter.checkName("log." + getLogExtension());
+    }
+  }
+
+  /**
+   * @return the extension of the event log files or null if no log is written
+   */
+  public String getLogExtension() {
+    String value = properties.getProperty("log", "").trim();
+    return value.isEmpty() ? null : value;
+  }
+
+  /**
+   * @return the time model of the simulation
+   */
+  public TimeModel createTimeModel() {
+    return new TimeModel(TimeModel.TM_MINUTE, 1.0);
+  }
+
+  /**
+   * Creates new parameters, a simulation may change them.
+   *
+   * @return the parameters of a simulation
+   * @throws IllegalArgumentException if a value is missing or invalid
+   */
+  public SimParameters createParameters() {
+    int periodUnit = choice("periodUnit", "minute", UNITS);
+    double period = createTimeModel().cv(periodUnit, number("period", null));
+    SimParameters sp = new SimParameters(number("lambda", null), period);
+    sp.setRuns((int) number("runs", "1"));
+    sp.setDistCases(DISTRIBUTION_TYPES[choice("arrivalDistribution", "poisson", DISTRIBUTIONS)]);
+    sp.setCParam(number("arrivalParameter", "0"));
+    sp.setDistServ(DISTRIBUTION_TYPES[choice("serviceDistribution", "poisson", DISTRIBUTIONS)]);
+    sp.setSParam(number("serviceParameter", "0"));
+    sp.setQueue(QUEUE_TYPES[choice("queue", "fifo", QUEUES)]);
+    sp.setStop(STOP_TYPES[choice("stop", "both", STOPS)]);
+    sp.setSeed((long) number("seed", String.valueOf(sp.getSeed())));
+    sp.setCommonRandomNumbers(
+        Boolean.parseBoolean(properties.getProperty("commonRandomNumbers", "false").trim()));
+    sp.setThreads((int) number("threads", String.valueOf(sp.getThreads())));
+    sp.setPrecision(number("precision", "0"));
+    sp.setConfidence(number("confidence", String.valueOf(sp.getConfidence())));
+    sp.setMaxRuns((int) number("maxRuns", String.valueOf(sp.getMaxRuns())));
+    sp.setWarmUp(Boolean.parseBoolean(properties.getProperty("warmUp", "false").trim()));
+    sp.setWriteLog(false);
+    sp.setRecordActivities(false);
+    if (sp.getRuns() < 1 || sp.getLambda() <= 0 || sp.getPeriod() <= 0) {
+      throw new IllegalArgumentException("runs, lambda and period must be positive");
+    }
+    if (sp.getPrecision() < 0 || sp.getConfidence() <= 0 || sp.getConfidence() >= 1) {
+      throw new IllegalArgumentException(
+          "precision must not be negative, confidence within (0, 1)");
+    }
+    return sp;
+  }
+
+  private double number(String key, String defaultValue) {
+    String value = properties.getProperty(key, defaultValue);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing parameter " + key);
+    }
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+    }
+  }
+
+  private int choice(String key, String defaultValue, List<String> values) {
+    String value = properties.getProperty(key, defaultValue).trim().toLowerCase();
+    int index = values.indexOf(value);
+    if (index < 0) {
+      throw new IllegalArgumentException(
+          "Invalid value for " + key + ": " + value + ", expected one of " + values);
+    }
+    return index;
+  }
+}
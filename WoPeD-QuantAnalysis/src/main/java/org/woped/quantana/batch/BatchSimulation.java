@@ -0,0 +1,89 @@
+package org.woped.quantana.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.woped.core.controller.IEditor;
+import org.woped.core.model.PetriNetModelProcessor;
+import org.woped.core.utilities.LoggerManager;
+import org.woped.quantana.Constants;
+import org.woped.quantana.model.TimeModel;
+import org.woped.quantana.resourcealloc.ResourceAllocation;
+import org.woped.quantana.resourcealloc.ResourceUtilization;
+import org.woped.quantana.sim.SimGraph;
+import org.woped.quantana.sim.SimLogSink;
+import org.woped.quantana.sim.SimNode;
+import org.woped.quantana.sim.SimParameters;
+import org.woped.quantana.sim.SimReportStats;
+import org.woped.quantana.sim.SimRunner;
+
+/**
+ * Runs the quantitative simulation of a net without a user interface.
+ *
+ * <p>The net is prepared like in the simulation dialog: the service times of the tasks are
+ * converted to the standard unit of the time model and the resources of the net are allocated to
+ * the tasks. The simulation runs in the calling thread, its replications use up to {@link
+ * SimParameters#getThreads()} threads.
+ */
+public class BatchSimulation {
+
+  private final IEditor editor;
+  private final SimParameters params;
+  private final TimeModel timeModel;
+  private List<String> resourceProblems = new ArrayList<String>();
+  private SimLogSink logSink = null;
+
+  /**
+   * @param editor the editor of the net, it does not need to be visible
+   * @param params the parameters of the simulation, the period in the standard unit of the time
+   *     model
+   * @param timeModel the time model
+   */
+  public BatchSimulation(IEditor editor, SimParameters params, TimeModel timeModel) {
+    this.editor = editor;
+    this.params = params;
+    this.timeModel = timeModel;
+  }
+
+  /**
+   * Runs the simulation. The resource usage of the parameters is set by the resources of the net.
+   *
+   * @return the statistics over all replications
+   */
+  public SimReportStats run() {
+    SimGraph graph = new SimGraph(editor, false);
+    resourceProblems = graph.getResourceProblems();
+    for (String task : resourceProblems) {
+      LoggerManager.warn(Constants.QUANTANA_LOGGER, "No resource for task " + task);
+    }
+    for (SimNode n : graph.getNodes().values()) {
+      if (n.gettime() != 0) {
+        n.settime(timeModel.cv(n.gettimeunit(), n.gettime()));
+        n.settimeunit(timeModel.getStdUnit());
+        n.setUnitFactor(timeModel.getStdUnitMultiple());
+      }
+    }
+    ResourceAllocation resAlloc =
+        graph.createResourceAllocation((PetriNetModelProcessor) editor.getModelProcessor());
+    params.setResUse(
+        resAlloc.getResources().isEmpty() ? SimRunner.RES_NOT_USED : SimRunner.RES_USED);
+
+    SimRunner runner = new SimRunner(graph, new ResourceUtilization(resAlloc), params);
+    runner.setLogSink(logSink);
+    return runner.simulate();
+  }
+
+  /**
+   * @param logSink the sink of the event log or null, see {@link SimRunner#setLogSink(SimLogSink)}
+   */
+  public void setLogSink(SimLogSink logSink) {
+    this.logSink = logSink;
+  }
+
+  /**
+   * @return the names of the tasks without a resource found by the last run, see {@link
+   *     SimGraph#getResourceProblems()}
+   */
+  public List<String> getResourceProblems() {
+    return resourceProblems;
+  }
+}
@@ -0,0 +1,196 @@
+package org.woped.quantana.batch;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.woped.quantana.model.ResourceStats;
+import org.woped.quantana.sim.SimConfidenceAnalysis;
+import org.woped.quantana.sim.SimReportServerStats;
+import org.woped.quantana.sim.SimReportStats;
+import org.woped.quantana.sim.SimServerStats;
+import org.woped.quantana.sim.stats.Percentiles;
+
+/**
+ * Writes the statistics of a simulation as JSON or CSV.
+ *
+ * <p>The CSV format has one value per line with the columns {@code net, element, metric, value}, so
+ * the results of many nets can be written to the same file. The element is {@code process}, the id
+ * of a task or the name of a resource. If the simulation has more than one replication, the
+ * completion time, the wait times and the utilizations also have the half width of their confidence
+ * interval. The completion, wait and service times also have their median, 95th and 99th
+ * percentile, e.g. {@code waitTimeP95}, averaged over the replications. Values that are not
+ * defined, e.g. the wait time of a task without cases, are left out.
+ */
+public class SimReportWriter {
+
+  /** The header line of the CSV format. */
+  public static final String CSV_HEADER = "net,element,metric,value";
+
+  private SimReportWriter() {}
+
+  /**
+   * @param net the name of the net
+   * @param stats the statistics of the simulation
+   * @return the statistics as a JSON object
+   */
+  public static JsonObject toJson(String net, SimReportStats stats) {
+    JsonObject result = new JsonObject();
+    result.addProperty("net", net);
+    JsonObject process = new JsonObject();
+    addNumber(process, "finishedCases", stats.getAvgFinishedCases());
+    addNumber(process, "duration", stats.getDuration());
+    addNumber(process, "throughput", stats.getThroughPut());
+    addNumber(process, "waitTime", stats.getProcWaitTime());
+    addNumber(process, "serviceTime", stats.getProcServTime());
+    addNumber(process, "completionTime", stats.getProcCompTime());
+    process.addProperty("replications", stats.getReplications());
+    addNumber(process, "warmUpTime", stats.getWarmUpTime());
+    SimConfidenceAnalysis confidence = stats.getConfidenceAnalysis();
+    addHalfWidth(process, "completionTime", confidence, SimConfidenceAnalysis.COMPLETION_TIME);
+    addPercentiles(process, "completionTime", stats.getProcCompTimePercentiles());
+    result.add("process", process);
+
+    JsonArray tasks = new JsonArray();
+    for (SimReportServerStats s : getServerStats(stats)) {
+      JsonObject task = new JsonObject();
+      task.addProperty("id", s.getId());
+      task.addProperty("name", s.getName());
+      addNumber(task, "calls", s.getAvgCalls());
+      addNumber(task, "accesses", s.getAvgAccesses());
+      addNumber(task, "departures", s.getAvgDepartures());
+      addNumber(task, "zeroDelays", s.getAvgZeroDelays());
+      addNumber(task, "queueLength", s.getAvgQLength());
+      addNumber(task, "maxQueueLength", s.getAvgMaxQLength());
+      addNumber(task, "waitTime", s.getAvgWaitTime());
+      addHalfWidth(task, "waitTime", confidence, SimConfidenceAnalysis.waitTime(s.getId()));
+      addNumber(task, "maxWaitTime", s.getMaxWaitTime());
+      addPercentiles(task, "waitTime", s.getWaitTimePercentiles());
+      addNumber(task, "serviceTime", s.getAvgServTime());
+      addPercentiles(task, "serviceTime", s.getServTimePercentiles());
+      addNumber(task, "resources", s.getAvgResNumber());
+      tasks.add(task);
+    }
+    result.add("tasks", tasks);
+
+    JsonArray resources = new JsonArray();
+    for (ResourceStats r : getResourceStats(stats)) {
+      JsonObject resource = new JsonObject();
+      resource.addProperty("name", r.getName());
+      addNumber(resource, "utilization", r.getUtilizationRatio());
+      addHalfWidth(
+          resource, "utilization", confidence, SimConfidenceAnalysis.utilization(r.getName()));
+      addNumber(resource, "idleTime", r.getIdleTime());
+      resources.add(resource);
+    }
+    result.add("resources", resources);
+    return result;
+  }
+
+  // adds a number, NaN and infinite values have no JSON representation and are left out
+  private static void addNumber(JsonObject values, String property, double value) {
+    if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+      values.addProperty(property, value);
+    }
+  }
+
+  // adds the half width of the confidence interval of a value if there is one
+  private static void addHalfWidth(
+      JsonObject values, String property, SimConfidenceAnalysis confidence, String figure) {
+    if (confidence != null) {
+      addNumber(values, property + "HalfWidth", confidence.getHalfWidth(figure));
+    }
+  }
+
+  // adds the median, the 95th and the 99th percentile of a value if they were collected
+  private static void addPercentiles(JsonObject values, String property, double[] percentiles) {
+    if (percentiles != null) {
+      for (int i = 0; i < percentiles.length; i++) {
+        long p = Math.round(Percentiles.P50_P95_P99[i] * 100);
+        addNumber(values, property + "P" + p, percentiles[i]);
+      }
+    }
+  }
+
+  /**
+   * @param results the results of the nets, see {@link #toJson(String, SimReportStats)}
+   * @param writer the writer, it is not closed
+   * @throws IOException if writing fails
+   */
+  public static void writeJson(List<JsonObject> results, Writer writer) throws IOException {
+    JsonArray array = new JsonArray();
+    for (JsonObject result : results) {
+      array.add(result);
+    }
+    new GsonBuilder().setPrettyPrinting().create().toJson(array, writer);
+    writer.flush();
+  }
+
+  /**
+   * Writes the statistics of a net without the header, see {@link #CSV_HEADER}.
+   *
+   * @param result the result of a net, see {@link #toJson(String, SimReportStats)}
+   * @param writer the writer, it is not closed
+   * @throws IOException if writing fails
+   */
+  public static void writeCsv(JsonObject result, Writer writer) throws IOException {
+    String net = result.get("net").getAsString();
+    writeCsvValues(net, "process", result.getAsJsonObject("process"), writer);
+    for (JsonElement task : result.getAsJsonArray("tasks")) {
+      writeCsvValues(
+          net, task.getAsJsonObject().get("id").getAsString(), task.getAsJsonObject(), writer);
+    }
+    for (JsonElement resource : result.getAsJsonArray("resources")) {
+      writeCsvValues(
+          net,
+          resource.getAsJsonObject().get("name").getAsString(),
+          resource.getAsJsonObject(),
+          writer);
+    }
+  }
+
+  private static void writeCsvValues(String net, String element, JsonObject values, Writer writer)
+      throws IOException {
+    for (Map.Entry<String, JsonElement> value : values.entrySet()) {
+      if (value.getValue().getAsJsonPrimitive().isNumber()) {
+        writer.write(
+            String.format(
+                Locale.ROOT,
+                "%s,%s,%s,%s%n",
+                csv(net),
+                csv(element),
+                value.getKey(),
+                value.getValue().getAsString()));
+      }
+    }
+  }
+
+  private static String csv(String value) {
+    if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+
+  private static List<SimReportServerStats> getServerStats(SimReportStats stats) {
+    List<SimReportServerStats> result = new ArrayList<SimReportServerStats>();
+    for (SimServerStats s : stats.getServStats().values()) {
+      result.add((SimReportServerStats) s);
+    }
+    result.sort(Comparator.comparing(SimServerStats::getId));
+    return result;
+  }
+
+  private static List<ResourceStats> getResourceStats(SimReportStats stats) {
+    List<ResourceStats> result = new ArrayList<ResourceStats>(stats.getResStats().values());
+    result.sort(Comparator.comparing(ResourceStats::getName));
+    return result;
+  }
+}
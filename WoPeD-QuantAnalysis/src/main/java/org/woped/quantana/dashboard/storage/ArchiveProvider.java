@@ -1,92 +1,267 @@
 package org.woped.quantana.dashboard.storage;
 
+import com.google.gson.Gson;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.locks.Lock;
+import org.woped.core.utilities.LoggerManager;
+
+/**
+ * Writes the simulation values of the dashboard to the database on its own thread.
+ *
+ * <p>The simulation hands the values over with {@link #write(String, SimulationStorageEntry)}. They
+ * are queued in a bounded {@link MessageQueue}; if it is full, the simulation either waits or the
+ * values are dropped, see {@link #ArchiveProvider(Connection, Lock, int, boolean, int)}. The writer
+ * thread takes up to a batch of queued values at once, serializes them with one {@link Gson} and
+ * inserts them with one JDBC batch per table. The insert statement of each table is prepared once
+ * and reused. A batch that cannot be written is logged and skipped. Once the writer thread has
+ * stopped, no values are accepted any more.
+ *
+ * <p>Readers can wait for new values of a table with {@link #awaitTick(String, long, long)} instead
+ * of polling the database.
+ */
 public class ArchiveProvider implements Runnable {
 
-  MessageQueue msgQueue = null;
+  // a value to insert into a table
+  private static class Request {
+    final String table;
+    final SimulationStorageEntry entry;
+
+    Request(String table, SimulationStorageEntry entry) {
+      this.table = table;
+      this.entry = entry;
+    }
+  }
+
+  private final MessageQueue<Request> msgQueue;
+  private final Connection connect;
+  private final Lock dbLock;
+  private final boolean dropWhenFull;
+  private final int batchSize;
+  private final Gson gson = new Gson();
+  private final HashMap<String, PreparedStatement> statements =
+      new HashMap<String, PreparedStatement>();
+  private Thread thread = null;
+  private boolean stopped = false;
 
-  StorageEngine dbt = null;
+  // the values handed over, written or failed, and dropped
+  private long submitted = 0;
+  private long completed = 0;
+  private long dropped = 0;
+  // the last tick written to each table
+  private final HashMap<String, Long> storedTicks = new HashMap<String, Long>();
 
-  public ArchiveProvider(MessageQueue msgQueue) {
+  /**
+   * @param connect the connection to the database
+   * @param dbLock the lock of the connection
+   * @param capacity the largest amount of values waiting to be written
+   * @param dropWhenFull true to drop values if the queue is full, false to let the simulation wait
+   * @param batchSize the largest amount of values inserted at once
+   */
+  public ArchiveProvider(
+      Connection connect, Lock dbLock, int capacity, boolean dropWhenFull, int batchSize) {
+    this.msgQueue = new MessageQueue<Request>(capacity);
+    this.connect = connect;
+    this.dbLock = dbLock;
+    this.dropWhenFull = dropWhenFull;
+    this.batchSize = Math.max(1, batchSize);
+  }
 
+  /** Starts the writer thread if it is not running yet. */
+  public synchronized void start() {
+    if (thread == null) {
+      thread = new Thread(this, "Dashboard storage");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  /**
+   * Queues a value to be written.
+   *
+   * @param table the table to insert the value into
+   * @param entry the value
+   * @return false if the value was dropped, because the queue was full or the writer has stopped
+   */
+  public boolean write(String table, SimulationStorageEntry entry) {
+    synchronized (this) {
+      submitted++;
+    }
+    boolean queued;
     try {
-      //	this.dbt = new StorageEngine();
-    } catch (Exception e) {
-      e.printStackTrace();
+      Request request = new Request(table, entry);
+      queued = dropWhenFull ? msgQueue.offer(request) : msgQueue.send(request);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      queued = false;
     }
+    if (!queued) {
+      synchronized (this) {
+        submitted--;
+        dropped++;
+        notifyAll();
+      }
+    }
+    return queued;
+  }
 
-    this.msgQueue = msgQueue;
+  /**
+   * Waits until all queued values are written.
+   *
+   * @return false if the writer has stopped before all values were written
+   * @throws InterruptedException if the thread was interrupted while waiting
+   */
+  public synchronized boolean flush() throws InterruptedException {
+    while (completed < submitted) {
+      if (stopped) return false;
+      wait();
+    }
+    return true;
   }
-  /*
 
-  	public void writeData(StorageData stoda){
+  /**
+   * Waits until a value with a tick after the given one is written to a table.
+   *
+   * @param table the table
+   * @param tick the last tick known to the caller
+   * @param timeout the longest time to wait in milliseconds
+   * @return the last tick written to the table, -1 if none was written since the provider started
+   * @throws InterruptedException if the thread was interrupted while waiting
+   */
+  public synchronized long awaitTick(String table, long tick, long timeout)
+      throws InterruptedException {
+    long end = System.currentTimeMillis() + timeout;
+    long stored = getStoredTick(table);
+    while (stored <= tick) {
+      long remaining = end - System.currentTimeMillis();
+      if (remaining <= 0) break;
+      wait(remaining);
+      stored = getStoredTick(table);
+    }
+    return stored;
+  }
 
-  		this.msgQueue.send(stoda);
-  	}
+  private long getStoredTick(String table) {
+    Long stored = storedTicks.get(table);
+    return stored == null ? -1 : stored;
+  }
 
-  	public StorageData readData(){
-  		//return this.msgQueue.receive();
-  		return null;
-  	}
+  /**
+   * @return the amount of values dropped because the queue was full
+   */
+  public synchronized long getDropped() {
+    return dropped;
+  }
 
-  	public void close(){
-  		dbt.CloseConnection();
-  	}
-  */
+  /** Writes the queued values, stops the writer thread and closes the prepared statements. */
+  public void close() {
+    msgQueue.close();
+    Thread t;
+    synchronized (this) {
+      t = thread;
+    }
+    try {
+      if (t != null) t.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    closeStatements(new ArrayList<String>(statements.keySet()));
+  }
 
   public void run() {
+    ArrayList<Request> batch = new ArrayList<Request>(batchSize);
+    try {
+      while (msgQueue.receive(batch, batchSize) > 0) {
+        boolean inserted;
+        try {
+          inserted = insert(batch);
+        } catch (RuntimeException e) {
+          LoggerManager.error(
+              Constants.DASHBOARDSTORE_LOGGER,
+              "ArchiveProvider: cannot write " + batch.size() + " values: " + e.toString());
+          inserted = false;
+        }
+        synchronized (this) {
+          if (inserted) {
+            for (Request request : batch) {
+              long tick = request.entry.getTick();
+              if (tick > getStoredTick(request.table)) {
+                storedTicks.put(request.table, tick);
+              }
+            }
+          }
+          completed += batch.size();
+          notifyAll();
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      // reject new values and wake up the threads waiting for the writer
+      msgQueue.close();
+      synchronized (this) {
+        stopped = true;
+        notifyAll();
+      }
+    }
+  }
 
-    System.out.println("start thread");
-
-    boolean bReady = false;
-    while (bReady == false) {
-      // wait for new data
-      // StorageData stoda = this.msgQueue.receive();
-      // String strBar = stoda.getBar();
-      // ArrayList<SimulationObject> stodaArray = new ArrayList<SimulationObject>();
-      // stodaArray.add(stoda);
-      // this.dbt.InsertGeneric(stodaArray);
+  // returns false if the values could not be written
+  private boolean insert(ArrayList<Request> batch) {
+    String[] data = new String[batch.size()];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = gson.toJson(batch.get(i).entry.getData());
+    }
 
-      /*if(strBar != null)
-      {
-      	System.out.println("	wrote entry");
+    LinkedHashSet<String> tables = new LinkedHashSet<String>();
+    dbLock.lock();
+    try {
+      for (int i = 0; i < data.length; i++) {
+        Request request = batch.get(i);
+        PreparedStatement pstmt = getStatement(request.table);
+        pstmt.setLong(1, request.entry.getTick());
+        pstmt.setString(2, data[i]);
+        pstmt.addBatch();
+        tables.add(request.table);
+      }
+      for (String table : tables) {
+        statements.get(table).executeBatch();
+      }
+      LoggerManager.debug(
+          Constants.DASHBOARDSTORE_LOGGER, "ArchiveProvider: inserted " + data.length + " values");
+      return true;
+    } catch (SQLException | RuntimeException e) {
+      LoggerManager.error(Constants.DASHBOARDSTORE_LOGGER, "ArchiveProvider: " + e.toString());
+      // a table may have been dropped or a batch is half filled, prepare the statements again
+      closeStatements(new ArrayList<String>(statements.keySet()));
+      return false;
+    } finally {
+      dbLock.unlock();
+    }
+  }
 
-      }else{
+  private PreparedStatement getStatement(String table) throws SQLException {
+    PreparedStatement pstmt = statements.get(table);
+    if (pstmt == null) {
+      pstmt = connect.prepareStatement("insert into " + table + " (Tick,Data) values (?,?)");
+      statements.put(table, pstmt);
+    }
+    return pstmt;
+  }
 
-      	System.out.println("	No more entries");
-      	return;
+  private void closeStatements(Iterable<String> tables) {
+    for (String table : tables) {
+      PreparedStatement pstmt = statements.remove(table);
+      try {
+        if (pstmt != null) pstmt.close();
+      } catch (SQLException e) {
+        // the statement is not used any more
       }
-      */
-
     }
-    System.out.println("exit thread");
   }
-  /*
-  	public static void main(String[] args){
-  		MessageQueue msgq = new MessageQueue(100);
-
-  		ArchiveProvider ap = new ArchiveProvider(msgq);
-
-  		Thread storagethread = new Thread(ap);
-
-  		storagethread.start();
-
-  		StorageData stoda = null;
-  		for(int i = 0; i< 1000; i++){
-  			stoda = new StorageData(i,"val_"+i);
-
-  			System.out.println("send data");
-  			msgq.send(stoda);
-  			try {
-  				Thread.sleep(10);
-  			} catch (InterruptedException e) {
-  				// TODO Auto-generated catch block
-  				e.printStackTrace();
-  			}
-  		}
-  		stoda = new StorageData(0,null);
-  		System.out.println("send last data");
-  		msgq.send(stoda);
-
-  	}
-  */
 }
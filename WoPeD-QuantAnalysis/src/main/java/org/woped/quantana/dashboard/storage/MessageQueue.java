@@ -1,64 +1,103 @@
 package org.woped.quantana.dashboard.storage;
 
-public class MessageQueue {
-  // private byte[][] msgQueue = null;
-  // private StorageData[] msgQueue = null;
+import java.util.List;
 
-  // private int qsize = 0;
-  // private int head = 0;
-  // private int tail = 0;
-  /*
-  	public MessageQueue(int capacity)
-  	{
-  		if(capacity <= 0)
-  			return;
-  		//msgQueue = new StorageData[capacity];
-  	}
+/**
+ * A bounded ring buffer between threads that produce and a thread that consumes messages.
+ *
+ * <p>{@link #send(Object)} blocks while the queue is full, {@link #offer(Object)} returns at once,
+ * so the producer chooses between backpressure and dropping messages. The consumer takes all queued
+ * messages up to a maximum at once with {@link #receive(List, int)}. After {@link #close()} no
+ * messages are accepted any more, the queued ones can still be received.
+ *
+ * @param <T> the type of the messages
+ */
+public class MessageQueue<T> {
+  private final Object[] msgQueue;
 
+  private int qsize = 0;
+  private int head = 0;
+  private int tail = 0;
+  private boolean closed = false;
 
-  	public synchronized void send(StorageData stoda)
-  	{
-  		while(qsize == msgQueue.length)
-  		{
-  			System.out.println("queue is full");
+  /**
+   * @param capacity the largest amount of queued messages
+   */
+  public MessageQueue(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+    }
+    msgQueue = new Object[capacity];
+  }
 
-  			try
-  			{
-  				wait();
-  			}
-  			catch(InterruptedException e)
-  			{
-  			}
-  		}
-  		//Kopieren der gesendeten Nachricht
-  		//msgQueue[tail] = stoda;
-  		qsize++;
-  		tail++;
-  		if(tail == msgQueue.length)
-  			tail = 0;
-  		notifyAll();
-  	}
-  	public synchronized StorageData receive()
-  	{
-  		while(qsize == 0)
-  		{
-  			try
-  			{
-  				wait();
-  			}
-  			catch(InterruptedException e)
-  			{
-  			}
-  		}
+  /**
+   * Adds a message, waits while the queue is full.
+   *
+   * @param msg the message
+   * @return false if the queue was closed
+   * @throws InterruptedException if the thread was interrupted while waiting
+   */
+  public synchronized boolean send(T msg) throws InterruptedException {
+    while (qsize == msgQueue.length && !closed) {
+      wait();
+    }
+    return offer(msg);
+  }
 
-  		StorageData result = msgQueue[head];
-  		msgQueue[head] = null;
-  		qsize--;
-  		head++;
-  		if(head == msgQueue.length)
-  			head = 0;
-  		notifyAll();
-  		return result;
-  	}
-  */
+  /**
+   * Adds a message if the queue is not full.
+   *
+   * @param msg the message
+   * @return false if the queue is full or closed
+   */
+  public synchronized boolean offer(T msg) {
+    if (closed || qsize == msgQueue.length) {
+      return false;
+    }
+    msgQueue[tail] = msg;
+    qsize++;
+    tail++;
+    if (tail == msgQueue.length) tail = 0;
+    notifyAll();
+    return true;
+  }
+
+  /**
+   * Removes the oldest messages, waits while the queue is empty and not closed.
+   *
+   * @param target the list the messages are added to
+   * @param max the largest amount of messages to remove
+   * @return the amount of removed messages, 0 if the queue is closed and empty
+   * @throws InterruptedException if the thread was interrupted while waiting
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized int receive(List<? super T> target, int max) throws InterruptedException {
+    while (qsize == 0 && !closed) {
+      wait();
+    }
+    int count = Math.min(max, qsize);
+    for (int i = 0; i < count; i++) {
+      target.add((T) msgQueue[head]);
+      msgQueue[head] = null;
+      head++;
+      if (head == msgQueue.length) head = 0;
+    }
+    qsize -= count;
+    notifyAll();
+    return count;
+  }
+
+  /** Stops accepting messages and wakes up all waiting threads. */
+  public synchronized void close() {
+    closed = true;
+    notifyAll();
+  }
+
+  public synchronized int size() {
+    return qsize;
+  }
+
+  public int getCapacity() {
+    return msgQueue.length;
+  }
 }
@@ -30,6 +30,22 @@ public class SimRunnerDB extends SimRunner {
     // createServerForBirth();
   }
 
+  /**
+   * Creates the runner of a single replication. The statistics of the replications are stored by
+   * the runner of all replications.
+   *
+   * @param master the runner of all replications
+   * @param run the index of the replication
+   */
+  protected SimRunnerDB(SimRunnerDB master, int run) {
+    super(master, run);
+  }
+
+  @Override
+  protected SimRunner createReplication(int run) {
+    return new SimRunnerDB(this, run);
+  }
+
   @Override
   public void finishCase(SimCase c) {
 
@@ -37,15 +53,13 @@ public class SimRunnerDB extends SimRunner {
   }
 
   @Override
-  protected SimRunStats finishRun() {
+  protected void addRunStats(SimRunStats srs) {
 
-    SimRunStats srs = super.finishRun();
+    super.addRunStats(srs);
 
     if (storageengine != null) {
       storageengine.add(srs);
     }
-
-    return srs;
   }
 
   @Override
@@ -53,6 +67,7 @@ public class SimRunnerDB extends SimRunner {
 
     super.generateReport();
 
+    storageengine.flush();
     storageengine.storeAllocationMatrix();
     storageengine.InsertImage();
   }
@@ -0,0 +1,14 @@
+package org.woped.quantana.dashboard.storage;
+
+/**
+ * Receives the stored values of a simulation one after the other, see {@link
+ * StorageEngine#GetSimulationDataSince(String, long, int, SimulationDataHandler)}.
+ */
+public interface SimulationDataHandler {
+
+  /**
+   * @param tick the tick of the value
+   * @param json the value in the JSON format of a {@link SimulationStorageEntry}
+   */
+  void handle(long tick, String json);
+}
@@ -22,11 +22,13 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.imageio.ImageIO;
 import org.jgraph.JGraph;
 import org.woped.core.config.ConfigurationManager;
+import org.woped.core.config.IGeneralConfiguration;
 import org.woped.core.utilities.LoggerManager;
 import org.woped.quantana.gui.ActivityPanel;
 import org.woped.quantana.gui.QuantitativeSimulationDialog;
@@ -72,7 +74,7 @@ public class StorageEngine {
   private HashMap<String, SimServer> serverList = null;
 
   private SimParameters simParams = null;
-  static int currentRun = 0;
+  private int currentRun = 0;
   private SimReportStats repStats = new SimReportStats();
 
   private String strCurrentSimulationTable = "";
@@ -87,6 +89,12 @@ public class StorageEngine {
 
   private int maxEntries = ConfigurationManager.getConfiguration().getBusinessDashboardMaxValues();
 
+  // the ticks of the runs that are stored, see ArchiveFilter
+  private HashSet<Integer> archivedTicks = null;
+
+  // writes the values of the runs on its own thread
+  private ArchiveProvider archiveProvider = null;
+
   WoPeDDashboardConfiguration wdc = null;
 
   public static synchronized StorageEngine getInstance() {
@@ -121,6 +129,11 @@ public class StorageEngine {
           Constants.DASHBOARDSTORE_LOGGER,
           "StorageEngine: DB: " + connect.getMetaData().toString());
 
+      // the tables of earlier versions have no index on Tick yet
+      for (TableInfo ti : GetTables()) {
+        CreateTickIndex(ti.getTABLENAME());
+      }
+
     } catch (InstantiationException
         | IllegalAccessException
         | ClassNotFoundException
@@ -133,30 +146,6 @@ public class StorageEngine {
     }
   }
 
-  private String BuildInsertSimulationDataString(int values) {
-    String str = "";
-
-    // open with a bracket when more than one entry
-    if (values > 1) {
-      str += "(";
-    }
-
-    for (int i = 0; i < values; i++) {
-      str += "(?,?)";
-
-      // when not last set of values, add a commata
-      if (i < (values - 1)) {
-        str += ",";
-      }
-    }
-    // close with a bracket when more than one entry
-    if (values > 1) {
-      str += ")";
-    }
-
-    return str;
-  }
-
   /*synchronized public void InsertGeneric(SimulationObject o){
    ArrayList<SimulationData>objList = new ArrayList<>();
    objList.add((SimulationData)o);
@@ -165,7 +154,7 @@ public class StorageEngine {
 
   private synchronized SimulationStorageData toStorageObject(SimRunStats rs) {
 
-    StorageEngine.currentRun++;
+    this.currentRun++;
 
     SimulationStorageData stoDat = new SimulationStorageData();
 
@@ -268,94 +257,112 @@ public class StorageEngine {
     return stoDat;
   }
 
-  public synchronized void add(SimRunStats o) {
-
-    // convert data
-    ArrayList<SimulationStorageEntry> arrSse = new ArrayList<>();
-
-    ArchiveFilter archiveFilter = new ArchiveFilter();
-
-    int[] arrRelevantIndizes = archiveFilter.Filter(simParams.getRuns(), maxEntries);
-
-    ArrayList<Integer> arrlist = new ArrayList<Integer>(maxEntries);
-
-    for (int i : arrRelevantIndizes) {
-      arrlist.add(i);
-    }
-
-    SimulationStorageData sd = toStorageObject(o);
-
+  /**
+   * Converts the statistics of a run and queues them to be written by the {@link ArchiveProvider},
+   * if the run is one of the archived runs. Depending on the configuration the call waits while the
+   * queue is full or the values are dropped.
+   *
+   * @param o the statistics of the run
+   */
+  public void add(SimRunStats o) {
+    ArchiveProvider provider = null;
+    String table = null;
     SimulationStorageEntry sse = new SimulationStorageEntry();
+    synchronized (this) {
+      if (archivedTicks == null) {
+        archivedTicks = new HashSet<Integer>();
+        int[] arrRelevantIndizes = new ArchiveFilter().Filter(simParams.getRuns(), maxEntries);
+        if (arrRelevantIndizes != null) {
+          for (int i : arrRelevantIndizes) {
+            archivedTicks.add(i);
+          }
+        }
+      }
 
-    sse.setTick(++this.clockTick);
-    sse.setData(sd);
-
-    if (arrlist.contains(this.clockTick - 1)) {
+      SimulationStorageData sd = toStorageObject(o);
 
-      // aktuellen wert speichern
-      arrSse.add(sse);
+      sse.setTick(++this.clockTick);
+      sse.setData(sd);
 
-      InsertSimRunStatsBulk(arrSse);
+      if (archivedTicks.contains(this.clockTick - 1)) {
+        if (connect == null) {
+          LoggerManager.error(Constants.DASHBOARDSTORE_LOGGER, "add: " + ERR_NOCONNECTION);
+        } else if (this.strCurrentSimulationTable.length() == 0) {
+          LoggerManager.error(
+              Constants.DASHBOARDSTORE_LOGGER, "add: no current table / no data will be written");
+        } else {
+          provider = getArchiveProvider();
+          table = strCurrentSimulationTable;
+        }
+      }
+    }
+    // write() may wait while the queue is full, so the engine is not locked meanwhile
+    if (provider != null && !provider.write(table, sse)) {
+      LoggerManager.warn(
+          Constants.DASHBOARDSTORE_LOGGER,
+          "add: queue full or writer stopped, dropped tick " + sse.getTick() + " of " + table);
     }
   }
 
-  public void InsertSimRunStatsBulk(ArrayList<SimulationStorageEntry> objList) {
-
-    String strSerializedObject = "";
-
-    Gson gson = new Gson();
-
-    PreparedStatement pstmt;
+  private ArchiveProvider getArchiveProvider() {
+    if (archiveProvider == null) {
+      IGeneralConfiguration config = ConfigurationManager.getConfiguration();
+      archiveProvider =
+          new ArchiveProvider(
+              connect,
+              dbLock,
+              config.getBusinessDashboardQueueCapacity(),
+              config.getBusinessDashboardDropWhenFull(),
+              config.getBusinessDashboardBatchSize());
+      archiveProvider.start();
+    }
+    return archiveProvider;
+  }
 
-    if (connect != null) {
+  /** Waits until the queued values of the runs are written to the database. */
+  public void flush() {
+    ArchiveProvider provider;
+    synchronized (this) {
+      provider = archiveProvider;
+    }
+    if (provider != null) {
       try {
-
-        if (this.strCurrentSimulationTable.length() == 0) {
+        if (!provider.flush()) {
           LoggerManager.error(
-              Constants.DASHBOARDSTORE_LOGGER,
-              "InsertSimRunStatsBulk: no current table / no data will be written");
-          return;
+              Constants.DASHBOARDSTORE_LOGGER, "flush: the writer has stopped, values are lost");
         }
-
-        // simulationswert speichern
-
-        String insertNewSQLObject =
-            "insert into "
-                + strCurrentSimulationTable
-                + " (Tick,Data) values "
-                + this.BuildInsertSimulationDataString(objList.size());
-
-        dbLock.lock();
-
-        pstmt = connect.prepareStatement(insertNewSQLObject);
-
-        int i = 0;
-        int iColumn = 0;
-        for (i = 0; i < objList.size(); i++) {
-
-          SimulationStorageEntry sd = objList.get(i);
-          strSerializedObject = gson.toJson(sd.getData());
-          pstmt.setLong(++iColumn, sd.getTick());
-          pstmt.setString(++iColumn, strSerializedObject);
-        }
-
-        pstmt.executeUpdate();
-
-        LoggerManager.debug(
-            Constants.DASHBOARDSTORE_LOGGER, "InsertSimRunStatsBulk: insert finished");
-
-        dbLock.unlock();
-
-      } catch (SQLException e) {
-        LoggerManager.error(
-            Constants.DASHBOARDSTORE_LOGGER,
-            "InsertSimRunStatsBulk: SQLException: " + e.toString());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
       }
-    } else {
+    }
+  }
 
+  /**
+   * Writes values of runs to the current table and waits until they are written.
+   *
+   * @param objList the values
+   */
+  public void InsertSimRunStatsBulk(ArrayList<SimulationStorageEntry> objList) {
+
+    if (connect == null) {
       LoggerManager.error(
           Constants.DASHBOARDSTORE_LOGGER, "InsertSimRunStatsBulk: " + ERR_NOCONNECTION);
+      return;
+    }
+    if (this.strCurrentSimulationTable.length() == 0) {
+      LoggerManager.error(
+          Constants.DASHBOARDSTORE_LOGGER,
+          "InsertSimRunStatsBulk: no current table / no data will be written");
+      return;
+    }
+    ArchiveProvider provider;
+    synchronized (this) {
+      provider = getArchiveProvider();
     }
+    for (SimulationStorageEntry sse : objList) {
+      provider.write(strCurrentSimulationTable, sse);
+    }
+    flush();
   }
 
   public void setResAlloc(ResourceAllocation ra) {
@@ -372,7 +379,8 @@ public class StorageEngine {
     }
   }
 
-  public void setSimParameters(SimParameters simParams) {
+  public synchronized void setSimParameters(SimParameters simParams) {
+    archivedTicks = null;
 
     this.simParams = simParams;
   }
@@ -526,7 +534,7 @@ public class StorageEngine {
   public void CreateTable(Table t) {
 
     // initialize values for this new simulation run
-    StorageEngine.currentRun = 0;
+    this.currentRun = 0;
     this.clockTick = 0;
     this.repStats = null;
     this.repStats = new SimReportStats();
@@ -559,6 +567,10 @@ public class StorageEngine {
         LoggerManager.debug(
             Constants.DASHBOARDSTORE_LOGGER, "CreateTable: Table " + strTableName + " created");
 
+        if (t == Table.SIM_VALUES) {
+          CreateTickIndex(strTableName);
+        }
+
       } catch (SQLException e) {
         // e.printStackTrace();
         LoggerManager.error(
@@ -1139,9 +1151,8 @@ public class StorageEngine {
   public SimulationStorageEntry[] GetSimulationData(
       String tablename, long tick, Boolean singlevalue, Boolean bounding) {
 
-    PreparedStatement statement;
+    PreparedStatement statement = null;
 
-    SimulationStorageEntry[] simData = null;
     Gson gson = new Gson();
 
     tablename = GetValidTablename(tablename);
@@ -1149,6 +1160,7 @@ public class StorageEngine {
     String strQuery = "";
 
     if (connect != null && (tablename != "")) {
+      ArrayList<SimulationStorageEntry> simData = new ArrayList<SimulationStorageEntry>();
       try {
         if (singlevalue == true) {
           // statement = connect.prepareStatement("SELECT ID,Tick,Data from " + tablename);
@@ -1168,63 +1180,156 @@ public class StorageEngine {
             tick = GetNextTick((int) tick);
           }
 
-          strQuery = "SELECT ID,Tick,Data from " + tablename + " where Tick <= ?";
+          strQuery = "SELECT ID,Tick,Data from " + tablename + " where Tick <= ? order by Tick";
           statement = connect.prepareStatement(strQuery);
           statement.setLong(1, tick); // set input parameter
-
-          // statement.setLong(2, id); // set input parameter
         }
         LoggerManager.debug(
             Constants.DASHBOARDSTORE_LOGGER,
             "GetSimulationData: statement prepared (" + strQuery + ")");
 
-        resultSet = statement.executeQuery();
-
-        LoggerManager.debug(Constants.DASHBOARDSTORE_LOGGER, "GetSimulationData: select finished");
+        ResultSet rs = statement.executeQuery();
 
-        // groesse ermitteln
-        int size = 0;
-
-        while (resultSet.next()) {
-          size++;
+        while (rs.next()) {
+          SimulationStorageEntry entry = new SimulationStorageEntry();
+          entry.setID(rs.getInt("ID"));
+          entry.setTick(rs.getLong("Tick"));
+          entry.setData(gson.fromJson(rs.getString("Data"), SimulationStorageData.class));
+          simData.add(entry);
         }
+        rs.close();
 
         LoggerManager.debug(
             Constants.DASHBOARDSTORE_LOGGER,
-            "GetSimulationData: " + size + " values will be processed");
-
-        simData = new SimulationStorageEntry[size];
-
-        resultSet = statement.executeQuery();
-
-        int iSim = 0;
-        // resultSet.first();
-
-        while (resultSet.next()) {
-          if (iSim < size) {
-            simData[iSim] = new SimulationStorageEntry();
-            simData[iSim].setID(resultSet.getInt("ID"));
-            simData[iSim].setTick(resultSet.getLong("Tick"));
-            String strData = resultSet.getString("Data");
-
-            SimulationStorageData dataRes = gson.fromJson(strData, SimulationStorageData.class);
-            simData[iSim].setData(dataRes);
-
-            iSim++;
-          }
-        }
+            "GetSimulationData: " + simData.size() + " values selected");
       } catch (SQLException e) {
         LoggerManager.error(
             Constants.DASHBOARDSTORE_LOGGER,
             "GetSimulationData: SQLException in GetSimulationData: " + e.toString());
+      } finally {
+        CloseStatement(statement);
       }
 
-      return simData;
+      return simData.toArray(new SimulationStorageEntry[simData.size()]);
     } else {
       return null;
     }
   }
 
+  /**
+   * Reads the values stored after a tick in the order of their ticks. The values are handed over in
+   * the JSON format of {@link SimulationStorageEntry} as they are stored, without converting them
+   * to objects and back.
+   *
+   * @param tablename the table of the values, the current table if empty
+   * @param tick the last tick known to the caller, -1 for all values
+   * @param maxValues the largest amount of values to read
+   * @param handler receives the values
+   * @return the tick of the last value read, or the given tick if there is no newer value
+   */
+  public long GetSimulationDataSince(
+      String tablename, long tick, int maxValues, SimulationDataHandler handler) {
+
+    tablename = GetValidTablename(tablename);
+    if (connect == null || tablename.equals("")) {
+      LoggerManager.error(
+          Constants.DASHBOARDSTORE_LOGGER, "GetSimulationDataSince: " + ERR_NOCONNECTION);
+      return tick;
+    }
+
+    long lastTick = tick;
+    PreparedStatement statement = null;
+    try {
+      statement =
+          connect.prepareStatement(
+              "SELECT ID,Tick,Data from "
+                  + tablename
+                  + " where Tick > ? order by Tick FETCH FIRST "
+                  + maxValues
+                  + " ROWS ONLY");
+      statement.setLong(1, tick);
+      ResultSet rs = statement.executeQuery();
+      StringBuilder json = new StringBuilder();
+      while (rs.next()) {
+        lastTick = rs.getLong("Tick");
+        json.setLength(0);
+        json.append("{\"ID\":").append(rs.getInt("ID"));
+        json.append(",\"Tick\":").append(lastTick);
+        String data = rs.getString("Data");
+        if (data != null) {
+          json.append(",\"Data\":").append(data);
+        }
+        json.append('}');
+        handler.handle(lastTick, json.toString());
+      }
+      rs.close();
+    } catch (SQLException e) {
+      LoggerManager.error(
+          Constants.DASHBOARDSTORE_LOGGER, "GetSimulationDataSince: SQLException: " + e.toString());
+    } finally {
+      CloseStatement(statement);
+    }
+    return lastTick;
+  }
+
+  /**
+   * Waits until values after a tick are written to a table by the running simulation.
+   *
+   * @param tablename the table of the values, the current table if empty
+   * @param tick the last tick known to the caller
+   * @param timeout the longest time to wait in milliseconds
+   * @return the last tick written to the table, it is not after the given tick if the time ran out,
+   *     -1 if no value of the table was written since the start
+   * @throws InterruptedException if the thread was interrupted while waiting
+   */
+  public long AwaitSimulationData(String tablename, long tick, long timeout)
+      throws InterruptedException {
+    ArchiveProvider provider;
+    synchronized (this) {
+      tablename = GetValidTablename(tablename);
+      provider = connect == null ? null : getArchiveProvider();
+    }
+    if (provider == null) {
+      Thread.sleep(timeout);
+      return -1;
+    }
+    return provider.awaitTick(tablename, tick, timeout);
+  }
+
+  // creates the index on Tick of a new table of values or of a table of an earlier version
+  private void CreateTickIndex(String tablename) {
+    if (connect == null) {
+      return;
+    }
+    PreparedStatement statement = null;
+    dbLock.lock();
+    try {
+      statement =
+          connect.prepareStatement(
+              "CREATE INDEX " + tablename + "_TICK on " + tablename + " (Tick)");
+      statement.executeUpdate();
+      LoggerManager.debug(
+          Constants.DASHBOARDSTORE_LOGGER, "CreateTickIndex: index of " + tablename + " created");
+    } catch (SQLException e) {
+      // the index exists already
+      LoggerManager.debug(
+          Constants.DASHBOARDSTORE_LOGGER, "CreateTickIndex: " + tablename + ": " + e.toString());
+    } finally {
+      dbLock.unlock();
+      CloseStatement(statement);
+    }
+  }
+
+  private void CloseStatement(Statement statement) {
+    if (statement != null) {
+      try {
+        statement.close();
+      } catch (SQLException e) {
+        // the statement is not used any more
+      }
+    }
+  }
+
   private QuantitativeSimulationDialog owner;
 
   public void setOwner(QuantitativeSimulationDialog d) {
@@ -1331,11 +1436,29 @@ public class StorageEngine {
         TableInfo[] ti = GetTables();
         if (ti.length > 0) tablename = ti[0].getTABLENAME();
       }
+    } else if (!IsKnownTable(tablename)) {
+      // the name comes from the browser and is put into the queries
+      LoggerManager.error(Constants.DASHBOARDSTORE_LOGGER, "unknown table: " + tablename);
+      tablename = "";
     }
 
     return tablename;
   }
 
+  // returns true if the table is the current table or one of the stored simulations
+  private boolean IsKnownTable(String tablename) {
+    if (tablename.equals(this.strCurrentSimulationTable)) {
+      return true;
+    }
+    TableInfo[] tables = GetTables();
+    if (tables != null) {
+      for (TableInfo ti : tables) {
+        if (tablename.equals(ti.getTABLENAME())) return true;
+      }
+    }
+    return false;
+  }
+
   public SimParameters GetSimulationStatisticData(String tablename) {
 
     PreparedStatement statement;
@@ -1463,8 +1586,11 @@ public class StorageEngine {
                     + " ORDER BY Tablename DESC");
 
         dbLock.lock();
-
-        resultSet = statement.executeQuery();
+        try {
+          resultSet = statement.executeQuery();
+        } finally {
+          dbLock.unlock();
+        }
 
         LoggerManager.debug(
             Constants.DASHBOARDSTORE_LOGGER,
@@ -1472,7 +1598,6 @@ public class StorageEngine {
                 + Table.SIM_ATTRIBUTES.toString()
                 + " ORDER BY Tablename DESC)");
 
-        dbLock.unlock();
         while (resultSet.next()) {
 
           // String tablename = resultSet.getString("TABLENAME");
@@ -1584,6 +1709,12 @@ public class StorageEngine {
   }
 
   public void CloseConnection() {
+    synchronized (this) {
+      if (archiveProvider != null) {
+        archiveProvider.close();
+        archiveProvider = null;
+      }
+    }
     try {
       if (resultSet != null) {
         resultSet.close();
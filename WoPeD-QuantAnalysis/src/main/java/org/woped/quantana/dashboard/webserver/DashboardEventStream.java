@@ -0,0 +1,114 @@
+package org.woped.quantana.dashboard.webserver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.woped.core.utilities.LoggerManager;
+import org.woped.quantana.dashboard.storage.StorageEngine;
+
+/**
+ * Pushes the values of a simulation to the browser as Server-Sent Events while they are stored.
+ *
+ * <p>The stream is requested with {@code /events?table=<table>&since=<tick>}, both parameters are
+ * optional. Each value is sent as one event with its tick as id and the value in the JSON format of
+ * {@code getDashboardValues} as data. A browser that reconnects sends the id of the last event it
+ * received and gets the values after it. The stream runs on its own thread, so it does not hold up
+ * the other requests, and ends when the browser closes the connection.
+ */
+public class DashboardEventStream implements Runnable {
+
+  // the longest time without a message, the browser then gets a comment to keep the connection
+  private static final long KEEP_ALIVE = 15000;
+  // the largest amount of values read at once
+  private static final int MAX_VALUES = 256;
+
+  private final Socket socket;
+  private final StorageEngine storageengine;
+  private final String table;
+  private long tick = -1;
+
+  public DashboardEventStream(Socket socket, Request request, StorageEngine se) {
+    this.socket = socket;
+    this.storageengine = se;
+    this.table = request.getParameter("table");
+    String since = request.getLastEventId();
+    if (since == null) {
+      since = request.getParameter("since");
+    }
+    if (since != null) {
+      try {
+        tick = Long.parseLong(since);
+      } catch (NumberFormatException e) {
+        tick = -1;
+      }
+    }
+  }
+
+  /** Sends the events on a new thread. */
+  public void start() {
+    Thread thread = new Thread(this, "Dashboard events");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void run() {
+    LoggerManager.debug(Constants.DASHBOARDWEBSRV_LOGGER, "event stream after tick " + tick);
+    try {
+      Writer writer =
+          new BufferedWriter(
+              new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+      writer.write("HTTP/1.1 200 OK\r\n");
+      writer.write("Content-Type: text/event-stream; charset=utf-8\r\n");
+      writer.write("Cache-Control: no-cache\r\n");
+      writer.write("Connection: keep-alive\r\n\r\n");
+      writer.write("retry: 2000\n\n");
+      writer.flush();
+
+      final StringBuilder events = new StringBuilder();
+      // the last tick the storage reported as written
+      long stored = -1;
+      while (true) {
+        events.setLength(0);
+        long last =
+            storageengine.GetSimulationDataSince(
+                table,
+                tick,
+                MAX_VALUES,
+                (valueTick, json) ->
+                    events
+                        .append("id: ")
+                        .append(valueTick)
+                        .append("\ndata: ")
+                        .append(json)
+                        .append("\n\n"));
+        if (last > tick) {
+          tick = last;
+          writer.write(events.toString());
+          writer.flush();
+          continue;
+        }
+        // values that were reported but cannot be read, e.g. of another table, are skipped
+        tick = Math.max(tick, stored);
+        stored = storageengine.AwaitSimulationData(table, tick, KEEP_ALIVE);
+        if (stored <= tick) {
+          writer.write(": keep-alive\n\n");
+          writer.flush();
+        }
+      }
+    } catch (IOException e) {
+      LoggerManager.debug(Constants.DASHBOARDWEBSRV_LOGGER, "event stream closed: " + e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // the browser closed the connection
+      }
+    }
+  }
+}
@@ -27,10 +27,11 @@ public class GetRequestAction extends ThinServerAction {
    * be made: tick : get the value or all values less or equal to tick single : get a period (from
    * start to the value of 'tick') or a specific set of values (that is according to tick) table :
    * request data of a special table; when empty: the current (last) table of simulation will be
-   * selected automatically getArchiveList - responses a objects that contains the information of
-   * stored data-tables (type:json) getSimulationStats - responses the statistic-data of a
-   * simulation (type:json) table : request data of a special table; when empty: the current (last)
-   * table of simulation will be selected automatically (type:json)
+   * selected automatically since : get only the values after this tick, ordered by tick
+   * getArchiveList - responses a objects that contains the information of stored data-tables
+   * (type:json) getSimulationStats - responses the statistic-data of a simulation (type:json) table
+   * : request data of a special table; when empty: the current (last) table of simulation will be
+   * selected automatically (type:json)
    *
    * <p>getSimulationResAlloc -responeses the allocation-table of a specific ressource, or server
    * (necessary for gantt-diagramm (type:json)
@@ -101,11 +102,7 @@ public class GetRequestAction extends ThinServerAction {
       Boolean single = false;
       Boolean bBounding = false;
 
-      if (tick != null && !tick.equals("undefined")) {
-        Tick = Long.parseLong(tick);
-      } else {
-        Tick = -1;
-      }
+      Tick = parseTick(tick);
 
       if (strBounding != null && !strBounding.equals("undefined")) {
         bBounding = Boolean.parseBoolean(strBounding);
@@ -117,12 +114,27 @@ public class GetRequestAction extends ThinServerAction {
         single = Boolean.parseBoolean(bSingleValue);
       }
 
-      SimulationStorageEntry[] sd =
-          ThinServerAction.storageengine.GetSimulationData(tablename, Tick, single, bBounding);
+      String since = request.getParameter("since");
+      if (since != null && !since.equals("undefined")) {
+        // only the values after the tick, as they are stored
+        final StringBuilder ret = new StringBuilder("[");
+        ThinServerAction.storageengine.GetSimulationDataSince(
+            tablename,
+            parseTick(since),
+            Integer.MAX_VALUE,
+            (valueTick, json) -> {
+              if (ret.length() > 1) ret.append(',');
+              ret.append(json);
+            });
+        response.addContent(ret.append(']').toString());
+      } else {
+        SimulationStorageEntry[] sd =
+            ThinServerAction.storageengine.GetSimulationData(tablename, Tick, single, bBounding);
 
-      Gson gson = new Gson();
-      String ret = gson.toJson(sd);
-      response.addContent(ret);
+        Gson gson = new Gson();
+        String ret = gson.toJson(sd);
+        response.addContent(ret);
+      }
 
     } else if (strAction.equals("getArchiveList")) {
 
@@ -244,4 +256,19 @@ public class GetRequestAction extends ThinServerAction {
 
     response.addContent(te.getTemplateContent("listarchives.html"));
   }
+
+  /**
+   * @param tick a tick sent by the browser
+   * @return the tick, -1 if it is missing or not a number
+   */
+  private static long parseTick(String tick) {
+    if (tick == null || tick.equals("undefined")) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(tick);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
 }
@@ -21,6 +21,7 @@ public class Request implements Cloneable {
   private String path = "";
   private String[] pathElements = new String[0];
   private int contentLength = 0;
+  private String lastEventId = null;
   private HashMap<String, String> requestParameter = new HashMap<String, String>();
   private HashMap<String, HttpCookie> cookies = new HashMap<String, HttpCookie>();
   private SessionData sessionData = null;
@@ -91,6 +92,10 @@ public class Request implements Cloneable {
     } else if (lineLower.startsWith("content-length: ")) {
       contentLength = Integer.parseInt((line.substring(("content-length:").length())).trim());
 
+    } else if (lineLower.startsWith("last-event-id:")) {
+      // sent by a browser that reconnects to an event stream
+      lastEventId = line.substring(("last-event-id:").length()).trim();
+
     } else if (lineLower.startsWith("cookie: ")) {
       String cookieline = line;
       cookieline = line.substring(8);
@@ -226,6 +231,10 @@ public class Request implements Cloneable {
     parsePathElements(this.path);
   }
 
+  public String getLastEventId() {
+    return lastEventId;
+  }
+
   public HttpCookie getCookie(String name) {
     return cookies.get(name);
   }
@@ -76,6 +76,13 @@ public class ThinServer {
         determineSession(request, response);
         // << SessionCookie
 
+        // >> Event stream, answered on its own thread
+        if (request.getPath().startsWith("/events")) {
+          new DashboardEventStream(socket, request, storageengine).start();
+          continue;
+        }
+        // << Event stream
+
         if (request.getPath().startsWith("/shutdownserver")) {
           this.shutDown();
         }
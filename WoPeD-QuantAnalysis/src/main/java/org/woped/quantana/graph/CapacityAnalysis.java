@@ -0,0 +1,370 @@
+package org.woped.quantana.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import org.woped.quantana.resourcealloc.ResourceClassTaskAllocation;
+import org.woped.quantana.resourcealloc.ResourceClassTaskAllocationTable;
+
+/**
+ * Computes how often each node of a workflow net is run for a given amount of cases, without a user
+ * interface.
+ *
+ * <p>The runs of a node are the runs of its predecessors weighted with the probabilities of the
+ * arcs. An AND join only counts the arcs of its first predecessor, since all its input branches
+ * carry the same flow. This gives the linear system {@code x = b + A x} with {@code b} the cases at
+ * the start place. {@link #calculateNumOfRuns(double)} solves it exactly: the strongly connected
+ * components of the net are solved in topological order, each loop by Gaussian elimination of its
+ * own nodes only.
+ *
+ * <p>{@link #unfold(double, double)} approximates the same values by unfolding the net with a
+ * worklist: the flow that arrived at a node since it was last visited is passed on to its
+ * successors, flows below a threshold are dropped. In a loop that is never left the flow does not
+ * shrink, so the unfolding stops after a maximum amount of visits and is reported as truncated, see
+ * {@link #isTruncated()}.
+ */
+public class CapacityAnalysis {
+
+  /** The amount of visits after which {@link #unfold(double, double)} stops. */
+  public static final int DEFAULT_MAX_VISITS = 10000000;
+
+  // a pivot below this value makes a loop singular
+  private static final double SINGULAR = 1e-12;
+
+  private final Node[] nodes;
+  private final int start;
+  // the arcs counted for the runs in compressed row form: the arcs into node v are
+  // sources[inStart[v]] to sources[inStart[v + 1] - 1]
+  private int[] inStart;
+  private int[] sources;
+  private double[] probabilities;
+  // the arcs counted for the runs by their source
+  private int[][] targets;
+  private double[][] targetProbabilities;
+  // whether the last unfolding stopped before all flows were below the threshold
+  private boolean truncated = false;
+
+  /**
+   * @param graph the net to analyze
+   */
+  public CapacityAnalysis(WorkflowNetGraph graph) {
+    this(graph.getNodeArray(), graph.getStartPlace());
+  }
+
+  /**
+   * @param nodes the nodes of the net with their successor arcs
+   * @param startPlace the node the cases start at
+   */
+  public CapacityAnalysis(Node[] nodes, Node startPlace) {
+    this.nodes = nodes.clone();
+    IdentityHashMap<Node, Integer> index = new IdentityHashMap<Node, Integer>();
+    for (int i = 0; i < nodes.length; i++) {
+      index.put(nodes[i], i);
+    }
+    start = index.get(startPlace);
+    indexArcs(index);
+  }
+
+  private void indexArcs(IdentityHashMap<Node, Integer> index) {
+    int n = nodes.length;
+    // the predecessor whose arcs an AND join counts
+    int[] joinSource = new int[n];
+    Arrays.fill(joinSource, -1);
+    int[] inCount = new int[n];
+    targets = new int[n][];
+    targetProbabilities = new double[n][];
+    for (int u = 0; u < n; u++) {
+      ArrayList<Arc> arcs = nodes[u].getSuccessor();
+      int[] t = new int[arcs.size()];
+      double[] p = new double[arcs.size()];
+      int count = 0;
+      for (Arc a : arcs) {
+        Integer v = index.get(a.getTarget());
+        if (v == null) continue;
+        if (nodes[v].isAndJoin()) {
+          if (joinSource[v] < 0) joinSource[v] = u;
+          if (joinSource[v] != u) continue;
+        }
+        t[count] = v;
+        p[count] = a.getProbability();
+        count++;
+        inCount[v]++;
+      }
+      targets[u] = Arrays.copyOf(t, count);
+      targetProbabilities[u] = Arrays.copyOf(p, count);
+    }
+
+    inStart = new int[n + 1];
+    for (int v = 0; v < n; v++) {
+      inStart[v + 1] = inStart[v] + inCount[v];
+    }
+    sources = new int[inStart[n]];
+    probabilities = new double[inStart[n]];
+    int[] next = Arrays.copyOf(inStart, n);
+    for (int u = 0; u < n; u++) {
+      for (int i = 0; i < targets[u].length; i++) {
+        int v = targets[u][i];
+        sources[next[v]] = u;
+        probabilities[next[v]++] = targetProbabilities[u][i];
+      }
+    }
+  }
+
+  /**
+   * Computes the exact runs of all nodes and stores them with {@link Node#setNumOfRuns(double)}.
+   *
+   * @param lambda the amount of cases starting at the start place
+   * @throws IllegalStateException if the cases cannot leave a loop, the runs are then infinite
+   */
+  public void calculateNumOfRuns(double lambda) {
+    double[] runs = new double[nodes.length];
+    int[] component = new int[nodes.length];
+    List<int[]> components = findComponents(component);
+    // the components are found in reverse topological order
+    for (int c = components.size() - 1; c >= 0; c--) {
+      int[] members = components.get(c);
+      if (members.length == 1 && !hasSelfLoop(members[0])) {
+        int v = members[0];
+        runs[v] = external(v, lambda, runs, component);
+      } else {
+        solveLoop(members, lambda, runs, component);
+      }
+    }
+    for (int v = 0; v < nodes.length; v++) {
+      nodes[v].setNumOfRuns(runs[v]);
+    }
+  }
+
+  // the runs of a node from outside of its component
+  private double external(int v, double lambda, double[] runs, int[] component) {
+    double result = v == start ? lambda : 0;
+    for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+      if (component[sources[i]] != component[v]) {
+        result += probabilities[i] * runs[sources[i]];
+      }
+    }
+    return result;
+  }
+
+  private boolean hasSelfLoop(int v) {
+    for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+      if (sources[i] == v) return true;
+    }
+    return false;
+  }
+
+  // solves (I - A) x = b for the nodes of a loop with Gaussian elimination
+  private void solveLoop(int[] members, double lambda, double[] runs, int[] component) {
+    int k = members.length;
+    HashMap<Integer, Integer> position = new HashMap<Integer, Integer>();
+    for (int i = 0; i < k; i++) {
+      position.put(members[i], i);
+    }
+    double[][] m = new double[k][k + 1];
+    for (int row = 0; row < k; row++) {
+      int v = members[row];
+      m[row][row] = 1;
+      m[row][k] = external(v, lambda, runs, component);
+      for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+        if (component[sources[i]] == component[v]) {
+          m[row][position.get(sources[i])] -= probabilities[i];
+        }
+      }
+    }
+
+    for (int col = 0; col < k; col++) {
+      int pivot = col;
+      for (int row = col + 1; row < k; row++) {
+        if (Math.abs(m[row][col]) > Math.abs(m[pivot][col])) pivot = row;
+      }
+      if (Math.abs(m[pivot][col]) < SINGULAR) {
+        throw new IllegalStateException(
+            "The loop of " + nodes[members[col]].getId() + " is never left");
+      }
+      double[] tmp = m[col];
+      m[col] = m[pivot];
+      m[pivot] = tmp;
+      for (int row = 0; row < k; row++) {
+        if (row == col || m[row][col] == 0) continue;
+        double factor = m[row][col] / m[col][col];
+        for (int j = col; j <= k; j++) {
+          m[row][j] -= factor * m[col][j];
+        }
+      }
+    }
+    for (int row = 0; row < k; row++) {
+      runs[members[row]] = m[row][k] / m[row][row];
+    }
+  }
+
+  /**
+   * Finds the strongly connected components with Tarjan's algorithm without recursion.
+   *
+   * @param component is filled with the index of the component of each node
+   * @return the nodes of each component in reverse topological order
+   */
+  private List<int[]> findComponents(int[] component) {
+    int n = nodes.length;
+    int[] order = new int[n];
+    int[] low = new int[n];
+    Arrays.fill(order, -1);
+    int[] stack = new int[n];
+    boolean[] onStack = new boolean[n];
+    int stackSize = 0;
+    // the call stack: the node and the next of its arcs
+    int[] callNode = new int[n];
+    int[] callArc = new int[n];
+    int counter = 0;
+    List<int[]> result = new ArrayList<int[]>();
+
+    for (int root = 0; root < n; root++) {
+      if (order[root] >= 0) continue;
+      int depth = 0;
+      callNode[0] = root;
+      callArc[0] = 0;
+      order[root] = low[root] = counter++;
+      stack[stackSize++] = root;
+      onStack[root] = true;
+      while (depth >= 0) {
+        int u = callNode[depth];
+        if (callArc[depth] < targets[u].length) {
+          int v = targets[u][callArc[depth]++];
+          if (order[v] < 0) {
+            order[v] = low[v] = counter++;
+            stack[stackSize++] = v;
+            onStack[v] = true;
+            depth++;
+            callNode[depth] = v;
+            callArc[depth] = 0;
+          } else if (onStack[v]) {
+            low[u] = Math.min(low[u], order[v]);
+          }
+        } else {
+          if (low[u] == order[u]) {
+            int size = 0;
+            while (stack[stackSize - 1 - size] != u) size++;
+            int[] members = Arrays.copyOfRange(stack, stackSize - size - 1, stackSize);
+            stackSize -= members.length;
+            for (int v : members) {
+              onStack[v] = false;
+              component[v] = result.size();
+            }
+            result.add(members);
+          }
+          depth--;
+          if (depth >= 0) {
+            int parent = callNode[depth];
+            low[parent] = Math.min(low[parent], low[u]);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Approximates the runs of all nodes by unfolding the net and stores them with {@link
+   * Node#setNumOfRuns(double)}.
+   *
+   * @param lambda the amount of cases starting at the start place
+   * @param epsilon the smallest flow passed on to a successor
+   * @return the amount of nodes of the unfolded net
+   * @see #unfold(double, double, int)
+   */
+  public int unfold(double lambda, double epsilon) {
+    return unfold(lambda, epsilon, DEFAULT_MAX_VISITS);
+  }
+
+  /**
+   * Approximates the runs of all nodes by unfolding the net and stores them with {@link
+   * Node#setNumOfRuns(double)}. The unfolding stops after the maximum amount of visits, the runs
+   * are then too small, see {@link #isTruncated()}.
+   *
+   * @param lambda the amount of cases starting at the start place
+   * @param epsilon the smallest flow passed on to a successor
+   * @param maxVisits the maximum amount of nodes of the unfolded net
+   * @return the amount of nodes of the unfolded net
+   */
+  public int unfold(double lambda, double epsilon, int maxVisits) {
+    int n = nodes.length;
+    double[] runs = new double[n];
+    // the flow that arrived since the node was last visited
+    double[] pending = new double[n];
+    boolean[] queued = new boolean[n];
+    ArrayDeque<Integer> worklist = new ArrayDeque<Integer>();
+    pending[start] = lambda;
+    queued[start] = true;
+    worklist.add(start);
+    int visits = 0;
+
+    while (!worklist.isEmpty() && visits < maxVisits) {
+      int u = worklist.removeFirst();
+      queued[u] = false;
+      double flow = pending[u];
+      pending[u] = 0;
+      runs[u] += flow;
+      visits++;
+      for (int i = 0; i < targets[u].length; i++) {
+        double val = targetProbabilities[u][i] * flow;
+        if (val >= epsilon) {
+          int v = targets[u][i];
+          pending[v] += val;
+          if (!queued[v]) {
+            queued[v] = true;
+            worklist.addLast(v);
+          }
+        }
+      }
+    }
+    truncated = !worklist.isEmpty();
+    for (int v = 0; v < n; v++) {
+      nodes[v].setNumOfRuns(runs[v]);
+    }
+    return visits;
+  }
+
+  /**
+   * @return true if the last unfolding stopped at the maximum amount of visits
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * Sums up the work of the tasks of each resource class.
+   *
+   * @param allocation the tasks of the resource classes
+   * @param tasks the names of the tasks
+   * @param work the work of each task, e.g. per period
+   * @return the work of each resource class in the order of the allocation
+   */
+  public static double[] getWorkloads(
+      ResourceClassTaskAllocationTable allocation, String[] tasks, double[] work) {
+    HashMap<String, Integer> index = new HashMap<String, Integer>();
+    for (int i = 0; i < tasks.length; i++) {
+      index.put(tasks[i], i);
+    }
+    ArrayList<ResourceClassTaskAllocation> table = allocation.getTable();
+    double[] result = new double[table.size()];
+    for (int i = 0; i < result.length; i++) {
+      for (String task : table.get(i).getTasks()) {
+        Integer idx = index.get(task);
+        if (idx != null) result[i] += work[idx];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param workload the work of a resource class per period
+   * @param period the length of the period
+   * @param utilization the planned utilization of the resources, e.g. 0.8
+   * @return the amount of resources needed
+   */
+  public static double getRequiredResources(double workload, double period, double utilization) {
+    return (workload / period) / utilization;
+  }
+}
@@ -11,7 +11,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Vector;
@@ -29,10 +28,8 @@ import org.woped.core.model.petrinet.TransitionModel;
 import org.woped.core.utilities.LoggerManager;
 import org.woped.gui.translations.Messages;
 import org.woped.quantana.Constants;
-import org.woped.quantana.graph.Arc;
-import org.woped.quantana.graph.Key;
+import org.woped.quantana.graph.CapacityAnalysis;
 import org.woped.quantana.graph.Node;
-import org.woped.quantana.graph.NodePair;
 import org.woped.quantana.graph.WorkflowNetGraph;
 import org.woped.quantana.model.ResTableModel;
 import org.woped.quantana.model.TasksTableModel;
@@ -40,7 +37,6 @@ import org.woped.quantana.model.TimeModel;
 import org.woped.quantana.resourcealloc.AllocationTable;
 import org.woped.quantana.resourcealloc.ResourceAllocation;
 import org.woped.quantana.resourcealloc.ResourceClassTaskAllocation;
-import org.woped.quantana.resourcealloc.ResourceClassTaskAllocationTable;
 
 public class CapacityAnalysisDialog extends JDialog {
 
@@ -86,7 +82,10 @@ public class CapacityAnalysisDialog extends JDialog {
 
   private int currUtil = 80;
 
-  private HashMap<Key, Node> unfoldedNet = new HashMap<Key, Node>();
+  private CapacityAnalysis analysis;
+
+  // why the runs could not be computed, null if they were solved exactly
+  private String runsProblem = null;
 
   private String[] colTasks = {
     Messages.getString("QuantAna.CapacityPlanning.Column.Taskname"),
@@ -179,6 +178,7 @@ public class CapacityAnalysisDialog extends JDialog {
     super(owner, Messages.getTitle("QuantAna.CapacityPlanning"), true);
     this.editor = editor;
     graph = new WorkflowNetGraph(editor);
+    analysis = new CapacityAnalysis(graph);
     numTransGT0 = graph.getNumTransitionsGT0();
     // calculateNumOfRuns();
     initResourceAlloc();
@@ -751,78 +751,18 @@ public class CapacityAnalysisDialog extends JDialog {
   }
 
   private void calculateNumOfRuns() {
-
-    LoggerManager.info(Constants.QUANTANA_LOGGER, "Epsilon: " + epsilon);
-    unfoldNet(graph, lambda, epsilon);
-
-    Node[] origNet = graph.getNodeArray();
-    for (Key k : unfoldedNet.keySet()) {
-      String id = k.getId();
-      Node n = origNet[graph.getNodeIdx(id)];
-      n.setNumOfRuns(n.getNumOfRuns() + k.getRuns());
-    }
-  }
-
-  private void unfoldNet(WorkflowNetGraph g, double l, double e) {
-    unfoldedNet.clear();
-    for (Node n : g.getNodeArray()) {
-      if (n.isJoinReached()) n.setJoinReached(false);
-
-      n.setNumOfRuns(0);
-    }
-
-    Node s = g.getStartPlace();
-    Node n = new Node(s.getId(), s.getName());
-    n.setTempRuns(lambda);
-    s.incIteration();
-    n.setIteration(s.getIteration());
-    Key start = new Key(n.getId(), lambda);
-    unfoldedNet.put(start, n);
-
-    LinkedList<NodePair> queue = new LinkedList<NodePair>();
-    queue.addLast(new NodePair(s, n));
-    runThroughNet(queue);
-  }
-
-  // rekursive Funktion mit Breitensuche
-  private void runThroughNet(LinkedList<NodePair> q) {
-    if (!(q.isEmpty())) {
-      NodePair np = q.removeFirst();
-
-      for (Arc a : np.getFirst().getSuccessor()) {
-        Node m = a.getTarget();
-        if (!m.isJoinReached()) {
-          double val = a.getProbability() * np.getSecond().getTempRuns();
-          if (val >= epsilon) {
-            Node y = new Node(m.getId(), m.getName());
-            y.setTempRuns(val);
-            m.incIteration();
-            y.setIteration(m.getIteration());
-            if (m.isAndJoin()) m.setJoinReached(true);
-            np.getSecond().getSuccessor().add(new Arc(y, a.getProbability()));
-            Key k = new Key(m.getId(), val);
-            unfoldedNet.put(k, y);
-
-            if (!(containsElement(q, m))) q.addLast(new NodePair(m, y));
-          }
-        }
-      }
-
-      runThroughNet(q);
-    }
-  }
-
-  private boolean containsElement(LinkedList<NodePair> q, Node n) {
-    boolean contains = false;
-    Iterator<NodePair> i = q.iterator();
-    while (i.hasNext()) {
-      NodePair p = i.next();
-      if (n.equals(p.getSecond())) {
-        contains = true;
-        break;
+    try {
+      analysis.calculateNumOfRuns(lambda);
+      runsProblem = null;
+    } catch (IllegalStateException e) {
+      // the runs of a loop that is never left are infinite
+      LoggerManager.info(Constants.QUANTANA_LOGGER, e.getMessage());
+      runsProblem = e.getMessage();
+      for (Node n : graph.getNodeArray()) {
+        n.setNumOfRuns(0);
       }
+      JOptionPane.showMessageDialog(this, runsProblem, getTitle(), JOptionPane.WARNING_MESSAGE);
     }
-    return contains;
   }
 
   private void initResourceAlloc() {
@@ -965,7 +905,6 @@ public class CapacityAnalysisDialog extends JDialog {
 
   public void updContents() {
     Object[][] tb = tableTasksMatrix;
-    Object[][] tr = tableResMatrix;
     double sumCase = 0.0;
     double sumPeriod = 0.0;
 
@@ -1014,33 +953,17 @@ public class CapacityAnalysisDialog extends JDialog {
         String.format("%15." + currPrec + "f", sumPeriod); // Double.valueOf(sumPeriod);
     tmTasks.fireTableCellUpdated(numTransGT0, 5);
 
-    ResourceClassTaskAllocationTable rcta = resAlloc.getResClsTskAlloc();
-
-    for (int i = 0; i < numResCls; i++) {
-      double sum = 0.0;
-      ArrayList<String> min = rcta.getTable().get(i).getTasks();
-      for (int j = 0; j < min.size(); j++) {
-        int idx = -1;
-        for (int k = 0; k < numTransGT0; k++) {
-          if (((String) tb[k][0]).equals(min.get(j))) idx = k;
-        }
-
-        if (idx != -1) sum += tasksMatrix[idx][4];
-      }
-
-      double numRes = (sum / period) / (currUtil / 100.0);
-      resMatrix[i][0] = sum;
-      resMatrix[i][1] = numRes;
+    updResAlloc();
 
-      tr[i][1] = String.format("%15." + currPrec + "f", sum);
-      tmRes.fireTableCellUpdated(i, 1);
-      tr[i][2] = String.format("%15." + currPrec + "f", numRes);
-      tmRes.fireTableCellUpdated(i, 2);
+    if (runsProblem != null) {
+      lblUnfolding.setText("The runs cannot be computed: " + runsProblem + ".");
+      lblDeviation.setText("");
+    } else {
+      lblUnfolding.setText("The runs were solved exactly.");
+      String dev =
+          String.format("%+6.1f", (1 - graph.getSinkPlace().getNumOfRuns() / lambda) * 100);
+      lblDeviation.setText("The relative deviation is (estimated): " + dev + "%");
     }
-
-    lblUnfolding.setText("The unfolded net has " + unfoldedNet.size() + " nodes.");
-    String dev = String.format("%+6.1f", (1 - graph.getSinkPlace().getNumOfRuns() / lambda) * 100);
-    lblDeviation.setText("The relative deviation is (estimated): " + dev + "%");
   }
 
   private void updPrecision() {
@@ -1064,23 +987,19 @@ public class CapacityAnalysisDialog extends JDialog {
   }
 
   private void updResAlloc() {
-    ResourceClassTaskAllocationTable rcta = resAlloc.getResClsTskAlloc();
     Object[][] tb = tableTasksMatrix;
     Object[][] tr = tableResMatrix;
+    String[] tasks = new String[numTransGT0];
+    double[] work = new double[numTransGT0];
+    for (int k = 0; k < numTransGT0; k++) {
+      tasks[k] = (String) tb[k][0];
+      work[k] = tasksMatrix[k][4];
+    }
+    double[] workloads = CapacityAnalysis.getWorkloads(resAlloc.getResClsTskAlloc(), tasks, work);
 
     for (int i = 0; i < numResCls; i++) {
-      double sum = 0.0;
-      ArrayList<String> min = rcta.getTable().get(i).getTasks();
-      for (int j = 0; j < min.size(); j++) {
-        int idx = -1;
-        for (int k = 0; k < numTransGT0; k++) {
-          if (((String) tb[k][0]).equals(min.get(j))) idx = k;
-        }
-
-        if (idx != -1) sum += tasksMatrix[idx][4];
-      }
-
-      double numRes = (sum / period) / (currUtil / 100.0);
+      double sum = workloads[i];
+      double numRes = CapacityAnalysis.getRequiredResources(sum, period, currUtil / 100.0);
       resMatrix[i][0] = sum;
       resMatrix[i][1] = numRes;
 
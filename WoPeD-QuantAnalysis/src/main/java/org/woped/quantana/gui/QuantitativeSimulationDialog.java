@@ -29,7 +29,6 @@ import java.util.EventObject;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Vector;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
@@ -58,12 +57,7 @@ import org.jgraph.JGraph;
 import org.woped.core.config.ConfigurationManager;
 import org.woped.core.config.DefaultStaticConfiguration;
 import org.woped.core.controller.IEditor;
-import org.woped.core.model.ModelElementContainer;
 import org.woped.core.model.PetriNetModelProcessor;
-import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
-import org.woped.core.model.petrinet.ResourceClassModel;
-import org.woped.core.model.petrinet.SubProcessModel;
-import org.woped.core.model.petrinet.TransitionModel;
 import org.woped.core.utilities.LoggerManager;
 import org.woped.gui.translations.Messages;
 import org.woped.quantana.Constants;
@@ -1645,57 +1639,12 @@ public class QuantitativeSimulationDialog extends JDialog
   }
 
   private void initResourceAlloc() {
-    PetriNetModelProcessor pmp = (PetriNetModelProcessor) editor.getModelProcessor();
-
-    ArrayList<String> roles = new ArrayList<String>();
-    ArrayList<String> groups = new ArrayList<String>();
-    Vector<ResourceClassModel> rVec = pmp.getRoles();
-    Vector<ResourceClassModel> gVec = pmp.getOrganizationUnits();
-
-    // groupRoleNum = rVec.size() + gVec.size();
-
-    for (int i = 0; i < rVec.size(); i++) roles.add(((ResourceClassModel) rVec.get(i)).getName());
-
-    for (int i = 0; i < gVec.size(); i++) groups.add(((ResourceClassModel) gVec.get(i)).getName());
-
-    Iterator<TransitionModel> iter = getTransModels().iterator();
-
-    resAlloc = new ResourceAllocation(roles, groups, iter, pmp);
+    resAlloc =
+        simgraph.createResourceAllocation((PetriNetModelProcessor) editor.getModelProcessor());
 
     resObjNum = resAlloc.getResources().size();
   }
 
-  private HashMap<String, AbstractPetriNetElementModel> getAllTransModels(
-      ModelElementContainer mec) {
-    HashMap<String, AbstractPetriNetElementModel> lst =
-        new HashMap<String, AbstractPetriNetElementModel>();
-    lst.putAll(mec.getElementsByType(AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE));
-    lst.putAll(mec.getElementsByType(AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE));
-    lst.putAll(mec.getElementsByType(AbstractPetriNetElementModel.SUBP_TYPE));
-    for (AbstractPetriNetElementModel p :
-        mec.getElementsByType(AbstractPetriNetElementModel.SUBP_TYPE).values()) {
-      lst.putAll(getAllTransModels(((SubProcessModel) p).getElementContainer()));
-    }
-    return lst;
-  }
-
-  private LinkedList<TransitionModel> getTransModels() {
-    HashMap<String, AbstractPetriNetElementModel> allTransitions =
-        getAllTransModels(editor.getModelProcessor().getElementContainer());
-    LinkedList<TransitionModel> lst = new LinkedList<TransitionModel>();
-    ArrayList<String> ids = new ArrayList<String>();
-    for (SimNode n : simgraph.getNodes().values()) {
-      if (n.isTransition()) ids.add(n.getid());
-    }
-    for (int i = 0; i < ids.size(); i++) {
-      String id = ids.get(i);
-      if (id.endsWith("_SubProcessExit") || id.endsWith("_SubProcessEntry"))
-        id = id.substring(0, id.lastIndexOf("_SubProcess"));
-      lst.add((TransitionModel) allTransitions.get(id));
-    }
-    return lst;
-  }
-
   public SimRunner getSimulator() {
     return sim;
   }
@@ -2,28 +2,43 @@ package org.woped.quantana.resourcealloc;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import org.woped.quantana.sim.stats.Tally;
 
 public class Resource {
   private String name;
   private ArrayList<String> roles = new ArrayList<String>();
   private ArrayList<String> groups = new ArrayList<String>();
-  private double busyTime = 0.0;
   private double lastStartTime = 0.0;
+  // the lengths of the busy periods
+  private Tally busyPeriods = new Tally();
 
   private Color color = Color.WHITE;
 
   public double getBusyTime() {
-    return busyTime;
+    return busyPeriods.getSum();
   }
 
   public void setBusyTime(double busy) {
-    this.busyTime = busy;
+    busyPeriods.reset();
+    if (busy != 0) busyPeriods.add(busy);
   }
 
   public Resource(String name) {
     this.name = name;
   }
 
+  /**
+   * Creates an unused copy of the resource with the same name, roles, groups and color.
+   *
+   * @param other the resource to copy
+   */
+  public Resource(Resource other) {
+    this.name = other.name;
+    this.roles = new ArrayList<String>(other.roles);
+    this.groups = new ArrayList<String>(other.groups);
+    this.color = other.color;
+  }
+
   public String getName() {
     return name;
   }
@@ -65,11 +80,29 @@ public class Resource {
   }
 
   public void updStats(double time) {
-    busyTime += time - lastStartTime;
+    busyPeriods.add(time - lastStartTime);
+  }
+
+  /**
+   * @return the lengths of the busy periods since the start of the statistics
+   */
+  public Tally getBusyPeriods() {
+    return busyPeriods;
   }
 
   public void reset() {
-    busyTime = 0;
     lastStartTime = 0;
+    busyPeriods.reset();
+  }
+
+  /**
+   * Restarts the busy time at the end of the warm-up period of a simulation. If the resource is
+   * used, only the time after the warm-up period is counted.
+   *
+   * @param time the end of the warm-up period
+   */
+  public void deleteWarmUp(double time) {
+    busyPeriods.reset();
+    lastStartTime = Math.max(lastStartTime, time);
   }
 }
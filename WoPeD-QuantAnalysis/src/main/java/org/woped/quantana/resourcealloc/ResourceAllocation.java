@@ -85,6 +85,26 @@ public class ResourceAllocation {
     }
   }
 
+  private ResourceAllocation(ResourceAllocation other) {
+    roles = other.roles;
+    groups = other.groups;
+    taskAlloc2 = other.taskAlloc2;
+    proc = other.proc;
+    resClsTskAlloc = other.resClsTskAlloc;
+    colorFactory = other.colorFactory;
+    for (Resource r : other.resources.values()) resources.put(r.getName(), new Resource(r));
+  }
+
+  /**
+   * Copies the allocation for a single simulation run. The copy has its own resources, so the run
+   * can change their state without affecting other runs. The allocation tables are shared.
+   *
+   * @return the copy
+   */
+  public ResourceAllocation copy() {
+    return new ResourceAllocation(this);
+  }
+
   public ArrayList<String> getGroups() {
     return groups;
   }
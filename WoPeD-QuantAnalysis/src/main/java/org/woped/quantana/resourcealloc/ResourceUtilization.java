@@ -1,9 +1,9 @@
 package org.woped.quantana.resourcealloc;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.Random;
+import umontreal.iro.lecuyer.rng.MRG32k3a;
+import umontreal.iro.lecuyer.rng.RandomStream;
 
 public class ResourceUtilization {
 
@@ -12,9 +12,17 @@ public class ResourceUtilization {
   private HashMap<String, Resource> reservedResources = new HashMap<String, Resource>();
 
   private ResourceAllocation resAlloc;
-  private Random choice;
+  private RandomStream choice;
 
   public ResourceUtilization(ResourceAllocation resAlloc) {
+    this(resAlloc, new MRG32k3a());
+  }
+
+  /**
+   * @param resAlloc the resources to utilize
+   * @param choice the stream used to choose among free resources
+   */
+  public ResourceUtilization(ResourceAllocation resAlloc, RandomStream choice) {
     this.resAlloc = resAlloc;
     HashMap<String, Resource> resources = this.resAlloc.getResources();
 
@@ -22,7 +30,7 @@ public class ResourceUtilization {
 
     for (Resource r : freeResources.values()) r.setBusyTime(0.0);
 
-    choice = new Random(new Date().getTime());
+    this.choice = choice;
   }
 
   public HashMap<String, Resource> getFreeResources() {
@@ -72,7 +80,7 @@ public class ResourceUtilization {
     int resNum = list.size();
 
     if (resNum > 0) {
-      int rnd = choice.nextInt(resNum);
+      int rnd = choice.nextInt(0, resNum - 1);
       r = list.get(rnd);
     }
 
@@ -85,7 +93,7 @@ public class ResourceUtilization {
     int resNum = list.size();
 
     if (resNum > 0) {
-      int rnd = choice.nextInt(resNum);
+      int rnd = choice.nextInt(0, resNum - 1);
       r = list.get(rnd);
     }
 
@@ -98,7 +106,7 @@ public class ResourceUtilization {
     int resNum = list.size();
 
     if (resNum > 0) {
-      int rnd = choice.nextInt(resNum);
+      int rnd = choice.nextInt(0, resNum - 1);
       r = list.get(rnd);
     }
 
@@ -44,10 +44,15 @@ public class SimArriveEvent extends SimulatorEvent {
         s.incCntTmpCaseParallel();
       } else {
         s.getQueue().add(c);
-        s.updateQueue(time, 1);
+        s.updateQueue(time);
         sim.addQueueServer(s);
       }
     }
     sim.decCntArrival();
   }
+
+  @Override
+  int getType() {
+    return EVT_ARRIVE;
+  }
 }
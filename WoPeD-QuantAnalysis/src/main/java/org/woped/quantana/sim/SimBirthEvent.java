@@ -16,4 +16,9 @@ public class SimBirthEvent extends SimulatorEvent {
       sim.addEvent(e);
     }
   }
+
+  @Override
+  int getType() {
+    return EVT_BIRTH;
+  }
 }
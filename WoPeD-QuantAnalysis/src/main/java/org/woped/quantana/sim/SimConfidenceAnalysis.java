@@ -0,0 +1,163 @@
+package org.woped.quantana.sim;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import org.woped.quantana.sim.stats.Tally;
+import umontreal.iro.lecuyer.probdist.StudentDist;
+
+/**
+ * Collects key figures over the replications of a simulation and computes their Student t
+ * confidence intervals.
+ *
+ * <p>Each key figure is named, e.g. {@link #COMPLETION_TIME} or {@link #waitTime(String)}, and gets
+ * one value per replication, collected in a {@link Tally}.
+ *
+ * <p>The precision of a key figure is the half width relative to its mean. The wait times are
+ * relative to the mean completion time instead, since a wait time close to 0 cannot be estimated to
+ * a relative precision.
+ */
+public class SimConfidenceAnalysis {
+
+  /** The key figure of the average completion time of the cases. */
+  public static final String COMPLETION_TIME = "completionTime";
+
+  private final double confidence;
+  private final LinkedHashMap<String, Tally> figures = new LinkedHashMap<String, Tally>();
+  // the key figures the precision is relative to, if not the key figure itself
+  private final HashMap<String, String> references = new HashMap<String, String>();
+
+  /**
+   * @param confidence the confidence level, e.g. 0.95
+   */
+  public SimConfidenceAnalysis(double confidence) {
+    this.confidence = confidence;
+  }
+
+  /**
+   * @param serverId the id of a server
+   * @return the key figure of the average wait time at the server
+   */
+  public static String waitTime(String serverId) {
+    return "waitTime " + serverId;
+  }
+
+  /**
+   * @param figure the name of a key figure
+   * @param reference the key figure whose mean the half width of the figure is compared with
+   */
+  public void setReference(String figure, String reference) {
+    references.put(figure, reference);
+  }
+
+  /**
+   * @param resource the name of a resource
+   * @return the key figure of the utilization of the resource
+   */
+  public static String utilization(String resource) {
+    return "utilization " + resource;
+  }
+
+  /**
+   * @param figure the name of the key figure
+   * @param value the value of one replication
+   */
+  public void add(String figure, double value) {
+    Tally f = figures.get(figure);
+    if (f == null) {
+      f = new Tally();
+      figures.put(figure, f);
+    }
+    f.add(value);
+  }
+
+  /**
+   * @return the names of the key figures in the order they were added first
+   */
+  public Set<String> getFigures() {
+    return figures.keySet();
+  }
+
+  /**
+   * @param figure the name of the key figure
+   * @return the amount of values
+   */
+  public int getCount(String figure) {
+    Tally f = figures.get(figure);
+    return f == null ? 0 : (int) f.getCount();
+  }
+
+  /**
+   * @param figure the name of the key figure
+   * @return the mean of the values, NaN if there is none
+   */
+  public double getMean(String figure) {
+    Tally f = figures.get(figure);
+    return f == null ? Double.NaN : f.getMean();
+  }
+
+  /**
+   * @param figure the name of the key figure
+   * @return the half width of the confidence interval of the mean, NaN if there are less than two
+   *     values
+   */
+  public double getHalfWidth(String figure) {
+    Tally f = figures.get(figure);
+    if (f == null || f.getCount() < 2) {
+      return Double.NaN;
+    }
+    long n = f.getCount();
+    double t = StudentDist.inverseF((int) n - 1, (1 + confidence) / 2);
+    return t * Math.sqrt(f.getVariance() / n);
+  }
+
+  /**
+   * Checks the relative half widths of all key figures with at least two values. A key figure with
+   * the mean 0 is precise if all its values are 0.
+   *
+   * @param precision the largest relative half width, e.g. 0.05
+   * @return true if there is a key figure with two values and all are precise enough
+   */
+  public boolean isPrecise(double precision) {
+    boolean result = false;
+    for (String figure : figures.keySet()) {
+      double halfWidth = getHalfWidth(figure);
+      if (!Double.isNaN(halfWidth)) {
+        if (halfWidth > target(figure, precision)) {
+          return false;
+        }
+        result = true;
+      }
+    }
+    return result;
+  }
+
+  // the largest half width of a key figure
+  private double target(String figure, double precision) {
+    String reference = references.containsKey(figure) ? references.get(figure) : figure;
+    return precision * Math.abs(getMean(reference));
+  }
+
+  /**
+   * Estimates the amount of values needed to reach a precision, assuming that the variance stays
+   * the same. The half width shrinks with the square root of the amount.
+   *
+   * @param precision the largest relative half width
+   * @return the estimated amount of values of the least precise key figure
+   */
+  public int getRequiredCount(double precision) {
+    int result = 0;
+    for (String figure : figures.keySet()) {
+      double halfWidth = getHalfWidth(figure);
+      double target = target(figure, precision);
+      if (Double.isNaN(halfWidth)) {
+        result = Math.max(result, 2);
+      } else if (halfWidth > target) {
+        double ratio = target > 0 ? halfWidth / target : Double.POSITIVE_INFINITY;
+        double required = Math.ceil(getCount(figure) * ratio * ratio);
+        result = (int) Math.max(result, Math.min(required, Integer.MAX_VALUE));
+      }
+    }
+    return result;
+  }
+}
@@ -13,4 +13,9 @@ public class SimDeathEvent extends SimulatorEvent {
     sim.finishCase(Case);
     Case = null;
   }
+
+  @Override
+  int getType() {
+    return EVT_DEATH;
+  }
 }
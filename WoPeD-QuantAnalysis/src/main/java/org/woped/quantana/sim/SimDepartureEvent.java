@@ -30,4 +30,9 @@ public class SimDepartureEvent extends SimulatorEvent {
       }
     }
   }
+
+  @Override
+  int getType() {
+    return EVT_DEPARTURE;
+  }
 }
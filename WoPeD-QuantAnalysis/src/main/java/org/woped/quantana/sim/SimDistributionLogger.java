@@ -18,6 +18,10 @@ public class SimDistributionLogger {
     }
   }
 
+  public void addAll(SimDistributionLogger other) {
+    for (int i = 0; i < values.length; i++) values[i] += other.values[i];
+  }
+
   public int[] getValues() {
     return values;
   }
@@ -0,0 +1,150 @@
+package org.woped.quantana.sim;
+
+import java.util.Arrays;
+
+/**
+ * The scheduled events of a simulation run, ordered by time.
+ *
+ * <p>The calendar is a binary heap over parallel arrays, the times are compared as primitive
+ * values. Events with the same time are returned in the order in which they were added. Every
+ * scheduled event knows its position in the heap, so removing it before it is due takes {@code
+ * O(log n)}, like adding it and taking the next event.
+ */
+public class SimEventCalendar {
+
+  private double[] times = new double[64];
+  // the number of the add operation, orders events with the same time
+  private long[] order = new long[times.length];
+  private SimulatorEvent[] events = new SimulatorEvent[times.length];
+  private int size = 0;
+  private long added = 0;
+
+  /**
+   * @param e an event that is not scheduled yet
+   */
+  public void add(SimulatorEvent e) {
+    if (e.index >= 0) {
+      throw new IllegalStateException("The event " + e.getName() + " is already scheduled");
+    }
+    if (size == events.length) {
+      int capacity = 2 * size;
+      times = Arrays.copyOf(times, capacity);
+      order = Arrays.copyOf(order, capacity);
+      events = Arrays.copyOf(events, capacity);
+    }
+    siftUp(size++, e.time, added++, e);
+  }
+
+  /**
+   * @return the next event without removing it, null if the calendar is empty
+   */
+  public SimulatorEvent peek() {
+    return size == 0 ? null : events[0];
+  }
+
+  /**
+   * @return the next event, null if the calendar is empty
+   */
+  public SimulatorEvent poll() {
+    if (size == 0) {
+      return null;
+    }
+    SimulatorEvent result = events[0];
+    removeAt(0);
+    return result;
+  }
+
+  /**
+   * Cancels a scheduled event.
+   *
+   * @param e the event
+   * @return false if the event is not scheduled in this calendar
+   */
+  public boolean remove(SimulatorEvent e) {
+    int i = e.index;
+    if (i < 0 || i >= size || events[i] != e) {
+      return false;
+    }
+    removeAt(i);
+    return true;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      events[i].index = -1;
+      events[i] = null;
+    }
+    size = 0;
+  }
+
+  /**
+   * @return the scheduled events in no particular order
+   */
+  public SimulatorEvent[] toArray() {
+    return Arrays.copyOf(events, size);
+  }
+
+  private void removeAt(int i) {
+    events[i].index = -1;
+    int last = --size;
+    SimulatorEvent moved = events[last];
+    events[last] = null;
+    if (i == last) {
+      return;
+    }
+    double time = times[last];
+    long number = order[last];
+    siftDown(i, time, number, moved);
+    if (events[i] == moved) {
+      siftUp(i, time, number, moved);
+    }
+  }
+
+  private void siftUp(int i, double time, long number, SimulatorEvent e) {
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!before(time, number, times[parent], order[parent])) {
+        break;
+      }
+      set(i, times[parent], order[parent], events[parent]);
+      i = parent;
+    }
+    set(i, time, number, e);
+  }
+
+  private void siftDown(int i, double time, long number, SimulatorEvent e) {
+    int half = size >>> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      int right = child + 1;
+      if (right < size && before(times[right], order[right], times[child], order[child])) {
+        child = right;
+      }
+      if (!before(times[child], order[child], time, number)) {
+        break;
+      }
+      set(i, times[child], order[child], events[child]);
+      i = child;
+    }
+    set(i, time, number, e);
+  }
+
+  private void set(int i, double time, long number, SimulatorEvent e) {
+    times[i] = time;
+    order[i] = number;
+    events[i] = e;
+    e.index = i;
+  }
+
+  private static boolean before(double time, long number, double otherTime, long otherNumber) {
+    return time < otherTime || (time == otherTime && number < otherNumber);
+  }
+}
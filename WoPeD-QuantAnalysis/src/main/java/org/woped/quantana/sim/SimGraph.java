@@ -1,14 +1,18 @@
 package org.woped.quantana.sim;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Vector;
 import javax.swing.JOptionPane;
 import org.woped.core.controller.IEditor;
 import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.PetriNetModelProcessor;
 import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
 import org.woped.core.model.petrinet.OperatorTransitionModel;
+import org.woped.core.model.petrinet.ResourceClassModel;
 import org.woped.core.model.petrinet.SubProcessModel;
 import org.woped.core.model.petrinet.TransitionModel;
 import org.woped.core.model.petrinet.TransitionResourceModel;
@@ -16,19 +20,30 @@ import org.woped.core.model.petrinet.TriggerModel;
 import org.woped.gui.translations.Messages;
 import org.woped.qualanalysis.service.IQualanalysisService;
 import org.woped.qualanalysis.service.QualAnalysisServiceFactory;
+import org.woped.quantana.resourcealloc.ResourceAllocation;
 
 public class SimGraph {
   Map<String, SimNode> Nodes = new HashMap<String, SimNode>();
   ModelElementContainer supermec = null;
   SimNode sink = null;
   SimNode source = null;
+  Vector<String> resourceProblems = new Vector<String>();
 
   /**
-   * @param mec
-   * @param sa
-   * @param res
+   * Builds the graph of a net and shows a warning if a task has no resource.
+   *
+   * @param editor the editor of the net
    */
   public SimGraph(IEditor editor) {
+    this(editor, true);
+  }
+
+  /**
+   * @param editor the editor of the net
+   * @param showResourceProblems true to show a warning if a task has no resource, see {@link
+   *     #getResourceProblems()}
+   */
+  public SimGraph(IEditor editor, boolean showResourceProblems) {
     this.supermec = editor.getModelProcessor().getElementContainer();
     IQualanalysisService qualanService =
         QualAnalysisServiceFactory.createNewQualAnalysisService(editor);
@@ -38,20 +53,9 @@ public class SimGraph {
     el = qualanService.getSourcePlaces().iterator().next();
     source = Nodes.get(el.getId());
     resourceCheck(editor);
-  }
-
-  private void resourceCheck(IEditor editor) {
-    Vector<String> problemList = new Vector<String>();
-    for (SimNode n : Nodes.values()) {
-      if (n.hasResource()) {
-        if (numResources(editor, n.getrole(), n.getgroup()) < 1) {
-          problemList.add(n.getname());
-        }
-      }
-    }
-    if (problemList.size() > 0) {
+    if (showResourceProblems && resourceProblems.size() > 0) {
       String MsgText = Messages.getString("QuantAna.Simulation.resourceProblem");
-      for (String s : problemList) {
+      for (String s : resourceProblems) {
         MsgText += "\n" + s;
       }
       JOptionPane.showMessageDialog(
@@ -62,6 +66,23 @@ public class SimGraph {
     }
   }
 
+  private void resourceCheck(IEditor editor) {
+    for (SimNode n : Nodes.values()) {
+      if (n.hasResource()) {
+        if (numResources(editor, n.getrole(), n.getgroup()) < 1) {
+          resourceProblems.add(n.getname());
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the names of the tasks that need a resource of a role and group without resources
+   */
+  public Vector<String> getResourceProblems() {
+    return resourceProblems;
+  }
+
   private int numResources(IEditor editor, String role, String group) {
     Vector<?> res = editor.getModelProcessor().getResources();
     int count = 0;
@@ -78,6 +99,44 @@ public class SimGraph {
     return count;
   }
 
+  /**
+   * Allocates the resources of the net to the tasks of the graph.
+   *
+   * @param pmp the model processor of the net
+   * @return the allocation of the resources to the tasks
+   */
+  public ResourceAllocation createResourceAllocation(PetriNetModelProcessor pmp) {
+    ArrayList<String> roles = new ArrayList<String>();
+    ArrayList<String> groups = new ArrayList<String>();
+    for (ResourceClassModel r : pmp.getRoles()) roles.add(r.getName());
+    for (ResourceClassModel g : pmp.getOrganizationUnits()) groups.add(g.getName());
+
+    Map<String, AbstractPetriNetElementModel> allTransitions = getAllTransModels(supermec);
+    LinkedList<TransitionModel> tasks = new LinkedList<TransitionModel>();
+    for (SimNode n : Nodes.values()) {
+      if (n.isTransition()) {
+        String id = n.getid();
+        if (id.endsWith("_SubProcessExit") || id.endsWith("_SubProcessEntry"))
+          id = id.substring(0, id.lastIndexOf("_SubProcess"));
+        tasks.add((TransitionModel) allTransitions.get(id));
+      }
+    }
+    return new ResourceAllocation(roles, groups, tasks.iterator(), pmp);
+  }
+
+  private Map<String, AbstractPetriNetElementModel> getAllTransModels(ModelElementContainer mec) {
+    Map<String, AbstractPetriNetElementModel> lst =
+        new HashMap<String, AbstractPetriNetElementModel>();
+    lst.putAll(mec.getElementsByType(AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE));
+    lst.putAll(mec.getElementsByType(AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE));
+    lst.putAll(mec.getElementsByType(AbstractPetriNetElementModel.SUBP_TYPE));
+    for (AbstractPetriNetElementModel p :
+        mec.getElementsByType(AbstractPetriNetElementModel.SUBP_TYPE).values()) {
+      lst.putAll(getAllTransModels(((SubProcessModel) p).getElementContainer()));
+    }
+    return lst;
+  }
+
   public String[] getTransitions() {
     Vector<String> transitions = new Vector<String>();
     for (SimNode n : Nodes.values()) {
@@ -34,7 +34,7 @@ public class SimJoinServer extends SimServer {
         incCntTmpCaseParallel();
       } else {
         getQueue().add(copy.getOriginal());
-        updateQueue(time, 1);
+        updateQueue(time);
         sim.addQueueServer(this);
       }
     }
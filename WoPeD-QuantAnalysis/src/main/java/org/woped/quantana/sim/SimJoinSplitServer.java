@@ -46,7 +46,7 @@ public class SimJoinSplitServer extends SimServer {
     c.setsplitTime(time);
     c.setcurrArrivalTime(time);
     while (slist.size() > 0) {
-      int idx = (int) (Math.random() * slist.size());
+      int idx = rand.nextInt(0, slist.size() - 1);
       SimServer s = slist.get(idx);
       SimCaseCopy cc = new SimCaseCopy(sim.getCaseMaker().getNextId(), c);
       cc.setcurrArrivalTime(time);
@@ -83,7 +83,7 @@ public class SimJoinSplitServer extends SimServer {
         incCntTmpCaseParallel();
       } else {
         getQueue().add(copy.getOriginal());
-        updateQueue(time, 1);
+        updateQueue(time);
         sim.addQueueServer(this);
       }
     }
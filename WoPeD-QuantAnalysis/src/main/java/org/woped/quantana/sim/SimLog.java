@@ -6,6 +6,33 @@ import java.util.Date;
 import java.util.HashMap;
 
 public class SimLog {
+  static final String XES_HEADER =
+      "<?xml version=\"1.0\"?>\n"
+          + "<log xmlns=\"http://www.xes-standard.org/\" xes.version=\"1.0\">\n"
+          + "	<extension name=\"Lifecycle\" prefix=\"lifecycle\""
+          + " uri=\"http://www.xes-standard.org/lifecycle.xesext\"/>\n"
+          + "	<extension name=\"Organizational\" prefix=\"org\""
+          + " uri=\"http://www.xes-standard.org/org.xesext\"/>\n"
+          + "	<extension name=\"Time\" prefix=\"time\""
+          + " uri=\"http://www.xes-standard.org/time.xesext\"/>\n"
+          + "	<extension name=\"Concept\" prefix=\"concept\""
+          + " uri=\"http://www.xes-standard.org/concept.xesext\"/>\n"
+          + "	<global scope=\"trace\">\n"
+          + "		<string key=\"concept:name\" value=\"UNKNOWN\"/>\n"
+          + "	</global>\n"
+          + "	<global scope=\"event\">\n"
+          + "		<date key=\"time:timestamp\" value=\"1970-01-01T00:00:00.000+00:00\"/>\n"
+          + "		<string key=\"lifecycle:transition\" value=\"UNKNOWN\"/>\n"
+          + "		<string key=\"concept:name\" value=\"UNKNOWN\"/>\n"
+          + "		<string key=\"org:resource\" value=\"UNKNOWN\"/>\n"
+          + "	</global>\n"
+          + "	<classifier name=\"Activity classifier\" keys=\"concept:name"
+          + " lifecycle:transition\"/>\n"
+          + "	<classifier name=\"Resource classifier\" keys=\"org:resource\"/>\n";
+  static final String XES_FOOTER = "</log>\n";
+  static final String CSV_HEADER =
+      "Case ID, Start Timestamp, Complete Timestamp, Activity, Resource\n";
+
   private HashMap<Integer, SimLogTrace> traces;
   private Date baseDate;
 
@@ -38,43 +65,29 @@ public class SimLog {
   }
 
   public void writeXES(PrintWriter p) {
-    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    SimpleDateFormat dateFormat = createXESDateFormat();
 
-    p.print(
-        "<?xml version=\"1.0\"?>\n"
-            + "<log xmlns=\"http://www.xes-standard.org/\" xes.version=\"1.0\">\n"
-            + "	<extension name=\"Lifecycle\" prefix=\"lifecycle\""
-            + " uri=\"http://www.xes-standard.org/lifecycle.xesext\"/>\n"
-            + "	<extension name=\"Organizational\" prefix=\"org\""
-            + " uri=\"http://www.xes-standard.org/org.xesext\"/>\n"
-            + "	<extension name=\"Time\" prefix=\"time\""
-            + " uri=\"http://www.xes-standard.org/time.xesext\"/>\n"
-            + "	<extension name=\"Concept\" prefix=\"concept\""
-            + " uri=\"http://www.xes-standard.org/concept.xesext\"/>\n"
-            + "	<global scope=\"trace\">\n"
-            + "		<string key=\"concept:name\" value=\"UNKNOWN\"/>\n"
-            + "	</global>\n"
-            + "	<global scope=\"event\">\n"
-            + "		<date key=\"time:timestamp\" value=\"1970-01-01T00:00:00.000+00:00\"/>\n"
-            + "		<string key=\"lifecycle:transition\" value=\"UNKNOWN\"/>\n"
-            + "		<string key=\"concept:name\" value=\"UNKNOWN\"/>\n"
-            + "		<string key=\"org:resource\" value=\"UNKNOWN\"/>\n"
-            + "	</global>\n"
-            + "	<classifier name=\"Activity classifier\" keys=\"concept:name"
-            + " lifecycle:transition\"/>\n"
-            + "	<classifier name=\"Resource classifier\" keys=\"org:resource\"/>\n");
+    p.print(XES_HEADER);
     for (Integer traceID : this.traces.keySet()) {
       traces.get(traceID).writeXES(p, this.baseDate, dateFormat);
     }
-    p.print("</log>\n");
+    p.print(XES_FOOTER);
   }
 
   public void writeCSV(PrintWriter p) {
-    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SSS");
+    SimpleDateFormat dateFormat = createCSVDateFormat();
 
-    p.print("Case ID, Start Timestamp, Complete Timestamp, Activity, Resource\n");
+    p.print(CSV_HEADER);
     for (Integer traceID : this.traces.keySet()) {
       traces.get(traceID).writeCSV(p, this.baseDate, dateFormat);
     }
   }
+
+  static SimpleDateFormat createXESDateFormat() {
+    return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+  }
+
+  static SimpleDateFormat createCSVDateFormat() {
+    return new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SSS");
+  }
 }
@@ -0,0 +1,111 @@
+package org.woped.quantana.sim;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an event log written by {@link SimLogBinaryWriter}.
+ *
+ * <p>The main method converts a binary log to XES or CSV: {@code SimLogBinaryReader <log.bin>
+ * <log.xes>}. Both names may end with {@code .gz}, see {@link SimLogWriter#open(File)}. The traces
+ * are converted one at a time, so logs of any size can be converted.
+ */
+public class SimLogBinaryReader {
+
+  private final DataInputStream in;
+  private final Date baseDate;
+
+  /**
+   * @param in the buffered stream to read, it is not closed
+   * @throws IOException if the header cannot be read or is not valid
+   */
+  public SimLogBinaryReader(InputStream in) throws IOException {
+    this.in = new DataInputStream(in);
+    if (this.in.readInt() != SimLogBinaryWriter.MAGIC) {
+      throw new IOException("Not a simulation log");
+    }
+    int version = this.in.readUnsignedByte();
+    if (version != SimLogBinaryWriter.VERSION) {
+      throw new IOException("Unsupported version of the simulation log: " + version);
+    }
+    baseDate = new Date(this.in.readLong());
+  }
+
+  /**
+   * @return the date of the simulation time 0
+   */
+  public Date getBaseDate() {
+    return baseDate;
+  }
+
+  /**
+   * Passes all traces of the log to a sink. The sink is not closed.
+   *
+   * @param sink the sink to write the traces to
+   * @return the amount of traces
+   * @throws IOException if the log cannot be read or is not valid
+   */
+  public int copyTo(SimLogSink sink) throws IOException {
+    List<String> strings = new ArrayList<String>();
+    int traces = 0;
+    while (true) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case SimLogBinaryWriter.TAG_END:
+          return traces;
+        case SimLogBinaryWriter.TAG_STRING:
+          strings.add(in.readUTF());
+          break;
+        case SimLogBinaryWriter.TAG_TRACE:
+          String caseID = in.readUTF();
+          int size = in.readInt();
+          List<SimLogEvent> events = new ArrayList<SimLogEvent>(size);
+          for (int i = 0; i < size; i++) {
+            String activity = string(strings, in.readInt());
+            String resource = string(strings, in.readInt());
+            double startTime = in.readDouble();
+            double duration = in.readDouble();
+            events.add(new SimLogEvent(activity, resource, startTime, duration));
+          }
+          sink.writeTrace(caseID, events);
+          traces++;
+          break;
+        default:
+          throw new IOException("Invalid record in the simulation log: " + tag);
+      }
+    }
+  }
+
+  private static String string(List<String> strings, int index) throws IOException {
+    if (index < 0 || index >= strings.size()) {
+      throw new IOException("Invalid string in the simulation log: " + index);
+    }
+    return strings.get(index);
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: SimLogBinaryReader <log.bin> <log.xes|log.csv>");
+      System.exit(2);
+    }
+    try (InputStream file = new FileInputStream(args[0])) {
+      InputStream in =
+          args[0].toLowerCase().endsWith(".gz")
+              ? new BufferedInputStream(new GZIPInputStream(file))
+              : new BufferedInputStream(file);
+      SimLogBinaryReader reader = new SimLogBinaryReader(in);
+      try (SimLogSink sink = SimLogWriter.open(new File(args[1]), reader.getBaseDate())) {
+        int traces = reader.copyTo(sink);
+        System.out.println(traces + " traces written to " + args[1]);
+      }
+    }
+  }
+}
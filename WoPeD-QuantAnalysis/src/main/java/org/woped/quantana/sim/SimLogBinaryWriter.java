@@ -0,0 +1,95 @@
+package org.woped.quantana.sim;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Writes the event log of a simulation in a compact binary format. It is faster and smaller than
+ * XES and can be converted to XES or CSV later by {@link SimLogBinaryReader}.
+ *
+ * <p>The file starts with {@link #MAGIC}, {@link #VERSION} and the base date in milliseconds,
+ * followed by records that start with a tag byte:
+ *
+ * <ul>
+ *   <li>{@link #TAG_STRING}: a string in modified UTF-8, it gets the next index starting with 0
+ *   <li>{@link #TAG_TRACE}: the case ID in modified UTF-8 and the amount of events, followed by the
+ *       index of the activity, the index of the resource, the start time and the duration of each
+ *       event
+ *   <li>{@link #TAG_END}: the end of the log
+ * </ul>
+ *
+ * Each activity and resource is only written once, before the first trace that uses it.
+ */
+public class SimLogBinaryWriter implements SimLogSink {
+
+  public static final int MAGIC = 0x57534c47;
+  public static final int VERSION = 1;
+
+  public static final int TAG_END = 0;
+  public static final int TAG_STRING = 1;
+  public static final int TAG_TRACE = 2;
+
+  private final DataOutputStream out;
+  private final HashMap<String, Integer> strings = new HashMap<String, Integer>();
+
+  /**
+   * @param out the buffered stream to write to, it is closed with the writer
+   * @param baseDate the date of the simulation time 0
+   * @throws IOException if the header cannot be written
+   */
+  public SimLogBinaryWriter(OutputStream out, Date baseDate) throws IOException {
+    this.out = new DataOutputStream(out);
+    this.out.writeInt(MAGIC);
+    this.out.writeByte(VERSION);
+    this.out.writeLong(baseDate.getTime());
+  }
+
+  @Override
+  public synchronized void writeTrace(String caseID, List<SimLogEvent> events) {
+    try {
+      int[] activities = new int[events.size()];
+      int[] resources = new int[events.size()];
+      for (int i = 0; i < events.size(); i++) {
+        activities[i] = indexOf(events.get(i).getActivity());
+        resources[i] = indexOf(events.get(i).getResource());
+      }
+      out.writeByte(TAG_TRACE);
+      out.writeUTF(caseID);
+      out.writeInt(events.size());
+      for (int i = 0; i < events.size(); i++) {
+        out.writeInt(activities[i]);
+        out.writeInt(resources[i]);
+        out.writeDouble(events.get(i).getStartTime());
+        out.writeDouble(events.get(i).getDuration());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // writes the string if it is new
+  private int indexOf(String s) throws IOException {
+    Integer index = strings.get(s);
+    if (index == null) {
+      index = strings.size();
+      strings.put(s, index);
+      out.writeByte(TAG_STRING);
+      out.writeUTF(s);
+    }
+    return index;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      out.writeByte(TAG_END);
+    } finally {
+      out.close();
+    }
+  }
+}
@@ -2,7 +2,6 @@ package org.woped.quantana.sim;
 
 import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 
 public class SimLogEvent {
@@ -18,17 +17,31 @@ public class SimLogEvent {
     this.duration = duration;
   }
 
-  public void writeXES(PrintWriter p, Date baseDate, SimpleDateFormat dateFormat) {
+  public String getActivity() {
+    return activity;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public double getStartTime() {
+    return startTime;
+  }
 
-    Calendar cal = Calendar.getInstance();
-    cal.setTime(baseDate);
-    cal.add(Calendar.SECOND, (int) (startTime * 60));
-    Date start = cal.getTime();
+  public double getDuration() {
+    return duration;
+  }
+
+  // the simulation time is in minutes, the log has whole seconds
+  private static Date toDate(Date baseDate, double time) {
+    return new Date(baseDate.getTime() + (int) (time * 60) * 1000L);
+  }
 
-    cal = Calendar.getInstance();
-    cal.setTime(baseDate);
-    cal.add(Calendar.SECOND, (int) ((startTime + duration) * 60));
-    Date completion = cal.getTime();
+  public void writeXES(PrintWriter p, Date baseDate, SimpleDateFormat dateFormat) {
+
+    Date start = toDate(baseDate, startTime);
+    Date completion = toDate(baseDate, startTime + duration);
 
     p.print(
         "  <event>\n"
@@ -58,21 +71,18 @@ public class SimLogEvent {
   }
 
   public void writeCSV(PrintWriter p, Date baseDate, SimpleDateFormat dateFormat, int caseID) {
+    writeCSV(p, baseDate, dateFormat, String.valueOf(caseID));
+  }
 
-    Calendar cal = Calendar.getInstance();
-    cal.setTime(baseDate);
-    cal.add(Calendar.SECOND, (int) (startTime * 60));
-    Date start = cal.getTime();
+  public void writeCSV(PrintWriter p, Date baseDate, SimpleDateFormat dateFormat, String caseID) {
 
-    cal = Calendar.getInstance();
-    cal.setTime(baseDate);
-    cal.add(Calendar.SECOND, (int) ((startTime + duration) * 60));
-    Date completion = cal.getTime();
+    Date start = toDate(baseDate, startTime);
+    Date completion = toDate(baseDate, startTime + duration);
 
     p.println(
         String.join(
             ", ",
-            (new Integer(caseID)).toString(),
+            caseID,
             dateFormat.format(start),
             dateFormat.format(completion),
             this.activity,
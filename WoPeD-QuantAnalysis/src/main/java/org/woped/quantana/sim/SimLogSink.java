@@ -0,0 +1,26 @@
+package org.woped.quantana.sim;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Receives the event log of a simulation while it runs.
+ *
+ * <p>The events of a case are collected by the simulation until the case is finished and then
+ * passed as one trace, so a sink only needs memory for the trace it writes. The traces of
+ * replications running in parallel are passed one at a time, in no particular order.
+ *
+ * @see SimRunner#setLogSink(SimLogSink)
+ * @see SimLogWriter#open(java.io.File)
+ */
+public interface SimLogSink extends Closeable {
+
+  /**
+   * Writes the events of a case.
+   *
+   * @param caseID the name of the case, unique within the log
+   * @param events the events of the case in the order of their start
+   * @throws java.io.UncheckedIOException if the trace cannot be written
+   */
+  void writeTrace(String caseID, List<SimLogEvent> events);
+}
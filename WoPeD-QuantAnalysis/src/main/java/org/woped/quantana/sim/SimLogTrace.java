@@ -3,6 +3,7 @@ package org.woped.quantana.sim;
 import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.Vector;
 
 public class SimLogTrace {
@@ -24,7 +25,16 @@ public class SimLogTrace {
   }
 
   public void writeXES(PrintWriter p, Date baseDate, SimpleDateFormat dateFormat) {
-    p.print("<trace>\n" + "  <string key=\"concept:name\" value=\"" + this.caseID + "\"/>\n");
+    writeXES(p, String.valueOf(caseID), events, baseDate, dateFormat);
+  }
+
+  static void writeXES(
+      PrintWriter p,
+      String caseID,
+      List<SimLogEvent> events,
+      Date baseDate,
+      SimpleDateFormat dateFormat) {
+    p.print("<trace>\n" + "  <string key=\"concept:name\" value=\"" + caseID + "\"/>\n");
     for (SimLogEvent event : events) {
       event.writeXES(p, baseDate, dateFormat);
     }
@@ -0,0 +1,148 @@
+package org.woped.quantana.sim;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the event log of a simulation as XES or CSV while it runs, in the same format as {@link
+ * SimLog}. Each trace is written as soon as it is passed, only the end of the log is written by
+ * {@link #close()}. Write errors are reported every {@value #CHECK_INTERVAL} traces and by {@link
+ * #close()}.
+ */
+public class SimLogWriter implements SimLogSink {
+
+  public static final int FORMAT_XES = 0;
+  public static final int FORMAT_CSV = 1;
+  /** The format of {@link SimLogBinaryWriter}. */
+  public static final int FORMAT_BINARY = 2;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  /** The number of traces after which write errors are checked, checking flushes the stream. */
+  private static final int CHECK_INTERVAL = 1024;
+
+  private final PrintWriter out;
+  private final int format;
+  private final Date baseDate;
+  private final SimpleDateFormat dateFormat;
+  private int unchecked = 0;
+
+  /**
+   * @param out the stream to write to, it is closed with the writer
+   * @param format {@link #FORMAT_XES} or {@link #FORMAT_CSV}
+   * @param baseDate the date of the simulation time 0
+   */
+  public SimLogWriter(OutputStream out, int format, Date baseDate) {
+    this.out =
+        new PrintWriter(
+            new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+    this.format = format;
+    this.baseDate = baseDate;
+    if (format == FORMAT_XES) {
+      dateFormat = SimLog.createXESDateFormat();
+      this.out.print(SimLog.XES_HEADER);
+    } else {
+      dateFormat = SimLog.createCSVDateFormat();
+      this.out.print(SimLog.CSV_HEADER);
+    }
+  }
+
+  /**
+   * Opens a log file. The format is chosen by the extension of the name: {@code .xes}, {@code .csv}
+   * or {@code .bin} for {@link SimLogBinaryWriter}. If the name ends with {@code .gz}, the file is
+   * compressed with gzip.
+   *
+   * @param file the log file
+   * @return the sink writing the file, it must be closed
+   * @throws IOException if the file cannot be created
+   * @throws IllegalArgumentException if the extension is not known
+   */
+  public static SimLogSink open(File file) throws IOException {
+    return open(file, new Date());
+  }
+
+  /**
+   * Opens a log file, see {@link #open(File)}.
+   *
+   * @param file the log file
+   * @param baseDate the date of the simulation time 0
+   * @return the sink writing the file, it must be closed
+   * @throws IOException if the file cannot be created
+   */
+  public static SimLogSink open(File file, Date baseDate) throws IOException {
+    boolean gzip = file.getName().toLowerCase().endsWith(".gz");
+    int format = checkName(file.getName());
+
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out = new BufferedOutputStream(gzip ? new GZIPOutputStream(out) : out, BUFFER_SIZE);
+      if (format == FORMAT_BINARY) {
+        return new SimLogBinaryWriter(out, baseDate);
+      }
+      return new SimLogWriter(out, format, baseDate);
+    } catch (IOException e) {
+      out.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @param name the name of a log file
+   * @return the format of the file, {@link #FORMAT_XES}, {@link #FORMAT_CSV} or {@link
+   *     #FORMAT_BINARY}
+   * @throws IllegalArgumentException if the extension is not known, see {@link #open(File)}
+   */
+  public static int checkName(String name) {
+    String lowerCase = name.toLowerCase();
+    if (lowerCase.endsWith(".gz")) {
+      lowerCase = lowerCase.substring(0, lowerCase.length() - 3);
+    }
+    if (lowerCase.endsWith(".xes")) {
+      return FORMAT_XES;
+    } else if (lowerCase.endsWith(".csv")) {
+      return FORMAT_CSV;
+    } else if (lowerCase.endsWith(".bin")) {
+      return FORMAT_BINARY;
+    }
+    throw new IllegalArgumentException("Unknown log format: " + name);
+  }
+
+  @Override
+  public synchronized void writeTrace(String caseID, List<SimLogEvent> events) {
+    if (format == FORMAT_XES) {
+      SimLogTrace.writeXES(out, caseID, events, baseDate, dateFormat);
+    } else {
+      for (SimLogEvent event : events) {
+        event.writeCSV(out, baseDate, dateFormat, caseID);
+      }
+    }
+    if (++unchecked == CHECK_INTERVAL) {
+      unchecked = 0;
+      if (out.checkError()) {
+        throw new UncheckedIOException(new IOException("Cannot write the simulation log"));
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (format == FORMAT_XES) {
+      out.print(SimLog.XES_FOOTER);
+    }
+    out.close();
+    if (out.checkError()) {
+      throw new IOException("Cannot write the simulation log");
+    }
+  }
+}
@@ -16,6 +16,17 @@ public class SimParameters {
 
   private int resUse;
 
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  private long seed = SimRandomStreams.DEFAULT_MASTER_SEED;
+  private boolean commonRandomNumbers = false;
+  private boolean recordActivities = true;
+
+  private double precision = 0;
+  private double confidence = 0.95;
+  private int maxRuns = 100;
+  private boolean warmUp = false;
+
   public SimParameters() {
     super();
   }
@@ -137,4 +148,117 @@ public class SimParameters {
   public boolean getWriteLog() {
     return wlog;
   }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * @return the master seed of all random streams, see {@link SimRandomStreams#seedOf(long)}
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * @return true if every random stream is assigned to its purpose, e.g. the service times of a
+   *     server, instead of the creation order, see {@link SimRandomStreams#createStream(String)}
+   */
+  public boolean isCommonRandomNumbers() {
+    return commonRandomNumbers;
+  }
+
+  /**
+   * Two scenarios simulated with the same seed and common random numbers use the same random
+   * numbers for the same purposes, so their difference has a lower variance than that of
+   * independent runs.
+   *
+   * @param commonRandomNumbers true to assign the random streams by purpose
+   */
+  public void setCommonRandomNumbers(boolean commonRandomNumbers) {
+    this.commonRandomNumbers = commonRandomNumbers;
+  }
+
+  /**
+   * @return true if an activity panel is recorded for every service, see {@link
+   *     SimRunner#getActPanelList()}
+   */
+  public boolean isRecordActivities() {
+    return recordActivities;
+  }
+
+  public void setRecordActivities(boolean recordActivities) {
+    this.recordActivities = recordActivities;
+  }
+
+  /**
+   * @return the largest relative half width of the confidence intervals of the key figures, 0 to
+   *     run a fixed amount of replications
+   */
+  public double getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Replications are added until the confidence intervals of the average completion time of the
+   * cases, the wait time of each task and the utilization of each resource are at most {@code
+   * precision} times their mean wide on each side, or {@link #getMaxRuns()} is reached. The wait
+   * times are compared with the completion time instead of their own mean. {@link #getRuns()}
+   * replications are always run, at least two are needed for an interval.
+   *
+   * @param precision the largest relative half width, e.g. 0.05, or 0
+   * @see SimConfidenceAnalysis
+   */
+  public void setPrecision(double precision) {
+    this.precision = precision;
+  }
+
+  /**
+   * @return the confidence level of the intervals, default 0.95
+   */
+  public double getConfidence() {
+    return confidence;
+  }
+
+  public void setConfidence(double confidence) {
+    this.confidence = confidence;
+  }
+
+  /**
+   * @return the most replications run to reach the precision, default 100
+   */
+  public int getMaxRuns() {
+    return maxRuns;
+  }
+
+  public void setMaxRuns(int maxRuns) {
+    this.maxRuns = maxRuns;
+  }
+
+  /**
+   * @return true if the warm-up period is removed from the statistics
+   */
+  public boolean isWarmUp() {
+    return warmUp;
+  }
+
+  /**
+   * If set, a pilot replication detects the end of the warm-up period with the MSER-5 rule applied
+   * to the completion times of the cases, see {@link SimWarmUp}. Every replication then restarts
+   * its statistics at that time and runs for the stop condition from there on. The queues and the
+   * cases in service are kept.
+   *
+   * @param warmUp true to remove the warm-up period
+   */
+  public void setWarmUp(boolean warmUp) {
+    this.warmUp = warmUp;
+  }
 }
@@ -0,0 +1,213 @@
+package org.woped.quantana.sim;
+
+import umontreal.iro.lecuyer.rng.MRG32k3a;
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+/**
+ * Creates the random streams of one replication.
+ *
+ * <p>The streams are {@link MRG32k3a} streams in the layout of L'Ecuyer's RngStreams: the n-th
+ * stream created for a replication starts {@code n * 2^127} steps after the seed, and replication
+ * {@code r} uses its substream {@code r}, which starts another {@code r * 2^76} steps later. The
+ * seeds only depend on the replication and the creation order of the streams, so a replication
+ * draws the same random numbers no matter which thread runs it or how many replications run at the
+ * same time.
+ *
+ * <p>Streams can also be created for a purpose, for example the service times of a server. The
+ * start of such a stream is chosen by a hash of the purpose instead of the creation order, so it
+ * stays the same if servers are added, removed or created in a different order. Two scenarios that
+ * are simulated with the same seed then use common random numbers for the same purposes.
+ */
+public class SimRandomStreams {
+
+  /** The default seed of the {@link MRG32k3a} package. */
+  public static final long[] DEFAULT_SEED = {12345, 12345, 12345, 12345, 12345, 12345};
+
+  /** The master seed used if none is set, see {@link #seedOf(long)}. */
+  public static final long DEFAULT_MASTER_SEED = 12345;
+
+  private static final long M1 = 4294967087L;
+  private static final long M2 = 4294944443L;
+
+  // the transition matrices of both components
+  private static final long[][] A1 = {{0, 1, 0}, {0, 0, 1}, {M1 - 810728, 1403580, 0}};
+  private static final long[][] A2 = {{0, 1, 0}, {0, 0, 1}, {M2 - 1370589, 0, 527612}};
+
+  // jump matrices to stream 2^i
+  private static final long[][][] A1_STREAM = new long[32][][];
+  private static final long[][][] A2_STREAM = new long[32][][];
+  // jump matrices to substream 2^i
+  private static final long[][][] A1_SUBSTREAM = new long[31][][];
+  private static final long[][][] A2_SUBSTREAM = new long[31][][];
+
+  static {
+    A1_STREAM[0] = power2(A1, 127, M1);
+    A2_STREAM[0] = power2(A2, 127, M2);
+    for (int i = 1; i < A1_STREAM.length; i++) {
+      A1_STREAM[i] = multiply(A1_STREAM[i - 1], A1_STREAM[i - 1], M1);
+      A2_STREAM[i] = multiply(A2_STREAM[i - 1], A2_STREAM[i - 1], M2);
+    }
+    A1_SUBSTREAM[0] = power2(A1, 76, M1);
+    A2_SUBSTREAM[0] = power2(A2, 76, M2);
+    for (int i = 1; i < A1_SUBSTREAM.length; i++) {
+      A1_SUBSTREAM[i] = multiply(A1_SUBSTREAM[i - 1], A1_SUBSTREAM[i - 1], M1);
+      A2_SUBSTREAM[i] = multiply(A2_SUBSTREAM[i - 1], A2_SUBSTREAM[i - 1], M2);
+    }
+  }
+
+  private final int run;
+  // the start of the first stream
+  private final long[] seed;
+  // the start of the next stream
+  private final long[] nextStream;
+
+  /**
+   * @param run the index of the replication, starting with 0
+   */
+  public SimRandomStreams(int run) {
+    this(DEFAULT_SEED, run);
+  }
+
+  /**
+   * @param seed the seed of the first stream, see {@link MRG32k3a#setSeed(long[])}
+   * @param run the index of the replication, starting with 0
+   */
+  public SimRandomStreams(long[] seed, int run) {
+    this.run = run;
+    this.seed = seed.clone();
+    this.nextStream = seed.clone();
+  }
+
+  /**
+   * @param masterSeed the master seed, see {@link #seedOf(long)}
+   * @param run the index of the replication, starting with 0
+   */
+  public SimRandomStreams(long masterSeed, int run) {
+    this(seedOf(masterSeed), run);
+  }
+
+  /**
+   * Expands a master seed to a valid seed of {@link MRG32k3a}. Different master seeds give
+   * unrelated seeds.
+   *
+   * @param masterSeed any value
+   * @return the seed of the first stream
+   */
+  public static long[] seedOf(long masterSeed) {
+    long[] result = new long[6];
+    long state = masterSeed;
+    for (int i = 0; i < result.length; i++) {
+      // SplitMix64
+      state += 0x9E3779B97F4A7C15L;
+      long z = state;
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      z ^= z >>> 31;
+      result[i] = Long.remainderUnsigned(z, i < 3 ? M1 : M2);
+    }
+    // each component needs a non zero state
+    if (result[0] == 0 && result[1] == 0 && result[2] == 0) result[0] = 1;
+    if (result[3] == 0 && result[4] == 0 && result[5] == 0) result[3] = 1;
+    return result;
+  }
+
+  /**
+   * @return the index of the replication
+   */
+  public int getRun() {
+    return run;
+  }
+
+  /**
+   * @return a new stream, set to the substream of the replication
+   */
+  public RandomStream createStream() {
+    RandomStream stream = startStream(nextStream);
+    jump(nextStream, A1_STREAM[0], A2_STREAM[0]);
+    return stream;
+  }
+
+  /**
+   * Creates the stream of a purpose. The stream only depends on the seed, the replication and the
+   * purpose.
+   *
+   * @param purpose a name of what the stream is used for, e.g. {@code "service t1"}
+   * @return a new stream, set to the substream of the replication
+   */
+  public RandomStream createStream(String purpose) {
+    int index = purpose.hashCode() * 0x9E3779B1;
+    index ^= index >>> 16;
+    long[] start = seed.clone();
+    for (int bit = 0; bit < A1_STREAM.length; bit++) {
+      if ((index & (1 << bit)) != 0) {
+        jump(start, A1_STREAM[bit], A2_STREAM[bit]);
+      }
+    }
+    return startStream(start);
+  }
+
+  // creates the substream of the replication of the stream starting at start
+  private RandomStream startStream(long[] start) {
+    long[] state = start.clone();
+    for (int bit = 0; bit < A1_SUBSTREAM.length; bit++) {
+      if ((run & (1 << bit)) != 0) {
+        jump(state, A1_SUBSTREAM[bit], A2_SUBSTREAM[bit]);
+      }
+    }
+
+    MRG32k3a stream;
+    // the constructor advances the shared seed of the package
+    synchronized (MRG32k3a.class) {
+      stream = new MRG32k3a();
+    }
+    stream.setSeed(state);
+    return stream;
+  }
+
+  private static void jump(long[] seed, long[][] a1, long[][] a2) {
+    long[] first = multiply(a1, new long[] {seed[0], seed[1], seed[2]}, M1);
+    long[] second = multiply(a2, new long[] {seed[3], seed[4], seed[5]}, M2);
+    System.arraycopy(first, 0, seed, 0, 3);
+    System.arraycopy(second, 0, seed, 3, 3);
+  }
+
+  private static long[][] power2(long[][] a, int exponent, long m) {
+    long[][] result = a;
+    for (int i = 0; i < exponent; i++) {
+      result = multiply(result, result, m);
+    }
+    return result;
+  }
+
+  private static long[][] multiply(long[][] a, long[][] b, long m) {
+    long[][] result = new long[3][3];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        long sum = 0;
+        for (int k = 0; k < 3; k++) {
+          sum = (sum + multiplyMod(a[i][k], b[k][j], m)) % m;
+        }
+        result[i][j] = sum;
+      }
+    }
+    return result;
+  }
+
+  private static long[] multiply(long[][] a, long[] v, long m) {
+    long[] result = new long[3];
+    for (int i = 0; i < 3; i++) {
+      long sum = 0;
+      for (int k = 0; k < 3; k++) {
+        sum = (sum + multiplyMod(a[i][k], v[k], m)) % m;
+      }
+      result[i] = sum;
+    }
+    return result;
+  }
+
+  // a * b mod m for 0 <= a, b < m < 2^32 without overflow
+  private static long multiplyMod(long a, long b, long m) {
+    long high = (a >>> 16) * b % m;
+    return ((high << 16) % m + (a & 0xFFFF) * b) % m;
+  }
+}
@@ -9,6 +9,9 @@ public class SimReportServerStats extends SimServerStats {
   double avgMaxResNumber = 0.0;
   double avgNumServedWhenStopped = 0.0;
   double avgQLengthWhenStopped = 0.0;
+  // the amount of replications with a value for each percentile
+  int[] waitTimePercentileCounts;
+  int[] servTimePercentileCounts;
 
   public SimReportServerStats(String name, String id) {
     super(name, id);
@@ -129,4 +132,65 @@ public class SimReportServerStats extends SimServerStats {
   public void incAvgServTime(double addVal) {
     avgServTime += addVal;
   }
+
+  public void incServTimePercentiles(double[] addVal) {
+    servTimePercentiles = sum(servTimePercentiles, addVal);
+    servTimePercentileCounts = count(servTimePercentileCounts, addVal);
+  }
+
+  public void incWaitTimePercentiles(double[] addVal) {
+    waitTimePercentiles = sum(waitTimePercentiles, addVal);
+    waitTimePercentileCounts = count(waitTimePercentileCounts, addVal);
+  }
+
+  /** Divides the sums of the percentiles by the amount of replications with a value. */
+  public void averagePercentiles() {
+    waitTimePercentiles = average(waitTimePercentiles, waitTimePercentileCounts);
+    servTimePercentiles = average(servTimePercentiles, servTimePercentileCounts);
+  }
+
+  /**
+   * Adds values to sums element by element. A NaN value, i.e. a replication without observations,
+   * is skipped, see {@link #count(int[], double[])}.
+   *
+   * @param sum the sums, null for none
+   * @param values the values to add
+   * @return the sums with the values
+   */
+  static double[] sum(double[] sum, double[] values) {
+    double[] result = sum == null ? new double[values.length] : sum;
+    for (int i = 0; i < values.length; i++) {
+      if (!Double.isNaN(values[i])) result[i] += values[i];
+    }
+    return result;
+  }
+
+  /**
+   * Counts the values that are not NaN element by element.
+   *
+   * @param counts the counts, null for none
+   * @param values the values to count
+   * @return the counts with the values
+   */
+  static int[] count(int[] counts, double[] values) {
+    int[] result = counts == null ? new int[values.length] : counts;
+    for (int i = 0; i < values.length; i++) {
+      if (!Double.isNaN(values[i])) result[i]++;
+    }
+    return result;
+  }
+
+  /**
+   * @param values the sums of the replications, may be null
+   * @param counts the amount of values of each sum, see {@link #count(int[], double[])}
+   * @return the averages, NaN if a sum has no values
+   */
+  static double[] average(double[] values, int[] counts) {
+    if (values != null) {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = counts[i] == 0 ? Double.NaN : values[i] / counts[i];
+      }
+    }
+    return values;
+  }
 }
@@ -2,6 +2,9 @@ package org.woped.quantana.sim;
 
 public class SimReportStats extends SimRunStats {
   double avgFinishedCases;
+  int replications;
+  double warmUpTime;
+  SimConfidenceAnalysis confidenceAnalysis;
 
   public double getAvgFinishedCases() {
     return avgFinishedCases;
@@ -10,4 +13,37 @@ public class SimReportStats extends SimRunStats {
   public void setAvgFinishedCases(double avgFinishedCases) {
     this.avgFinishedCases = avgFinishedCases;
   }
+
+  /**
+   * @return the amount of replications the statistics are averaged over
+   */
+  public int getReplications() {
+    return replications;
+  }
+
+  public void setReplications(int replications) {
+    this.replications = replications;
+  }
+
+  /**
+   * @return the end of the warm-up period removed from each replication, 0 if there is none
+   */
+  public double getWarmUpTime() {
+    return warmUpTime;
+  }
+
+  public void setWarmUpTime(double warmUpTime) {
+    this.warmUpTime = warmUpTime;
+  }
+
+  /**
+   * @return the confidence intervals of the key figures over the replications
+   */
+  public SimConfidenceAnalysis getConfidenceAnalysis() {
+    return confidenceAnalysis;
+  }
+
+  public void setConfidenceAnalysis(SimConfidenceAnalysis confidenceAnalysis) {
+    this.confidenceAnalysis = confidenceAnalysis;
+  }
 }
@@ -9,6 +9,7 @@ public class SimRunStats {
   double procServTime;
   double procWaitTime;
   double procCompTime;
+  double[] procCompTimePercentiles;
   double throughPut;
   int finishedCases;
 
@@ -39,6 +40,17 @@ public class SimRunStats {
     this.procCompTime = procCompTime;
   }
 
+  /**
+   * @return the median, the 95th and the 99th percentile of the completion times of the cases
+   */
+  public double[] getProcCompTimePercentiles() {
+    return procCompTimePercentiles;
+  }
+
+  public void setProcCompTimePercentiles(double[] procCompTimePercentiles) {
+    this.procCompTimePercentiles = procCompTimePercentiles;
+  }
+
   public double getProcServTime() {
     return procServTime;
   }
@@ -1,17 +1,31 @@
 package org.woped.quantana.sim;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.PriorityQueue;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.woped.gui.translations.Messages;
 import org.woped.quantana.gui.ActivityPanel;
 import org.woped.quantana.model.ResourceStats;
 import org.woped.quantana.resourcealloc.Resource;
 import org.woped.quantana.resourcealloc.ResourceAllocation;
 import org.woped.quantana.resourcealloc.ResourceUtilization;
-import umontreal.iro.lecuyer.rng.MRG32k3a;
+import org.woped.quantana.sim.stats.Percentiles;
+import org.woped.quantana.sim.stats.Tally;
 import umontreal.iro.lecuyer.rng.RandomStream;
 
+/**
+ * Runs the replications of a simulation and merges their statistics into a report.
+ *
+ * <p>Each replication runs on its own copy of the runner with its own servers, resources, event
+ * list and random streams, see {@link SimRandomStreams}. Up to {@link SimParameters#getThreads()}
+ * replications run at the same time. Their statistics are merged in the order of the replications,
+ * so the report does not depend on the amount of threads.
+ */
 public class SimRunner implements Runnable {
   public static final int Q_FIFO = 0;
   public static final int Q_LIFO = 1;
@@ -38,8 +52,9 @@ public class SimRunner implements Runnable {
 
   Thread thr = null;
 
-  RandomStream randStart = new MRG32k3a();
-  PriorityQueue<SimulatorEvent> eventList = new PriorityQueue<SimulatorEvent>();
+  SimRandomStreams streams;
+  RandomStream randStart;
+  SimEventCalendar eventList = new SimEventCalendar();
   protected HashMap<String, SimServer> serverList = new HashMap<String, SimServer>();
   SimCaseMaker caseMaker = new SimCaseMaker(this);
   ArrayList<SimRunStats> runStats;
@@ -48,6 +63,10 @@ public class SimRunner implements Runnable {
   SimDistributionLogger distLogger = null;
   ArrayList<String> log = new ArrayList<String>();
   SimLog xesLog = new SimLog();
+  private SimLogSink logSink = null;
+  // the events of the unfinished cases while a log sink is set
+  private HashMap<Integer, List<SimLogEvent>> openTraces =
+      new HashMap<Integer, List<SimLogEvent>>();
 
   private ArrayList<ActivityPanel> actPanelList = new ArrayList<ActivityPanel>();
 
@@ -57,20 +76,84 @@ public class SimRunner implements Runnable {
   int cntArrival = 0;
   int cntRun = 0;
 
-  double avgWait = 0;
-  double avgSvc = 0;
-  double avgRunTime = 0;
-
-  boolean aborted = false;
+  // the wait, service and completion times of the finished cases
+  Tally caseWait = new Tally();
+  Tally caseService = new Tally();
+  Tally caseCompletion = new Tally();
+  Percentiles completionPercentiles = new Percentiles();
+
+  volatile boolean aborted = false;
+
+  // the runner of all replications, null for the runner itself
+  private SimRunner master = null;
+  // the replication started last, shown as progress
+  private volatile SimRunner current = null;
+  private int[] eventCounters = new int[SimulatorEvent.EVT_DEATH + 1];
+
+  // the replications to run and the replications merged so far
+  private int plannedRuns = 0;
+  private int runCount = 0;
+  private SimConfidenceAnalysis confidence = null;
+  // the end of the warm-up period and the start of the statistics of the run
+  private double warmUpTime = 0;
+  private double statsStart = 0;
+  // the detector of the warm-up period in the pilot replication
+  private SimWarmUp warmUp = null;
 
   public SimRunner(SimGraph graph, ResourceUtilization resUtil, SimParameters sp) {
     this.graph = graph;
     this.resUtil = resUtil;
     resAlloc = this.resUtil.getResAlloc();
     params = sp;
+    streams = new SimRandomStreams(params.getSeed(), 0);
+    randStart = createStream("start");
+    createServerForBirth();
+  }
+
+  /**
+   * Creates the runner of a single replication.
+   *
+   * @param master the runner of all replications
+   * @param run the index of the replication
+   * @see #createReplication(int)
+   */
+  protected SimRunner(SimRunner master, int run) {
+    this.master = master;
+    graph = master.graph;
+    params = master.params;
+    logSink = master.logSink;
+    warmUpTime = master.warmUpTime;
+    streams = new SimRandomStreams(params.getSeed(), run);
+    randStart = createStream("start");
+    resUtil = new ResourceUtilization(master.resAlloc.copy(), createStream("resources"));
+    resAlloc = resUtil.getResAlloc();
     createServerForBirth();
   }
 
+  /**
+   * Creates the runner of a single replication. Subclasses return an instance of their own class,
+   * so their overrides apply to the replications as well.
+   *
+   * @param run the index of the replication
+   * @return the runner of the replication
+   */
+  protected SimRunner createReplication(int run) {
+    return new SimRunner(this, run);
+  }
+
+  /**
+   * @param purpose what the stream is used for, it must be unique within the replication
+   * @return a new random stream of the replication, see {@link
+   *     SimParameters#isCommonRandomNumbers()}
+   */
+  public RandomStream createStream(String purpose) {
+    return params.isCommonRandomNumbers() ? streams.createStream(purpose) : streams.createStream();
+  }
+
+  int nextEventNumber(int type) {
+    return ++eventCounters[type];
+  }
+
   private void createServerForBirth() {
     SimNode n = graph.getSource();
     ArrayList<SimArc> out = n.getarcOut();
@@ -110,38 +193,178 @@ public class SimRunner implements Runnable {
   }
 
   public void run() {
+    simulate();
+    // to finish progress
+    aborted = true;
+    caseMaker = null;
+    Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Runs all replications in the calling thread.
+   *
+   * @return the statistics over all replications, see {@link #getRepStats()}
+   */
+  public SimReportStats simulate() {
     createServerList();
     runStats = new ArrayList<SimRunStats>();
     distLogger = new SimDistributionLogger(params.getPeriod() / params.getLambda());
     caseMaker.setDistLogger(distLogger);
-    for (cntRun = 0; cntRun < params.getRuns(); cntRun++) {
-      initRun(cntRun + 1);
-      while (!(hasToStop() || aborted)) {
-        if (eventList.isEmpty()) break;
-        else {
-          nextEvent = eventList.remove();
-          runClock = nextEvent.getTime();
-          nextEvent.invoke();
+    runReplications();
+    generateReport();
+    return repStats;
+  }
+
+  /**
+   * Runs the replications. If a precision is set, replications are added until the confidence
+   * intervals are small enough, see {@link SimParameters#setPrecision(double)}.
+   */
+  private void runReplications() {
+    plannedRuns = params.getRuns();
+    runCount = 0;
+    confidence = new SimConfidenceAnalysis(params.getConfidence());
+    int maxRuns = params.getPrecision() > 0 ? Math.max(params.getRuns(), params.getMaxRuns()) : 0;
+    int threads = Math.max(1, Math.min(params.getThreads(), Math.max(plannedRuns, maxRuns)));
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<SimRunner>> replications = new ArrayList<Future<SimRunner>>();
+    try {
+      if (params.isWarmUp()) {
+        warmUpTime = executor.submit(() -> createReplication(0).runPilot()).get();
+      }
+      while (true) {
+        for (int run = replications.size(); run < plannedRuns; run++) {
+          final int index = run;
+          replications.add(executor.submit(() -> createReplication(index).runReplication()));
         }
+        for (cntRun = runCount; cntRun < plannedRuns; cntRun++) {
+          SimRunner replication = replications.get(cntRun).get();
+          // release the replication as soon as it is merged
+          replications.set(cntRun, null);
+          mergeReplication(replication);
+          if (replication.aborted) return;
+        }
+        if (plannedRuns >= maxRuns || confidence.isPrecise(params.getPrecision())) return;
+        // the estimate of few replications is too high, so at most double them
+        int required = confidence.getRequiredCount(params.getPrecision());
+        required = Math.min(required, 2 * plannedRuns);
+        plannedRuns = Math.min(maxRuns, Math.max(plannedRuns + 1, required));
       }
-      finishRun();
-      if (aborted) break;
+    } catch (InterruptedException e) {
+      aborted = true;
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+      current = null;
     }
-    generateReport();
-    // to finish progress
-    aborted = true;
-    caseMaker = null;
-    Thread.currentThread().interrupt();
+  }
+
+  private SimRunner runReplication() {
+    createServerList();
+    runStats = new ArrayList<SimRunStats>();
+    distLogger = new SimDistributionLogger(params.getPeriod() / params.getLambda());
+    caseMaker.setDistLogger(distLogger);
+    cntRun = streams.getRun();
+    initRun(cntRun + 1);
+    master.current = this;
+    while (!(hasToStop() || master.aborted)) {
+      if (eventList.isEmpty()) break;
+      else {
+        nextEvent = eventList.poll();
+        if (statsStart < warmUpTime && nextEvent.getTime() >= warmUpTime) {
+          deleteWarmUp();
+        }
+        runClock = nextEvent.getTime();
+        nextEvent.invoke();
+      }
+    }
+    aborted = master.aborted;
+    finishRun();
+    writeOpenTraces();
+    return this;
+  }
+
+  /**
+   * Runs a replication without removing a warm-up period and without writing the log.
+   *
+   * @return the end of the warm-up period, see {@link SimWarmUp}
+   */
+  private double runPilot() {
+    logSink = null;
+    warmUpTime = 0;
+    warmUp = new SimWarmUp();
+    runReplication();
+    return warmUp.getWarmUpTime();
+  }
+
+  private void resetCaseStats() {
+    caseWait.reset();
+    caseService.reset();
+    caseCompletion.reset();
+    completionPercentiles.reset();
+  }
+
+  /** Restarts the statistics of the run at the end of the warm-up period. */
+  private void deleteWarmUp() {
+    statsStart = warmUpTime;
+    cntFinished = 0;
+    resetCaseStats();
+    for (SimServer s : serverList.values()) s.deleteWarmUp(warmUpTime);
+    for (Resource r : resAlloc.getResources().values()) r.deleteWarmUp(warmUpTime);
+  }
+
+  /**
+   * Adds the statistics of a replication to the statistics of all runs. The distribution loggers
+   * are summed up, the logs of the last replication are kept.
+   */
+  private void mergeReplication(SimRunner replication) {
+    SimRunStats stats = replication.runStats.get(0);
+    distLogger.addAll(replication.distLogger);
+    for (SimServerStats ss : stats.getServStats().values()) {
+      SimDistributionLogger logger = serverList.get(ss.getId()).getDistLogger();
+      if (logger != null) {
+        logger.addAll(ss.getDistributionLogger());
+        ss.setDistributionLogger(logger);
+      }
+    }
+    cntFinished = replication.cntFinished;
+    runClock = replication.runClock;
+    runCount++;
+    confidence.add(SimConfidenceAnalysis.COMPLETION_TIME, stats.getProcCompTime());
+    for (SimServerStats ss : stats.getServStats().values()) {
+      if (ss.getDepartures() > 0) {
+        String figure = SimConfidenceAnalysis.waitTime(ss.getId());
+        confidence.setReference(figure, SimConfidenceAnalysis.COMPLETION_TIME);
+        confidence.add(figure, ss.getAvgWaitTime());
+      }
+    }
+    for (ResourceStats rs : stats.getResStats().values()) {
+      confidence.add(SimConfidenceAnalysis.utilization(rs.getName()), rs.getUtilizationRatio());
+    }
+    log = replication.log;
+    xesLog = replication.xesLog;
+    actPanelList = replication.actPanelList;
+    addRunStats(stats);
+  }
+
+  /**
+   * Adds the statistics of a replication to {@link #getRunStats()}. It is called in the order of
+   * the replications.
+   *
+   * @param stats the statistics of the replication
+   */
+  protected void addRunStats(SimRunStats stats) {
+    runStats.add(stats);
   }
 
   private boolean hasToStop() {
     switch (params.getStop()) {
       case STOP_BOTH:
-        return (cntFinished >= params.getLambda()) || (runClock >= params.getPeriod());
+        return (cntFinished >= params.getLambda()) || (runClock - statsStart >= params.getPeriod());
       case STOP_CASE:
         return cntFinished >= params.getLambda();
       case STOP_TIME:
-        return runClock >= params.getPeriod();
+        return runClock - statsStart >= params.getPeriod();
       case STOP_NONE:
       default:
         return true;
@@ -150,17 +373,16 @@ public class SimRunner implements Runnable {
 
   private void initRun(int numRun) {
     runClock = 0;
+    statsStart = 0;
     cntFinished = 0;
     cntArrival = 0;
     eventList.clear();
-    avgWait = 0;
-    avgSvc = 0;
-    avgRunTime = 0;
+    resetCaseStats();
     log.clear();
     xesLog.clear();
+    openTraces.clear();
 
-    eventList = new PriorityQueue<SimulatorEvent>();
-    SimulatorEvent.reset();
+    eventCounters = new int[SimulatorEvent.EVT_DEATH + 1];
     // reset all Servers
     for (SimServer s : serverList.values()) s.reset();
     for (Object o : resUtil.getReservedResources().values().toArray())
@@ -172,7 +394,10 @@ public class SimRunner implements Runnable {
     caseMaker.reset();
     SimDistribution dist =
         new SimDistribution(
-            params.getDistCases(), params.getPeriod() / params.getLambda(), params.getCParam());
+            params.getDistCases(),
+            params.getPeriod() / params.getLambda(),
+            params.getCParam(),
+            createStream("arrivals"));
     caseMaker.setDistribution(dist);
     // create the first event
     eventList.add(new SimBirthEvent(this, runClock));
@@ -206,17 +431,14 @@ public class SimRunner implements Runnable {
     }
 
     // fire events to finsh started events
-    Object[] evts = eventList.toArray();
-    for (Object o : evts) {
-      SimulatorEvent e = (SimulatorEvent) o;
+    for (SimulatorEvent e : eventList.toArray()) {
       if (e instanceof SimDepartureEvent) {
         ((SimDepartureEvent) e).invoke();
         eventList.remove(e);
       }
     }
 
-    for (Object o : eventList.toArray()) {
-      SimulatorEvent e = (SimulatorEvent) o;
+    for (SimulatorEvent e : eventList.toArray()) {
       if (e instanceof SimDeathEvent) {
         ((SimDeathEvent) e).invoke();
         eventList.remove(e);
@@ -225,7 +447,7 @@ public class SimRunner implements Runnable {
 
     for (SimServer s : serverList.values()) {
       s.updateRunStats(runClock, 0);
-      s.updateQueue(runClock, -1);
+      s.updateQueue(runClock);
       SimServerStats sst = sStats.get(s);
       int nd = s.getCntDeparture();
       sst.setZeroDelays(s.getZeroDelays());
@@ -242,34 +464,41 @@ public class SimRunner implements Runnable {
         sst.setAvgServTime(s.getSvcTime() / nd);
       }
       sst.setMaxWaitTime(s.getMaxWaitTime());
+      sst.setWaitTimePercentiles(s.getWaitTimePercentiles());
+      sst.setServTimePercentiles(s.getSvcTimePercentiles());
       sStats.put(s, sst);
     }
 
+    double duration = runClock - statsStart;
     for (Resource r : resAlloc.getResources().values()) {
       ResourceStats rst = new ResourceStats(r.getName());
-      rst.setIdleTime(runClock - r.getBusyTime());
-      rst.setUtilizationRatio(r.getBusyTime() / runClock);
+      rst.setIdleTime(duration - r.getBusyTime());
+      rst.setUtilizationRatio(r.getBusyTime() / duration);
       rStats.put(r, rst);
     }
-    stats.setDuration(runClock);
+    stats.setDuration(duration);
 
     stats.setFinishedCases(cntFinished);
     if (cntFinished > 0) {
-      stats.setProcWaitTime(avgWait / cntFinished);
-      stats.setProcServTime(avgSvc / cntFinished);
-      stats.setProcCompTime(avgRunTime / cntFinished);
-      stats.setThroughPut(cntFinished / runClock * params.getPeriod());
+      stats.setProcWaitTime(caseWait.getMean());
+      stats.setProcServTime(caseService.getMean());
+      stats.setProcCompTime(caseCompletion.getMean());
+      stats.setProcCompTimePercentiles(completionPercentiles.getValues());
+      stats.setThroughPut(cntFinished / duration * params.getPeriod());
     }
     runStats.add(stats);
     return stats; // CN:modified
   }
 
   protected void generateReport() {
+    int runs = Math.max(1, runCount);
     int sum = 0;
     double sumDur = 0;
     double sumPST = 0;
     double sumPWT = 0;
     double sumPCT = 0;
+    double[] sumPCTPercentiles = null;
+    int[] countPCTPercentiles = null;
     double sumThp = 0;
 
     for (SimRunStats rs : runStats) {
@@ -278,6 +507,12 @@ public class SimRunner implements Runnable {
       sumPST += rs.getProcServTime();
       sumPWT += rs.getProcWaitTime();
       sumPCT += rs.getProcCompTime();
+      if (rs.getProcCompTimePercentiles() != null) {
+        sumPCTPercentiles =
+            SimReportServerStats.sum(sumPCTPercentiles, rs.getProcCompTimePercentiles());
+        countPCTPercentiles =
+            SimReportServerStats.count(countPCTPercentiles, rs.getProcCompTimePercentiles());
+      }
       sumThp += rs.getThroughPut();
 
       generateReportServerStats(rs);
@@ -285,39 +520,46 @@ public class SimRunner implements Runnable {
       generateReportResourceStats(rs);
     }
 
-    repStats.setAvgFinishedCases(sum / params.getRuns());
-    repStats.setDuration(sumDur / params.getRuns());
-    repStats.setProcWaitTime(sumPWT / params.getRuns());
-    repStats.setProcServTime(sumPST / params.getRuns());
-    repStats.setProcCompTime(sumPCT / params.getRuns());
-    repStats.setThroughPut(sumThp / params.getRuns());
-
+    repStats.setAvgFinishedCases(sum / runs);
+    repStats.setDuration(sumDur / runs);
+    repStats.setProcWaitTime(sumPWT / runs);
+    repStats.setProcServTime(sumPST / runs);
+    repStats.setProcCompTime(sumPCT / runs);
+    repStats.setProcCompTimePercentiles(
+        SimReportServerStats.average(sumPCTPercentiles, countPCTPercentiles));
+    repStats.setThroughPut(sumThp / runs);
+
+    repStats.setReplications(runCount);
+    repStats.setWarmUpTime(warmUpTime);
+    repStats.setConfidenceAnalysis(confidence);
     generateReportRepStats();
 
     runStats.add(repStats);
   }
 
   public void generateReportRepStats() {
+    int runs = Math.max(1, runCount);
     for (SimServerStats ss : repStats.getServStats().values()) {
       SimReportServerStats rss = (SimReportServerStats) ss;
-      rss.setAvgZeroDelays(rss.getAvgZeroDelays() / params.getRuns());
-      rss.setAvgCalls(rss.getAvgCalls() / params.getRuns());
-      rss.setAvgAccesses(rss.getAvgAccesses() / params.getRuns());
-      rss.setAvgDepartures(rss.getAvgDepartures() / params.getRuns());
-      rss.setAvgMaxQLength(rss.getAvgMaxQLength() / params.getRuns());
-      rss.setAvgMaxResNumber(rss.getAvgMaxResNumber() / params.getRuns());
-      rss.setAvgNumServedWhenStopped(rss.getAvgNumServedWhenStopped() / params.getRuns());
-      rss.setAvgQLengthWhenStopped(rss.getAvgQLengthWhenStopped() / params.getRuns());
-      rss.setAvgQLength(rss.getAvgQLength() / params.getRuns());
-      rss.setAvgResNumber(rss.getAvgResNumber() / params.getRuns());
-      rss.setAvgWaitTime(rss.getAvgWaitTime() / params.getRuns());
-      rss.setMaxWaitTime(rss.getMaxWaitTime() / params.getRuns());
-      rss.setAvgServTime(rss.getAvgServTime() / params.getRuns());
+      rss.setAvgZeroDelays(rss.getAvgZeroDelays() / runs);
+      rss.setAvgCalls(rss.getAvgCalls() / runs);
+      rss.setAvgAccesses(rss.getAvgAccesses() / runs);
+      rss.setAvgDepartures(rss.getAvgDepartures() / runs);
+      rss.setAvgMaxQLength(rss.getAvgMaxQLength() / runs);
+      rss.setAvgMaxResNumber(rss.getAvgMaxResNumber() / runs);
+      rss.setAvgNumServedWhenStopped(rss.getAvgNumServedWhenStopped() / runs);
+      rss.setAvgQLengthWhenStopped(rss.getAvgQLengthWhenStopped() / runs);
+      rss.setAvgQLength(rss.getAvgQLength() / runs);
+      rss.setAvgResNumber(rss.getAvgResNumber() / runs);
+      rss.setAvgWaitTime(rss.getAvgWaitTime() / runs);
+      rss.setMaxWaitTime(rss.getMaxWaitTime() / runs);
+      rss.setAvgServTime(rss.getAvgServTime() / runs);
+      rss.averagePercentiles();
     }
 
     for (ResourceStats rrs : repStats.getResStats().values()) {
-      rrs.setIdleTime(rrs.getIdleTime() / params.getRuns());
-      rrs.setUtilizationRatio(rrs.getUtilizationRatio() / params.getRuns());
+      rrs.setIdleTime(rrs.getIdleTime() / runs);
+      rrs.setUtilizationRatio(rrs.getUtilizationRatio() / runs);
     }
   }
 
@@ -356,6 +598,8 @@ public class SimRunner implements Runnable {
         rss.incAvgAvgWaitTime(ss.getAvgWaitTime());
         rss.incAvgMaxWaitTime(ss.getMaxWaitTime());
         rss.incAvgServTime(ss.getAvgServTime());
+        rss.incWaitTimePercentiles(ss.getWaitTimePercentiles());
+        rss.incServTimePercentiles(ss.getServTimePercentiles());
       } else {
         SimReportServerStats rss = new SimReportServerStats(ss.getName(), ss.getId());
         rss.setAvgZeroDelays(ss.getZeroDelays());
@@ -371,6 +615,8 @@ public class SimRunner implements Runnable {
         rss.setAvgWaitTime(ss.getAvgWaitTime());
         rss.setMaxWaitTime(ss.getMaxWaitTime());
         rss.setAvgServTime(ss.getAvgServTime());
+        rss.incWaitTimePercentiles(ss.getWaitTimePercentiles());
+        rss.incServTimePercentiles(ss.getServTimePercentiles());
         rss.setDistributionLogger(ss.getDistributionLogger());
         repStats.getServStats().put(s, rss);
       }
@@ -418,7 +664,12 @@ public class SimRunner implements Runnable {
         SimServer s;
         SimDistribution sd = null;
         if (n.gettime() > 0)
-          sd = new SimDistribution(params.getDistServ(), n.gettime(), params.getSParam());
+          sd =
+              new SimDistribution(
+                  params.getDistServ(),
+                  n.gettime(),
+                  params.getSParam(),
+                  createStream("service " + n.getid()));
         if (n.isAndJoin() && !n.isAndSplit()) {
           s = new SimJoinServer(this, n.getid(), n.getname(), n.getrole(), n.getgroup(), sd);
         } else if (n.isAndSplit() && !n.isAndJoin()) {
@@ -434,10 +685,13 @@ public class SimRunner implements Runnable {
   }
 
   public void finishCase(SimCase c) {
+    writeTrace(c.getid());
+    if (warmUp != null) warmUp.add(runClock, runClock - c.getsysArrivalTime());
     cntFinished++;
-    avgWait += c.getwaitTime();
-    avgSvc += c.getsvcTime();
-    avgRunTime += runClock - c.getsysArrivalTime();
+    caseWait.add(c.getwaitTime());
+    caseService.add(c.getsvcTime());
+    caseCompletion.add(runClock - c.getsysArrivalTime());
+    completionPercentiles.add(runClock - c.getsysArrivalTime());
   }
 
   public void addEvent(SimulatorEvent e) {
@@ -476,30 +730,22 @@ public class SimRunner implements Runnable {
     return params.getQueue();
   }
 
-  public PriorityQueue<SimulatorEvent> getEventList() {
+  public SimEventCalendar getEventList() {
     return eventList;
   }
 
   public String printEventList() {
     String s = "[";
-    Object[] list = eventList.toArray();
+    SimulatorEvent[] list = eventList.toArray();
     int l = list.length;
 
     if (l > 1) {
       for (int i = 0; i < l - 1; i++) {
-        s +=
-            ((SimulatorEvent) list[i]).getName()
-                + " : "
-                + ((SimulatorEvent) list[l - 1]).getTime()
-                + ",";
+        s += list[i].getName() + " : " + list[l - 1].getTime() + ",";
       }
     }
 
-    if (l > 0)
-      s +=
-          ((SimulatorEvent) list[l - 1]).getName()
-              + " : "
-              + ((SimulatorEvent) list[l - 1]).getTime();
+    if (l > 0) s += list[l - 1].getName() + " : " + list[l - 1].getTime();
 
     return s + "]";
   }
@@ -513,7 +759,8 @@ public class SimRunner implements Runnable {
   }
 
   public int getFinished() {
-    return cntFinished;
+    SimRunner replication = current;
+    return replication != null ? replication.cntFinished : cntFinished;
   }
 
   public HashMap<String, SimServer> getServerList() {
@@ -541,7 +788,8 @@ public class SimRunner implements Runnable {
   }
 
   public double getRunClock() {
-    return runClock;
+    SimRunner replication = current;
+    return replication != null ? replication.runClock : runClock;
   }
 
   public ArrayList<ActivityPanel> getActPanelList() {
@@ -549,7 +797,7 @@ public class SimRunner implements Runnable {
   }
 
   public int getMaxRun() {
-    return params.getRuns();
+    return Math.max(plannedRuns, params.getRuns());
   }
 
   public void addLog(int id, String name, double time) {
@@ -594,7 +842,18 @@ public class SimRunner implements Runnable {
               + Messages.getString("QuantAna.Simulation.Log.WaitTime")
               + String.format(" %.2f", wttime)
               + "\n");
-    xesLog.addEvent(caseid, new SimLogEvent(task, res, runtime, svctime));
+    if (params.getWriteLog() || logSink != null) {
+      SimLogEvent event = new SimLogEvent(task, res, runtime, svctime);
+      if (params.getWriteLog()) xesLog.addEvent(caseid, event);
+      if (logSink != null) {
+        List<SimLogEvent> trace = openTraces.get(caseid);
+        if (trace == null) {
+          trace = new ArrayList<SimLogEvent>();
+          openTraces.put(caseid, trace);
+        }
+        trace.add(event);
+      }
+    }
 
     //			log.add("RES "+res+" an TASK '"+task+"' um "+
     //					String.format("%.2f", runtime)+" gebunden; CASE_"+caseid+" Bedienzeit "+
@@ -609,4 +868,38 @@ public class SimRunner implements Runnable {
   public SimLog getXESLog() {
     return xesLog;
   }
+
+  /**
+   * Sets a sink that receives the event log while the simulation runs. The events of a case are
+   * passed as soon as the case is finished, the unfinished cases at the end of each replication.
+   * The traces are named by the case, prefixed by the replication if there is more than one. The
+   * sink is not closed by the simulation.
+   *
+   * <p>Unlike {@link #getXESLog()}, which is only kept if {@link SimParameters#getWriteLog()} is
+   * set, the log does not have to fit into memory.
+   *
+   * @param logSink the sink or null
+   */
+  public void setLogSink(SimLogSink logSink) {
+    this.logSink = logSink;
+  }
+
+  private void writeTrace(int caseID) {
+    if (logSink == null) return;
+    List<SimLogEvent> events = openTraces.remove(caseID);
+    if (events != null) {
+      String name = String.valueOf(caseID);
+      boolean replications = params.getRuns() > 1 || params.getPrecision() > 0;
+      logSink.writeTrace(replications ? (cntRun + 1) + "_" + name : name, events);
+    }
+  }
+
+  private void writeOpenTraces() {
+    if (logSink == null) return;
+    Integer[] cases = openTraces.keySet().toArray(new Integer[openTraces.size()]);
+    Arrays.sort(cases);
+    for (Integer caseID : cases) {
+      writeTrace(caseID);
+    }
+  }
 }
@@ -3,7 +3,9 @@ package org.woped.quantana.sim;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import org.woped.quantana.resourcealloc.Resource;
-import umontreal.iro.lecuyer.rng.MRG32k3a;
+import org.woped.quantana.sim.stats.Percentiles;
+import org.woped.quantana.sim.stats.Tally;
+import org.woped.quantana.sim.stats.TimeWeightedTally;
 import umontreal.iro.lecuyer.rng.RandomStream;
 
 public class SimServer {
@@ -11,8 +13,6 @@ public class SimServer {
   int tmpNumCaseParallel = 0;
   int numCaseParallel = 0;
 
-  int maxParallel = 0;
-  int maxQueueLength = 0;
   int cntDepartue = 0;
   int cntCalls = 0;
   int cnt0Delay = 0;
@@ -20,23 +20,20 @@ public class SimServer {
   String role = "";
   String group = "";
 
-  double servicetime = 0.0;
-  double timeLastChange = 0.0;
-  double maxWaitTime = 0.0;
-
-  double timeQueueLastChange = 0.0;
-  double timeWait = 0.0;
-
-  double avgNumRes = 0.0;
-  double queueLength = 0.0;
+  // the amount of cases in service and in the queue over the time
+  TimeWeightedTally parallelStats = new TimeWeightedTally();
+  TimeWeightedTally queueStats = new TimeWeightedTally();
+  Tally waitStats = new Tally();
+  Tally serviceStats = new Tally();
+  Percentiles waitPercentiles = new Percentiles();
+  Percentiles servicePercentiles = new Percentiles();
   SimRunner sim;
 
-  ArrayList<Double> rProbs = new ArrayList<Double>();
-  ArrayList<Double> qProbs = new ArrayList<Double>();
-
   SimDistributionLogger distLogger = null;
 
   RandomStream rand;
+  // chooses the order in which the queues are served after a service of this server ended
+  RandomStream queueOrderRand;
   SimDistribution dist = null;
 
   String id;
@@ -53,7 +50,8 @@ public class SimServer {
     this.dist = dist;
     this.name = name;
     if (dist != null) distLogger = new SimDistributionLogger(this.dist.getMean());
-    rand = new MRG32k3a();
+    rand = sim.createStream("routing " + id);
+    queueOrderRand = sim.createStream("queue order " + id);
   }
 
   public String getid() {
@@ -69,54 +67,55 @@ public class SimServer {
   }
 
   public void reset() {
-    timeWait = 0;
     tmpNumCaseParallel = 0;
     numCaseParallel = 0;
-    maxParallel = 0;
     cntDepartue = 0;
     cntCalls = 0;
     cnt0Delay = 0;
-    queueLength = 0;
-    servicetime = 0;
     queue.clear();
-    timeQueueLastChange = 0.0;
-    timeLastChange = 0.0;
-    maxQueueLength = 0;
-    maxWaitTime = 0.0;
     cntAccess = 0;
-    rProbs.clear();
-    qProbs.clear();
+    parallelStats.reset();
+    queueStats.reset();
+    resetTimes();
+  }
+
+  private void resetTimes() {
+    waitStats.reset();
+    serviceStats.reset();
+    waitPercentiles.reset();
+    servicePercentiles.reset();
+  }
+
+  /**
+   * Restarts the statistics at the end of the warm-up period. The cases in service and in the queue
+   * are kept, the maximum amounts of parallel cases and of the queue length restart at the current
+   * amounts.
+   *
+   * @param time the end of the warm-up period
+   */
+  public void deleteWarmUp(double time) {
+    cntDepartue = 0;
+    cntCalls = 0;
+    cnt0Delay = 0;
+    cntAccess = 0;
+    parallelStats.restart(time);
+    queueStats.restart(time);
+    resetTimes();
   }
 
+  /**
+   * Counts a case starting or finishing its service.
+   *
+   * @param time the current time
+   * @param type 1 if a case starts, -1 if a case finishes, 0 to update the statistics only
+   */
   public void updateRunStats(double time, int type) {
-    int num = numCaseParallel;
-    int max = maxParallel;
-    double tnew = (time - timeLastChange) / time;
-    avgNumRes = (1 - tnew) * avgNumRes + tnew * num;
-    if (max > 0) {
-      for (int i = 0; i < max; i++) {
-        try {
-          double p = rProbs.get(i).doubleValue();
-          p *= 1 - tnew;
-          if (num > i) {
-            p += tnew * num;
-          }
-          rProbs.set(i, new Double(p));
-        } catch (Exception e) {
-          e.printStackTrace();
-        }
-      }
-    }
-    timeLastChange = time;
     if (type > 0) {
-      if (num >= max) {
-        maxParallel = num + 1;
-        while (rProbs.size() < maxParallel) rProbs.add(new Double(0));
-      }
       numCaseParallel++;
-    } else {
+    } else if (type < 0) {
       numCaseParallel--;
     }
+    parallelStats.update(time, numCaseParallel);
   }
 
   public int getParallels() {
@@ -136,7 +135,8 @@ public class SimServer {
   }
 
   public void incServiceTime(double time) {
-    servicetime += time;
+    serviceStats.add(time);
+    servicePercentiles.add(time);
     if (distLogger != null) distLogger.addVal(time);
   }
 
@@ -153,8 +153,8 @@ public class SimServer {
   }
 
   public void incWaitTime(double addVal) {
-    timeWait += addVal;
-    maxWaitTime = Math.max(addVal, maxWaitTime);
+    waitStats.add(addVal);
+    waitPercentiles.add(addVal);
   }
 
   public boolean hasFreeCapacity() {
@@ -175,7 +175,7 @@ public class SimServer {
   }
 
   public double getMaxWaitTime() {
-    return maxWaitTime;
+    return waitStats.getCount() == 0 ? 0 : waitStats.getMax();
   }
 
   public double getNextServTime() {
@@ -248,7 +248,7 @@ public class SimServer {
     while (hasFreeCapacity() && !queue.isEmpty()) {
       Resource r = getResource();
       SimCase c = getCaseFromQueue();
-      updateQueue(time, -1);
+      updateQueue(time);
       SimActivity act = new SimActivity(c, this, r);
       SimStartEvent st = new SimStartEvent(sim, time, act);
       sim.addEvent(st);
@@ -257,32 +257,13 @@ public class SimServer {
     if (queue.isEmpty()) sim.getQueueingServers().remove(this);
   }
 
-  public void updateQueue(double time, int type) {
-    int qlen = queue.size();
-    double tnew = (time - timeQueueLastChange) / time;
-    queueLength = (1 - tnew) * queueLength + tnew * qlen;
-
-    if (maxQueueLength > 0) {
-      for (int i = 0; i < maxQueueLength; i++) {
-        double p = qProbs.get(i).doubleValue();
-        p *= 1 - tnew;
-        if (qlen > i) {
-          p += tnew * qlen;
-        }
-        qProbs.set(i, new Double(p));
-      }
-    }
-
-    timeQueueLastChange = time;
-    if (time != timeQueueLastChange) maxQueueLength = qlen + 1;
-    if (type > 0) {
-      if (qlen >= maxQueueLength) {
-        maxQueueLength = qlen + 1;
-        while (maxQueueLength > qProbs.size()) {
-          qProbs.add(new Double(0));
-        }
-      }
-    }
+  /**
+   * Updates the statistics of the queue after a case was added to or removed from the queue.
+   *
+   * @param time the current time
+   */
+  public void updateQueue(double time) {
+    queueStats.update(time, queue.size());
   }
 
   public int getCntDeparture() {
@@ -310,31 +291,48 @@ public class SimServer {
   }
 
   public double getQueueLength() {
-    return queueLength;
+    return queueStats.getMean();
   }
 
   public int getMaxQueueLength() {
-    return maxQueueLength;
+    return queueStats.getMax();
   }
 
-  public ArrayList<Double> getQueueProps() {
-    return qProbs;
+  /**
+   * @return the share of the time with each queue length from 0 to the maximum
+   */
+  public double[] getQueueProps() {
+    return queueStats.getProportions();
   }
 
   public double getAvgNumReserved() {
-    return avgNumRes;
+    return parallelStats.getMean();
   }
 
   public int getMaxParallel() {
-    return maxParallel;
+    return parallelStats.getMax();
   }
 
   public double getWaitTime() {
-    return timeWait;
+    return waitStats.getSum();
   }
 
   public double getSvcTime() {
-    return servicetime;
+    return serviceStats.getSum();
+  }
+
+  /**
+   * @return the median, the 95th and the 99th percentile of the wait times
+   */
+  public double[] getWaitTimePercentiles() {
+    return waitPercentiles.getValues();
+  }
+
+  /**
+   * @return the median, the 95th and the 99th percentile of the service times
+   */
+  public double[] getSvcTimePercentiles() {
+    return servicePercentiles.getValues();
   }
 
   public SimDistributionLogger getDistLogger() {
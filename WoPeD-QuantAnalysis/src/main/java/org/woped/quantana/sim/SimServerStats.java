@@ -1,7 +1,5 @@
 package org.woped.quantana.sim;
 
-import java.util.ArrayList;
-
 public class SimServerStats {
   protected int zeroDelays;
   protected int calls;
@@ -9,7 +7,7 @@ public class SimServerStats {
   protected int departures;
   protected double avgQLength;
   protected int maxQLength;
-  protected ArrayList<Double> queueProportions;
+  protected double[] queueProportions;
   protected double avgResNumber;
   protected int maxResNumber;
   protected double avgWaitTime;
@@ -17,6 +15,8 @@ public class SimServerStats {
   protected int numServedWhenStopped;
   protected int qLengthWhenStopped;
   protected double avgServTime;
+  protected double[] waitTimePercentiles;
+  protected double[] servTimePercentiles;
 
   protected String name;
   protected String id;
@@ -131,11 +131,14 @@ public class SimServerStats {
     qLengthWhenStopped = lengthWhenStopped;
   }
 
-  public ArrayList<Double> getQueueProportions() {
+  /**
+   * @return the share of the time with each queue length from 0 to the maximum
+   */
+  public double[] getQueueProportions() {
     return queueProportions;
   }
 
-  public void setQueueProportions(ArrayList<Double> queueProportions) {
+  public void setQueueProportions(double[] queueProportions) {
     this.queueProportions = queueProportions;
   }
 
@@ -155,6 +158,29 @@ public class SimServerStats {
     this.avgServTime = avgServTime;
   }
 
+  /**
+   * @return the median, the 95th and the 99th percentile of the wait times, null if not collected
+   */
+  public double[] getWaitTimePercentiles() {
+    return waitTimePercentiles;
+  }
+
+  public void setWaitTimePercentiles(double[] waitTimePercentiles) {
+    this.waitTimePercentiles = waitTimePercentiles;
+  }
+
+  /**
+   * @return the median, the 95th and the 99th percentile of the service times, null if not
+   *     collected
+   */
+  public double[] getServTimePercentiles() {
+    return servTimePercentiles;
+  }
+
+  public void setServTimePercentiles(double[] servTimePercentiles) {
+    this.servTimePercentiles = servTimePercentiles;
+  }
+
   public void setDistributionLogger(SimDistributionLogger distLogger) {
     this.distLogger = distLogger;
   }
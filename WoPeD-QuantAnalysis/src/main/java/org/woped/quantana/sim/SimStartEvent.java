@@ -31,25 +31,9 @@ public class SimStartEvent extends SimulatorEvent {
     c.addWaitTime(wait);
     if (r != null) {
       r.setLastStartTime(time);
-      ActivityPanel ap;
-      if (c instanceof SimCaseCopy) {
-        ((SimCaseCopy) c).getOriginal().getid();
-        Color rc = r.getColor();
-        Color co = new Color(rc.getRed(), rc.getGreen(), rc.getBlue(), ActivityPanel.AP_ALPHA);
-        ap =
-            new ActivityPanel(
-                time, (time + serv), s.getName() + " (" + s.getid() + ")", r.getName(), c, co);
-      } else {
-        ap =
-            new ActivityPanel(
-                time,
-                (time + serv),
-                s.getName() + " (" + s.getid() + ")",
-                r.getName(),
-                c,
-                r.getColor());
+      if (sim.params.isRecordActivities()) {
+        sim.getActPanelList().add(createActivityPanel(time, serv));
       }
-      sim.getActPanelList().add(ap);
       if (c instanceof SimCaseCopy)
         sim.addLog(r.getName(), s.getName(), ((SimCaseCopy) c).getorigid(), serv, wait, time);
       else sim.addLog(r.getName(), s.getName(), c.getid(), serv, wait, time);
@@ -59,4 +43,21 @@ public class SimStartEvent extends SimulatorEvent {
     sim.addEvent(sp);
     s.incCntAccess();
   }
+
+  private ActivityPanel createActivityPanel(double time, double serv) {
+    if (c instanceof SimCaseCopy) {
+      Color rc = r.getColor();
+      Color co = new Color(rc.getRed(), rc.getGreen(), rc.getBlue(), ActivityPanel.AP_ALPHA);
+      return new ActivityPanel(
+          time, (time + serv), s.getName() + " (" + s.getid() + ")", r.getName(), c, co);
+    } else {
+      return new ActivityPanel(
+          time, (time + serv), s.getName() + " (" + s.getid() + ")", r.getName(), c, r.getColor());
+    }
+  }
+
+  @Override
+  int getType() {
+    return EVT_SVC_START;
+  }
 }
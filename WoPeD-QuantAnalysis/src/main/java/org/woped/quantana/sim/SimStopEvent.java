@@ -29,7 +29,7 @@ public class SimStopEvent extends SimulatorEvent {
     if (sim.getQueueingServers().size() > 0) {
       ArrayList<SimServer> al = (ArrayList<SimServer>) sim.getQueueingServers().clone();
       while (al.size() > 0) {
-        SimServer s = (SimServer) al.get((int) (Math.random() * al.size()));
+        SimServer s = (SimServer) al.get(this.s.queueOrderRand.nextInt(0, al.size() - 1));
         s.handleQueue(time);
         al.remove(s);
       }
@@ -42,4 +42,9 @@ public class SimStopEvent extends SimulatorEvent {
     s.incServiceTime(c.getnextSvcTime());
     c.updateSvcTime();
   }
+
+  @Override
+  int getType() {
+    return EVT_SVC_END;
+  }
 }
@@ -0,0 +1,88 @@
+package org.woped.quantana.sim;
+
+import java.util.Arrays;
+
+/**
+ * Detects the end of the warm-up period of a run with the MSER-5 rule.
+ *
+ * <p>The observations, e.g. the completion times of the cases in the order they finish, are
+ * averaged in batches of {@link #BATCH_SIZE}. The warm-up ends after the first {@code d} batches
+ * that minimize the squared error of the remaining batches divided by the square of their amount.
+ * Only the first half of the batches is considered, if the minimum is later the run is too short to
+ * reach a steady state.
+ */
+public class SimWarmUp {
+
+  public static final int BATCH_SIZE = 5;
+
+  // runs with less batches are too short for the rule
+  private static final int MIN_BATCHES = 10;
+
+  private double[] means = new double[64];
+  // the time of the last observation of each batch
+  private double[] times = new double[64];
+  private int batches = 0;
+  private double batchSum = 0;
+  private int batchCount = 0;
+
+  /**
+   * @param time the time of the observation
+   * @param value the observed value
+   */
+  public void add(double time, double value) {
+    batchSum += value;
+    if (++batchCount == BATCH_SIZE) {
+      if (batches == means.length) {
+        means = Arrays.copyOf(means, batches * 2);
+        times = Arrays.copyOf(times, batches * 2);
+      }
+      means[batches] = batchSum / BATCH_SIZE;
+      times[batches] = time;
+      batches++;
+      batchSum = 0;
+      batchCount = 0;
+    }
+  }
+
+  /**
+   * @return the amount of complete batches
+   */
+  public int getBatches() {
+    return batches;
+  }
+
+  /**
+   * @return the amount of batches that belong to the warm-up period
+   */
+  public int getTruncation() {
+    if (batches < MIN_BATCHES) {
+      return 0;
+    }
+    int result = 0;
+    double min = Double.POSITIVE_INFINITY;
+    double sum = 0;
+    double sumSq = 0;
+    for (int d = batches - 1; d >= 0; d--) {
+      sum += means[d];
+      sumSq += means[d] * means[d];
+      if (d <= batches / 2) {
+        int n = batches - d;
+        double error = Math.max(0, sumSq - sum * sum / n) / ((double) n * n);
+        // prefer the shortest warm-up
+        if (error <= min) {
+          min = error;
+          result = d;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the time of the last observation of the warm-up period, 0 if there is none
+   */
+  public double getWarmUpTime() {
+    int d = getTruncation();
+    return d == 0 ? 0 : times[d - 1];
+  }
+}
@@ -1,5 +1,10 @@
 package org.woped.quantana.sim;
 
+/**
+ * An event of the simulation, scheduled in the {@link SimEventCalendar} of its runner.
+ *
+ * <p>The event is numbered by type when it is created, its name is only built when it is requested.
+ */
 public abstract class SimulatorEvent implements Comparable<SimulatorEvent> {
 
   public static final int EVT_BIRTH = 0;
@@ -9,28 +14,39 @@ public abstract class SimulatorEvent implements Comparable<SimulatorEvent> {
   public static final int EVT_DEPARTURE = 4;
   public static final int EVT_DEATH = 6;
 
-  private static int cntBIR = 0;
-  private static int cntARR = 0;
-  private static int cntSTA = 0;
-  private static int cntSTO = 0;
-  private static int cntDEP = 0;
-  private static int cntDEA = 0;
-  private static int cntUKN = 0;
+  // index of the counter of unknown events, see SimRunner#nextEventNumber(int)
+  static final int EVT_UNKNOWN = 5;
+
+  private static final String[] PREFIXES = {"BE", "AE", "ST", "SP", "DP", "evtUnknown", "DE"};
 
   double time;
   SimRunner sim;
-  String name;
+  private final int number;
+  private String name = null;
+  // the position in the calendar, -1 if not scheduled
+  int index = -1;
 
   public SimulatorEvent(SimRunner sim, double time) {
     this.sim = sim;
     this.time = time;
-    name = getNewName();
+    // the counters are kept by the runner, so concurrent runners do not share them
+    number = sim.nextEventNumber(getType());
   }
 
   public String getName() {
+    if (name == null) {
+      name = PREFIXES[getType()] + number;
+    }
     return name;
   }
 
+  /**
+   * @return the type of the event, one of the {@code EVT_} constants
+   */
+  int getType() {
+    return EVT_UNKNOWN;
+  }
+
   public double getTime() {
     return time;
   }
@@ -51,30 +67,4 @@ public abstract class SimulatorEvent implements Comparable<SimulatorEvent> {
     else if (t < this.time) return 1;
     else return 0;
   }
-
-  String getNewName() {
-    if (this instanceof SimBirthEvent) {
-      return "BE" + (++cntBIR);
-    } else if (this instanceof SimArriveEvent) {
-      return "AE" + (++cntARR);
-    } else if (this instanceof SimStartEvent) {
-      return "ST" + (++cntSTA);
-    } else if (this instanceof SimStopEvent) {
-      return "SP" + (++cntSTO);
-    } else if (this instanceof SimDepartureEvent) {
-      return "DP" + (++cntDEP);
-    } else if (this instanceof SimDeathEvent) {
-      return "DE" + (++cntDEA);
-    } else return "evtUnknown" + (++cntUKN);
-  }
-
-  public static void reset() {
-    cntBIR = 0;
-    cntARR = 0;
-    cntSTA = 0;
-    cntSTO = 0;
-    cntDEP = 0;
-    cntDEA = 0;
-    cntUKN = 0;
-  }
 }
@@ -0,0 +1,128 @@
+package org.woped.quantana.sim.stats;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a quantile of a stream of observations in constant memory with the P-square algorithm
+ * of Jain and Chlamtac.
+ *
+ * <p>Five markers track the minimum, the quantile, the maximum and the quantiles halfway between
+ * them. Each observation moves the markers towards their desired positions, their heights are
+ * adjusted with a piecewise parabolic interpolation. Up to five observations the quantile is exact.
+ */
+public class P2Quantile {
+
+  private final double p;
+  // the heights, actual positions, desired positions and their increments of the markers
+  private final double[] heights = new double[5];
+  private final int[] positions = new int[5];
+  private final double[] desired = new double[5];
+  private final double[] increments;
+  private long count = 0;
+
+  /**
+   * @param p the probability of the quantile, e.g. 0.95
+   */
+  public P2Quantile(double p) {
+    if (p <= 0 || p >= 1) {
+      throw new IllegalArgumentException("The probability must be within (0, 1): " + p);
+    }
+    this.p = p;
+    increments = new double[] {0, p / 2, p, (1 + p) / 2, 1};
+  }
+
+  public double getProbability() {
+    return p;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @param value the observed value
+   */
+  public void add(double value) {
+    if (count < 5) {
+      heights[(int) count++] = value;
+      if (count == 5) {
+        Arrays.sort(heights);
+        for (int i = 0; i < 5; i++) {
+          positions[i] = i + 1;
+        }
+        desired[0] = 1;
+        desired[1] = 1 + 2 * p;
+        desired[2] = 1 + 4 * p;
+        desired[3] = 3 + 2 * p;
+        desired[4] = 5;
+      }
+      return;
+    }
+    count++;
+
+    int cell;
+    if (value < heights[0]) {
+      heights[0] = value;
+      cell = 0;
+    } else if (value >= heights[4]) {
+      heights[4] = value;
+      cell = 3;
+    } else {
+      cell = 0;
+      while (value >= heights[cell + 1]) cell++;
+    }
+    for (int i = cell + 1; i < 5; i++) {
+      positions[i]++;
+    }
+    for (int i = 0; i < 5; i++) {
+      desired[i] += increments[i];
+    }
+
+    for (int i = 1; i < 4; i++) {
+      double d = desired[i] - positions[i];
+      if ((d >= 1 && positions[i + 1] - positions[i] > 1)
+          || (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+        int s = d > 0 ? 1 : -1;
+        double height = parabolic(i, s);
+        if (heights[i - 1] < height && height < heights[i + 1]) {
+          heights[i] = height;
+        } else {
+          heights[i] =
+              heights[i] + s * (heights[i + s] - heights[i]) / (positions[i + s] - positions[i]);
+        }
+        positions[i] += s;
+      }
+    }
+  }
+
+  private double parabolic(int i, int s) {
+    double left = positions[i] - positions[i - 1];
+    double right = positions[i + 1] - positions[i];
+    return heights[i]
+        + s
+            / (double) (positions[i + 1] - positions[i - 1])
+            * ((left + s) * (heights[i + 1] - heights[i]) / right
+                + (right - s) * (heights[i] - heights[i - 1]) / left);
+  }
+
+  /**
+   * @return the estimated quantile, NaN if there are no observations
+   */
+  public double getQuantile() {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (count < 5) {
+      double[] values = Arrays.copyOf(heights, (int) count);
+      Arrays.sort(values);
+      int rank = (int) Math.ceil(p * count);
+      return values[Math.max(0, rank - 1)];
+    }
+    return heights[2];
+  }
+
+  /** Removes all observations. */
+  public void reset() {
+    count = 0;
+  }
+}
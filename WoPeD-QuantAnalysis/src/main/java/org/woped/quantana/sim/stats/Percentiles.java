@@ -0,0 +1,53 @@
+package org.woped.quantana.sim.stats;
+
+/** Estimates several quantiles of a stream of observations, each with a {@link P2Quantile}. */
+public class Percentiles {
+
+  /** The probabilities of the median, the 95th and the 99th percentile. */
+  public static final double[] P50_P95_P99 = {0.5, 0.95, 0.99};
+
+  private final P2Quantile[] quantiles;
+
+  /** Estimates the median, the 95th and the 99th percentile. */
+  public Percentiles() {
+    this(P50_P95_P99);
+  }
+
+  /**
+   * @param probabilities the probabilities of the quantiles, each within (0, 1)
+   */
+  public Percentiles(double[] probabilities) {
+    quantiles = new P2Quantile[probabilities.length];
+    for (int i = 0; i < probabilities.length; i++) {
+      quantiles[i] = new P2Quantile(probabilities[i]);
+    }
+  }
+
+  /**
+   * @param value the observed value
+   */
+  public void add(double value) {
+    for (P2Quantile quantile : quantiles) {
+      quantile.add(value);
+    }
+  }
+
+  /**
+   * @return the estimated quantiles in the order of their probabilities, NaN if there are no
+   *     observations
+   */
+  public double[] getValues() {
+    double[] result = new double[quantiles.length];
+    for (int i = 0; i < quantiles.length; i++) {
+      result[i] = quantiles[i].getQuantile();
+    }
+    return result;
+  }
+
+  /** Removes all observations. */
+  public void reset() {
+    for (P2Quantile quantile : quantiles) {
+      quantile.reset();
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.woped.quantana.sim.stats;
+
+/**
+ * Collects the count, sum, mean, variance, minimum and maximum of observations in constant memory.
+ *
+ * <p>The mean and the variance are updated with Welford's method, which does not lose precision
+ * when the values are large compared to their differences. Two tallies are combined with the
+ * formula of Chan et al.
+ */
+public class Tally {
+
+  private long count = 0;
+  private double sum = 0;
+  private double mean = 0;
+  // the sum of the squared deviations from the mean
+  private double m2 = 0;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  /**
+   * @param value the observed value
+   */
+  public void add(double value) {
+    count++;
+    sum += value;
+    double delta = value - mean;
+    mean += delta / count;
+    m2 += delta * (value - mean);
+    if (count == 1 || value < min) min = value;
+    if (count == 1 || value > max) max = value;
+  }
+
+  /**
+   * Adds the observations of another tally.
+   *
+   * @param other the tally to add, it is not changed
+   */
+  public void add(Tally other) {
+    if (other.count == 0) {
+      return;
+    }
+    if (count == 0) {
+      count = other.count;
+      sum = other.sum;
+      mean = other.mean;
+      m2 = other.m2;
+      min = other.min;
+      max = other.max;
+      return;
+    }
+    long total = count + other.count;
+    double delta = other.mean - mean;
+    mean += delta * other.count / total;
+    m2 += other.m2 + delta * delta * count * other.count / total;
+    count = total;
+    sum += other.sum;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /** Removes all observations. */
+  public void reset() {
+    count = 0;
+    sum = 0;
+    mean = 0;
+    m2 = 0;
+    min = Double.NaN;
+    max = Double.NaN;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getSum() {
+    return sum;
+  }
+
+  /**
+   * @return the mean, 0 if there are no observations
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * @return the sample variance, NaN if there are less than two observations
+   */
+  public double getVariance() {
+    return count < 2 ? Double.NaN : m2 / (count - 1);
+  }
+
+  /**
+   * @return the sample standard deviation, NaN if there are less than two observations
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * @return the smallest value, NaN if there are no observations
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * @return the largest value, NaN if there are no observations
+   */
+  public double getMax() {
+    return max;
+  }
+}
@@ -0,0 +1,101 @@
+package org.woped.quantana.sim.stats;
+
+import java.util.Arrays;
+
+/**
+ * Collects the time average and the histogram of a level that changes over time, e.g. the length of
+ * a queue.
+ *
+ * <p>The level is set at each change. The time since the previous change is added to the area below
+ * the level and to the time spent at the previous level, so an update takes constant time. The
+ * histogram is a primitive array indexed by the level.
+ */
+public class TimeWeightedTally {
+
+  private double start = 0;
+  private double lastChange = 0;
+  private int level = 0;
+  private int max = 0;
+  // the integral of the level over the time
+  private double area = 0;
+  private double[] timeAtLevel = new double[8];
+
+  /**
+   * Sets a new level. The previous level is counted from the previous change until the time.
+   *
+   * @param time the time of the change, not before the previous change
+   * @param newLevel the level from the time on, not negative
+   */
+  public void update(double time, int newLevel) {
+    double elapsed = time - lastChange;
+    area += elapsed * level;
+    timeAtLevel[level] += elapsed;
+    lastChange = time;
+    level = newLevel;
+    if (newLevel > max) {
+      max = newLevel;
+    }
+    if (newLevel >= timeAtLevel.length) {
+      timeAtLevel = Arrays.copyOf(timeAtLevel, Math.max(newLevel + 1, 2 * timeAtLevel.length));
+    }
+  }
+
+  /**
+   * Restarts the statistics at a time. The current level is kept and becomes the maximum.
+   *
+   * @param time the new start of the statistics
+   */
+  public void restart(double time) {
+    start = time;
+    lastChange = time;
+    area = 0;
+    max = level;
+    Arrays.fill(timeAtLevel, 0);
+  }
+
+  /** Restarts the statistics at the time 0 with the level 0. */
+  public void reset() {
+    level = 0;
+    restart(0);
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * @return the highest level since the start
+   */
+  public int getMax() {
+    return max;
+  }
+
+  /**
+   * @return the integral of the level from the start until the last change
+   */
+  public double getArea() {
+    return area;
+  }
+
+  /**
+   * @return the time average of the level from the start until the last change, 0 if no time has
+   *     passed
+   */
+  public double getMean() {
+    double duration = lastChange - start;
+    return duration > 0 ? area / duration : 0;
+  }
+
+  /**
+   * @return the share of the time from the start until the last change spent at each level from 0
+   *     to {@link #getMax()}
+   */
+  public double[] getProportions() {
+    double duration = lastChange - start;
+    double[] result = new double[max + 1];
+    for (int i = 0; i <= max; i++) {
+      result[i] = duration > 0 ? timeAtLevel[i] / duration : 0;
+    }
+    return result;
+  }
+}
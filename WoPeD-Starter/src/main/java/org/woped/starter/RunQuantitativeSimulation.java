@@ -0,0 +1,173 @@
+package org.woped.starter;
+
+import com.google.gson.JsonObject;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.woped.config.general.WoPeDGeneralConfiguration;
+import org.woped.core.controller.IEditor;
+import org.woped.file.PNMLImport;
+import org.woped.quantana.batch.BatchParameters;
+import org.woped.quantana.batch.BatchSimulation;
+import org.woped.quantana.batch.SimReportWriter;
+import org.woped.quantana.sim.SimLogSink;
+import org.woped.quantana.sim.SimLogWriter;
+import org.woped.quantana.sim.SimParameters;
+import org.woped.starter.controller.vc.DefaultApplicationMediator;
+
+/**
+ * Runs the quantitative simulation of nets without a user interface.
+ *
+ * <p>Usage: {@code RunQuantitativeSimulation <parameters> <result> <net.pnml>...}. The parameters
+ * are read from a properties file, see {@link BatchParameters}. The result is written as CSV if its
+ * name ends with {@code .csv}, otherwise as JSON. If the parameters contain a {@code log}
+ * extension, the event log of each net is written next to the result, named like the net.
+ *
+ * <p>The nets are loaded one after the other and simulated in parallel. Each simulation runs its
+ * replications on {@code threads} threads, so {@code threads=1} simulates as many nets at the same
+ * time as there are processors. The exit code is 1 if a net could not be simulated and 2 for
+ * invalid arguments.
+ */
+public class RunQuantitativeSimulation {
+
+  private static final String USAGE =
+      "Usage: RunQuantitativeSimulation <parameters.properties> <result.json|result.csv>"
+          + " <net.pnml>...";
+
+  private final BatchParameters parameters;
+  private final DefaultApplicationMediator mediator;
+  private File logDirectory;
+
+  private RunQuantitativeSimulation(BatchParameters parameters) {
+    this.parameters = parameters;
+    mediator = new DefaultApplicationMediator(null, new WoPeDGeneralConfiguration());
+  }
+
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+    System.setProperty("java.awt.headless", "true");
+
+    BatchParameters parameters;
+    try (Reader reader =
+        new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8)) {
+      parameters = new BatchParameters(reader);
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("Invalid parameters " + args[0] + ": " + e.getMessage());
+      System.exit(2);
+      return;
+    }
+
+    List<File> nets = new ArrayList<File>();
+    for (int i = 2; i < args.length; i++) {
+      nets.add(new File(args[i]));
+    }
+    int failed = new RunQuantitativeSimulation(parameters).run(nets, new File(args[1]));
+    System.exit(failed > 0 ? 1 : 0);
+  }
+
+  /**
+   * @return the amount of nets that could not be simulated
+   */
+  private int run(List<File> nets, File resultFile) {
+    logDirectory = resultFile.getAbsoluteFile().getParentFile();
+    int threads = parameters.createParameters().getThreads();
+    int parallel = Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, threads));
+    ExecutorService executor = Executors.newFixedThreadPool(parallel);
+    List<Future<JsonObject>> results = new ArrayList<Future<JsonObject>>();
+    for (File net : nets) {
+      results.add(executor.submit(() -> simulate(net)));
+    }
+
+    int failed = 0;
+    boolean csv = resultFile.getName().toLowerCase().endsWith(".csv");
+    try (Writer writer =
+        new OutputStreamWriter(new FileOutputStream(resultFile), StandardCharsets.UTF_8)) {
+      List<JsonObject> json = new ArrayList<JsonObject>();
+      if (csv) {
+        writer.write(SimReportWriter.CSV_HEADER + System.lineSeparator());
+      }
+      for (int i = 0; i < nets.size(); i++) {
+        try {
+          JsonObject result = results.get(i).get();
+          if (csv) {
+            SimReportWriter.writeCsv(result, writer);
+            writer.flush();
+          } else {
+            json.add(result);
+          }
+        } catch (ExecutionException e) {
+          failed++;
+          System.err.println("Simulation of " + nets.get(i) + " failed: " + e.getCause());
+        }
+      }
+      if (!csv) {
+        SimReportWriter.writeJson(json, writer);
+      }
+    } catch (IOException e) {
+      System.err.println("Cannot write " + resultFile + ": " + e.getMessage());
+      failed = nets.size();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failed = nets.size();
+    } finally {
+      executor.shutdownNow();
+    }
+    return failed;
+  }
+
+  private JsonObject simulate(File net) throws IOException {
+    IEditor editor;
+    // the mediator and the import are not thread safe
+    synchronized (mediator) {
+      PNMLImport pnmlImport = new PNMLImport(mediator);
+      try (InputStream in = new FileInputStream(net)) {
+        if (!pnmlImport.run(in, net.getName(), false)) {
+          throw new IOException("Cannot load " + net);
+        }
+      }
+      editor = pnmlImport.getEditor()[0];
+    }
+    try (SimLogSink logSink = openLog(net)) {
+      SimParameters params = parameters.createParameters();
+      BatchSimulation simulation =
+          new BatchSimulation(editor, params, parameters.createTimeModel());
+      simulation.setLogSink(logSink);
+      JsonObject result = SimReportWriter.toJson(net.getName(), simulation.run());
+      for (String task : simulation.getResourceProblems()) {
+        System.err.println(net.getName() + ": no resource for task " + task);
+      }
+      return result;
+    } finally {
+      synchronized (mediator) {
+        mediator.removeViewController(editor);
+      }
+    }
+  }
+
+  /**
+   * @return the sink of the event log of the net or null if no log is written
+   */
+  private SimLogSink openLog(File net) throws IOException {
+    if (parameters.getLogExtension() == null) {
+      return null;
+    }
+    String name = net.getName().replaceFirst("\\.[^.]*$", "");
+    return SimLogWriter.open(new File(logDirectory, name + "." + parameters.getLogExtension()));
+  }
+}
@@ -0,0 +1,109 @@
+package org.woped.starter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import org.woped.config.general.WoPeDGeneralConfiguration;
+import org.woped.core.controller.IEditor;
+import org.woped.core.model.PetriNetModelProcessor;
+import org.woped.file.PNMLImport;
+import org.woped.qualanalysis.simulation.ReplayResult;
+import org.woped.qualanalysis.simulation.TokenGameReplay;
+import org.woped.starter.controller.vc.DefaultApplicationMediator;
+
+/**
+ * Replays the simulations saved with nets without a user interface, e.g. to check that they are
+ * still valid after the nets have been changed.
+ *
+ * <p>Usage: {@code RunTokenGameReplay <net.pnml>...}. Each simulation of a net is replayed from the
+ * initial marking of the net, see {@link TokenGameReplay}. A line is written for each simulation:
+ * the net, the id and name of the simulation, its amount of steps and either {@code valid} or the
+ * index and element of the first step that could not be fired. The exit code is 1 if a simulation
+ * is invalid or a net could not be loaded and 2 for invalid arguments.
+ */
+public class RunTokenGameReplay {
+
+  private static final String USAGE = "Usage: RunTokenGameReplay <net.pnml>...";
+
+  private final DefaultApplicationMediator mediator;
+
+  private RunTokenGameReplay() {
+    mediator = new DefaultApplicationMediator(null, new WoPeDGeneralConfiguration());
+  }
+
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+    System.setProperty("java.awt.headless", "true");
+
+    RunTokenGameReplay replay = new RunTokenGameReplay();
+    int failed = 0;
+    for (String net : args) {
+      failed += replay.replay(new File(net));
+    }
+    System.exit(failed > 0 ? 1 : 0);
+  }
+
+  /**
+   * @return the amount of invalid simulations, 1 if the net could not be loaded
+   */
+  private int replay(File net) {
+    IEditor editor;
+    try {
+      editor = load(net);
+    } catch (IOException e) {
+      System.err.println("Cannot load " + net + ": " + e.getMessage());
+      return 1;
+    }
+    try {
+      PetriNetModelProcessor processor = editor.getModelProcessor();
+      TokenGameReplay replay = new TokenGameReplay(processor.getElementContainer());
+      List<ReplayResult> results = replay.replayAll(processor.getSimulations());
+      int failed = 0;
+      for (ReplayResult result : results) {
+        StringBuilder line = new StringBuilder();
+        line.append(net.getName())
+            .append('\t')
+            .append(result.getSimulationId())
+            .append('\t')
+            .append(result.getSimulationName())
+            .append('\t')
+            .append(result.getNumSteps())
+            .append('\t');
+        if (result.isValid()) {
+          line.append("valid");
+        } else {
+          failed++;
+          line.append("invalid at step ")
+              .append(result.getFailedStep() + 1)
+              .append(' ')
+              .append(
+                  result.getFailedElementId() == null
+                      ? "(removed element)"
+                      : result.getFailedElementId());
+        }
+        System.out.println(line);
+      }
+      return failed;
+    } catch (RuntimeException e) {
+      System.err.println("Replay of " + net + " failed: " + e);
+      return 1;
+    } finally {
+      mediator.removeViewController(editor);
+    }
+  }
+
+  private IEditor load(File net) throws IOException {
+    PNMLImport pnmlImport = new PNMLImport(mediator);
+    try (InputStream in = new FileInputStream(net)) {
+      if (!pnmlImport.run(in, net.getName(), false)) {
+        throw new IOException("Cannot load " + net);
+      }
+    }
+    return pnmlImport.getEditor()[0];
+  }
+}
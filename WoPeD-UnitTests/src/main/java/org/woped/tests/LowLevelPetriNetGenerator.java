@@ -178,4 +178,102 @@ public class LowLevelPetriNetGenerator {
 
     return net;
   }
+
+  /**
+   * Creates a low level petri net for testing purposes.
+   *
+   * <p>The generated net is a workflow net with an and split into the given amount of parallel
+   * branches followed by an and join. It consists of the places i, o, a1..an, b1..bn and the
+   * transitions split, join, t1..tn with the marking (1 0 ... 0) on i. Every branch k is a1 -> tk
+   * -> bk. If {@code withTStar} is set, a transition t* moves the token from o back to i.
+   *
+   * @param branches the amount of parallel branches
+   * @param withTStar true if the short circuit transition t* should be added
+   * @return a low level petri net for testing
+   */
+  public ILowLevelPetriNet createParallelNet(int branches, boolean withTStar) {
+    ILowLevelPetriNet net = new LowLevelPetriNet();
+
+    PlaceNode source = new PlaceNode(1, 0, "i", "i", "i");
+    PlaceNode sink = new PlaceNode(0, 0, "o", "o", "o");
+    TransitionNode split =
+        new TransitionNode("split", "split", "split", OperatorTransitionModel.AND_SPLIT_TYPE);
+    TransitionNode join =
+        new TransitionNode("join", "join", "join", OperatorTransitionModel.AND_JOIN_TYPE);
+
+    net.addNode(source);
+    net.addNode(sink);
+    net.addNode(split);
+    net.addNode(join);
+
+    connect(source, split);
+    connect(join, sink);
+
+    for (int k = 1; k <= branches; k++) {
+      PlaceNode in = new PlaceNode(0, 0, "a" + k, "a" + k, "a" + k);
+      PlaceNode out = new PlaceNode(0, 0, "b" + k, "b" + k, "b" + k);
+      TransitionNode t =
+          new TransitionNode("t" + k, "t" + k, "t" + k, OperatorTransitionModel.TRANS_SIMPLE_TYPE);
+      net.addNode(in);
+      net.addNode(out);
+      net.addNode(t);
+
+      connect(split, in);
+      connect(in, t);
+      connect(t, out);
+      connect(out, join);
+    }
+
+    if (withTStar) {
+      TransitionNode tStar =
+          new TransitionNode("t*", "t*", "t*", OperatorTransitionModel.TRANS_SIMPLE_TYPE);
+      net.addNode(tStar);
+      connect(sink, tStar);
+      connect(tStar, source);
+    }
+
+    return net;
+  }
+
+  /**
+   * Creates a low level petri net for testing purposes.
+   *
+   * <p>The generated net is unbounded: p1 -> t1 -> (p1, p2), p2 -> t2 -> p3 with the marking (1 0
+   * 0) (p1 p2 p3). Transition t1 produces tokens on p2 forever, so p2 and p3 are unbounded.
+   *
+   * @return a low level petri net for testing
+   */
+  public ILowLevelPetriNet createUnboundedNet() {
+    ILowLevelPetriNet net = new LowLevelPetriNet();
+
+    PlaceNode p1 = new PlaceNode(1, 0, "p1", "p1", "p1");
+    PlaceNode p2 = new PlaceNode(0, 0, "p2", "p2", "p2");
+    PlaceNode p3 = new PlaceNode(0, 0, "p3", "p3", "p3");
+    TransitionNode t1 =
+        new TransitionNode("t1", "t1", "t1", OperatorTransitionModel.TRANS_SIMPLE_TYPE);
+    TransitionNode t2 =
+        new TransitionNode("t2", "t2", "t2", OperatorTransitionModel.TRANS_SIMPLE_TYPE);
+
+    net.addNode(p1);
+    net.addNode(p2);
+    net.addNode(p3);
+    net.addNode(t1);
+    net.addNode(t2);
+
+    connect(p1, t1);
+    connect(t1, p1);
+    connect(t1, p2);
+    connect(p2, t2);
+    connect(t2, p3);
+
+    return net;
+  }
+
+  private void connect(PlaceNode place, TransitionNode transition) {
+    place.addSuccessorNode(transition);
+  }
+
+  private void connect(TransitionNode transition, PlaceNode place) {
+    transition.addSuccessorNode(place);
+  }
 }
@@ -0,0 +1,45 @@
+package org.woped.tests.qualanalysis.soundness.algorithms;
+
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.symbolic.SymbolicReachabilityTest;
+import org.woped.qualanalysis.soundness.builder.markingnet.CompactMarkingNetBuilder;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+/**
+ * Compares the symbolic reachability analysis with the explicit compact marking net builder.
+ *
+ * <p>The nets are parallel splits into 4, 8, 12, ... branches with {@code 2^n + 2} markings. The
+ * explicit builder is only run up to {@code explicit} branches. Usage: {@code
+ * SymbolicReachabilityBenchmark [maxBranches] [explicit]}, defaults are 64 and 20.
+ */
+public class SymbolicReachabilityBenchmark {
+
+  public static void main(String[] args) {
+    int maxBranches = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int explicitBranches = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+    System.out.printf(
+        "%8s %22s %12s %12s %10s%n", "branches", "markings", "explicit", "symbolic", "nodes");
+    for (int branches = 4; branches <= maxBranches; branches += 4) {
+      ILowLevelPetriNet lolNet = generator.createParallelNet(branches, true);
+
+      String explicit = "-";
+      if (branches <= explicitBranches) {
+        long start = System.nanoTime();
+        new CompactMarkingNetBuilder(lolNet).getMarkingNet();
+        explicit = String.format("%9.1f ms", (System.nanoTime() - start) / 1e6);
+      }
+
+      long start = System.nanoTime();
+      SymbolicReachabilityTest symbolic = new SymbolicReachabilityTest(lolNet);
+      String markings = symbolic.getReachableMarkingCount().toString();
+      symbolic.getDeadTransitions();
+      double millis = (System.nanoTime() - start) / 1e6;
+
+      System.out.printf(
+          "%8d %22s %12s %9.1f ms %10d%n",
+          branches, markings, explicit, millis, symbolic.getNodeCount());
+    }
+  }
+}
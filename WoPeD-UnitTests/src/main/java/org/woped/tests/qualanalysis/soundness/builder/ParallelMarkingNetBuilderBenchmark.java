@@ -0,0 +1,55 @@
+package org.woped.tests.qualanalysis.soundness.builder;
+
+import org.woped.qualanalysis.soundness.builder.markingnet.CompactMarkingNetBuilder;
+import org.woped.qualanalysis.soundness.builder.markingnet.ParallelMarkingNetBuilder;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+/**
+ * Measures the speedup of the parallel marking net builder for 1, 2, 4, 8 and 16 threads.
+ *
+ * <p>The net is a parallel split into {@code n} branches with {@code 2^n + 2} markings. Usage:
+ * {@code ParallelMarkingNetBuilderBenchmark [branches] [repetitions]}, defaults are 18 and 3.
+ */
+public class ParallelMarkingNetBuilderBenchmark {
+
+  private static final int[] THREADS = {1, 2, 4, 8, 16};
+
+  public static void main(String[] args) {
+    int branches = args.length > 0 ? Integer.parseInt(args[0]) : 18;
+    int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    ILowLevelPetriNet lolNet = new LowLevelPetriNetGenerator().createParallelNet(branches, true);
+
+    long sequential = Long.MAX_VALUE;
+    int markings = 0;
+    for (int i = 0; i < repetitions; i++) {
+      long start = System.nanoTime();
+      CompactMarkingNet net =
+          (CompactMarkingNet) new CompactMarkingNetBuilder(lolNet).getMarkingNet();
+      sequential = Math.min(sequential, System.nanoTime() - start);
+      markings = net.getMarkingCount();
+    }
+    System.out.printf("%d markings, %d processors%n", markings, cores());
+    System.out.printf("sequential: %8.1f ms%n", sequential / 1e6);
+
+    long single = 0;
+    for (int threads : THREADS) {
+      long best = Long.MAX_VALUE;
+      for (int i = 0; i < repetitions; i++) {
+        long start = System.nanoTime();
+        new ParallelMarkingNetBuilder(lolNet, threads).getMarkingNet();
+        best = Math.min(best, System.nanoTime() - start);
+      }
+      if (threads == 1) {
+        single = best;
+      }
+      System.out.printf(
+          "%2d threads: %8.1f ms, speedup %.2f%n", threads, best / 1e6, (double) single / best);
+    }
+  }
+
+  private static int cores() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+}
@@ -638,4 +638,43 @@ public class ModelElementContainerTest {
 
     assertEquals(expected, actual);
   }
+
+  @Test
+  public void getModificationCount_elementsAndArcsChanged_countIncreases() {
+    ModelElementContainer sut = new ModelElementContainer();
+
+    PlaceModel source = new PlaceModel(new CreationMap());
+    source.setId("fakeSource");
+    TransitionModel target = new TransitionModel(new CreationMap());
+    target.setId("fakeTarget");
+    ArcModel arc = mock(ArcModel.class);
+    when(arc.getId()).thenReturn("arc1");
+    when(arc.getSourceId()).thenReturn(source.getId());
+    when(arc.getTargetId()).thenReturn(target.getId());
+
+    long initial = sut.getModificationCount();
+    sut.addElement(source);
+    sut.addElement(target);
+    sut.addReference(arc);
+    long afterAdding = sut.getModificationCount();
+    sut.removeArc(arc);
+    long afterRemoving = sut.getModificationCount();
+
+    assertEquals(initial + 3, afterAdding);
+    assertEquals(afterAdding + 1, afterRemoving);
+  }
+
+  @Test
+  public void getModificationCount_existingElementAddedAgain_countUnchanged() {
+    ModelElementContainer sut = new ModelElementContainer();
+
+    PlaceModel place = new PlaceModel(new CreationMap());
+    place.setId("p1");
+    sut.addElement(place);
+    long expected = sut.getModificationCount();
+
+    sut.addElement(place);
+
+    assertEquals(expected, sut.getModificationCount());
+  }
 }
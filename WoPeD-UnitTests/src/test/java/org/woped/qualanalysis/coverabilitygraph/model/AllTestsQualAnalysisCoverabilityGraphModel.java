@@ -4,5 +4,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({CoverabilityGraphEdgeTest.class, CoverabilityGraphNodeTest.class})
+@Suite.SuiteClasses({
+  CoverabilityGraphEdgeTest.class,
+  CoverabilityGraphNodeTest.class,
+  CoverabilityGraphComponentNodeTest.class,
+  ReachabilityGraphModelUsingMarkingNetTest.class
+})
 public class AllTestsQualAnalysisCoverabilityGraphModel {}
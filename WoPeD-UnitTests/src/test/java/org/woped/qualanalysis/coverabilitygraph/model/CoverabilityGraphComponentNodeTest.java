@@ -0,0 +1,42 @@
+package org.woped.qualanalysis.coverabilitygraph.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.woped.qualanalysis.soundness.marking.IMarking;
+import org.woped.tests.MarkingGenerator;
+
+public class CoverabilityGraphComponentNodeTest {
+
+  private final MarkingGenerator generator = new MarkingGenerator();
+
+  @Test
+  public void getMarking_componentWithInitialMarking_returnsInitialMarking() throws Exception {
+    IMarking other = generator.createDemoMarking(new int[] {0, 1, 0}, new boolean[3]);
+    IMarking initial = generator.createDemoMarking();
+    initial.setInitial(true);
+    Set<IMarking> markings = new LinkedHashSet<>();
+    markings.add(other);
+    markings.add(initial);
+
+    CoverabilityGraphComponentNode cut = new CoverabilityGraphComponentNode(markings);
+
+    assertSame(initial, cut.getMarking());
+    assertEquals(2, cut.getMarkings().size());
+  }
+
+  @Test
+  public void getMarking_componentWithoutInitialMarking_returnsMarkingOfComponent()
+      throws Exception {
+    IMarking marking = generator.createDemoMarking();
+    Set<IMarking> markings = new LinkedHashSet<>();
+    markings.add(marking);
+
+    CoverabilityGraphComponentNode cut = new CoverabilityGraphComponentNode(markings);
+
+    assertSame(marking, cut.getMarking());
+  }
+}
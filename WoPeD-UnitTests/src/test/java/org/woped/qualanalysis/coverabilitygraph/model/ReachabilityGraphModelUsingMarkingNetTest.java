@@ -0,0 +1,72 @@
+package org.woped.qualanalysis.coverabilitygraph.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import org.junit.Test;
+import org.woped.core.model.PetriNetModelProcessor;
+import org.woped.core.model.petrinet.PlaceModel;
+import org.woped.editor.controller.vc.EditorVC;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+import org.woped.tests.TestNetGenerator;
+
+public class ReachabilityGraphModelUsingMarkingNetTest {
+
+  @Test
+  public void constructor_parallelArcs_mergedIntoOneEdgeWithAllTriggers() throws Exception {
+    PetriNetModelProcessor processor = new TestNetGenerator().createNetWithoutArcs(2, 2);
+    processor.createArc("p1", "t1");
+    processor.createArc("t1", "p2");
+    processor.createArc("p1", "t2");
+    processor.createArc("t2", "p2");
+
+    ReachabilityGraphModelUsingMarkingNet cut = createModel(processor);
+
+    assertEquals(2, cut.getNodes().size());
+    Collection<CoverabilityGraphEdge> edges = cut.getEdges();
+    assertEquals(1, edges.size());
+    assertEquals("[t1, t2]", getTriggerIds(edges.iterator().next()).toString());
+  }
+
+  @Test
+  public void setCondensed_cycle_dropsEdgesInsideComponent() throws Exception {
+    PetriNetModelProcessor processor = new TestNetGenerator().createNetWithoutArcs(3, 3);
+    processor.createArc("p1", "t1");
+    processor.createArc("t1", "p2");
+    processor.createArc("p2", "t2");
+    processor.createArc("t2", "p1");
+    processor.createArc("p2", "t3");
+    processor.createArc("t3", "p3");
+    ReachabilityGraphModelUsingMarkingNet cut = createModel(processor);
+    assertEquals(3, cut.getNodes().size());
+    assertEquals(3, cut.getEdges().size());
+
+    cut.setCondensed(true);
+
+    assertTrue(cut.isCondensed());
+    assertEquals(2, cut.getNodes().size());
+    Collection<CoverabilityGraphEdge> edges = cut.getEdges();
+    assertEquals(1, edges.size());
+    CoverabilityGraphEdge edge = edges.iterator().next();
+    assertEquals("[t3]", getTriggerIds(edge).toString());
+    assertFalse(edge.getSourceNode() == edge.getTargetNode());
+  }
+
+  private ReachabilityGraphModelUsingMarkingNet createModel(PetriNetModelProcessor processor) {
+    ((PlaceModel) processor.getElementContainer().getElementById("p1")).setTokens(1);
+    EditorVC editor = new EditorVC();
+    editor.setModelProcessor(processor);
+    return new ReachabilityGraphModelUsingMarkingNet(editor);
+  }
+
+  private TreeSet<String> getTriggerIds(CoverabilityGraphEdge edge) {
+    TreeSet<String> ids = new TreeSet<>();
+    for (TransitionNode trigger : edge.getTriggers()) {
+      ids.add(trigger.getId());
+    }
+    return ids;
+  }
+}
@@ -4,5 +4,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({TokenGameControllerTest.class, TokenGameSessionTest.class})
+@Suite.SuiteClasses({
+  TokenGameControllerTest.class,
+  TokenGameNetIndexTest.class,
+  TokenGameReplayTest.class,
+  TokenGameSessionTest.class
+})
 public class AllTestsQualAnalysisSimulation {}
@@ -0,0 +1,79 @@
+package org.woped.qualanalysis.simulation;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.woped.core.model.ArcModel;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.PlaceModel;
+import org.woped.core.model.petrinet.TransitionModel;
+
+public class TokenGameNetIndexTest {
+
+  private ModelElementContainer container;
+  private TransitionModel t1;
+  private TransitionModel t2;
+  private TokenGameNetIndex cut;
+
+  @Before
+  public void setUp() throws Exception {
+    // p1 -> t1 -> p2 -> t2, p1 -> t2
+    container = mock(ModelElementContainer.class);
+    t1 = mock(TransitionModel.class);
+    t2 = mock(TransitionModel.class);
+    when(container.getElementById("p1")).thenReturn(mock(PlaceModel.class));
+    when(container.getElementById("p2")).thenReturn(mock(PlaceModel.class));
+    when(container.getElementById("t1")).thenReturn(t1);
+    when(container.getElementById("t2")).thenReturn(t2);
+
+    Map<String, ArcModel> arcs = new HashMap<>();
+    addArc(arcs, "a1", "p1", "t1");
+    addArc(arcs, "a2", "t1", "p2");
+    addArc(arcs, "a3", "p2", "t2");
+    addArc(arcs, "a4", "p1", "t2");
+    when(container.getArcMap()).thenReturn(arcs);
+    when(container.getModificationCount()).thenReturn(3L);
+
+    cut = new TokenGameNetIndex(container);
+  }
+
+  private void addArc(Map<String, ArcModel> arcs, String id, String source, String target) {
+    ArcModel arc = mock(ArcModel.class);
+    when(arc.getId()).thenReturn(id);
+    when(arc.getSourceId()).thenReturn(source);
+    when(arc.getTargetId()).thenReturn(target);
+    arcs.put(id, arc);
+  }
+
+  @Test
+  public void getIncomingArcs_transitionWithTwoInputs_returnsBothArcs() throws Exception {
+    Map<String, ArcModel> actual = cut.getIncomingArcs("t2");
+
+    assertEquals(2, actual.size());
+    assertTrue(actual.containsKey("a3"));
+    assertTrue(actual.containsKey("a4"));
+    assertEquals(1, cut.getOutgoingArcs("t1").size());
+    assertTrue(cut.getIncomingArcs("p1").isEmpty());
+  }
+
+  @Test
+  public void getConsumers_placeWithTwoOutputs_returnsBothTransitions() throws Exception {
+    assertEquals(2, cut.getConsumers("p1").size());
+    assertTrue(cut.getConsumers("p1").contains(t1));
+    assertTrue(cut.getConsumers("p1").contains(t2));
+    assertTrue(cut.getConsumers("unknown").isEmpty());
+  }
+
+  @Test
+  public void isValid_containerModified_returnsFalse() throws Exception {
+    assertTrue(cut.isValid());
+
+    when(container.getModificationCount()).thenReturn(4L);
+
+    assertFalse(cut.isValid());
+  }
+}
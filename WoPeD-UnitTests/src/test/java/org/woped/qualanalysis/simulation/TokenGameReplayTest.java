@@ -0,0 +1,161 @@
+package org.woped.qualanalysis.simulation;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.woped.core.model.ArcModel;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.core.model.petrinet.OperatorTransitionModel;
+import org.woped.core.model.petrinet.PlaceModel;
+import org.woped.core.model.petrinet.SimulationModel;
+import org.woped.core.model.petrinet.TransitionModel;
+
+public class TokenGameReplayTest {
+
+  private ModelElementContainer container;
+  private Map<String, ArcModel> arcs;
+  private Map<String, AbstractPetriNetElementModel> places;
+  private Map<String, AbstractPetriNetElementModel> transitions;
+  private Map<String, AbstractPetriNetElementModel> operators;
+  private TokenGameReplay cut;
+
+  @Before
+  public void setUp() throws Exception {
+    // p1 (1 token) -> t1 -> p2 -> x1 (xor split) -> p3 | p4, p3 -> t2 (weight 2) -> p5
+    container = mock(ModelElementContainer.class);
+    arcs = new HashMap<>();
+    places = new HashMap<>();
+    transitions = new HashMap<>();
+    operators = new HashMap<>();
+    addPlace("p1", 1);
+    addPlace("p2", 0);
+    addPlace("p3", 0);
+    addPlace("p4", 0);
+    addPlace("p5", 0);
+    addTransition("t1", transitions, mock(TransitionModel.class));
+    addTransition("t2", transitions, mock(TransitionModel.class));
+    OperatorTransitionModel x1 = mock(OperatorTransitionModel.class);
+    when(x1.getOperatorType()).thenReturn(OperatorTransitionModel.XOR_SPLIT_TYPE);
+    addTransition("x1", operators, x1);
+    addArc("a1", "p1", "t1", 1);
+    addArc("a2", "t1", "p2", 1);
+    addArc("a3", "p2", "x1", 1);
+    addArc("a4", "x1", "p3", 2);
+    addArc("a5", "x1", "p4", 1);
+    addArc("a6", "p3", "t2", 2);
+    addArc("a7", "t2", "p5", 1);
+    when(container.getArcMap()).thenReturn(arcs);
+    when(container.getElementsByType(AbstractPetriNetElementModel.PLACE_TYPE)).thenReturn(places);
+    when(container.getElementsByType(AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE))
+        .thenReturn(transitions);
+    when(container.getElementsByType(AbstractPetriNetElementModel.TRANS_OPERATOR_TYPE))
+        .thenReturn(operators);
+    when(container.getElementsByType(AbstractPetriNetElementModel.SUBP_TYPE))
+        .thenReturn(new HashMap<String, AbstractPetriNetElementModel>());
+
+    cut = new TokenGameReplay(container);
+  }
+
+  private void addPlace(String id, int tokens) {
+    PlaceModel place = mock(PlaceModel.class);
+    when(place.getId()).thenReturn(id);
+    when(place.getTokenCount()).thenReturn(tokens);
+    places.put(id, place);
+    when(container.getElementById(id)).thenReturn(place);
+  }
+
+  private void addTransition(
+      String id, Map<String, AbstractPetriNetElementModel> map, TransitionModel transition) {
+    when(transition.getId()).thenReturn(id);
+    map.put(id, transition);
+    when(container.getElementById(id)).thenReturn(transition);
+  }
+
+  private void addArc(String id, String source, String target, int weight) {
+    ArcModel arc = mock(ArcModel.class);
+    when(arc.getId()).thenReturn(id);
+    when(arc.getSourceId()).thenReturn(source);
+    when(arc.getTargetId()).thenReturn(target);
+    when(arc.getInscriptionValue()).thenReturn(weight);
+    arcs.put(id, arc);
+  }
+
+  private SimulationModel simulation(String... steps) {
+    SimulationModel simulation = new SimulationModel("s1", "simulation");
+    for (String step : steps) {
+      TransitionModel transition = mock(TransitionModel.class);
+      when(transition.getId()).thenReturn(step);
+      simulation.getOccuredTransitions().add(transition);
+    }
+    return simulation;
+  }
+
+  @Test
+  public void replay_enabledSequence_isValid() throws Exception {
+    ReplayResult actual = cut.replay(simulation("t1", "a4", "t2"));
+
+    assertTrue(actual.isValid());
+    assertEquals(-1, actual.getFailedStep());
+    assertEquals(3, actual.getNumSteps());
+  }
+
+  @Test
+  public void replay_transitionNotEnabled_returnsFirstFailedStep() throws Exception {
+    ReplayResult actual = cut.replay(simulation("t1", "a5", "t2"));
+
+    assertFalse(actual.isValid());
+    assertEquals(2, actual.getFailedStep());
+    assertEquals("t2", actual.getFailedElementId());
+  }
+
+  @Test
+  public void replay_xorBranchTakenTwice_failsAtSecondBranch() throws Exception {
+    ReplayResult actual = cut.replay(simulation("t1", "a4", "a5"));
+
+    assertEquals(2, actual.getFailedStep());
+    assertEquals("a5", actual.getFailedElementId());
+  }
+
+  @Test
+  public void replay_unknownElement_fails() throws Exception {
+    ReplayResult actual = cut.replay(simulation("t1", "t9"));
+
+    assertEquals(1, actual.getFailedStep());
+    assertEquals("t9", actual.getFailedElementId());
+  }
+
+  @Test
+  public void replay_steps_leavesMarkingAfterLastStep() throws Exception {
+    int[] marking = new int[cut.getNumPlaces()];
+    int[] steps = cut.compile(simulation("t1", "a4").getOccuredTransitions());
+
+    assertEquals(-1, cut.replay(steps, marking));
+    int sum = 0;
+    for (int tokens : marking) {
+      sum += tokens;
+    }
+    assertEquals(2, sum);
+  }
+
+  @Test
+  public void replayAll_manySimulations_keepsOrder() throws Exception {
+    List<SimulationModel> simulations = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      simulations.add(i % 2 == 0 ? simulation("t1", "a4", "t2") : simulation("t1", "t2"));
+    }
+
+    List<ReplayResult> actual = cut.replayAll(simulations);
+
+    assertEquals(100, actual.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 2 == 0 ? -1 : 1, actual.get(i).getFailedStep());
+    }
+  }
+}
@@ -2,12 +2,17 @@ package org.woped.qualanalysis.soundness;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
+import org.woped.qualanalysis.soundness.algorithms.AllTestsQualAnalysisSoundnessAlgorithms;
+import org.woped.qualanalysis.soundness.builder.AllTestsQualAnalysisSoundnessBuilder;
 import org.woped.qualanalysis.soundness.datamodel.AllTestsQualAnalysisSoundnessDatamodel;
 import org.woped.qualanalysis.soundness.marking.AllTestsQualAnalysisSoundnessMarking;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+  AllTestsQualAnalysisSoundnessAlgorithms.class,
+  AllTestsQualAnalysisSoundnessBuilder.class,
   AllTestsQualAnalysisSoundnessDatamodel.class,
-  AllTestsQualAnalysisSoundnessMarking.class
+  AllTestsQualAnalysisSoundnessMarking.class,
+  SComponentImplementTest.class
 })
 public class AllTestsQualAnalysisSoundness {}
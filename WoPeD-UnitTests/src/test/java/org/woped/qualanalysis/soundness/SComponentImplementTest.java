@@ -0,0 +1,33 @@
+package org.woped.qualanalysis.soundness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.woped.editor.controller.vc.EditorVC;
+import org.woped.qualanalysis.structure.NetSnapshot;
+import org.woped.tests.TestNetGenerator;
+
+public class SComponentImplementTest {
+
+  @Test
+  public void isSComponentsComplete_budgetExceeded_partialResultMarkedIncomplete()
+      throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    SComponentImplement cut = new SComponentImplement(new NetSnapshot(editor), -1);
+
+    assertFalse(cut.isSComponentsComplete());
+    assertTrue(cut.getSComponents().size() <= 1);
+  }
+
+  @Test
+  public void getNotSCovered_withinBudget_allPlacesCovered() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    SComponentImplement cut = new SComponentImplement(new NetSnapshot(editor));
+
+    assertTrue(cut.isSComponentsComplete());
+    assertTrue(cut.getNotSCovered().isEmpty());
+    assertEquals(1, cut.getSComponents().size());
+  }
+}
@@ -0,0 +1,14 @@
+package org.woped.qualanalysis.soundness.algorithms;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+  SComponentInvariantTestTest.class,
+  OnTheFlySoundnessTestTest.class,
+  StronglyConnectedComponentTestGenIterativeTest.class,
+  SymbolicReachabilityTestTest.class,
+  MinimalCoverabilitySetTestTest.class
+})
+public class AllTestsQualAnalysisSoundnessAlgorithms {}
@@ -0,0 +1,56 @@
+package org.woped.qualanalysis.soundness.algorithms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.coverability.IMinimalCoverabilitySetTest;
+import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+public class MinimalCoverabilitySetTestTest {
+
+  private final LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+  @Test
+  public void getMinimalCoverabilitySet_unboundedNet_oneOmegaMarking() throws Exception {
+    IMinimalCoverabilitySetTest cut =
+        AlgorithmFactory.createMinimalCoverabilitySetTest(generator.createUnboundedNet());
+
+    List<int[]> actual = cut.getMinimalCoverabilitySet();
+
+    assertEquals(1, actual.size());
+    assertArrayEquals(new int[] {1, IndexedPetriNet.OMEGA, IndexedPetriNet.OMEGA}, actual.get(0));
+  }
+
+  @Test
+  public void getUnboundedPlaces_unboundedNet_placesFedByLoop() throws Exception {
+    Set<PlaceNode> actual =
+        AlgorithmFactory.createMinimalCoverabilitySetTest(generator.createUnboundedNet())
+            .getUnboundedPlaces();
+
+    assertEquals(2, actual.size());
+    for (PlaceNode place : actual) {
+      assertTrue(place.getId().equals("p2") || place.getId().equals("p3"));
+    }
+  }
+
+  @Test
+  public void getMinimalCoverabilitySet_safeNet_equalsReachableMarkings() throws Exception {
+    // the reachable markings of the parallel net are pairwise incomparable
+    ILowLevelPetriNet lolNet = generator.createParallelNet(6, true);
+    CompactMarkingNet explicit = (CompactMarkingNet) BuilderFactory.createCompactMarkingNet(lolNet);
+
+    IMinimalCoverabilitySetTest cut = AlgorithmFactory.createMinimalCoverabilitySetTest(lolNet);
+
+    assertEquals(explicit.getMarkingCount(), cut.getMinimalCoverabilitySet().size());
+    assertTrue(cut.getUnboundedPlaces().isEmpty());
+  }
+}
@@ -0,0 +1,128 @@
+package org.woped.qualanalysis.soundness.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly.OnTheFlySoundnessResult;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly.OnTheFlySoundnessResult.Verdict;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.onthefly.OnTheFlySoundnessResult.Violation;
+import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+public class OnTheFlySoundnessTestTest {
+
+  private final LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+  @Test
+  public void getResult_parallelNet_sound() throws Exception {
+    OnTheFlySoundnessResult result =
+        AlgorithmFactory.createOnTheFlySoundnessTest(generator.createParallelNet(4, false))
+            .getResult();
+
+    assertEquals(Verdict.SOUND, result.getVerdict());
+    assertEquals(null, result.getViolation());
+    assertTrue(result.getWitness().isEmpty());
+    // initial, 2^4 interleavings of the branches, final
+    assertEquals(18, result.getExploredStates());
+  }
+
+  @Test
+  public void getResult_tokenLeftBehind_improperCompletionWithWitness() throws Exception {
+    // i -> t1 -> (o, p), p -> t2 -> o
+    LowLevelPetriNet net = new LowLevelPetriNet();
+    PlaceNode i = addPlace(net, "i", 1);
+    PlaceNode o = addPlace(net, "o", 0);
+    PlaceNode p = addPlace(net, "p", 0);
+    connect(i, addTransition(net, "t1"), o, p);
+    connect(p, addTransition(net, "t2"), o);
+
+    OnTheFlySoundnessResult result = AlgorithmFactory.createOnTheFlySoundnessTest(net).getResult();
+
+    assertEquals(Verdict.UNSOUND, result.getVerdict());
+    assertEquals(Violation.IMPROPER_COMPLETION, result.getViolation());
+    assertEquals("[t1]", ids(result.getWitness()));
+  }
+
+  @Test
+  public void getResult_deadlock_noOptionToCompleteWithWitness() throws Exception {
+    // i -> t1 -> p, (p, q) -> t2 -> o, q is never marked
+    LowLevelPetriNet net = new LowLevelPetriNet();
+    PlaceNode i = addPlace(net, "i", 1);
+    PlaceNode o = addPlace(net, "o", 0);
+    PlaceNode p = addPlace(net, "p", 0);
+    PlaceNode q = addPlace(net, "q", 0);
+    connect(i, addTransition(net, "t1"), p);
+    TransitionNode t2 = addTransition(net, "t2");
+    connect(p, t2, o);
+    connect(q, t2);
+
+    OnTheFlySoundnessResult result = AlgorithmFactory.createOnTheFlySoundnessTest(net).getResult();
+
+    assertEquals(Violation.NO_OPTION_TO_COMPLETE, result.getViolation());
+    assertEquals("[t1]", ids(result.getWitness()));
+  }
+
+  @Test
+  public void getResult_unboundedNet_stopsWithWitness() throws Exception {
+    // i -> t1 -> p, p -> t2 -> (p, r), p -> t3 -> o, r -> t4 -> o
+    LowLevelPetriNet net = new LowLevelPetriNet();
+    PlaceNode i = addPlace(net, "i", 1);
+    PlaceNode o = addPlace(net, "o", 0);
+    PlaceNode p = addPlace(net, "p", 0);
+    PlaceNode r = addPlace(net, "r", 0);
+    connect(i, addTransition(net, "t1"), p);
+    connect(p, addTransition(net, "t2"), p, r);
+    connect(p, addTransition(net, "t3"), o);
+    connect(r, addTransition(net, "t4"), o);
+
+    OnTheFlySoundnessResult result = AlgorithmFactory.createOnTheFlySoundnessTest(net).getResult();
+
+    assertEquals(Violation.UNBOUNDED, result.getViolation());
+    assertEquals("[t1, t2]", ids(result.getWitness()));
+  }
+
+  @Test
+  public void getResult_stateBudgetExceeded_inconclusive() throws Exception {
+    OnTheFlySoundnessResult result =
+        AlgorithmFactory.createOnTheFlySoundnessTest(
+                generator.createParallelNet(12, false), 100, Long.MAX_VALUE)
+            .getResult();
+
+    assertEquals(Verdict.INCONCLUSIVE, result.getVerdict());
+    assertEquals(101, result.getExploredStates());
+  }
+
+  private static PlaceNode addPlace(LowLevelPetriNet net, String id, int tokens) {
+    PlaceNode place = new PlaceNode(tokens, 0, id, id, id);
+    net.addNode(place);
+    return place;
+  }
+
+  private static TransitionNode addTransition(LowLevelPetriNet net, String id) {
+    TransitionNode transition =
+        new TransitionNode(id, id, id, AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE);
+    net.addNode(transition);
+    return transition;
+  }
+
+  private static void connect(PlaceNode input, TransitionNode transition, PlaceNode... outputs) {
+    input.addSuccessorNode(transition);
+    for (PlaceNode output : outputs) {
+      transition.addSuccessorNode(output);
+    }
+  }
+
+  private static String ids(List<TransitionNode> transitions) {
+    List<String> ids = new ArrayList<>();
+    for (TransitionNode transition : transitions) {
+      ids.add(transition.getId());
+    }
+    return ids.toString();
+  }
+}
@@ -0,0 +1,74 @@
+package org.woped.qualanalysis.soundness.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.SComponentInvariantTest;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.scomponent.SComponentTest;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+public class SComponentInvariantTestTest {
+
+  private final LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+  @Test
+  public void getSComponents_parallelNet_oneComponentPerBranch() throws Exception {
+    SComponentInvariantTest cut = new SComponentInvariantTest(generator.createParallelNet(3, true));
+
+    assertTrue(cut.isComplete());
+    assertEquals(3, cut.getSComponents().size());
+    assertTrue(cut.getNotSCovered().isEmpty());
+  }
+
+  @Test
+  public void getSComponents_manyParallelBranches_completesWithinBudget() throws Exception {
+    SComponentInvariantTest cut =
+        new SComponentInvariantTest(generator.createParallelNet(60, true));
+
+    assertTrue(cut.isComplete());
+    assertEquals(60, cut.getSComponents().size());
+    assertTrue(cut.getNotSCovered().isEmpty());
+  }
+
+  @Test
+  public void getNotSCovered_shortCircuitedNets_sameAsRecursiveSearch() throws Exception {
+    ILowLevelPetriNet[] nets = {
+      generator.createParallelNet(1, true),
+      generator.createParallelNet(4, true),
+      generator.createUnboundedNet()
+    };
+    for (ILowLevelPetriNet net : nets) {
+      SComponentTest expected = new SComponentTest((LowLevelPetriNet) net);
+      SComponentInvariantTest cut = new SComponentInvariantTest(net);
+
+      assertEquals(expected.getNotSCovered(), cut.getNotSCovered());
+      assertEquals(expected.getSComponents(), cut.getSComponents());
+    }
+  }
+
+  @Test
+  public void getSComponents_notStronglyConnected_returnsNoComponent() throws Exception {
+    SComponentInvariantTest cut = new SComponentInvariantTest(generator.createXorJoinSplitNet());
+
+    assertTrue(cut.getSComponents().isEmpty());
+    assertEquals(5, cut.getNotSCovered().size());
+  }
+
+  @Test
+  public void getSComponents_budgetExceeded_reportsIncomplete() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    SComponentInvariantTest cut =
+        new SComponentInvariantTest(
+            generator.createParallelNet(3, true),
+            -1,
+            (processed, transitions, candidates) -> calls.incrementAndGet());
+
+    assertFalse(cut.isComplete());
+    assertEquals(1, calls.get());
+  }
+}
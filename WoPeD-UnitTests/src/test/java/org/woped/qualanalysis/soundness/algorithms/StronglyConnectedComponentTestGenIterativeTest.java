@@ -0,0 +1,133 @@
+package org.woped.qualanalysis.soundness.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.woped.qualanalysis.soundness.algorithms.generic.INode;
+import org.woped.qualanalysis.soundness.algorithms.generic.INodeNet;
+import org.woped.qualanalysis.soundness.algorithms.generic.scc.StronglyConnectedComponentTestGenIterative;
+import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.marking.IMarking;
+import org.woped.qualanalysis.soundness.marking.IMarkingNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+import org.woped.tests.qualanalysis.soundness.algorithms.testing.MNetMock;
+
+public class StronglyConnectedComponentTestGenIterativeTest {
+
+  @Test
+  public void isStronglyConnected_deepCycle_noStackOverflow() throws Exception {
+    TestNet net = new TestNet(200000);
+    net.chain();
+    net.connect(199999, 0);
+
+    assertTrue(new StronglyConnectedComponentTestGenIterative<>(net).isStronglyConnected());
+  }
+
+  @Test
+  public void getStronglyConnectedComponents_deepChain_oneComponentPerNode() throws Exception {
+    TestNet net = new TestNet(200000);
+    net.chain();
+
+    StronglyConnectedComponentTestGenIterative<TestNode> cut =
+        new StronglyConnectedComponentTestGenIterative<>(net);
+
+    assertFalse(cut.isStronglyConnected());
+    assertEquals(200000, cut.getStronglyConnectedComponents().size());
+  }
+
+  @Test
+  public void getStronglyConnectedComponents_twoCycles_findsBothComponents() throws Exception {
+    TestNet net = new TestNet(5);
+    net.connect(0, 1);
+    net.connect(1, 0);
+    net.connect(1, 2);
+    net.connect(2, 3);
+    net.connect(3, 4);
+    net.connect(4, 2);
+
+    Set<Set<TestNode>> actual =
+        new StronglyConnectedComponentTestGenIterative<>(net).getStronglyConnectedComponents();
+
+    Set<Set<TestNode>> expected = new HashSet<>();
+    expected.add(net.nodes(0, 1));
+    expected.add(net.nodes(2, 3, 4));
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void isStronglyConnected_markingNetMock_sameAsRecursiveTarjan() throws Exception {
+    assertTrue(
+        new StronglyConnectedComponentTestGenIterative<>(new MNetMock()).isStronglyConnected());
+  }
+
+  @Test
+  public void isStronglyConnected_compactMarkingNet_usesIndexedArcs() throws Exception {
+    LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+    IMarkingNet withTStar =
+        BuilderFactory.createCompactMarkingNet(generator.createParallelNet(3, true));
+    IMarkingNet withoutTStar =
+        BuilderFactory.createCompactMarkingNet(generator.createParallelNet(3, false));
+
+    assertTrue(AlgorithmFactory.createSccTest(withTStar).isStronglyConnected());
+    assertFalse(AlgorithmFactory.createSccTest(withoutTStar).isStronglyConnected());
+
+    Set<Set<IMarking>> components =
+        AlgorithmFactory.createSccTest(withoutTStar).getStronglyConnectedComponents();
+    assertEquals(withoutTStar.getMarkings().size(), components.size());
+  }
+
+  private static class TestNode implements INode<TestNode> {
+    private final Set<TestNode> successors = new HashSet<>();
+    private final Set<TestNode> predecessors = new HashSet<>();
+
+    @Override
+    public Set<TestNode> getSuccessorNodes() {
+      return successors;
+    }
+
+    @Override
+    public Set<TestNode> getPredecessorNodes() {
+      return predecessors;
+    }
+  }
+
+  private static class TestNet implements INodeNet<TestNode> {
+    private final List<TestNode> nodes = new ArrayList<>();
+
+    TestNet(int size) {
+      for (int i = 0; i < size; i++) {
+        nodes.add(new TestNode());
+      }
+    }
+
+    void chain() {
+      for (int i = 0; i + 1 < nodes.size(); i++) {
+        connect(i, i + 1);
+      }
+    }
+
+    void connect(int source, int target) {
+      nodes.get(source).successors.add(nodes.get(target));
+      nodes.get(target).predecessors.add(nodes.get(source));
+    }
+
+    Set<TestNode> nodes(int... indices) {
+      Set<TestNode> result = new HashSet<>();
+      for (int index : indices) {
+        result.add(nodes.get(index));
+      }
+      return result;
+    }
+
+    @Override
+    public Set<TestNode> getAllContainedNodes() {
+      return new HashSet<>(nodes);
+    }
+  }
+}
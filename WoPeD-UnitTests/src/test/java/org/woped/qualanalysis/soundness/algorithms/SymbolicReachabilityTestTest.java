@@ -0,0 +1,90 @@
+package org.woped.qualanalysis.soundness.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Set;
+import org.junit.Test;
+import org.woped.core.model.petrinet.OperatorTransitionModel;
+import org.woped.qualanalysis.soundness.algorithms.basedonlowlevelpetrinet.symbolic.ISymbolicReachabilityTest;
+import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+public class SymbolicReachabilityTestTest {
+
+  private final LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+  @Test
+  public void getReachableMarkingCount_parallelNet_equalsExplicitMarkingNet() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(8, true);
+    CompactMarkingNet explicit = (CompactMarkingNet) BuilderFactory.createCompactMarkingNet(lolNet);
+
+    ISymbolicReachabilityTest cut = AlgorithmFactory.createSymbolicReachabilityTest(lolNet);
+
+    assertTrue(cut.isSafe());
+    assertEquals(BigInteger.valueOf(explicit.getMarkingCount()), cut.getReachableMarkingCount());
+    assertEquals(BigInteger.ZERO, cut.getDeadlockCount());
+    assertTrue(cut.getDeadTransitions().isEmpty());
+  }
+
+  @Test
+  public void getReachableMarkingCount_manyBranches_countsWithoutEnumeration() throws Exception {
+    ISymbolicReachabilityTest cut =
+        AlgorithmFactory.createSymbolicReachabilityTest(generator.createParallelNet(200, false));
+
+    assertEquals(
+        BigInteger.ONE.shiftLeft(200).add(BigInteger.valueOf(2)), cut.getReachableMarkingCount());
+  }
+
+  @Test
+  public void getDeadlock_withoutTStar_finalMarking() throws Exception {
+    ISymbolicReachabilityTest cut =
+        AlgorithmFactory.createSymbolicReachabilityTest(generator.createParallelNet(4, false));
+
+    Set<PlaceNode> deadlock = cut.getDeadlock();
+
+    assertEquals(BigInteger.ONE, cut.getDeadlockCount());
+    assertEquals(1, deadlock.size());
+    assertEquals("o", deadlock.iterator().next().getId());
+  }
+
+  @Test
+  public void getDeadTransitions_unmarkedInput_equalsExplicitDeadTransitions() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(4, true);
+    PlaceNode never = new PlaceNode(0, 0, "never", "never", "never");
+    TransitionNode dead =
+        new TransitionNode("dead", "dead", "dead", OperatorTransitionModel.TRANS_SIMPLE_TYPE);
+    lolNet.addNode(never);
+    lolNet.addNode(dead);
+    never.addSuccessorNode(dead);
+
+    Set<TransitionNode> expected =
+        AlgorithmFactory.createDeadTransitionTest(BuilderFactory.createCompactMarkingNet(lolNet))
+            .getDeadTransitions();
+    Set<TransitionNode> actual =
+        AlgorithmFactory.createSymbolicReachabilityTest(lolNet).getDeadTransitions();
+
+    assertEquals(1, actual.size());
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void isSafe_unboundedNet_false() throws Exception {
+    ISymbolicReachabilityTest cut =
+        AlgorithmFactory.createSymbolicReachabilityTest(generator.createUnboundedNet());
+
+    assertFalse(cut.isSafe());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void getDeadTransitions_unboundedNet_throws() throws Exception {
+    AlgorithmFactory.createSymbolicReachabilityTest(generator.createUnboundedNet())
+        .getDeadTransitions();
+  }
+}
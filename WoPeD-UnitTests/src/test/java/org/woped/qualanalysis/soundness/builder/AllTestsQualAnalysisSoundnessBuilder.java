@@ -0,0 +1,8 @@
+package org.woped.qualanalysis.soundness.builder;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({ParallelMarkingNetBuilderTest.class, StubbornMarkingNetBuilderTest.class})
+public class AllTestsQualAnalysisSoundnessBuilder {}
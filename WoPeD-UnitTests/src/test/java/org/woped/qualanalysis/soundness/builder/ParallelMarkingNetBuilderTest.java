@@ -0,0 +1,72 @@
+package org.woped.qualanalysis.soundness.builder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.woped.qualanalysis.soundness.algorithms.AlgorithmFactory;
+import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetStrategy;
+import org.woped.qualanalysis.soundness.builder.markingnet.ParallelMarkingNetBuilder;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+public class ParallelMarkingNetBuilderTest {
+
+  private final LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+  @Test
+  public void getMarkingNet_parallelNet_identicalToCompactMarkingNet() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(8, false);
+
+    CompactMarkingNet expected = (CompactMarkingNet) BuilderFactory.createCompactMarkingNet(lolNet);
+    for (int threads : new int[] {1, 4}) {
+      ParallelMarkingNetBuilder cut = new ParallelMarkingNetBuilder(lolNet, threads);
+
+      assertIdentical(expected, cut.getMarkingNet());
+      assertFalse(cut.isSequentialFallback());
+    }
+  }
+
+  @Test
+  public void createMarkingNet_parallelStrategyWithTStar_sameSoundnessResults() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(5, true);
+
+    CompactMarkingNet expected =
+        (CompactMarkingNet) BuilderFactory.createMarkingNet(lolNet, MarkingNetStrategy.COMPACT);
+    CompactMarkingNet actual =
+        (CompactMarkingNet) BuilderFactory.createMarkingNet(lolNet, MarkingNetStrategy.PARALLEL);
+
+    assertIdentical(expected, actual);
+    assertTrue(AlgorithmFactory.createDeadTransitionTest(actual).getDeadTransitions().isEmpty());
+    assertTrue(AlgorithmFactory.createSccTest(actual).isStronglyConnected());
+  }
+
+  @Test
+  public void getMarkingNet_unboundedNet_fallsBackToSequentialBuilder() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createUnboundedNet();
+    ParallelMarkingNetBuilder cut = new ParallelMarkingNetBuilder(lolNet, 2);
+
+    CompactMarkingNet actual = cut.getMarkingNet();
+
+    assertTrue(cut.isSequentialFallback());
+    assertIdentical((CompactMarkingNet) BuilderFactory.createCompactMarkingNet(lolNet), actual);
+    assertEquals(2, AlgorithmFactory.createUnboundedPlacesTest(actual).getUnboundedPlaces().size());
+  }
+
+  private static void assertIdentical(CompactMarkingNet expected, CompactMarkingNet actual) {
+    assertEquals(expected.getMarkingCount(), actual.getMarkingCount());
+    assertEquals(expected.getArcCount(), actual.getArcCount());
+    for (int marking = 0; marking < expected.getMarkingCount(); marking++) {
+      assertArrayEquals(expected.getStore().get(marking), actual.getStore().get(marking));
+      assertEquals(expected.getPredecessorIndex(marking), actual.getPredecessorIndex(marking));
+      assertEquals(expected.getFirstArc(marking), actual.getFirstArc(marking));
+    }
+    for (int arc = 0; arc < expected.getArcCount(); arc++) {
+      assertEquals(expected.getArcTransition(arc), actual.getArcTransition(arc));
+      assertEquals(expected.getArcTarget(arc), actual.getArcTarget(arc));
+    }
+  }
+}
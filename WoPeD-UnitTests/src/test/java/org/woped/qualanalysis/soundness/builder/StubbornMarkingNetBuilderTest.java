@@ -0,0 +1,167 @@
+package org.woped.qualanalysis.soundness.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import org.woped.core.model.petrinet.OperatorTransitionModel;
+import org.woped.qualanalysis.soundness.algorithms.AlgorithmFactory;
+import org.woped.qualanalysis.soundness.builder.markingnet.MarkingNetStrategy;
+import org.woped.qualanalysis.soundness.builder.markingnet.StubbornMarkingNetBuilder;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.PlaceNode;
+import org.woped.qualanalysis.soundness.datamodel.TransitionNode;
+import org.woped.qualanalysis.soundness.marking.CompactMarkingNet;
+import org.woped.qualanalysis.soundness.marking.IMarkingNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+public class StubbornMarkingNetBuilderTest {
+
+  private final LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+  @Test
+  public void getMarkingNet_parallelNet_fewerMarkingsSameDeadTransitions() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(12, false);
+
+    CompactMarkingNet full = (CompactMarkingNet) BuilderFactory.createCompactMarkingNet(lolNet);
+    StubbornMarkingNetBuilder cut = new StubbornMarkingNetBuilder(lolNet);
+    CompactMarkingNet reduced = (CompactMarkingNet) cut.getMarkingNet();
+
+    assertTrue(cut.isReduced());
+    assertTrue(reduced.isReduced());
+    assertFalse(full.isReduced());
+    assertTrue(reduced.getMarkingCount() * 100 < full.getMarkingCount());
+    assertEquals(getDeadTransitions(full), getDeadTransitions(reduced));
+    assertTrue(getDeadTransitions(reduced).isEmpty());
+  }
+
+  @Test
+  public void getMarkingNet_deadTransition_sameDeadTransitions() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(6, false);
+    // needs a token from a place that is never marked
+    PlaceNode never = new PlaceNode(0, 0, "never", "never", "never");
+    TransitionNode dead =
+        new TransitionNode("dead", "dead", "dead", OperatorTransitionModel.TRANS_SIMPLE_TYPE);
+    lolNet.addNode(never);
+    lolNet.addNode(dead);
+    never.addSuccessorNode(dead);
+    for (PlaceNode place : lolNet.getPlaces()) {
+      if (place.getId().equals("a1")) {
+        place.addSuccessorNode(dead);
+      }
+    }
+
+    Set<TransitionNode> expected =
+        getDeadTransitions(BuilderFactory.createMarkingNet(lolNet, MarkingNetStrategy.COMPACT));
+    Set<TransitionNode> actual =
+        getDeadTransitions(BuilderFactory.createMarkingNet(lolNet, MarkingNetStrategy.STUBBORN));
+
+    assertEquals(1, expected.size());
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void getMarkingNet_unboundedNet_fallsBackToFullMarkingNet() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createUnboundedNet();
+    StubbornMarkingNetBuilder cut = new StubbornMarkingNetBuilder(lolNet);
+
+    CompactMarkingNet actual = (CompactMarkingNet) cut.getMarkingNet();
+
+    assertFalse(cut.isReduced());
+    assertFalse(actual.isReduced());
+    assertEquals(2, AlgorithmFactory.createUnboundedPlacesTest(actual).getUnboundedPlaces().size());
+  }
+
+  @Test
+  public void getMarkingNet_shortCircuitedNets_sameVerdictsAsFullNet() throws Exception {
+    ILowLevelPetriNet[] nets = {
+      generator.createParallelNet(6, true),
+      generator.createXorJoinSplitNet(),
+      generator.createSimpleNet()
+    };
+    for (ILowLevelPetriNet lolNet : nets) {
+      assertSameVerdicts(lolNet);
+    }
+  }
+
+  @Test
+  public void getMarkingNet_randomNets_sameVerdictsAsFullNet() throws Exception {
+    for (int seed = 0; seed < 300; seed++) {
+      assertSameVerdicts(createRandomNet(new Random(seed)));
+    }
+  }
+
+  @Test
+  public void getMarkingNet_parallelNetWithTStar_fewerMarkingsAllLive() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(12, true);
+
+    CompactMarkingNet full = (CompactMarkingNet) BuilderFactory.createCompactMarkingNet(lolNet);
+    CompactMarkingNet reduced =
+        (CompactMarkingNet) new StubbornMarkingNetBuilder(lolNet).getMarkingNet();
+
+    assertTrue(reduced.isReduced());
+    assertTrue(reduced.getMarkingCount() * 100 < full.getMarkingCount());
+    assertTrue(
+        AlgorithmFactory.createNonLiveTranstionTest(reduced).getNonLiveTransitions().isEmpty());
+  }
+
+  private static void assertSameVerdicts(ILowLevelPetriNet lolNet) {
+    IMarkingNet full = BuilderFactory.createMarkingNet(lolNet, MarkingNetStrategy.COMPACT);
+    StubbornMarkingNetBuilder cut = new StubbornMarkingNetBuilder(lolNet);
+    IMarkingNet reduced = cut.getMarkingNet();
+
+    assertEquals(getDeadTransitions(full), getDeadTransitions(reduced));
+    assertEquals(
+        AlgorithmFactory.createNonLiveTranstionTest(full).getNonLiveTransitions(),
+        AlgorithmFactory.createNonLiveTranstionTest(reduced).getNonLiveTransitions());
+    if (!cut.isReduced()) {
+      assertEquals(
+          AlgorithmFactory.createUnboundedPlacesTest(full).getUnboundedPlaces(),
+          AlgorithmFactory.createUnboundedPlacesTest(reduced).getUnboundedPlaces());
+    }
+  }
+
+  /** creates a net with up to 6 places and 6 transitions and random arcs. */
+  private static ILowLevelPetriNet createRandomNet(Random random) {
+    ILowLevelPetriNet net = new LowLevelPetriNet();
+    PlaceNode[] places = new PlaceNode[2 + random.nextInt(5)];
+    for (int i = 0; i < places.length; i++) {
+      String id = "p" + i;
+      places[i] = new PlaceNode(random.nextInt(3) == 0 ? 1 : 0, 0, id, id, id);
+      net.addNode(places[i]);
+    }
+    int transitionCount = 2 + random.nextInt(5);
+    for (int i = 0; i < transitionCount; i++) {
+      String id = "t" + i;
+      TransitionNode transition =
+          new TransitionNode(id, id, id, OperatorTransitionModel.TRANS_SIMPLE_TYPE);
+      net.addNode(transition);
+      Set<PlaceNode> inputs = new HashSet<PlaceNode>();
+      for (int k = 1 + random.nextInt(2); k > 0; k--) {
+        inputs.add(places[random.nextInt(places.length)]);
+      }
+      Set<PlaceNode> outputs = new HashSet<PlaceNode>();
+      for (int k = random.nextInt(3); k > 0; k--) {
+        outputs.add(places[random.nextInt(places.length)]);
+      }
+      for (PlaceNode place : inputs) {
+        place.addSuccessorNode(transition);
+        transition.addPredecessorNode(place);
+      }
+      for (PlaceNode place : outputs) {
+        transition.addSuccessorNode(place);
+        place.addPredecessorNode(transition);
+      }
+    }
+    return net;
+  }
+
+  private static Set<TransitionNode> getDeadTransitions(IMarkingNet markingNet) {
+    return AlgorithmFactory.createDeadTransitionTest(markingNet).getDeadTransitions();
+  }
+}
@@ -4,5 +4,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({MarkingNetTest.class, MarkingTest.class})
+@Suite.SuiteClasses({
+  MarkingNetTest.class,
+  MarkingTest.class,
+  CompactMarkingNetTest.class,
+  CoveringIndexTest.class
+})
 public class AllTestsQualAnalysisSoundnessMarking {}
@@ -0,0 +1,117 @@
+package org.woped.qualanalysis.soundness.marking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.woped.qualanalysis.soundness.algorithms.AlgorithmFactory;
+import org.woped.qualanalysis.soundness.builder.BuilderFactory;
+import org.woped.qualanalysis.soundness.datamodel.ILowLevelPetriNet;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+import org.woped.tests.LowLevelPetriNetGenerator;
+
+public class CompactMarkingNetTest {
+
+  private final LowLevelPetriNetGenerator generator = new LowLevelPetriNetGenerator();
+
+  @Test
+  public void createCompactMarkingNet_parallelNet_sameMarkingsAsMarkingNet() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(4, false);
+
+    IMarkingNet expected = BuilderFactory.createMarkingNet(lolNet);
+    IMarkingNet actual = BuilderFactory.createCompactMarkingNet(lolNet);
+
+    assertEquals(tokenVectors(expected), tokenVectors(actual));
+  }
+
+  @Test
+  public void createCompactMarkingNet_parallelNetWithTStar_sameSoundnessResults() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createParallelNet(3, true);
+
+    IMarkingNet expected = BuilderFactory.createMarkingNet(lolNet);
+    IMarkingNet actual = BuilderFactory.createCompactMarkingNet(lolNet);
+
+    assertEquals(
+        AlgorithmFactory.createDeadTransitionTest(expected).getDeadTransitions(),
+        AlgorithmFactory.createDeadTransitionTest(actual).getDeadTransitions());
+    assertEquals(
+        AlgorithmFactory.createNonLiveTranstionTest(expected).getNonLiveTransitions(),
+        AlgorithmFactory.createNonLiveTranstionTest(actual).getNonLiveTransitions());
+    assertTrue(AlgorithmFactory.createSccTest(actual).isStronglyConnected());
+  }
+
+  @Test
+  public void createCompactMarkingNet_unboundedNet_sameUnboundedPlaces() throws Exception {
+    ILowLevelPetriNet lolNet = generator.createUnboundedNet();
+
+    IMarkingNet expected = BuilderFactory.createMarkingNet(lolNet);
+    IMarkingNet actual = BuilderFactory.createCompactMarkingNet(lolNet);
+
+    assertEquals(
+        AlgorithmFactory.createUnboundedPlacesTest(expected).getUnboundedPlaces(),
+        AlgorithmFactory.createUnboundedPlacesTest(actual).getUnboundedPlaces());
+    assertEquals(2, AlgorithmFactory.createUnboundedPlacesTest(actual).getUnboundedPlaces().size());
+    assertEquals(tokenVectors(expected), tokenVectors(actual));
+  }
+
+  @Test
+  public void getSuccessors_simpleNet_flyweightsResolveToStoredMarkings() throws Exception {
+    IMarkingNet cut = BuilderFactory.createCompactMarkingNet(generator.createSimpleNet());
+
+    IMarking initial = cut.getInitialMarking();
+    assertTrue(initial.isInitial());
+    assertEquals("( 1 0 )", initial.toString());
+    assertEquals(1, initial.getSuccessors().size());
+
+    Arc arc = initial.getSuccessors().iterator().next();
+    assertEquals("t1", arc.getTrigger().getId());
+    assertEquals("( 0 1 )", arc.getTarget().toString());
+    assertEquals(initial, arc.getTarget().getPredecessor());
+    assertTrue(cut.getMarkings().contains(arc.getTarget()));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void setTokens_storedMarking_throwsException() throws Exception {
+    IMarkingNet cut = BuilderFactory.createCompactMarkingNet(generator.createSimpleNet());
+    IMarking initial = cut.getInitialMarking();
+
+    initial.setTokens(initial.getPlaces().first(), 3);
+  }
+
+  @Test
+  public void copy_storedMarking_returnsMutableMarking() throws Exception {
+    IMarkingNet cut = BuilderFactory.createCompactMarkingNet(generator.createSimpleNet());
+    IMarking copy = cut.getInitialMarking().copy();
+
+    copy.setTokens(copy.getPlaces().first(), 3);
+
+    assertEquals("( 3 0 )", copy.toString());
+    assertEquals("( 1 0 )", cut.getInitialMarking().toString());
+  }
+
+  @Test
+  public void add_largeTokenCounts_storeWidensAndKeepsValues() throws Exception {
+    PackedMarkingStore cut = new PackedMarkingStore(3);
+
+    int first = cut.add(new int[] {1, 0, IndexedPetriNet.OMEGA});
+    int second = cut.add(new int[] {70000, 2, 0});
+    int duplicate = cut.add(new int[] {1, 0, IndexedPetriNet.OMEGA});
+
+    assertEquals(32, cut.getBitsPerPlace());
+    assertEquals(2, cut.size());
+    assertEquals(-(first + 1), duplicate);
+    assertEquals(IndexedPetriNet.OMEGA, cut.get(first, 2));
+    assertEquals(70000, cut.get(second, 0));
+    assertEquals(second, cut.indexOf(new int[] {70000, 2, 0}));
+  }
+
+  private static Set<String> tokenVectors(IMarkingNet net) {
+    Set<String> vectors = new HashSet<>();
+    for (IMarking marking : net.getMarkings()) {
+      vectors.add(marking.asTokenVectorString());
+    }
+    return vectors;
+  }
+}
@@ -0,0 +1,79 @@
+package org.woped.qualanalysis.soundness.marking;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.woped.qualanalysis.soundness.datamodel.IndexedPetriNet;
+
+public class CoveringIndexTest {
+
+  private static final int W = IndexedPetriNet.OMEGA;
+
+  private CoveringIndex<String> cut;
+
+  @Before
+  public void setUp() throws Exception {
+    cut = new CoveringIndex<>(3);
+    cut.add(new int[] {1, 0, 0}, "a");
+    cut.add(new int[] {1, 2, 0}, "b");
+    cut.add(new int[] {0, W, 1}, "c");
+    cut.add(new int[] {2, 2, W}, "d");
+  }
+
+  @Test
+  public void getCovering_marking_returnsAllGreaterOrEqualVectors() throws Exception {
+    List<String> actual = cut.getCovering(new int[] {1, 1, 0});
+
+    assertEquals(2, actual.size());
+    assertTrue(actual.contains("b"));
+    assertTrue(actual.contains("d"));
+  }
+
+  @Test
+  public void getCovering_omegaInQuery_onlyOmegaCoversOmega() throws Exception {
+    List<String> actual = cut.getCovering(new int[] {0, W, 0});
+
+    assertEquals(1, actual.size());
+    assertEquals("c", actual.get(0));
+  }
+
+  @Test
+  public void getCovered_marking_returnsAllLessOrEqualVectors() throws Exception {
+    List<String> actual = cut.getCovered(new int[] {1, W, 1});
+
+    assertEquals(3, actual.size());
+    assertTrue(actual.contains("a"));
+    assertTrue(actual.contains("b"));
+    assertTrue(actual.contains("c"));
+  }
+
+  @Test
+  public void findCovering_notCovered_returnsNull() throws Exception {
+    assertNull(cut.findCovering(new int[] {3, 0, 0}));
+    assertEquals("d", cut.findCovering(new int[] {2, 1, 5}));
+  }
+
+  @Test
+  public void remove_addedValue_isNotFoundAnyMore() throws Exception {
+    assertTrue(cut.remove(new int[] {1, 2, 0}, "b"));
+    assertFalse(cut.remove(new int[] {1, 2, 0}, "b"));
+
+    assertEquals(3, cut.size());
+    assertEquals(1, cut.getCovering(new int[] {1, 1, 0}).size());
+  }
+
+  @Test
+  public void add_sameVectorTwice_keepsBothValues() throws Exception {
+    cut.add(new int[] {1, 0, 0}, "e");
+
+    assertEquals(5, cut.size());
+    assertEquals(2, cut.getCovered(new int[] {1, 0, 0}).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getCovering_wrongLength_throws() throws Exception {
+    cut.getCovering(new int[] {1, 0});
+  }
+}
@@ -49,6 +49,35 @@ public class MarkingNetTest {
         activatedTransitions[1].getId().equals("t2"));
   }
 
+  @Test
+  public void getActivatedTransitions_succeedingMarking_onlyT2Activated() throws Exception {
+    LowLevelPetriNet net = createDemoLowLevelNet();
+    MarkingNet cut = new MarkingNet(net);
+    IMarking initial = cut.getInitialMarking();
+    TransitionNode t1 = cut.getActivatedTransitions(initial)[0];
+
+    IMarking succeedingMarking = cut.calculateSucceedingMarking(initial, t1);
+    TransitionNode[] activatedTransitions = cut.getActivatedTransitions(succeedingMarking);
+
+    assertEquals(1, activatedTransitions.length);
+    assertEquals("t2", activatedTransitions[0].getId());
+  }
+
+  @Test
+  public void getActivatedTransitions_tokensChangedAfterFiring_transitionsRecalculated()
+      throws Exception {
+    LowLevelPetriNet net = createDemoLowLevelNet();
+    MarkingNet cut = new MarkingNet(net);
+    IMarking initial = cut.getInitialMarking();
+    TransitionNode t1 = cut.getActivatedTransitions(initial)[0];
+    IMarking succeedingMarking = cut.calculateSucceedingMarking(initial, t1);
+
+    succeedingMarking.setTokens(cut.getPlaces()[0], 1);
+    TransitionNode[] activatedTransitions = cut.getActivatedTransitions(succeedingMarking);
+
+    assertEquals(2, activatedTransitions.length);
+  }
+
   @Test
   public void calculateSucceedingMarking_demoNet_producesMarking010() throws Exception {
     LowLevelPetriNet net = createDemoLowLevelNet();
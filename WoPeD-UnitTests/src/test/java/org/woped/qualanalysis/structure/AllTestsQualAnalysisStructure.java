@@ -2,7 +2,13 @@ package org.woped.qualanalysis.structure;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
+import org.woped.qualanalysis.structure.components.AllTestsQualAnalysisStructureComponents;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({StructuralAnalysisTest.class})
+@Suite.SuiteClasses({
+  NetConnectivityTest.class,
+  NetSnapshotTest.class,
+  StructuralAnalysisTest.class,
+  AllTestsQualAnalysisStructureComponents.class
+})
 public class AllTestsQualAnalysisStructure {}
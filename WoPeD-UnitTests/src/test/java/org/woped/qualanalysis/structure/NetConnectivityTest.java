@@ -0,0 +1,83 @@
+package org.woped.qualanalysis.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.woped.core.model.CreationMap;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.editor.controller.vc.EditorVC;
+import org.woped.tests.TestNetGenerator;
+
+public class NetConnectivityTest {
+
+  @Test
+  public void getNotStronglyConnectedNodes_shortCircuitedWorkflowNet_returnsEmptySet()
+      throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    NetSnapshot snapshot = new NetSnapshot(editor);
+
+    NetConnectivity cut = new NetConnectivity(getNetElements(snapshot, true), snapshot, true);
+
+    assertTrue(cut.getUnconnectedNodes(snapshot.getTStar()).isEmpty());
+    assertTrue(cut.getNotStronglyConnectedNodes(snapshot.getTStar()).isEmpty());
+  }
+
+  @Test
+  public void getNotStronglyConnectedNodes_withoutTStar_returnsAllOtherNodes() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    NetSnapshot snapshot = new NetSnapshot(editor);
+    ModelElementContainer container = editor.getModelProcessor().getElementContainer();
+
+    NetConnectivity cut = new NetConnectivity(getNetElements(snapshot, false), snapshot, false);
+
+    assertEquals(3, cut.getStronglyConnectedComponents().size());
+    assertEquals(1, cut.getConnectedComponents().size());
+    assertEquals(2, cut.getNotStronglyConnectedNodes(container.getElementById("t1")).size());
+  }
+
+  @Test
+  public void getShortestPath_sourceToSink_returnsPath() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    NetSnapshot snapshot = new NetSnapshot(editor);
+    ModelElementContainer container = editor.getModelProcessor().getElementContainer();
+    AbstractPetriNetElementModel p1 = container.getElementById("p1");
+    AbstractPetriNetElementModel t1 = container.getElementById("t1");
+    AbstractPetriNetElementModel p2 = container.getElementById("p2");
+
+    NetConnectivity cut = new NetConnectivity(getNetElements(snapshot, false), snapshot, false);
+
+    assertEquals(Arrays.asList(p1, t1, p2), cut.getShortestPath(p1, p2));
+    assertNull(cut.getShortestPath(p2, p1));
+  }
+
+  @Test
+  public void getNotConnectedNodes_isolatedTransition_returnsTransition() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    CreationMap transitionMap = CreationMap.createMap();
+    transitionMap.setType(AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE);
+    transitionMap.setId("t2");
+    editor.getModelProcessor().createElement(transitionMap);
+
+    StructuralAnalysis cut = new StructuralAnalysis(editor);
+
+    AbstractPetriNetElementModel t2 =
+        editor.getModelProcessor().getElementContainer().getElementById("t2");
+    assertTrue(cut.getNotConnectedNodes().contains(t2));
+    assertTrue(cut.getNotStronglyConnectedNodes().contains(t2));
+    assertNull(cut.getPathFromSource(t2));
+  }
+
+  private List<AbstractPetriNetElementModel> getNetElements(
+      NetSnapshot snapshot, boolean withTStar) {
+    List<AbstractPetriNetElementModel> elements = new ArrayList<>(snapshot.getPlaces());
+    elements.addAll(snapshot.getTransitions());
+    if (withTStar) {
+      elements.add(snapshot.getTStar());
+    }
+    return elements;
+  }
+}
@@ -0,0 +1,92 @@
+package org.woped.qualanalysis.structure;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.PlaceModel;
+import org.woped.editor.controller.vc.EditorVC;
+import org.woped.qualanalysis.soundness.datamodel.LowLevelPetriNet;
+import org.woped.tests.TestNetGenerator;
+
+public class NetSnapshotTest {
+
+  @Test
+  public void refresh_unchangedNet_returnsSameSnapshot() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    NetSnapshot first = new NetSnapshot(editor);
+
+    assertSame(first, first.refresh());
+  }
+
+  @Test
+  public void refresh_arcAdded_returnsNewSnapshot() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    NetSnapshot first = new NetSnapshot(editor);
+
+    editor.getModelProcessor().createArc("p2", "t1");
+
+    assertFalse(first.isCurrent());
+    assertNotSame(first, first.refresh());
+  }
+
+  @Test
+  public void refresh_tokensChanged_returnsNewSnapshot() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    NetSnapshot first = new NetSnapshot(editor);
+
+    PlaceModel p1 =
+        (PlaceModel) editor.getModelProcessor().getElementContainer().getElementById("p1");
+    p1.setTokens(1);
+
+    NetSnapshot second = first.refresh();
+    assertNotSame(first, second);
+    assertEquals(1, second.getTokenCount(p1));
+  }
+
+  @Test
+  public void refresh_tokenMovedBetweenPlaces_returnsNewSnapshot() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    ModelElementContainer container = editor.getModelProcessor().getElementContainer();
+    PlaceModel p1 = (PlaceModel) container.getElementById("p1");
+    PlaceModel p2 = (PlaceModel) container.getElementById("p2");
+    p1.setTokens(1);
+    NetSnapshot first = new NetSnapshot(editor);
+
+    p1.setTokens(0);
+    p2.setTokens(1);
+
+    assertFalse(first.isCurrent());
+    NetSnapshot second = first.refresh();
+    assertNotSame(first, second);
+    assertEquals(0, second.getTokenCount(p1));
+    assertEquals(1, second.getTokenCount(p2));
+  }
+
+  @Test
+  public void refresh_arcWeightChanged_returnsNewSnapshot() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    ModelElementContainer container = editor.getModelProcessor().getElementContainer();
+    NetSnapshot first = new NetSnapshot(editor);
+
+    container.getArcMap().values().iterator().next().setInscriptionValue(2);
+
+    assertFalse(first.isCurrent());
+    assertEquals(1, first.refresh().getArcWeightViolations().size());
+  }
+
+  @Test
+  public void getLowLevelPetriNet_withTStar_doesNotModifyNet() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    ModelElementContainer container = editor.getModelProcessor().getElementContainer();
+    long modificationCount = container.getModificationCount();
+
+    NetSnapshot snapshot = new NetSnapshot(editor);
+    LowLevelPetriNet lolNet = snapshot.getLowLevelPetriNet(true);
+    new StructuralAnalysis(snapshot).getPTHandles();
+
+    assertEquals("t1 and t* expected", 2, lolNet.getTransitions().size());
+    assertEquals(modificationCount, container.getModificationCount());
+    assertNull(container.getElementById(NetSnapshot.TSTAR_ID));
+  }
+}
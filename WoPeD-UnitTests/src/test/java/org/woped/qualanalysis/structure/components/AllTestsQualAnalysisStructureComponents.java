@@ -0,0 +1,8 @@
+package org.woped.qualanalysis.structure.components;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses(HandleDetectorTest.class)
+public class AllTestsQualAnalysisStructureComponents {}
@@ -0,0 +1,99 @@
+package org.woped.qualanalysis.structure.components;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+
+public class HandleDetectorTest {
+
+  // the low level net of n petri net nodes without arcs between them
+  private LowLevelNet createNet(int n) {
+    LowLevelNet net = new LowLevelNet();
+    for (int i = 0; i < n; i++) {
+      AbstractPetriNetElementModel element = mock(AbstractPetriNetElementModel.class);
+      FlowNode first = new FlowNode(element, true);
+      FlowNode second = new FlowNode(element, false);
+      net.addNode(first);
+      net.addNode(second);
+      net.addArc(first, second);
+    }
+    return net;
+  }
+
+  private void connect(LowLevelNet net, int from, int to) {
+    net.addArc(net.getNodes().get(2 * from + 1), net.getNodes().get(2 * to));
+  }
+
+  @Test
+  public void isHandle_twoDisjointPaths_true() throws Exception {
+    // 0 -> 1 -> 3 and 0 -> 2 -> 3
+    LowLevelNet net = createNet(4);
+    connect(net, 0, 1);
+    connect(net, 0, 2);
+    connect(net, 1, 3);
+    connect(net, 2, 3);
+    HandleDetector cut = new HandleDetector(net);
+
+    assertTrue(cut.isHandle(net.getNodes().get(1), net.getNodes().get(6)));
+  }
+
+  @Test
+  public void isHandle_pathsShareNode_false() throws Exception {
+    // 0 -> 1 -> 2 -> 4 and 0 -> 2 -> 3 -> 4 share node 2
+    LowLevelNet net = createNet(5);
+    connect(net, 0, 1);
+    connect(net, 0, 2);
+    connect(net, 1, 2);
+    connect(net, 2, 3);
+    connect(net, 2, 4);
+    connect(net, 3, 4);
+    HandleDetector cut = new HandleDetector(net);
+
+    assertFalse(cut.isHandle(net.getNodes().get(1), net.getNodes().get(8)));
+  }
+
+  @Test
+  public void areHandles_randomNets_sameAsMaxFlow() throws Exception {
+    Random random = new Random(42);
+    for (int round = 0; round < 50; round++) {
+      int n = 2 + random.nextInt(12);
+      LowLevelNet net = createNet(n);
+      for (int from = 0; from < n; from++) {
+        for (int to = 0; to < n; to++) {
+          if (random.nextInt(4) == 0) connect(net, from, to);
+        }
+      }
+      List<FlowNode> sources = new ArrayList<FlowNode>();
+      List<FlowNode> sinks = new ArrayList<FlowNode>();
+      List<Boolean> expected = new ArrayList<Boolean>();
+      for (int from = 0; from < n; from++) {
+        for (int to = 0; to < n; to++) {
+          FlowNode source = net.getNodes().get(2 * from + 1);
+          FlowNode sink = net.getNodes().get(2 * to);
+          sources.add(source);
+          sinks.add(sink);
+          expected.add(net.getMaxFlow(source, sink) > 1);
+        }
+      }
+      boolean[] expectedArray = new boolean[expected.size()];
+      for (int i = 0; i < expectedArray.length; i++) {
+        expectedArray[i] = expected.get(i);
+      }
+
+      boolean[] actual =
+          new HandleDetector(net)
+              .areHandles(
+                  sources.toArray(new FlowNode[sources.size()]),
+                  sinks.toArray(new FlowNode[sinks.size()]));
+
+      assertArrayEquals("round " + round, expectedArray, actual);
+    }
+  }
+}
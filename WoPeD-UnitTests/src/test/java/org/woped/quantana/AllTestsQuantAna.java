@@ -0,0 +1,17 @@
+package org.woped.quantana;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.woped.quantana.batch.AllTestsQuantAnaBatch;
+import org.woped.quantana.dashboard.AllTestsQuantAnaDashboard;
+import org.woped.quantana.graph.AllTestsQuantAnaGraph;
+import org.woped.quantana.sim.AllTestsQuantAnaSim;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+  AllTestsQuantAnaBatch.class,
+  AllTestsQuantAnaDashboard.class,
+  AllTestsQuantAnaGraph.class,
+  AllTestsQuantAnaSim.class
+})
+public class AllTestsQuantAna {}
@@ -0,0 +1,8 @@
+package org.woped.quantana.batch;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({BatchParametersTest.class, SimReportWriterTest.class})
+public class AllTestsQuantAnaBatch {}
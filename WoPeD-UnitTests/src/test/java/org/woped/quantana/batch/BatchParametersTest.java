@@ -0,0 +1,55 @@
+package org.woped.quantana.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.StringReader;
+import org.junit.Test;
+import org.woped.quantana.sim.SimDistribution;
+import org.woped.quantana.sim.SimParameters;
+import org.woped.quantana.sim.SimRunner;
+
+public class BatchParametersTest {
+
+  @Test
+  public void createParameters_defaults_poissonFifoBothStops() throws Exception {
+    SimParameters cut = read("lambda=50\nperiod=60\n").createParameters();
+
+    assertEquals(50, cut.getLambda(), 0);
+    assertEquals(60, cut.getPeriod(), 0);
+    assertEquals(1, cut.getRuns());
+    assertEquals(SimDistribution.POISSON, cut.getDistCases());
+    assertEquals(SimDistribution.POISSON, cut.getDistServ());
+    assertEquals(SimRunner.Q_FIFO, cut.getQueue());
+    assertEquals(SimRunner.STOP_BOTH, cut.getStop());
+    assertFalse(cut.getWriteLog());
+    assertFalse(cut.isRecordActivities());
+  }
+
+  @Test
+  public void createParameters_periodInHours_convertedToMinutes() throws Exception {
+    SimParameters cut =
+        read("lambda=10\nperiod=8\nperiodUnit=hour\nruns=5\nqueue=LIFO\nseed=7\nthreads=1\n")
+            .createParameters();
+
+    assertEquals(480, cut.getPeriod(), 1e-9);
+    assertEquals(5, cut.getRuns());
+    assertEquals(SimRunner.Q_LIFO, cut.getQueue());
+    assertEquals(7, cut.getSeed());
+    assertEquals(1, cut.getThreads());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void new_missingLambda_throws() throws Exception {
+    read("period=60\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void new_unknownDistribution_throws() throws Exception {
+    read("lambda=50\nperiod=60\nserviceDistribution=gamma\n");
+  }
+
+  private BatchParameters read(String properties) throws Exception {
+    return new BatchParameters(new StringReader(properties));
+  }
+}
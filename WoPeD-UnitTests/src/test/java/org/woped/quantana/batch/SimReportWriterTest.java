@@ -0,0 +1,79 @@
+package org.woped.quantana.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import org.junit.Test;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.petrinet.TransitionModel;
+import org.woped.editor.controller.vc.EditorVC;
+import org.woped.quantana.model.TimeModel;
+import org.woped.quantana.sim.SimDistribution;
+import org.woped.quantana.sim.SimParameters;
+import org.woped.quantana.sim.SimReportStats;
+import org.woped.quantana.sim.SimRunner;
+import org.woped.tests.TestNetGenerator;
+
+public class SimReportWriterTest {
+
+  @Test
+  public void writeJson_undefinedValues_leftOut() throws Exception {
+    SimReportStats stats = new SimReportStats();
+    stats.setProcCompTime(Double.NaN);
+    stats.setThroughPut(Double.POSITIVE_INFINITY);
+    stats.setProcWaitTime(2.5);
+
+    JsonObject process = roundTrip(SimReportWriter.toJson("net", stats)).getAsJsonObject("process");
+
+    assertFalse(process.has("completionTime"));
+    assertFalse(process.has("throughput"));
+    assertEquals(2.5, process.get("waitTime").getAsDouble(), 0);
+  }
+
+  @Test
+  public void writeJson_simpleNet_readBackUnchanged() throws Exception {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    ModelElementContainer container = editor.getModelProcessor().getElementContainer();
+    ((TransitionModel) container.getElementById("t1")).getToolSpecific().setTime(5);
+    SimParameters params = new SimParameters(10, 480);
+    params.setRuns(3);
+    params.setThreads(1);
+    params.setStop(SimRunner.STOP_BOTH);
+    params.setDistCases(SimDistribution.EXPOTENTIONAL);
+    params.setDistServ(SimDistribution.EXPOTENTIONAL);
+    params.setRecordActivities(false);
+    SimReportStats stats =
+        new BatchSimulation(editor, params, new TimeModel(TimeModel.TM_MINUTE, 1)).run();
+    JsonObject json = SimReportWriter.toJson("simple", stats);
+
+    JsonObject cut = roundTrip(json);
+
+    assertEquals(json, cut);
+    JsonObject process = cut.getAsJsonObject("process");
+    assertEquals(3, process.get("replications").getAsInt());
+    assertEquals(stats.getProcCompTime(), process.get("completionTime").getAsDouble(), 0);
+    JsonArray tasks = cut.getAsJsonArray("tasks");
+    assertEquals(1, tasks.size());
+    assertEquals("t1", tasks.get(0).getAsJsonObject().get("id").getAsString());
+    assertTrue(tasks.get(0).getAsJsonObject().get("departures").getAsDouble() > 0);
+  }
+
+  // writes the result and reads it back with a strict reader, which rejects NaN and Infinity
+  private JsonObject roundTrip(JsonObject result) throws Exception {
+    StringWriter writer = new StringWriter();
+    SimReportWriter.writeJson(Collections.singletonList(result), writer);
+    JsonReader reader = new JsonReader(new StringReader(writer.toString()));
+    reader.setLenient(false);
+    JsonElement read = new Gson().getAdapter(JsonElement.class).read(reader);
+    return read.getAsJsonArray().get(0).getAsJsonObject();
+  }
+}
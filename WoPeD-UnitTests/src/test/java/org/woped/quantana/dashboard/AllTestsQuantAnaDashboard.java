@@ -0,0 +1,10 @@
+package org.woped.quantana.dashboard;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.woped.quantana.dashboard.storage.ArchiveProviderTest;
+import org.woped.quantana.dashboard.storage.MessageQueueTest;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({ArchiveProviderTest.class, MessageQueueTest.class})
+public class AllTestsQuantAnaDashboard {}
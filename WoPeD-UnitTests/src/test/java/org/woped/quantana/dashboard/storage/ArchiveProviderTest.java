@@ -0,0 +1,88 @@
+package org.woped.quantana.dashboard.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArchiveProviderTest {
+
+  private Connection connection;
+  private PreparedStatement statement;
+  private ArchiveProvider cut;
+
+  @Before
+  public void setUp() throws Exception {
+    connection = mock(Connection.class);
+    statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    cut = new ArchiveProvider(connection, new ReentrantLock(), 16, false, 64);
+    cut.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cut.close();
+  }
+
+  @Test
+  public void flush_written_insertedInBatches() throws Exception {
+    for (int tick = 1; tick <= 3; tick++) {
+      cut.write("T", new SimulationStorageEntry(0, tick, null));
+    }
+    cut.flush();
+
+    verify(connection).prepareStatement("insert into T (Tick,Data) values (?,?)");
+    verify(statement, times(3)).addBatch();
+    assertEquals(0, cut.getDropped());
+  }
+
+  @Test
+  public void flush_batchFails_laterBatchesWritten() throws Exception {
+    doThrow(new IllegalStateException("broken value")).doNothing().when(statement).addBatch();
+
+    cut.write("T", new SimulationStorageEntry(0, 1, null));
+    assertTrue(cut.flush());
+    cut.write("T", new SimulationStorageEntry(0, 2, null));
+
+    assertTrue(cut.flush());
+    assertEquals(2, cut.awaitTick("T", 1, 10000));
+  }
+
+  @Test
+  public void write_closed_dropsWithoutWaiting() throws Exception {
+    cut.close();
+
+    assertFalse(cut.write("T", new SimulationStorageEntry(0, 1, null)));
+    assertTrue(cut.flush());
+    assertEquals(1, cut.getDropped());
+  }
+
+  @Test
+  public void awaitTick_written_returnsLastTick() throws Exception {
+    cut.write("T", new SimulationStorageEntry(0, 5, null));
+    cut.write("T", new SimulationStorageEntry(0, 7, null));
+
+    assertEquals(7, cut.awaitTick("T", 6, 10000));
+  }
+
+  @Test
+  public void awaitTick_otherTable_timesOut() throws Exception {
+    cut.write("T", new SimulationStorageEntry(0, 5, null));
+    cut.flush();
+
+    assertEquals(-1, cut.awaitTick("U", 0, 10));
+  }
+}
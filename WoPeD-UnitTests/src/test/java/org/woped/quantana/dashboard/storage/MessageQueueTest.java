@@ -0,0 +1,65 @@
+package org.woped.quantana.dashboard.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class MessageQueueTest {
+
+  @Test
+  public void offer_full_false() throws Exception {
+    MessageQueue<Integer> cut = new MessageQueue<Integer>(2);
+
+    assertTrue(cut.offer(1));
+    assertTrue(cut.offer(2));
+    assertFalse(cut.offer(3));
+    assertEquals(2, cut.size());
+  }
+
+  @Test
+  public void receive_wrapsAround_inOrder() throws Exception {
+    MessageQueue<Integer> cut = new MessageQueue<Integer>(3);
+    List<Integer> received = new ArrayList<Integer>();
+    cut.offer(1);
+    cut.offer(2);
+    cut.receive(received, 1);
+    cut.offer(3);
+    cut.offer(4);
+
+    assertEquals(3, cut.receive(received, 10));
+    assertEquals(Arrays.asList(1, 2, 3, 4), received);
+  }
+
+  @Test
+  public void send_full_waitsForReceiver() throws Exception {
+    final MessageQueue<Integer> cut = new MessageQueue<Integer>(1);
+    final List<Integer> received = new ArrayList<Integer>();
+    Thread receiver =
+        new Thread(
+            new Runnable() {
+              public void run() {
+                try {
+                  while (cut.receive(received, 1) > 0) {}
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }
+            });
+    receiver.start();
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(cut.send(i));
+    }
+    cut.close();
+    receiver.join(10000);
+
+    assertEquals(100, received.size());
+    assertEquals(99, (int) received.get(99));
+    assertFalse(cut.send(100));
+  }
+}
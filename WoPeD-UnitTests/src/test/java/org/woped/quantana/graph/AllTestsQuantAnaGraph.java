@@ -0,0 +1,8 @@
+package org.woped.quantana.graph;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({CapacityAnalysisTest.class})
+public class AllTestsQuantAnaGraph {}
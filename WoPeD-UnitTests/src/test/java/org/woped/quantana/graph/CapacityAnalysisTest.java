@@ -0,0 +1,124 @@
+package org.woped.quantana.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CapacityAnalysisTest {
+
+  @Test
+  public void calculateNumOfRuns_loop_closedForm() throws Exception {
+    Node[] nodes = createLoop(0.25);
+    CapacityAnalysis cut = new CapacityAnalysis(nodes, nodes[0]);
+
+    cut.calculateNumOfRuns(30);
+
+    assertEquals(40, nodes[1].getNumOfRuns(), 1e-9);
+    assertEquals(10, nodes[3].getNumOfRuns(), 1e-9);
+    assertEquals(30, nodes[4].getNumOfRuns(), 1e-9);
+  }
+
+  @Test
+  public void unfold_loop_closeToClosedForm() throws Exception {
+    Node[] nodes = createLoop(0.25);
+    CapacityAnalysis cut = new CapacityAnalysis(nodes, nodes[0]);
+
+    int size = cut.unfold(30, 1e-6);
+
+    assertEquals(40, nodes[1].getNumOfRuns(), 1e-4);
+    assertEquals(30, nodes[4].getNumOfRuns(), 1e-4);
+    assertEquals(true, size > nodes.length);
+  }
+
+  @Test
+  public void unfold_loopNeverLeft_truncated() throws Exception {
+    Node[] nodes = createLoop(1);
+    CapacityAnalysis cut = new CapacityAnalysis(nodes, nodes[0]);
+
+    int size = cut.unfold(30, 0.001, 1000);
+
+    assertEquals(1000, size);
+    assertTrue(cut.isTruncated());
+    assertEquals(0, nodes[5].getNumOfRuns(), 0);
+  }
+
+  @Test
+  public void unfold_loop_notTruncated() throws Exception {
+    Node[] nodes = createLoop(0.25);
+    CapacityAnalysis cut = new CapacityAnalysis(nodes, nodes[0]);
+
+    cut.unfold(30, 1e-6);
+
+    assertFalse(cut.isTruncated());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void calculateNumOfRuns_loopNeverLeft_exception() throws Exception {
+    Node[] nodes = createLoop(1);
+
+    new CapacityAnalysis(nodes, nodes[0]).calculateNumOfRuns(30);
+  }
+
+  @Test
+  public void calculateNumOfRuns_andSplitAndJoin_joinOnce() throws Exception {
+    Node[] nodes = new Node[8];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = new Node("n" + i, "n" + i);
+    }
+    nodes[6].setAndJoin(true);
+    connect(nodes[0], nodes[1], 1);
+    connect(nodes[1], nodes[2], 1);
+    connect(nodes[1], nodes[3], 1);
+    connect(nodes[2], nodes[4], 1);
+    connect(nodes[3], nodes[5], 1);
+    connect(nodes[4], nodes[6], 1);
+    connect(nodes[5], nodes[6], 1);
+    connect(nodes[6], nodes[7], 1);
+    CapacityAnalysis cut = new CapacityAnalysis(nodes, nodes[0]);
+
+    cut.calculateNumOfRuns(5);
+
+    assertEquals(5, nodes[4].getNumOfRuns(), 1e-9);
+    assertEquals(5, nodes[5].getNumOfRuns(), 1e-9);
+    assertEquals(5, nodes[7].getNumOfRuns(), 1e-9);
+  }
+
+  @Test
+  public void calculateNumOfRuns_longSequence_noStackOverflow() throws Exception {
+    Node[] nodes = new Node[200000];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = new Node("n" + i, "n" + i);
+      if (i > 0) connect(nodes[i - 1], nodes[i], 1);
+    }
+    CapacityAnalysis cut = new CapacityAnalysis(nodes, nodes[0]);
+
+    cut.calculateNumOfRuns(1);
+    assertEquals(1, nodes[nodes.length - 1].getNumOfRuns(), 1e-9);
+
+    cut.unfold(1, 0.001);
+    assertEquals(1, nodes[nodes.length - 1].getNumOfRuns(), 1e-9);
+  }
+
+  // p0 -> t1 -> p1, p1 goes back to p0 over t2 with the probability back or ends in p2 over t3
+  private static Node[] createLoop(double back) {
+    Node[] nodes = new Node[6];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = new Node("n" + i, "n" + i);
+    }
+    connect(nodes[0], nodes[1], 1);
+    connect(nodes[1], nodes[2], 1);
+    connect(nodes[2], nodes[3], back);
+    connect(nodes[3], nodes[0], 1);
+    connect(nodes[2], nodes[4], 1 - back);
+    connect(nodes[4], nodes[5], 1);
+    return nodes;
+  }
+
+  private static void connect(Node source, Node target, double probability) {
+    Arc arc = new Arc(target, probability);
+    arc.setSource(source);
+    source.getSuccessor().add(arc);
+  }
+}
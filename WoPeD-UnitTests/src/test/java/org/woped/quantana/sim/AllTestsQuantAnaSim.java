@@ -0,0 +1,17 @@
+package org.woped.quantana.sim;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.woped.quantana.sim.stats.AllTestsQuantAnaSimStats;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+  AllTestsQuantAnaSimStats.class,
+  SimConfidenceAnalysisTest.class,
+  SimEventCalendarTest.class,
+  SimLogWriterTest.class,
+  SimReportServerStatsTest.class,
+  SimRunnerTest.class,
+  SimWarmUpTest.class
+})
+public class AllTestsQuantAnaSim {}
@@ -0,0 +1,45 @@
+package org.woped.quantana.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SimConfidenceAnalysisTest {
+
+  @Test
+  public void getHalfWidth_knownValues_studentInterval() throws Exception {
+    SimConfidenceAnalysis cut = new SimConfidenceAnalysis(0.95);
+    for (double value : new double[] {9, 10, 11, 10, 10}) {
+      cut.add(SimConfidenceAnalysis.COMPLETION_TIME, value);
+    }
+
+    assertEquals(10, cut.getMean(SimConfidenceAnalysis.COMPLETION_TIME), 1e-12);
+    // t(4, 0.975) = 2.776, s = sqrt(0.5)
+    assertEquals(
+        2.776 * Math.sqrt(0.5 / 5), cut.getHalfWidth(SimConfidenceAnalysis.COMPLETION_TIME), 1e-2);
+  }
+
+  @Test
+  public void isPrecise_oneValue_false() throws Exception {
+    SimConfidenceAnalysis cut = new SimConfidenceAnalysis(0.95);
+    cut.add(SimConfidenceAnalysis.COMPLETION_TIME, 10);
+
+    assertFalse(cut.isPrecise(0.5));
+    assertEquals(2, cut.getRequiredCount(0.5));
+  }
+
+  @Test
+  public void isPrecise_zeroWaitTime_ignoresZeroMean() throws Exception {
+    SimConfidenceAnalysis cut = new SimConfidenceAnalysis(0.95);
+    for (int i = 0; i < 4; i++) {
+      cut.add(SimConfidenceAnalysis.waitTime("t1"), 0);
+      cut.add(SimConfidenceAnalysis.COMPLETION_TIME, 100 + i % 2);
+    }
+
+    assertTrue(cut.isPrecise(0.05));
+    assertFalse(cut.isPrecise(0.001));
+    assertTrue(cut.getRequiredCount(0.001) > 4);
+  }
+}
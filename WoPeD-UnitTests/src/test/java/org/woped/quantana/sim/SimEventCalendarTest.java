@@ -0,0 +1,89 @@
+package org.woped.quantana.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class SimEventCalendarTest {
+
+  private final SimRunner runner = mock(SimRunner.class);
+  private final SimEventCalendar cut = new SimEventCalendar();
+
+  @Test
+  public void poll_randomTimes_ascendingOrder() throws Exception {
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      cut.add(new TestEvent(random.nextInt(100)));
+    }
+
+    double previous = -1;
+    while (!cut.isEmpty()) {
+      double time = cut.poll().getTime();
+      assertTrue(previous <= time);
+      previous = time;
+    }
+    assertNull(cut.poll());
+  }
+
+  @Test
+  public void poll_sameTime_orderOfAdding() throws Exception {
+    List<SimulatorEvent> added = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      SimulatorEvent e = new TestEvent(5);
+      added.add(e);
+      cut.add(e);
+    }
+
+    for (SimulatorEvent e : added) {
+      assertSame(e, cut.poll());
+    }
+  }
+
+  @Test
+  public void remove_scheduledEvent_notPolled() throws Exception {
+    List<SimulatorEvent> added = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      SimulatorEvent e = new TestEvent(100 - i);
+      added.add(e);
+      cut.add(e);
+    }
+
+    for (int i = 0; i < added.size(); i += 3) {
+      assertTrue(cut.remove(added.get(i)));
+    }
+
+    assertFalse(cut.remove(added.get(0)));
+    assertEquals(66, cut.size());
+    double previous = -1;
+    while (!cut.isEmpty()) {
+      SimulatorEvent e = cut.poll();
+      assertTrue(added.indexOf(e) % 3 != 0);
+      assertTrue(previous <= e.getTime());
+      previous = e.getTime();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void add_scheduledEvent_throws() throws Exception {
+    SimulatorEvent e = new TestEvent(1);
+    cut.add(e);
+    cut.add(e);
+  }
+
+  private class TestEvent extends SimulatorEvent {
+
+    TestEvent(double time) {
+      super(runner, time);
+    }
+
+    public void invoke() {}
+  }
+}
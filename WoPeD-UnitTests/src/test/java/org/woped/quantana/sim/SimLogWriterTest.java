@@ -0,0 +1,120 @@
+package org.woped.quantana.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SimLogWriterTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Date baseDate = new Date(1500000000000L);
+  private final List<SimLogEvent> events =
+      Arrays.asList(
+          new SimLogEvent("t1", "clerk", 1.5, 2.0), new SimLogEvent("t2", "manager", 4.0, 0.5));
+
+  @Test
+  public void writeTrace_xes_equalsInMemoryLog() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SimLogWriter cut = new SimLogWriter(out, SimLogWriter.FORMAT_XES, baseDate);
+
+    cut.writeTrace("7", events);
+    cut.close();
+
+    assertEquals(writeInMemory(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void copyTo_binaryLog_restoresTraces() throws Exception {
+    ByteArrayOutputStream binary = new ByteArrayOutputStream();
+    SimLogBinaryWriter writer = new SimLogBinaryWriter(binary, baseDate);
+    writer.writeTrace("7", events);
+    writer.close();
+
+    SimLogBinaryReader cut = new SimLogBinaryReader(new ByteArrayInputStream(binary.toByteArray()));
+    ByteArrayOutputStream xes = new ByteArrayOutputStream();
+    SimLogWriter sink = new SimLogWriter(xes, SimLogWriter.FORMAT_XES, cut.getBaseDate());
+    int traces = cut.copyTo(sink);
+    sink.close();
+
+    assertEquals(1, traces);
+    assertEquals(writeInMemory(), new String(xes.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void open_gzipCsv_writesCompressedCsv() throws Exception {
+    File file = folder.newFile("log.csv.gz");
+
+    SimLogSink cut = SimLogWriter.open(file, baseDate);
+    cut.writeTrace("1_7", events);
+    cut.close();
+
+    String csv;
+    try (InputStream in = new GZIPInputStream(new FileInputStream(file));
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+      StringWriter text = new StringWriter();
+      char[] buffer = new char[1024];
+      for (int n; (n = reader.read(buffer)) > 0; ) {
+        text.write(buffer, 0, n);
+      }
+      csv = text.toString();
+    }
+    String[] lines = csv.split("\\R");
+    assertEquals(3, lines.length);
+    assertTrue(lines[1].startsWith("1_7, "));
+    assertTrue(lines[2].endsWith(", t2, manager"));
+  }
+
+  @Test(expected = IOException.class)
+  public void close_streamFails_throws() throws Exception {
+    OutputStream failing =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("disk full");
+          }
+        };
+    SimLogWriter cut = new SimLogWriter(failing, SimLogWriter.FORMAT_CSV, baseDate);
+
+    cut.writeTrace("7", events);
+    cut.close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void checkName_unknownExtension_throws() throws Exception {
+    SimLogWriter.checkName("log.txt");
+  }
+
+  private String writeInMemory() {
+    SimLogTrace trace = new SimLogTrace(7);
+    for (SimLogEvent event : events) {
+      trace.addEvent(event);
+    }
+    StringWriter text = new StringWriter();
+    PrintWriter p = new PrintWriter(text);
+    p.print(SimLog.XES_HEADER);
+    trace.writeXES(p, baseDate, SimLog.createXESDateFormat());
+    p.print(SimLog.XES_FOOTER);
+    p.close();
+    return text.toString();
+  }
+}
@@ -0,0 +1,23 @@
+package org.woped.quantana.sim;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class SimReportServerStatsTest {
+
+  @Test
+  public void averagePercentiles_replicationWithoutValues_notCounted() throws Exception {
+    SimReportServerStats cut = new SimReportServerStats("task", "t1");
+
+    cut.incWaitTimePercentiles(new double[] {2, 4, 6});
+    cut.incWaitTimePercentiles(new double[] {Double.NaN, Double.NaN, Double.NaN});
+    cut.incWaitTimePercentiles(new double[] {4, 8, Double.NaN});
+    cut.incServTimePercentiles(new double[] {Double.NaN, Double.NaN, Double.NaN});
+    cut.averagePercentiles();
+
+    assertArrayEquals(new double[] {3, 6, 6}, cut.getWaitTimePercentiles(), 0);
+    assertArrayEquals(
+        new double[] {Double.NaN, Double.NaN, Double.NaN}, cut.getServTimePercentiles(), 0);
+  }
+}
@@ -0,0 +1,210 @@
+package org.woped.quantana.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.woped.core.model.CreationMap;
+import org.woped.core.model.ModelElementContainer;
+import org.woped.core.model.PetriNetModelProcessor;
+import org.woped.core.model.petrinet.AbstractPetriNetElementModel;
+import org.woped.core.model.petrinet.TransitionModel;
+import org.woped.editor.controller.vc.EditorVC;
+import org.woped.quantana.resourcealloc.ResourceAllocation;
+import org.woped.quantana.resourcealloc.ResourceUtilization;
+import org.woped.tests.TestNetGenerator;
+
+public class SimRunnerTest {
+
+  @Test
+  public void simulate_fourThreads_sameStatisticsAsOneThread() throws Exception {
+    SimReportStats single = createRunner(1).simulate();
+    SimReportStats parallel = createRunner(4).simulate();
+
+    assertTrue(single.getFinishedCases() > 0);
+    assertEquals(single.getFinishedCases(), parallel.getFinishedCases());
+    assertEquals(single.getProcCompTime(), parallel.getProcCompTime(), 0);
+    assertEquals(single.getProcWaitTime(), parallel.getProcWaitTime(), 0);
+    assertEquals(single.getThroughPut(), parallel.getThroughPut(), 0);
+  }
+
+  @Test
+  public void simulate_subclass_replicationsUseSubclass() throws Exception {
+    SimRunner template = createRunner(4);
+    AtomicInteger finished = new AtomicInteger();
+    CountingRunner cut =
+        new CountingRunner(template.graph, template.getResUtil(), createParameters(4), finished);
+
+    cut.simulate();
+
+    int expected = 0;
+    for (SimRunStats stats : cut.getRunStats()) {
+      expected += stats.getFinishedCases();
+    }
+    assertTrue(expected > 0);
+    assertEquals(expected, finished.get());
+  }
+
+  @Test
+  public void simulate_sameSeed_sameTraces() throws Exception {
+    Map<String, List<String>> first = simulateBranches(42, 5);
+    Map<String, List<String>> second = simulateBranches(42, 5);
+
+    assertFalse(first.isEmpty());
+    assertEquals(first, second);
+  }
+
+  @Test
+  public void simulate_otherSeed_otherTraces() throws Exception {
+    Map<String, List<String>> first = simulateBranches(42, 5);
+    Map<String, List<String>> second = simulateBranches(43, 5);
+
+    assertNotEquals(first, second);
+  }
+
+  @Test
+  public void simulate_commonRandomNumbers_sameRoutingInBothConfigurations() throws Exception {
+    // the slow branch lets the cases queue, so services end while other servers are queueing
+    Map<String, List<String>> fast = simulateBranches(42, 5);
+    Map<String, List<String>> slow = simulateBranches(42, 30);
+
+    int compared = 0;
+    for (Map.Entry<String, List<String>> trace : fast.entrySet()) {
+      String fastBranch = getBranch(trace.getValue());
+      String slowBranch =
+          slow.containsKey(trace.getKey()) ? getBranch(slow.get(trace.getKey())) : null;
+      if (fastBranch != null && slowBranch != null) {
+        assertEquals("case " + trace.getKey(), fastBranch, slowBranch);
+        compared++;
+      }
+    }
+    assertTrue(compared > 10);
+  }
+
+  private SimRunner createRunner(int threads) {
+    EditorVC editor = new TestNetGenerator().getDemoEditor();
+    ModelElementContainer container = editor.getModelProcessor().getElementContainer();
+    ((TransitionModel) container.getElementById("t1")).getToolSpecific().setTime(5);
+    SimGraph graph = new SimGraph(editor, false);
+    ResourceAllocation resAlloc =
+        graph.createResourceAllocation((PetriNetModelProcessor) editor.getModelProcessor());
+    return new SimRunner(graph, new ResourceUtilization(resAlloc), createParameters(threads));
+  }
+
+  /**
+   * Simulates the net p1 -> t1 -> p2 -> (t2 | t3) -> p3 with common random numbers.
+   *
+   * @return the activities of each case
+   */
+  private Map<String, List<String>> simulateBranches(long seed, int timeOfT3) {
+    PetriNetModelProcessor processor = new PetriNetModelProcessor();
+    CreationMap placeMap = CreationMap.createMap();
+    placeMap.setType(AbstractPetriNetElementModel.PLACE_TYPE);
+    for (int i = 1; i <= 3; i++) {
+      placeMap.setId("p" + i);
+      placeMap.setName("p" + i);
+      processor.createElement(placeMap);
+    }
+    CreationMap transitionMap = CreationMap.createMap();
+    transitionMap.setType(AbstractPetriNetElementModel.TRANS_SIMPLE_TYPE);
+    for (int i = 1; i <= 3; i++) {
+      transitionMap.setId("t" + i);
+      transitionMap.setName("t" + i);
+      processor.createElement(transitionMap);
+    }
+    processor.createArc("p1", "t1");
+    processor.createArc("t1", "p2");
+    processor.createArc("p2", "t2").setProbability(0.5);
+    processor.createArc("p2", "t3").setProbability(0.5);
+    processor.createArc("t2", "p3");
+    processor.createArc("t3", "p3");
+    ModelElementContainer container = processor.getElementContainer();
+    ((TransitionModel) container.getElementById("t1")).getToolSpecific().setTime(5);
+    ((TransitionModel) container.getElementById("t2")).getToolSpecific().setTime(5);
+    ((TransitionModel) container.getElementById("t3")).getToolSpecific().setTime(timeOfT3);
+    EditorVC editor = new EditorVC();
+    editor.setModelProcessor(processor);
+
+    SimGraph graph = new SimGraph(editor, false);
+    ResourceAllocation resAlloc = graph.createResourceAllocation(processor);
+    SimParameters params = createParameters(1);
+    params.setRuns(1);
+    params.setLambda(50);
+    params.setStop(SimRunner.STOP_TIME);
+    params.setSeed(seed);
+    params.setCommonRandomNumbers(true);
+    SimRunner runner = new SimRunner(graph, new ResourceUtilization(resAlloc), params);
+    Map<String, List<String>> traces = new HashMap<String, List<String>>();
+    runner.setLogSink(
+        new SimLogSink() {
+          @Override
+          public void writeTrace(String caseID, List<SimLogEvent> events) {
+            List<String> activities = new ArrayList<String>();
+            for (SimLogEvent event : events) {
+              activities.add(event.getActivity());
+            }
+            traces.put(caseID, activities);
+          }
+
+          @Override
+          public void close() {}
+        });
+    runner.simulate();
+    return traces;
+  }
+
+  private String getBranch(List<String> activities) {
+    if (activities.contains("t2")) return "t2";
+    if (activities.contains("t3")) return "t3";
+    return null;
+  }
+
+  private SimParameters createParameters(int threads) {
+    SimParameters params = new SimParameters(10, 480);
+    params.setRuns(8);
+    params.setThreads(threads);
+    params.setSeed(42);
+    params.setStop(SimRunner.STOP_BOTH);
+    params.setDistCases(SimDistribution.EXPOTENTIONAL);
+    params.setDistServ(SimDistribution.EXPOTENTIONAL);
+    params.setQueue(SimRunner.Q_FIFO);
+    params.setResUse(SimRunner.RES_NOT_USED);
+    params.setRecordActivities(false);
+    return params;
+  }
+
+  /** Counts the finished cases of all replications. */
+  private static class CountingRunner extends SimRunner {
+
+    private final AtomicInteger finished;
+
+    CountingRunner(
+        SimGraph graph, ResourceUtilization resUtil, SimParameters sp, AtomicInteger finished) {
+      super(graph, resUtil, sp);
+      this.finished = finished;
+    }
+
+    private CountingRunner(CountingRunner master, int run) {
+      super(master, run);
+      this.finished = master.finished;
+    }
+
+    @Override
+    protected SimRunner createReplication(int run) {
+      return new CountingRunner(this, run);
+    }
+
+    @Override
+    public void finishCase(SimCase c) {
+      super.finishCase(c);
+      finished.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package org.woped.quantana.sim;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SimWarmUpTest {
+
+  @Test
+  public void getWarmUpTime_steadyValues_zero() throws Exception {
+    SimWarmUp cut = new SimWarmUp();
+    for (int i = 0; i < 500; i++) {
+      cut.add(i, 10 + (i % 3));
+    }
+
+    assertEquals(0, cut.getWarmUpTime(), 0);
+  }
+
+  @Test
+  public void getWarmUpTime_decreasingStart_endOfTransient() throws Exception {
+    SimWarmUp cut = new SimWarmUp();
+    for (int i = 0; i < 1000; i++) {
+      double bias = i < 100 ? 100 - i : 0;
+      cut.add(i, 10 + (i % 3) + bias);
+    }
+
+    assertEquals(200, cut.getBatches());
+    assertEquals(99, cut.getWarmUpTime(), SimWarmUp.BATCH_SIZE);
+  }
+
+  @Test
+  public void getTruncation_fewBatches_zero() throws Exception {
+    SimWarmUp cut = new SimWarmUp();
+    for (int i = 0; i < 20; i++) {
+      cut.add(i, 100 - i);
+    }
+
+    assertEquals(0, cut.getTruncation());
+  }
+}
@@ -0,0 +1,8 @@
+package org.woped.quantana.sim.stats;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({P2QuantileTest.class, TallyTest.class, TimeWeightedTallyTest.class})
+public class AllTestsQuantAnaSimStats {}
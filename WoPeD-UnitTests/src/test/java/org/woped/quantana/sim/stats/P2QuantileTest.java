@@ -0,0 +1,34 @@
+package org.woped.quantana.sim.stats;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class P2QuantileTest {
+
+  @Test
+  public void getQuantile_fewValues_exact() throws Exception {
+    P2Quantile cut = new P2Quantile(0.5);
+    cut.add(3);
+    cut.add(1);
+    cut.add(2);
+
+    assertEquals(2, cut.getQuantile(), 0);
+  }
+
+  @Test
+  public void getQuantile_exponentialValues_closeToDistribution() throws Exception {
+    Random random = new Random(42);
+    P2Quantile median = new P2Quantile(0.5);
+    P2Quantile cut = new P2Quantile(0.95);
+    for (int i = 0; i < 100000; i++) {
+      double value = -Math.log(1 - random.nextDouble());
+      median.add(value);
+      cut.add(value);
+    }
+
+    assertEquals(Math.log(2), median.getQuantile(), 0.02);
+    assertEquals(-Math.log(0.05), cut.getQuantile(), 0.05);
+  }
+}
@@ -0,0 +1,43 @@
+package org.woped.quantana.sim.stats;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TallyTest {
+
+  @Test
+  public void add_values_meanVarianceAndExtremes() throws Exception {
+    Tally cut = new Tally();
+    for (double value : new double[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+      cut.add(value);
+    }
+
+    assertEquals(8, cut.getCount());
+    assertEquals(40, cut.getSum(), 1e-12);
+    assertEquals(5, cut.getMean(), 1e-12);
+    assertEquals(32.0 / 7, cut.getVariance(), 1e-12);
+    assertEquals(2, cut.getMin(), 0);
+    assertEquals(9, cut.getMax(), 0);
+  }
+
+  @Test
+  public void add_tally_sameAsAllValues() throws Exception {
+    Tally cut = new Tally();
+    Tally other = new Tally();
+    Tally all = new Tally();
+    for (int i = 0; i < 100; i++) {
+      double value = 1e6 + (i * 37 % 11);
+      (i < 30 ? cut : other).add(value);
+      all.add(value);
+    }
+
+    cut.add(other);
+
+    assertEquals(all.getCount(), cut.getCount());
+    assertEquals(all.getMean(), cut.getMean(), 1e-9);
+    assertEquals(all.getVariance(), cut.getVariance(), 1e-9);
+    assertEquals(all.getMin(), cut.getMin(), 0);
+    assertEquals(all.getMax(), cut.getMax(), 0);
+  }
+}
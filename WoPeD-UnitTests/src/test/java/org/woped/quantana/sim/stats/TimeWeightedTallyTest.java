@@ -0,0 +1,35 @@
+package org.woped.quantana.sim.stats;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TimeWeightedTallyTest {
+
+  @Test
+  public void update_levels_timeAverageAndProportions() throws Exception {
+    TimeWeightedTally cut = new TimeWeightedTally();
+    cut.update(2, 1);
+    cut.update(3, 2);
+    cut.update(7, 0);
+    cut.update(10, 0);
+
+    assertEquals(2, cut.getMax());
+    assertEquals(0.9, cut.getMean(), 1e-12);
+    assertArrayEquals(new double[] {0.5, 0.1, 0.4}, cut.getProportions(), 1e-12);
+  }
+
+  @Test
+  public void restart_warmUp_countsOnlyLaterTime() throws Exception {
+    TimeWeightedTally cut = new TimeWeightedTally();
+    cut.update(0, 20);
+    cut.update(10, 1);
+    cut.restart(10);
+    cut.update(20, 3);
+    cut.update(30, 3);
+
+    assertEquals(2, cut.getMean(), 1e-12);
+    assertEquals(3, cut.getMax());
+  }
+}